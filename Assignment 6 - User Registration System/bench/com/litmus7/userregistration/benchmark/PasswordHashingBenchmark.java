@@ -0,0 +1,77 @@
+package com.litmus7.userregistration.benchmark;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.litmus7.userregistration.util.PasswordHasher;
+
+/**
+ * Password hashing throughput of {@link PasswordHasher} per work factor,
+ * reported in hashes per second.
+ *
+ * <p>
+ * Each invocation submits a burst of passwords and waits for all of them, as
+ * a bulk import does, so every worker stays busy. Throughput falls roughly in
+ * inverse proportion to the iteration count and grows with the number of
+ * workers up to the number of cores; {@code threads = 0} uses one worker per
+ * core. The curve shows the registration rate a work factor can sustain on
+ * this hardware before registrations queue and are rejected.
+ * </p>
+ *
+ * @author Muhammed Irfan
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class PasswordHashingBenchmark {
+
+	private static final int HASHES_PER_INVOCATION = 32;
+
+	@Param({ "10000", "100000", "310000", "600000" })
+	private int iterations;
+
+	@Param({ "1", "0" })
+	private int threads;
+
+	private PasswordHasher passwordHasher;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		// room for the whole burst, so no submission is ever rejected
+		passwordHasher = new PasswordHasher(iterations, threads, HASHES_PER_INVOCATION, Long.MAX_VALUE);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		passwordHasher.close();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(HASHES_PER_INVOCATION)
+	public int hashBurst() {
+		CompletableFuture<?>[] hashes = new CompletableFuture<?>[HASHES_PER_INVOCATION];
+		for (int i = 0; i < HASHES_PER_INVOCATION; i++) {
+			hashes[i] = passwordHasher.hashAsync("password" + i);
+		}
+		CompletableFuture.allOf(hashes).join();
+		return hashes.length;
+	}
+}
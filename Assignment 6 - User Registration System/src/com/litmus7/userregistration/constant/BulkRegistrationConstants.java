@@ -0,0 +1,46 @@
+package com.litmus7.userregistration.constant;
+
+/**
+ * Defines the configuration keys, defaults and file format of bulk
+ * registration.
+ *
+ * <p>
+ * A bulk registration file holds one user per line as
+ * {@code username,age,email,password}. The password is the last field and may
+ * itself contain commas. Blank lines, lines starting with {@code #} and a
+ * leading header line are skipped.
+ * </p>
+ */
+public class BulkRegistrationConstants {
+	/**
+	 * The key used to retrieve how many users are inserted per JDBC batch.
+	 */
+	public static final String BATCH_SIZE_KEY = "bulk.batch.size";
+	/**
+	 * Default number of users inserted per JDBC batch.
+	 */
+	public static final int DEFAULT_BATCH_SIZE = 1000;
+	/**
+	 * Passwords of a bulk request hashed or waiting for a hashing thread at
+	 * once, per hashing thread. The rest of the queue stays free for single
+	 * registrations.
+	 */
+	public static final int HASHES_IN_FLIGHT_PER_THREAD = 2;
+
+	/**
+	 * Separator between the fields of a record.
+	 */
+	public static final String FIELD_SEPARATOR = ",";
+	/**
+	 * Number of fields in a record.
+	 */
+	public static final int FIELD_COUNT = 4;
+	/**
+	 * Prefix of comment lines.
+	 */
+	public static final String COMMENT_PREFIX = "#";
+	/**
+	 * First field of the optional header line.
+	 */
+	public static final String HEADER_FIRST_FIELD = "username";
+}
@@ -25,4 +25,62 @@ public class DBConstants {
      * The key used to retrieve the database password from the properties file.
      */
 	public static final String DB_PASSWORD_KEY = "password";
+    /**
+     * The key used to retrieve the minimum number of pooled connections.
+     */
+	public static final String POOL_MIN_SIZE_KEY = "pool.min.size";
+    /**
+     * The key used to retrieve the maximum number of pooled connections.
+     */
+	public static final String POOL_MAX_SIZE_KEY = "pool.max.size";
+    /**
+     * The key used to retrieve how long an idle connection is kept, in milliseconds.
+     */
+	public static final String POOL_IDLE_TIMEOUT_KEY = "pool.idle.timeout.ms";
+    /**
+     * The key used to retrieve how long a connection is used before it is replaced, in milliseconds.
+     */
+	public static final String POOL_MAX_LIFETIME_KEY = "pool.max.lifetime.ms";
+    /**
+     * The key used to retrieve how long a caller waits for a connection, in milliseconds.
+     */
+	public static final String POOL_BORROW_TIMEOUT_KEY = "pool.borrow.timeout.ms";
+    /**
+     * The key used to retrieve the connection validation timeout, in seconds.
+     */
+	public static final String POOL_VALIDATION_TIMEOUT_KEY = "pool.validation.timeout.seconds";
+    /**
+     * The key used to retrieve how recently a connection must have been returned to skip validation, in milliseconds.
+     */
+	public static final String POOL_VALIDATION_BYPASS_KEY = "pool.validation.bypass.ms";
+
+    /**
+     * Default minimum number of pooled connections.
+     */
+	public static final int DEFAULT_POOL_MIN_SIZE = 2;
+    /**
+     * Default maximum number of pooled connections.
+     */
+	public static final int DEFAULT_POOL_MAX_SIZE = 10;
+    /**
+     * Default idle timeout of a pooled connection, in milliseconds.
+     */
+	public static final long DEFAULT_POOL_IDLE_TIMEOUT = 600_000L;
+    /**
+     * Default maximum lifetime of a pooled connection, in milliseconds. It should
+     * be shorter than the server's {@code wait_timeout}.
+     */
+	public static final long DEFAULT_POOL_MAX_LIFETIME = 1_800_000L;
+    /**
+     * Default time a caller waits for a pooled connection, in milliseconds.
+     */
+	public static final long DEFAULT_POOL_BORROW_TIMEOUT = 30_000L;
+    /**
+     * Default connection validation timeout, in seconds.
+     */
+	public static final int DEFAULT_POOL_VALIDATION_TIMEOUT = 5;
+    /**
+     * Default validation bypass window, in milliseconds. {@code 0} validates on every borrow.
+     */
+	public static final long DEFAULT_POOL_VALIDATION_BYPASS = 500L;
 }
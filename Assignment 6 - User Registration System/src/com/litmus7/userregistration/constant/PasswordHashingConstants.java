@@ -0,0 +1,73 @@
+package com.litmus7.userregistration.constant;
+
+/**
+ * Defines the configuration keys, defaults and storage format of password
+ * hashing.
+ *
+ * <p>
+ * Passwords are stored as
+ * {@code pbkdf2_sha256$<iterations>$<salt>$<hash>}, with the salt and hash
+ * Base64-encoded without padding. The iteration count travels with each
+ * hash, so raising the work factor doesn't invalidate stored passwords.
+ * </p>
+ */
+public class PasswordHashingConstants {
+	/**
+	 * The key used to retrieve the PBKDF2 iteration count, i.e. the work factor.
+	 */
+	public static final String ITERATIONS_KEY = "password.hash.iterations";
+	/**
+	 * The key used to retrieve the number of hashing threads; {@code 0} uses
+	 * one per available processor.
+	 */
+	public static final String THREADS_KEY = "password.hash.threads";
+	/**
+	 * The key used to retrieve how many passwords may wait for a hashing thread.
+	 */
+	public static final String QUEUE_CAPACITY_KEY = "password.hash.queue.capacity";
+	/**
+	 * The key used to retrieve how long a caller waits for room in the queue,
+	 * in milliseconds.
+	 */
+	public static final String SUBMIT_TIMEOUT_KEY = "password.hash.submit.timeout.ms";
+
+	/**
+	 * Default PBKDF2 iteration count, as recommended by OWASP for
+	 * PBKDF2-HMAC-SHA256.
+	 */
+	public static final int DEFAULT_ITERATIONS = 600_000;
+	/**
+	 * Default number of hashing threads; {@code 0} uses one per available
+	 * processor.
+	 */
+	public static final int DEFAULT_THREADS = 0;
+	/**
+	 * Default number of passwords that may wait for a hashing thread.
+	 */
+	public static final int DEFAULT_QUEUE_CAPACITY = 1000;
+	/**
+	 * Default time a caller waits for room in the queue, in milliseconds.
+	 */
+	public static final long DEFAULT_SUBMIT_TIMEOUT = 5_000L;
+
+	/**
+	 * The JCA name of the key derivation function.
+	 */
+	public static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+	/**
+	 * The identifier that starts every stored hash.
+	 */
+	public static final String ENCODING_ID = "pbkdf2_sha256";
+	/**
+	 * Separator between the parts of a stored hash.
+	 */
+	public static final String ENCODING_SEPARATOR = "$";
+	/**
+	 * Length of the random salt, in bytes.
+	 */
+	public static final int SALT_BYTES = 16;
+	/**
+	 * Length of the derived hash, in bits.
+	 */
+	public static final int HASH_BITS = 256;
+}
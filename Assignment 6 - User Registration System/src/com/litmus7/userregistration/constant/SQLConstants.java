@@ -22,6 +22,33 @@ public class SQLConstants {
 	 * SQL query to retrieve a user from the database by username.
 	 */
 	public static final String GET_USER_BY_USERNAME = "SELECT username, age, email, password FROM users WHERE username = ?";
+	/**
+	 * SQL query to retrieve every username, used to warm the username filter.
+	 */
+	public static final String GET_ALL_USERNAMES = "SELECT username FROM users";
+	/**
+	 * Number of rows fetched per round trip while reading every username. Takes
+	 * effect only with {@code useCursorFetch=true} in the connection URL.
+	 */
+	public static final int USERNAME_FETCH_SIZE = 10_000;
+
+	/**
+	 * SQLState class shared by all integrity constraint violations.
+	 */
+	public static final String INTEGRITY_CONSTRAINT_VIOLATION_STATE_CLASS = "23";
+	/**
+	 * Vendor error code reported by MySQL for a duplicate value in a unique key.
+	 * <p>
+	 * The message names the violated key, e.g.
+	 * {@code Duplicate entry 'bob' for key 'users.username'}; the unique keys of
+	 * the {@code users} table are named after their columns.
+	 * </p>
+	 */
+	public static final int DUPLICATE_ENTRY_ERROR_CODE = 1062;
+	/**
+	 * Text preceding the key name in a duplicate entry message.
+	 */
+	public static final String DUPLICATE_KEY_MARKER = "for key '";
 
 	/**
 	 * Column name for the user ID.
@@ -0,0 +1,41 @@
+package com.litmus7.userregistration.constant;
+
+/**
+ * Defines the configuration keys and defaults of the in-memory filter of
+ * taken usernames.
+ *
+ * <p>
+ * The keys are read from the {@code userdb.properties} file and are optional.
+ * </p>
+ */
+public class UsernameFilterConstants {
+	/**
+	 * The key used to turn the filter on or off. When it is off, every
+	 * availability check queries the database.
+	 */
+	public static final String ENABLED_KEY = "username.filter.enabled";
+	/**
+	 * The key used to retrieve how many usernames the first filter stage holds
+	 * before the filter grows.
+	 */
+	public static final String INITIAL_CAPACITY_KEY = "username.filter.initial.capacity";
+	/**
+	 * The key used to retrieve the upper bound of the false-positive rate, i.e.
+	 * the share of checks for free usernames that still query the database.
+	 */
+	public static final String FALSE_POSITIVE_RATE_KEY = "username.filter.false.positive.rate";
+
+	/**
+	 * Default state of the filter.
+	 */
+	public static final boolean DEFAULT_ENABLED = true;
+	/**
+	 * Default capacity of the first filter stage. Sizing it near the number of
+	 * registered users avoids growing the filter during warm-up.
+	 */
+	public static final int DEFAULT_INITIAL_CAPACITY = 100_000;
+	/**
+	 * Default upper bound of the false-positive rate.
+	 */
+	public static final double DEFAULT_FALSE_POSITIVE_RATE = 0.01;
+}
@@ -1,7 +1,13 @@
 package com.litmus7.userregistration.controller;
 
+import java.util.List;
+
+import com.litmus7.userregistration.dto.BulkRegistrationResult;
+import com.litmus7.userregistration.dto.ConnectionPoolStats;
+import com.litmus7.userregistration.dto.PasswordHashingStats;
 import com.litmus7.userregistration.dto.Response;
 import com.litmus7.userregistration.dto.User;
+import com.litmus7.userregistration.dto.UsernameFilterStats;
 import com.litmus7.userregistration.exception.UserRegistrationServiceException;
 import com.litmus7.userregistration.service.UserRegistrationService;
 
@@ -47,4 +53,110 @@ public class UserRegistrationController {
 		}
 		return response;
 	}
+
+	/**
+	 * Registers many users at once. Invalid or duplicate records are reported
+	 * individually and don't stop the others.
+	 *
+	 * @param users the users to register
+	 * @return {@link Response} containing the registered users with their IDs
+	 *         and the per-record errors, or an error message with appropriate
+	 *         status code if the request itself is invalid
+	 */
+	public Response<BulkRegistrationResult> registerUsers(List<User> users) {
+		Response<BulkRegistrationResult> response = new Response<>();
+		try {
+			response.setData(userRegistrationService.registerUsers(users));
+			response.setStatusCode(SUCCESS_CODE);
+		} catch (UserRegistrationServiceException e) {
+			response.setErrorMessage(e.getMessage());
+			response.setStatusCode(ERROR_CODE);
+		}
+		return response;
+	}
+
+	/**
+	 * Registers every user listed in a file with one
+	 * {@code username,age,email,password} record per line.
+	 *
+	 * @param filePath the path of the file to import
+	 * @return {@link Response} containing the registered users with their IDs
+	 *         and the per-record errors, or an error message with appropriate
+	 *         status code if the file cannot be read
+	 */
+	public Response<BulkRegistrationResult> registerUsersFromFile(String filePath) {
+		Response<BulkRegistrationResult> response = new Response<>();
+		if (filePath == null) {
+			response.setErrorMessage("Invalid value for parameters");
+			response.setStatusCode(ERROR_CODE);
+		} else {
+			try {
+				response.setData(userRegistrationService.registerUsersFromFile(filePath));
+				response.setStatusCode(SUCCESS_CODE);
+			} catch (UserRegistrationServiceException e) {
+				response.setErrorMessage(e.getMessage());
+				response.setStatusCode(ERROR_CODE);
+			}
+		}
+		return response;
+	}
+
+	/**
+	 * Checks whether a username is still free, usually without querying the
+	 * database.
+	 *
+	 * @param username the username to check
+	 * @return {@link Response} containing {@code true} if the username is free,
+	 *         or an error message with appropriate status code on failure
+	 */
+	public Response<Boolean> isUsernameAvailable(String username) {
+		Response<Boolean> response = new Response<>();
+		try {
+			response.setData(userRegistrationService.isUsernameAvailable(username));
+			response.setStatusCode(SUCCESS_CODE);
+		} catch (UserRegistrationServiceException e) {
+			response.setErrorMessage(e.getMessage());
+			response.setStatusCode(ERROR_CODE);
+		}
+		return response;
+	}
+
+	/**
+	 * Retrieves the size, false-positive rates and check counters of the
+	 * username filter.
+	 *
+	 * @return {@link Response} containing the filter snapshot
+	 */
+	public Response<UsernameFilterStats> getUsernameFilterStats() {
+		Response<UsernameFilterStats> response = new Response<>();
+		response.setData(userRegistrationService.getUsernameFilterStats());
+		response.setStatusCode(SUCCESS_CODE);
+		return response;
+	}
+
+	/**
+	 * Retrieves the queue depth, latencies and counters of the password hashing
+	 * workers.
+	 *
+	 * @return {@link Response} containing the hasher snapshot
+	 */
+	public Response<PasswordHashingStats> getPasswordHashingStats() {
+		Response<PasswordHashingStats> response = new Response<>();
+		response.setData(userRegistrationService.getPasswordHashingStats());
+		response.setStatusCode(SUCCESS_CODE);
+		return response;
+	}
+
+	/**
+	 * Retrieves the gauges and counters of the database connection pool, such
+	 * as borrowed connections, waiting callers and borrow timeouts.
+	 *
+	 * @return {@link Response} containing the pool snapshot
+	 */
+	public Response<ConnectionPoolStats> getConnectionPoolStats() {
+		Response<ConnectionPoolStats> response = new Response<>();
+		response.setData(userRegistrationService.getConnectionPoolStats());
+		response.setStatusCode(SUCCESS_CODE);
+		return response;
+	}
 }
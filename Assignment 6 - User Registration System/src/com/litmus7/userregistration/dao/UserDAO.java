@@ -1,13 +1,21 @@
 package com.litmus7.userregistration.dao;
 
+import java.sql.BatchUpdateException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
 
 import com.litmus7.userregistration.dto.User;
 import com.litmus7.userregistration.exception.DBConnectionException;
+import com.litmus7.userregistration.exception.EmailAlreadyExistsException;
 import com.litmus7.userregistration.exception.UserDataAccessException;
+import com.litmus7.userregistration.exception.UsernameAlreadyExistsException;
 import com.litmus7.userregistration.util.DBConnection;
 import com.litmus7.userregistration.constant.SQLConstants;
 
@@ -31,21 +39,26 @@ public class UserDAO {
 	 * This method establishes a connection using {@link DBConnection}, prepares an
 	 * SQL INSERT statement, and executes it.
 	 * </p>
+	 * 
+	 * <p>
+	 * Uniqueness of the username and email is left to the unique keys of the
+	 * {@code users} table, so a sign-up costs one round trip and two concurrent
+	 * sign-ups cannot both take the same username.
+	 * </p>
 	 *
 	 * @param user the {@link User} object containing user data
-	 * @throws UserDataAccessException if a database connection cannot be
-	 *                                 established or if an error occurs while
-	 *                                 executing the SQL operation
+	 * @throws UsernameAlreadyExistsException if another user has the username
+	 * @throws EmailAlreadyExistsException    if another user has the email
+	 * @throws UserDataAccessException        if a database connection cannot be
+	 *                                        established or if an error occurs
+	 *                                        while executing the SQL operation
 	 */
 	public User saveUser(User user) throws UserDataAccessException {
 		try (Connection connnection = DBConnection.getConnection();
 				PreparedStatement preparedStatement = connnection.prepareStatement(SQLConstants.INSERT_USER,
 						PreparedStatement.RETURN_GENERATED_KEYS)) {
 
-			preparedStatement.setString(1, user.getUsername());
-			preparedStatement.setInt(2, user.getAge());
-			preparedStatement.setString(3, user.getEmail());
-			preparedStatement.setString(4, user.getPassword());
+			setUserParameters(preparedStatement, user);
 
 			int affectedRows = preparedStatement.executeUpdate();
 			if (affectedRows == 0) {
@@ -64,8 +77,151 @@ public class UserDAO {
 		} catch (DBConnectionException e) {
 			throw new UserDataAccessException(e.getMessage(), e);
 		} catch (SQLException e) {
-			throw new UserDataAccessException("Error occured while saving user to database", e);
+			throw toSaveException(e);
+		}
+	}
+
+	/**
+	 * Saves the given users with one batched INSERT, e.g. for a bulk import.
+	 * 
+	 * <p>
+	 * The batch runs in a single transaction, and each saved user receives its
+	 * generated ID. If any row is rejected, e.g. because its username or email
+	 * is taken, the transaction is rolled back and the users are saved one by
+	 * one instead, so that every other row is still saved and each failure is
+	 * attributed to its user.
+	 * </p>
+	 *
+	 * @param users the users to save
+	 * @return the failure of each user that was not saved, keyed by its index
+	 *         in the list; {@link UsernameAlreadyExistsException} and
+	 *         {@link EmailAlreadyExistsException} mark duplicates
+	 * @throws UserDataAccessException if a database connection cannot be
+	 *                                 established or the batch fails for a
+	 *                                 reason other than rejected rows
+	 */
+	public Map<Integer, UserDataAccessException> saveUsers(List<User> users) throws UserDataAccessException {
+		Map<Integer, UserDataAccessException> failures = new TreeMap<>();
+		if (users.isEmpty()) {
+			return failures;
+		}
+		try (Connection connnection = DBConnection.getConnection();
+				PreparedStatement preparedStatement = connnection.prepareStatement(SQLConstants.INSERT_USER,
+						PreparedStatement.RETURN_GENERATED_KEYS)) {
+
+			connnection.setAutoCommit(false);
+			try {
+				for (User user : users) {
+					setUserParameters(preparedStatement, user);
+					preparedStatement.addBatch();
+				}
+				preparedStatement.executeBatch();
+				try (ResultSet generatedKeys = preparedStatement.getGeneratedKeys()) {
+					for (User user : users) {
+						if (!generatedKeys.next()) {
+							throw new UserDataAccessException("Creating users failed, not every ID obtained.");
+						}
+						user.setId(generatedKeys.getInt(1));
+					}
+				}
+				connnection.commit();
+				return failures;
+
+			} catch (BatchUpdateException e) {
+				connnection.rollback();
+				preparedStatement.clearBatch();
+			} catch (SQLException | UserDataAccessException e) {
+				connnection.rollback();
+				throw e;
+			}
+
+			// some rows were rejected: save each row on its own to attribute the failures
+			connnection.setAutoCommit(true);
+			for (int i = 0; i < users.size(); i++) {
+				User user = users.get(i);
+				user.setId(0);
+				try {
+					setUserParameters(preparedStatement, user);
+					preparedStatement.executeUpdate();
+					try (ResultSet generatedKeys = preparedStatement.getGeneratedKeys()) {
+						if (!generatedKeys.next()) {
+							throw new UserDataAccessException("Creating user failed, no ID obtained.");
+						}
+						user.setId(generatedKeys.getInt(1));
+					}
+				} catch (SQLException e) {
+					failures.put(i, toSaveException(e));
+				} catch (UserDataAccessException e) {
+					failures.put(i, e);
+				}
+			}
+			return failures;
+
+		} catch (DBConnectionException e) {
+			throw new UserDataAccessException(e.getMessage(), e);
+		} catch (SQLException e) {
+			throw new UserDataAccessException("Error occured while saving users to database", e);
+		}
+	}
+
+	private static void setUserParameters(PreparedStatement preparedStatement, User user) throws SQLException {
+		preparedStatement.setString(1, user.getUsername());
+		preparedStatement.setInt(2, user.getAge());
+		preparedStatement.setString(3, user.getEmail());
+		preparedStatement.setString(4, user.getPassword());
+	}
+
+	/**
+	 * Maps a failed INSERT to the exception reported to the service layer,
+	 * telling a taken username or email apart from other failures.
+	 */
+	private static UserDataAccessException toSaveException(SQLException e) {
+		if (isDuplicateEntry(e)) {
+			String key = getViolatedKey(e);
+			if (SQLConstants.USERNAME.equalsIgnoreCase(key)) {
+				return new UsernameAlreadyExistsException("Username already exists", e);
+			}
+			if (SQLConstants.EMAIL.equalsIgnoreCase(key)) {
+				return new EmailAlreadyExistsException("Email already exists", e);
+			}
+		}
+		return new UserDataAccessException("Error occured while saving user to database", e);
+	}
+
+	/**
+	 * Checks whether the exception reports a duplicate value in a unique key.
+	 */
+	private static boolean isDuplicateEntry(SQLException e) {
+		if (e.getErrorCode() == SQLConstants.DUPLICATE_ENTRY_ERROR_CODE) {
+			return true;
+		}
+		return (e instanceof SQLIntegrityConstraintViolationException || (e.getSQLState() != null
+				&& e.getSQLState().startsWith(SQLConstants.INTEGRITY_CONSTRAINT_VIOLATION_STATE_CLASS)))
+				&& getViolatedKey(e) != null;
+	}
+
+	/**
+	 * Extracts the name of the violated key from the error message, without the
+	 * table prefix newer MySQL versions add.
+	 * 
+	 * @return the key name, or {@code null} if the message doesn't name one
+	 */
+	private static String getViolatedKey(SQLException e) {
+		String message = e.getMessage();
+		if (message == null) {
+			return null;
 		}
+		int start = message.lastIndexOf(SQLConstants.DUPLICATE_KEY_MARKER);
+		if (start < 0) {
+			return null;
+		}
+		start += SQLConstants.DUPLICATE_KEY_MARKER.length();
+		int end = message.indexOf('\'', start);
+		if (end < 0) {
+			return null;
+		}
+		String key = message.substring(start, end);
+		return key.substring(key.lastIndexOf('.') + 1);
 	}
 
 	/**
@@ -100,4 +256,39 @@ public class UserDAO {
 			throw new UserDataAccessException("Error while getting user from database", e);
 		}
 	}
+
+	/**
+	 * Passes every registered username to the consumer, e.g. to fill an
+	 * in-memory index.
+	 * 
+	 * <p>
+	 * The rows are read through a server-side cursor in batches of
+	 * {@link SQLConstants#USERNAME_FETCH_SIZE} rather than loaded into one
+	 * list, so the table size doesn't bound the heap. Connector/J only honours
+	 * the fetch size when the URL sets {@code useCursorFetch=true}, as
+	 * {@code userdb.properties} does; without it the driver reads the whole
+	 * result into memory.
+	 * </p>
+	 * 
+	 * @param consumer receives each username
+	 * @throws UserDataAccessException if connection fails or query fails
+	 */
+	public void forEachUsername(Consumer<String> consumer) throws UserDataAccessException {
+		try (Connection connnection = DBConnection.getConnection();
+				PreparedStatement preparedStatement = connnection.prepareStatement(SQLConstants.GET_ALL_USERNAMES)) {
+
+			preparedStatement.setFetchSize(SQLConstants.USERNAME_FETCH_SIZE);
+
+			try (ResultSet resultSet = preparedStatement.executeQuery()) {
+				while (resultSet.next()) {
+					consumer.accept(resultSet.getString(SQLConstants.USERNAME));
+				}
+			}
+
+		} catch (DBConnectionException e) {
+			throw new UserDataAccessException(e.getMessage(), e);
+		} catch (SQLException e) {
+			throw new UserDataAccessException("Error while getting usernames from database", e);
+		}
+	}
 }
@@ -0,0 +1,74 @@
+package com.litmus7.userregistration.dto;
+
+import java.util.List;
+
+/**
+ * The outcome of a bulk registration: the users that were registered, with
+ * their generated IDs, and the reason each other record was rejected.
+ *
+ * @author Muhammed Irfan
+ */
+public class BulkRegistrationResult {
+
+	private final int totalRecords;
+	private final List<User> registeredUsers;
+	private final List<RegistrationError> errors;
+	private final long elapsedNanos;
+
+	/**
+	 * Constructs a {@code BulkRegistrationResult} with the given values.
+	 *
+	 * @param totalRecords    the number of records in the request
+	 * @param registeredUsers the registered users, in record order
+	 * @param errors          the rejected records, in record order
+	 * @param elapsedNanos    the time the registration took
+	 */
+	public BulkRegistrationResult(int totalRecords, List<User> registeredUsers, List<RegistrationError> errors,
+			long elapsedNanos) {
+		this.totalRecords = totalRecords;
+		this.registeredUsers = registeredUsers;
+		this.errors = errors;
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	/**
+	 * @return the number of records in the request
+	 */
+	public int getTotalRecords() {
+		return totalRecords;
+	}
+
+	/**
+	 * @return the registered users with their generated IDs, in record order
+	 */
+	public List<User> getRegisteredUsers() {
+		return registeredUsers;
+	}
+
+	/**
+	 * @return the rejected records, in record order
+	 */
+	public List<RegistrationError> getErrors() {
+		return errors;
+	}
+
+	/**
+	 * @return the time the registration took, in milliseconds
+	 */
+	public double getElapsedMillis() {
+		return elapsedNanos / 1_000_000.0;
+	}
+
+	/**
+	 * @return the number of records processed per second
+	 */
+	public double getRecordsPerSecond() {
+		return elapsedNanos == 0 ? 0 : totalRecords * 1_000_000_000.0 / elapsedNanos;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("Records: %d | Registered: %d | Rejected: %d | Elapsed: %.1f ms | Throughput: %.0f records/s",
+				totalRecords, registeredUsers.size(), errors.size(), getElapsedMillis(), getRecordsPerSecond());
+	}
+}
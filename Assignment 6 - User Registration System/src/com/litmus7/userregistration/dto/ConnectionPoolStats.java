@@ -0,0 +1,155 @@
+package com.litmus7.userregistration.dto;
+
+/**
+ * A point-in-time snapshot of the connection pool gauges and counters.
+ *
+ * <p>
+ * The pool is saturated when every connection is borrowed and callers are
+ * waiting; a growing timeout count or maximum wait means the pool is too
+ * small for the load or connections are held too long.
+ * </p>
+ *
+ * @author Muhammed Irfan
+ */
+public class ConnectionPoolStats {
+
+	private final int totalConnections;
+	private final int activeConnections;
+	private final int idleConnections;
+	private final int pendingBorrowers;
+	private final int maxSize;
+	private final long borrowCount;
+	private final long timeoutCount;
+	private final long totalWaitNanos;
+	private final long maxWaitNanos;
+	private final long createdCount;
+	private final long retiredCount;
+
+	/**
+	 * Constructs a {@code ConnectionPoolStats} with the given values.
+	 *
+	 * @param totalConnections  open physical connections
+	 * @param activeConnections borrowed connections
+	 * @param idleConnections   connections waiting in the pool
+	 * @param pendingBorrowers  callers waiting for a connection
+	 * @param maxSize           the maximum number of physical connections
+	 * @param borrowCount       successful borrows
+	 * @param timeoutCount      borrows that timed out
+	 * @param totalWaitNanos    time borrowers spent waiting for a free slot
+	 * @param maxWaitNanos      the longest wait for a free slot
+	 * @param createdCount      physical connections opened
+	 * @param retiredCount      physical connections closed because they were
+	 *                          invalid, expired or idle too long
+	 */
+	public ConnectionPoolStats(int totalConnections, int activeConnections, int idleConnections,
+			int pendingBorrowers, int maxSize, long borrowCount, long timeoutCount, long totalWaitNanos,
+			long maxWaitNanos, long createdCount, long retiredCount) {
+		this.totalConnections = totalConnections;
+		this.activeConnections = activeConnections;
+		this.idleConnections = idleConnections;
+		this.pendingBorrowers = pendingBorrowers;
+		this.maxSize = maxSize;
+		this.borrowCount = borrowCount;
+		this.timeoutCount = timeoutCount;
+		this.totalWaitNanos = totalWaitNanos;
+		this.maxWaitNanos = maxWaitNanos;
+		this.createdCount = createdCount;
+		this.retiredCount = retiredCount;
+	}
+
+	/**
+	 * @return the number of open physical connections
+	 */
+	public int getTotalConnections() {
+		return totalConnections;
+	}
+
+	/**
+	 * @return the number of borrowed connections
+	 */
+	public int getActiveConnections() {
+		return activeConnections;
+	}
+
+	/**
+	 * @return the number of connections waiting in the pool
+	 */
+	public int getIdleConnections() {
+		return idleConnections;
+	}
+
+	/**
+	 * @return the number of callers waiting for a connection
+	 */
+	public int getPendingBorrowers() {
+		return pendingBorrowers;
+	}
+
+	/**
+	 * @return the maximum number of physical connections
+	 */
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * @return the share of the maximum pool size currently borrowed, from
+	 *         {@code 0.0} to {@code 1.0}
+	 */
+	public double getUtilization() {
+		return (double) activeConnections / maxSize;
+	}
+
+	/**
+	 * @return the number of successful borrows
+	 */
+	public long getBorrowCount() {
+		return borrowCount;
+	}
+
+	/**
+	 * @return the number of borrows that timed out
+	 */
+	public long getTimeoutCount() {
+		return timeoutCount;
+	}
+
+	/**
+	 * @return the average time a successful borrow waited, in milliseconds
+	 */
+	public double getAverageWaitMillis() {
+		return borrowCount == 0 ? 0 : totalWaitNanos / 1_000_000.0 / borrowCount;
+	}
+
+	/**
+	 * @return the longest time a borrow waited, in milliseconds
+	 */
+	public double getMaxWaitMillis() {
+		return maxWaitNanos / 1_000_000.0;
+	}
+
+	/**
+	 * @return the number of physical connections opened
+	 */
+	public long getCreatedCount() {
+		return createdCount;
+	}
+
+	/**
+	 * @return the number of physical connections closed because they were
+	 *         invalid, expired or idle too long
+	 */
+	public long getRetiredCount() {
+		return retiredCount;
+	}
+
+	@Override
+	public String toString() {
+		return String.format(
+				"Total: %d | Active: %d | Idle: %d | Pending: %d | Max: %d | Utilization: %.0f%% | Borrows: %d"
+						+ " | Timeouts: %d | Avg Wait: %.3f ms | Max Wait: %.3f ms | Created: %d | Retired: %d",
+				totalConnections, activeConnections, idleConnections, pendingBorrowers, maxSize,
+				getUtilization() * 100, borrowCount, timeoutCount, getAverageWaitMillis(), getMaxWaitMillis(),
+				createdCount, retiredCount);
+	}
+}
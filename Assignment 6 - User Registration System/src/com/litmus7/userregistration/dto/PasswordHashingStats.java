@@ -0,0 +1,157 @@
+package com.litmus7.userregistration.dto;
+
+/**
+ * A point-in-time snapshot of the password hashing workers.
+ *
+ * <p>
+ * Hashing is saturated when every worker is busy and the queue is growing; a
+ * rising average queue wait or rejected count means the work factor is too
+ * high for the registration rate, or the workers too few.
+ * </p>
+ *
+ * @author Muhammed Irfan
+ */
+public class PasswordHashingStats {
+
+	private final int threads;
+	private final int iterations;
+	private final int queueDepth;
+	private final int queueCapacity;
+	private final int activeWorkers;
+	private final long submittedCount;
+	private final long completedCount;
+	private final long failedCount;
+	private final long rejectedCount;
+	private final long totalQueueWaitNanos;
+	private final long totalHashNanos;
+	private final long maxLatencyNanos;
+
+	/**
+	 * Constructs a {@code PasswordHashingStats} with the given values.
+	 *
+	 * @param threads             the number of hashing threads
+	 * @param iterations          the PBKDF2 iteration count of new hashes
+	 * @param queueDepth          passwords waiting for a thread
+	 * @param queueCapacity       the maximum number of waiting passwords
+	 * @param activeWorkers       threads currently hashing
+	 * @param submittedCount      passwords accepted for hashing or verifying
+	 * @param completedCount      passwords hashed or verified
+	 * @param failedCount         passwords that could not be hashed or verified
+	 * @param rejectedCount       passwords refused because the queue stayed full
+	 * @param totalQueueWaitNanos time finished tasks spent waiting for a thread
+	 * @param totalHashNanos      time finished tasks spent hashing
+	 * @param maxLatencyNanos     the longest wait plus hashing time of a task
+	 */
+	public PasswordHashingStats(int threads, int iterations, int queueDepth, int queueCapacity, int activeWorkers,
+			long submittedCount, long completedCount, long failedCount, long rejectedCount, long totalQueueWaitNanos,
+			long totalHashNanos, long maxLatencyNanos) {
+		this.threads = threads;
+		this.iterations = iterations;
+		this.queueDepth = queueDepth;
+		this.queueCapacity = queueCapacity;
+		this.activeWorkers = activeWorkers;
+		this.submittedCount = submittedCount;
+		this.completedCount = completedCount;
+		this.failedCount = failedCount;
+		this.rejectedCount = rejectedCount;
+		this.totalQueueWaitNanos = totalQueueWaitNanos;
+		this.totalHashNanos = totalHashNanos;
+		this.maxLatencyNanos = maxLatencyNanos;
+	}
+
+	/**
+	 * @return the number of hashing threads
+	 */
+	public int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * @return the PBKDF2 iteration count of new hashes
+	 */
+	public int getIterations() {
+		return iterations;
+	}
+
+	/**
+	 * @return the number of passwords waiting for a thread
+	 */
+	public int getQueueDepth() {
+		return queueDepth;
+	}
+
+	/**
+	 * @return the maximum number of waiting passwords
+	 */
+	public int getQueueCapacity() {
+		return queueCapacity;
+	}
+
+	/**
+	 * @return the number of threads currently hashing
+	 */
+	public int getActiveWorkers() {
+		return activeWorkers;
+	}
+
+	/**
+	 * @return the number of passwords accepted for hashing or verifying
+	 */
+	public long getSubmittedCount() {
+		return submittedCount;
+	}
+
+	/**
+	 * @return the number of passwords hashed or verified
+	 */
+	public long getCompletedCount() {
+		return completedCount;
+	}
+
+	/**
+	 * @return the number of passwords that could not be hashed or verified
+	 */
+	public long getFailedCount() {
+		return failedCount;
+	}
+
+	/**
+	 * @return the number of passwords refused because the queue stayed full
+	 */
+	public long getRejectedCount() {
+		return rejectedCount;
+	}
+
+	/**
+	 * @return the average time a finished task waited for a thread, in
+	 *         milliseconds
+	 */
+	public double getAverageQueueWaitMillis() {
+		long finished = completedCount + failedCount;
+		return finished == 0 ? 0 : totalQueueWaitNanos / 1_000_000.0 / finished;
+	}
+
+	/**
+	 * @return the average time a finished task spent hashing, in milliseconds
+	 */
+	public double getAverageHashMillis() {
+		long finished = completedCount + failedCount;
+		return finished == 0 ? 0 : totalHashNanos / 1_000_000.0 / finished;
+	}
+
+	/**
+	 * @return the longest wait plus hashing time of a task, in milliseconds
+	 */
+	public double getMaxLatencyMillis() {
+		return maxLatencyNanos / 1_000_000.0;
+	}
+
+	@Override
+	public String toString() {
+		return String.format(
+				"Threads: %d | Iterations: %d | Queue: %d/%d | Active: %d | Submitted: %d | Completed: %d"
+						+ " | Failed: %d | Rejected: %d | Avg Queue Wait: %.3f ms | Avg Hash: %.3f ms | Max Latency: %.3f ms",
+				threads, iterations, queueDepth, queueCapacity, activeWorkers, submittedCount, completedCount,
+				failedCount, rejectedCount, getAverageQueueWaitMillis(), getAverageHashMillis(), getMaxLatencyMillis());
+	}
+}
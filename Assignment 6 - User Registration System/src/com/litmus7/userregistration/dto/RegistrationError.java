@@ -0,0 +1,54 @@
+package com.litmus7.userregistration.dto;
+
+/**
+ * The reason one record of a bulk registration was not registered.
+ *
+ * @author Muhammed Irfan
+ */
+public class RegistrationError {
+
+	private final int recordNumber;
+	private final String username;
+	private final String errorMessage;
+
+	/**
+	 * Constructs a {@code RegistrationError} with the given values.
+	 *
+	 * @param recordNumber the 1-based position of the record in the request, or
+	 *                     its line number when read from a file
+	 * @param username     the username of the record, if it could be read
+	 * @param errorMessage why the record was rejected
+	 */
+	public RegistrationError(int recordNumber, String username, String errorMessage) {
+		this.recordNumber = recordNumber;
+		this.username = username;
+		this.errorMessage = errorMessage;
+	}
+
+	/**
+	 * @return the 1-based position of the record in the request, or its line
+	 *         number when read from a file
+	 */
+	public int getRecordNumber() {
+		return recordNumber;
+	}
+
+	/**
+	 * @return the username of the record, or {@code null} if it could not be read
+	 */
+	public String getUsername() {
+		return username;
+	}
+
+	/**
+	 * @return why the record was rejected
+	 */
+	public String getErrorMessage() {
+		return errorMessage;
+	}
+
+	@Override
+	public String toString() {
+		return "Record " + recordNumber + (username == null ? "" : " (" + username + ")") + " : " + errorMessage;
+	}
+}
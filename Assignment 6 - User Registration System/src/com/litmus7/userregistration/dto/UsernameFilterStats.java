@@ -0,0 +1,166 @@
+package com.litmus7.userregistration.dto;
+
+/**
+ * A point-in-time snapshot of the in-memory filter that answers username
+ * availability checks.
+ *
+ * <p>
+ * A check the filter answers as "definitely free" costs no query. A "possibly
+ * taken" answer is confirmed against the database, and when the database
+ * finds no such user the answer was a false positive. The observed
+ * false-positive rate should stay near the configured one; if it climbs, the
+ * filter has outgrown its initial capacity or users are being added behind
+ * its back.
+ * </p>
+ *
+ * @author Muhammed Irfan
+ */
+public class UsernameFilterStats {
+
+	private final boolean enabled;
+	private final boolean ready;
+	private final int usernames;
+	private final int stages;
+	private final long sizeInBytes;
+	private final double configuredFalsePositiveRate;
+	private final double estimatedFalsePositiveRate;
+	private final long checks;
+	private final long definitelyFree;
+	private final long confirmedTaken;
+	private final long falsePositives;
+
+	/**
+	 * Constructs a {@code UsernameFilterStats} with the given values.
+	 *
+	 * @param enabled                     whether the filter is turned on in the
+	 *                                    configuration
+	 * @param ready                       whether the filter was warmed and
+	 *                                    answers checks
+	 * @param usernames                   usernames held by the filter
+	 * @param stages                      Bloom filters chained as the filter grew
+	 * @param sizeInBytes                 memory used by the filter bits
+	 * @param configuredFalsePositiveRate the configured upper bound of the
+	 *                                    false-positive rate
+	 * @param estimatedFalsePositiveRate  the false-positive rate estimated from
+	 *                                    the filter fill
+	 * @param checks                      availability checks made
+	 * @param definitelyFree              checks answered without a query
+	 * @param confirmedTaken              checks the database confirmed as taken
+	 * @param falsePositives              checks the filter passed on but the
+	 *                                    database found free
+	 */
+	public UsernameFilterStats(boolean enabled, boolean ready, int usernames, int stages, long sizeInBytes,
+			double configuredFalsePositiveRate, double estimatedFalsePositiveRate, long checks, long definitelyFree,
+			long confirmedTaken, long falsePositives) {
+		this.enabled = enabled;
+		this.ready = ready;
+		this.usernames = usernames;
+		this.stages = stages;
+		this.sizeInBytes = sizeInBytes;
+		this.configuredFalsePositiveRate = configuredFalsePositiveRate;
+		this.estimatedFalsePositiveRate = estimatedFalsePositiveRate;
+		this.checks = checks;
+		this.definitelyFree = definitelyFree;
+		this.confirmedTaken = confirmedTaken;
+		this.falsePositives = falsePositives;
+	}
+
+	/**
+	 * @return {@code true} if the filter is turned on in the configuration
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * @return {@code true} if the filter was warmed and answers checks;
+	 *         {@code false} if every check queries the database
+	 */
+	public boolean isReady() {
+		return ready;
+	}
+
+	/**
+	 * @return the number of usernames held by the filter
+	 */
+	public int getUsernames() {
+		return usernames;
+	}
+
+	/**
+	 * @return the number of Bloom filters chained as the filter grew
+	 */
+	public int getStages() {
+		return stages;
+	}
+
+	/**
+	 * @return the memory used by the filter bits, in bytes
+	 */
+	public long getSizeInBytes() {
+		return sizeInBytes;
+	}
+
+	/**
+	 * @return the configured upper bound of the false-positive rate
+	 */
+	public double getConfiguredFalsePositiveRate() {
+		return configuredFalsePositiveRate;
+	}
+
+	/**
+	 * @return the false-positive rate estimated from the filter fill
+	 */
+	public double getEstimatedFalsePositiveRate() {
+		return estimatedFalsePositiveRate;
+	}
+
+	/**
+	 * @return the share of checks for free usernames that still queried the
+	 *         database, or {@code 0.0} before the first such check
+	 */
+	public double getObservedFalsePositiveRate() {
+		long freeChecks = definitelyFree + falsePositives;
+		return freeChecks == 0 ? 0 : (double) falsePositives / freeChecks;
+	}
+
+	/**
+	 * @return the number of availability checks made
+	 */
+	public long getChecks() {
+		return checks;
+	}
+
+	/**
+	 * @return the number of checks answered without a query
+	 */
+	public long getDefinitelyFree() {
+		return definitelyFree;
+	}
+
+	/**
+	 * @return the number of checks the database confirmed as taken
+	 */
+	public long getConfirmedTaken() {
+		return confirmedTaken;
+	}
+
+	/**
+	 * @return the number of checks the filter passed on but the database found
+	 *         free
+	 */
+	public long getFalsePositives() {
+		return falsePositives;
+	}
+
+	@Override
+	public String toString() {
+		return String.format(
+				"Enabled: %b | Ready: %b | Usernames: %d | Stages: %d | Size: %d bytes | Configured FPR: %.4f"
+						+ " | Estimated FPR: %.4f | Observed FPR: %.4f | Checks: %d | Definitely Free: %d"
+						+ " | Confirmed Taken: %d | False Positives: %d",
+				enabled, ready, usernames, stages, sizeInBytes, configuredFalsePositiveRate,
+				estimatedFalsePositiveRate, getObservedFalsePositiveRate(), checks, definitelyFree, confirmedTaken,
+				falsePositives);
+	}
+}
@@ -0,0 +1,28 @@
+package com.litmus7.userregistration.exception;
+
+/**
+ * Exception thrown when a password cannot be hashed or verified, e.g. because
+ * the hashing workers are saturated.
+ */
+public class PasswordHashingException extends Exception {
+	/**
+	 * Constructs a new {@code PasswordHashingException} with the specified detail
+	 * message.
+	 * 
+	 * @param errorMessage the detail message explaining the hashing failure
+	 */
+	public PasswordHashingException(String errorMessage) {
+		super(errorMessage);
+	}
+
+	/**
+	 * Constructs a new {@code PasswordHashingException} with the specified detail
+	 * message and cause.
+	 * 
+	 * @param errorMessage the detail message explaining the hashing failure
+	 * @param cause        the underlying cause of the exception
+	 */
+	public PasswordHashingException(String errorMessage, Throwable cause) {
+		super(errorMessage, cause);
+	}
+}
@@ -0,0 +1,18 @@
+package com.litmus7.userregistration.exception;
+
+/**
+ * Exception thrown when a user cannot be saved because another user already
+ * has the same username.
+ */
+public class UsernameAlreadyExistsException extends UserDataAccessException {
+	/**
+	 * Constructs a new {@code UsernameAlreadyExistsException} with the specified
+	 * detail message and cause.
+	 * 
+	 * @param errorMessage the detail message naming the duplicate username
+	 * @param cause        the constraint violation reported by the database
+	 */
+	public UsernameAlreadyExistsException(String errorMessage, Throwable cause) {
+		super(errorMessage, cause);
+	}
+}
@@ -1,7 +1,40 @@
 package com.litmus7.userregistration.service;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+
+import com.litmus7.userregistration.constant.BulkRegistrationConstants;
+import com.litmus7.userregistration.constant.PasswordHashingConstants;
+import com.litmus7.userregistration.constant.UsernameFilterConstants;
 import com.litmus7.userregistration.dao.UserDAO;
+import com.litmus7.userregistration.dto.BulkRegistrationResult;
+import com.litmus7.userregistration.dto.ConnectionPoolStats;
+import com.litmus7.userregistration.dto.PasswordHashingStats;
+import com.litmus7.userregistration.dto.RegistrationError;
 import com.litmus7.userregistration.dto.User;
+import com.litmus7.userregistration.dto.UsernameFilterStats;
+import com.litmus7.userregistration.util.DBConnection;
+import com.litmus7.userregistration.util.PasswordHasher;
+import com.litmus7.userregistration.util.ScalableBloomFilter;
 import com.litmus7.userregistration.exception.*;
 
 import static com.litmus7.userregistration.util.UserInputValidation.*;
@@ -14,22 +47,73 @@ import static com.litmus7.userregistration.util.UserInputValidation.*;
  * This class validates input data for new users. It throws detailed exceptions
  * for various validation failures and wraps them into
  * {@link UserRegistrationServiceException} for the controller layer.
+ * Passwords are hashed on a {@link PasswordHasher} before they are stored.
  * </p>
  * 
  * @author Muhammed Irfan
  */
 public class UserRegistrationService {
 
+	private static final Logger LOGGER = Logger.getLogger(UserRegistrationService.class.getName());
+
 	// DAO instance
 	private UserDAO userDAO = new UserDAO();
 
+	// taken usernames; null when the filter is disabled, and only consulted once it is warm
+	private final boolean usernameFilterEnabled;
+	private final ScalableBloomFilter usernameFilter;
+	private final AtomicBoolean usernameFilterWarming = new AtomicBoolean();
+	private volatile boolean usernameFilterReady;
+	private final LongAdder availabilityChecks = new LongAdder();
+	private final LongAdder definitelyFree = new LongAdder();
+	private final LongAdder confirmedTaken = new LongAdder();
+	private final LongAdder falsePositives = new LongAdder();
+
+	// hashes passwords off the calling thread, on a fixed set of workers
+	private final PasswordHasher passwordHasher = new PasswordHasher(
+			DBConnection.getIntProperty(PasswordHashingConstants.ITERATIONS_KEY,
+					PasswordHashingConstants.DEFAULT_ITERATIONS),
+			DBConnection.getIntProperty(PasswordHashingConstants.THREADS_KEY, PasswordHashingConstants.DEFAULT_THREADS),
+			DBConnection.getIntProperty(PasswordHashingConstants.QUEUE_CAPACITY_KEY,
+					PasswordHashingConstants.DEFAULT_QUEUE_CAPACITY),
+			DBConnection.getLongProperty(PasswordHashingConstants.SUBMIT_TIMEOUT_KEY,
+					PasswordHashingConstants.DEFAULT_SUBMIT_TIMEOUT));
+
+	private final int bulkBatchSize = Math.max(1, DBConnection.getIntProperty(BulkRegistrationConstants.BATCH_SIZE_KEY,
+			BulkRegistrationConstants.DEFAULT_BATCH_SIZE));
+
+	/**
+	 * Creates the service. The filter of taken usernames, unless it is disabled
+	 * in the configuration, is warmed from the {@code users} table in the
+	 * background on the first availability check, so a run that never checks
+	 * a username doesn't scan the table.
+	 */
+	public UserRegistrationService() {
+		usernameFilterEnabled = DBConnection.getBooleanProperty(UsernameFilterConstants.ENABLED_KEY,
+				UsernameFilterConstants.DEFAULT_ENABLED);
+		usernameFilter = usernameFilterEnabled ? new ScalableBloomFilter(
+				DBConnection.getIntProperty(UsernameFilterConstants.INITIAL_CAPACITY_KEY,
+						UsernameFilterConstants.DEFAULT_INITIAL_CAPACITY),
+				DBConnection.getDoubleProperty(UsernameFilterConstants.FALSE_POSITIVE_RATE_KEY,
+						UsernameFilterConstants.DEFAULT_FALSE_POSITIVE_RATE)) : null;
+	}
+
 	/**
 	 * Registers a user after validating input parameters.
 	 * 
 	 * <p>
 	 * If any validation fails, or if saving the user to the database fails, this
 	 * method throws a {@link UserRegistrationServiceException} wrapping the
-	 * original cause.
+	 * original cause. A taken username or email is reported by the insert itself
+	 * as a {@link UsernameAlreadyExistsException} or
+	 * {@link EmailAlreadyExistsException} cause.
+	 * </p>
+	 * 
+	 * <p>
+	 * The password is stored as a PBKDF2 hash. Hashing runs on the
+	 * {@link PasswordHasher} workers while this thread waits; if they stay
+	 * saturated, registration fails with a {@link PasswordHashingException}
+	 * cause instead of queueing without bound.
 	 * </p>
 	 * 
 	 * @param username the username for the new user
@@ -44,31 +128,400 @@ public class UserRegistrationService {
 			throws UserRegistrationServiceException {
 
 		try {
-			if (!isValdUsername(username)) {
-				throw new IllegalArgumentException("Username cannot be empty");
+			validateUser(username, age, email, password);
+
+			// the unique keys on username and email reject duplicates in the insert
+			User user = new User(username, age, email, await(passwordHasher.hashAsync(password)));
+			User registeredUser;
+			try {
+				registeredUser = userDAO.saveUser(user);
+			} catch (UsernameAlreadyExistsException e) {
+				// taken by a user the filter hasn't seen, e.g. one added by another instance
+				addToUsernameFilter(username);
+				throw e;
+			}
+			addToUsernameFilter(username);
+
+			return registeredUser;
+
+		} catch (IllegalArgumentException | InvalidAgeException | InvalidEmailException | WeakPasswordException
+				| PasswordHashingException | UserDataAccessException e) {
+			throw new UserRegistrationServiceException(e.getMessage(), e);
+		}
+
+	}
+
+	/**
+	 * Registers many users at once, e.g. to onboard a customer.
+	 * 
+	 * <p>
+	 * The records are validated in parallel with the same rules as
+	 * {@link #registerUser}. A record whose username or email repeats an earlier
+	 * record of the request is rejected. The remaining users are inserted in
+	 * JDBC batches of {@code bulk.batch.size}, and each registered user receives
+	 * its generated ID. The passwords of a batch are hashed in parallel on the
+	 * {@link PasswordHasher} workers before it is inserted, and replace the
+	 * plaintext in the given users. Only two passwords per worker are handed to
+	 * the hasher at a time, so a bulk request leaves room in its queue for
+	 * single registrations. A rejected record doesn't stop the others; if the
+	 * database becomes unusable, the records not yet inserted are reported as
+	 * failed and batches already inserted stay registered.
+	 * </p>
+	 * 
+	 * @param users the users to register
+	 * @return the registered users and the reason each other record was
+	 *         rejected, numbered by 1-based position in the list
+	 * @throws UserRegistrationServiceException if the list is {@code null}
+	 */
+	public BulkRegistrationResult registerUsers(List<User> users) throws UserRegistrationServiceException {
+		long startNanos = System.nanoTime();
+		if (users == null) {
+			throw new UserRegistrationServiceException("Invalid value for parameters");
+		}
+		int[] recordNumbers = IntStream.rangeClosed(1, users.size()).toArray();
+		return registerRecords(users, recordNumbers, new ArrayList<>(), users.size(), startNanos);
+	}
+
+	/**
+	 * Registers every user listed in a file, as {@link #registerUsers} does.
+	 * 
+	 * <p>
+	 * Each line holds {@code username,age,email,password}; see
+	 * {@link BulkRegistrationConstants} for the format. A line that cannot be
+	 * parsed is reported as a rejected record and doesn't stop the import.
+	 * </p>
+	 * 
+	 * @param filePath the path of the UTF-8 file to import
+	 * @return the registered users and the reason each other record was
+	 *         rejected, numbered by line
+	 * @throws UserRegistrationServiceException if the file cannot be read
+	 */
+	public BulkRegistrationResult registerUsersFromFile(String filePath) throws UserRegistrationServiceException {
+		long startNanos = System.nanoTime();
+		List<User> users = new ArrayList<>();
+		int[] recordNumbers = new int[1024];
+		List<RegistrationError> errors = new ArrayList<>();
+		int totalRecords = 0;
+
+		try (BufferedReader reader = Files.newBufferedReader(Paths.get(filePath), StandardCharsets.UTF_8)) {
+			int lineNumber = 0;
+			String line;
+			while ((line = reader.readLine()) != null) {
+				lineNumber++;
+				String trimmed = line.trim();
+				if (trimmed.isEmpty() || trimmed.startsWith(BulkRegistrationConstants.COMMENT_PREFIX)) {
+					continue;
+				}
+				String[] fields = line.split(BulkRegistrationConstants.FIELD_SEPARATOR,
+						BulkRegistrationConstants.FIELD_COUNT);
+				String username = fields[0].trim();
+				if (totalRecords == 0 && username.equalsIgnoreCase(BulkRegistrationConstants.HEADER_FIRST_FIELD)) {
+					continue;
+				}
+				totalRecords++;
+				if (fields.length < BulkRegistrationConstants.FIELD_COUNT) {
+					errors.add(new RegistrationError(lineNumber, username,
+							"Expected username, age, email and password separated by commas."));
+					continue;
+				}
+				int age;
+				try {
+					age = Integer.parseInt(fields[1].trim());
+				} catch (NumberFormatException e) {
+					errors.add(new RegistrationError(lineNumber, username, "Age must be a number."));
+					continue;
+				}
+				if (users.size() == recordNumbers.length) {
+					recordNumbers = Arrays.copyOf(recordNumbers, recordNumbers.length * 2);
+				}
+				recordNumbers[users.size()] = lineNumber;
+				users.add(new User(username, age, fields[2].trim(), fields[3]));
+			}
+		} catch (IOException | InvalidPathException e) {
+			throw new UserRegistrationServiceException("Couldn't read file " + filePath, e);
+		}
+		return registerRecords(users, recordNumbers, errors, totalRecords, startNanos);
+	}
+
+	/**
+	 * Checks whether a username is still free.
+	 * 
+	 * <p>
+	 * Most checks are for free usernames, so they are first run against an
+	 * in-memory Bloom filter of taken usernames. A "definitely free" answer
+	 * needs no query; only a possible hit is confirmed with
+	 * {@link UserDAO#getUserByUsername(String)}. The answer is advisory: a user
+	 * registered meanwhile, or by another instance since the filter was warmed,
+	 * is still rejected by {@link #registerUser}.
+	 * </p>
+	 * 
+	 * <p>
+	 * The first check starts warming the filter on a background thread; until
+	 * it is warm, or if the usernames cannot be read, checks query the
+	 * database.
+	 * </p>
+	 * 
+	 * @param username the username to check
+	 * @return {@code true} if no user has the username
+	 * @throws UserRegistrationServiceException if the username is empty or the
+	 *                                          database check fails
+	 */
+	public boolean isUsernameAvailable(String username) throws UserRegistrationServiceException {
+		if (!isValdUsername(username)) {
+			throw new UserRegistrationServiceException("Username cannot be empty");
+		}
+		availabilityChecks.increment();
+		ScalableBloomFilter filter = getWarmUsernameFilter();
+		if (filter != null && !filter.mightContain(toFilterKey(username))) {
+			definitelyFree.increment();
+			return true;
+		}
+		try {
+			boolean available = userDAO.getUserByUsername(username) == null;
+			if (filter != null) {
+				if (available) {
+					falsePositives.increment();
+				} else {
+					confirmedTaken.increment();
+				}
+			}
+			return available;
+		} catch (UserDataAccessException e) {
+			throw new UserRegistrationServiceException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Returns the size, configured and observed false-positive rates, and check
+	 * counters of the username filter.
+	 * 
+	 * @return a snapshot of the filter
+	 */
+	public UsernameFilterStats getUsernameFilterStats() {
+		ScalableBloomFilter filter = usernameFilter;
+		return new UsernameFilterStats(usernameFilterEnabled, usernameFilterReady, filter == null ? 0 : filter.size(),
+				filter == null ? 0 : filter.getStageCount(), filter == null ? 0 : filter.getSizeInBytes(),
+				filter == null ? 0 : filter.getFalsePositiveRate(),
+				filter == null ? 0 : filter.getEstimatedFalsePositiveRate(), availabilityChecks.sum(),
+				definitelyFree.sum(), confirmedTaken.sum(), falsePositives.sum());
+	}
+
+	/**
+	 * Returns the queue depth, latencies and counters of the password hashing
+	 * workers.
+	 * 
+	 * @return a snapshot of the hasher
+	 */
+	public PasswordHashingStats getPasswordHashingStats() {
+		return passwordHasher.getStats();
+	}
+
+	/**
+	 * Returns the gauges and counters of the database connection pool.
+	 * 
+	 * @return a snapshot of the pool
+	 */
+	public ConnectionPoolStats getConnectionPoolStats() {
+		return DBConnection.getConnectionPoolStats();
+	}
+
+	/**
+	 * Validates, de-duplicates and inserts the records of a bulk registration.
+	 * 
+	 * @param users         the parsed records
+	 * @param recordNumbers the number reported for each record in errors
+	 * @param errors        the records already rejected while parsing; the
+	 *                      list is completed and sorted by record number
+	 */
+	private BulkRegistrationResult registerRecords(List<User> users, int[] recordNumbers,
+			List<RegistrationError> errors, int totalRecords, long startNanos) {
+		// validate in parallel; each record only writes its own slot
+		String[] rejections = new String[users.size()];
+		IntStream.range(0, users.size()).parallel().forEach(i -> rejections[i] = getValidationError(users.get(i)));
+
+		// the first record with a username or email wins, in record order
+		Set<String> usernames = new HashSet<>();
+		Set<String> emails = new HashSet<>();
+		List<User> accepted = new ArrayList<>(users.size());
+		int[] acceptedRecordNumbers = new int[users.size()];
+		for (int i = 0; i < users.size(); i++) {
+			User user = users.get(i);
+			if (rejections[i] == null) {
+				String usernameKey = toFilterKey(user.getUsername());
+				String emailKey = user.getEmail().toLowerCase(Locale.ROOT);
+				if (usernames.contains(usernameKey)) {
+					rejections[i] = "Username repeats an earlier record.";
+				} else if (emails.contains(emailKey)) {
+					rejections[i] = "Email repeats an earlier record.";
+				} else {
+					usernames.add(usernameKey);
+					emails.add(emailKey);
+					acceptedRecordNumbers[accepted.size()] = recordNumbers[i];
+					accepted.add(user);
+					continue;
+				}
 			}
-			if (!isValidAge(age)) {
-				throw new InvalidAgeException("Age must be between 18 and 60.");
+			errors.add(new RegistrationError(recordNumbers[i], user == null ? null : user.getUsername(),
+					rejections[i]));
+		}
+
+		List<User> registeredUsers = new ArrayList<>(accepted.size());
+		int hashWindow = BulkRegistrationConstants.HASHES_IN_FLIGHT_PER_THREAD * passwordHasher.getThreads();
+		for (int from = 0; from < accepted.size(); from += bulkBatchSize) {
+			int to = Math.min(from + bulkBatchSize, accepted.size());
+
+			// hash the batch on the hashing workers, a window of passwords at a time, then insert it
+			List<CompletableFuture<String>> passwordHashes = new ArrayList<>(to - from);
+			for (int i = from; i < Math.min(from + hashWindow, to); i++) {
+				passwordHashes.add(passwordHasher.hashAsync(accepted.get(i).getPassword()));
 			}
-			if (!isValidEmail(email)) {
-				throw new InvalidEmailException("Invalid email format.");
+			List<User> batch = new ArrayList<>(to - from);
+			int[] batchRecordNumbers = new int[to - from];
+			for (int i = from; i < to; i++) {
+				User user = accepted.get(i);
+				try {
+					String hashedPassword;
+					try {
+						hashedPassword = await(passwordHashes.get(i - from));
+					} finally {
+						// one password left the window, so the next one may enter
+						if (i + hashWindow < to) {
+							passwordHashes.add(passwordHasher.hashAsync(accepted.get(i + hashWindow).getPassword()));
+						}
+					}
+					user.setPassword(hashedPassword);
+					batchRecordNumbers[batch.size()] = acceptedRecordNumbers[i];
+					batch.add(user);
+				} catch (PasswordHashingException e) {
+					errors.add(new RegistrationError(acceptedRecordNumbers[i], user.getUsername(), e.getMessage()));
+				}
 			}
-			if (!isValidPassword(password)) {
-				throw new WeakPasswordException("Password too weak. Must be at least 6 characters.");
+
+			Map<Integer, UserDataAccessException> failures;
+			try {
+				failures = userDAO.saveUsers(batch);
+			} catch (UserDataAccessException e) {
+				// the database is unusable: neither this batch nor the later ones are registered
+				for (int i = 0; i < batch.size(); i++) {
+					errors.add(new RegistrationError(batchRecordNumbers[i], batch.get(i).getUsername(), e.getMessage()));
+				}
+				for (int i = to; i < accepted.size(); i++) {
+					errors.add(new RegistrationError(acceptedRecordNumbers[i], accepted.get(i).getUsername(),
+							e.getMessage()));
+				}
+				break;
 			}
-			if (userDAO.getUserByUsername(username) != null) {
-				throw new IllegalArgumentException("Username already exist");
+			for (int i = 0; i < batch.size(); i++) {
+				User user = batch.get(i);
+				UserDataAccessException failure = failures.get(i);
+				if (failure == null) {
+					registeredUsers.add(user);
+					addToUsernameFilter(user.getUsername());
+				} else {
+					errors.add(new RegistrationError(batchRecordNumbers[i], user.getUsername(), failure.getMessage()));
+					if (failure instanceof UsernameAlreadyExistsException) {
+						addToUsernameFilter(user.getUsername());
+					}
+				}
 			}
+		}
 
-			User user = new User(username, age, email, password);
-			User registeredUser = userDAO.saveUser(user);
+		errors.sort(Comparator.comparingInt(RegistrationError::getRecordNumber));
+		return new BulkRegistrationResult(totalRecords, registeredUsers, errors, System.nanoTime() - startNanos);
+	}
 
-			return registeredUser;
+	/**
+	 * @return why the user cannot be registered, or {@code null} if it is valid
+	 */
+	private static String getValidationError(User user) {
+		if (user == null) {
+			return "Invalid value for parameters";
+		}
+		try {
+			validateUser(user.getUsername(), user.getAge(), user.getEmail(), user.getPassword());
+			return null;
+		} catch (IllegalArgumentException | InvalidAgeException | InvalidEmailException | WeakPasswordException e) {
+			return e.getMessage();
+		}
+	}
 
-		} catch (IllegalArgumentException | InvalidAgeException | InvalidEmailException | WeakPasswordException
-				| UserDataAccessException e) {
-			throw new UserRegistrationServiceException(e.getMessage(), e);
+	private static void validateUser(String username, int age, String email, String password)
+			throws InvalidAgeException, InvalidEmailException, WeakPasswordException {
+		if (!isValdUsername(username)) {
+			throw new IllegalArgumentException("Username cannot be empty");
+		}
+		if (!isValidAge(age)) {
+			throw new InvalidAgeException("Age must be between 18 and 60.");
+		}
+		if (!isValidEmail(email)) {
+			throw new InvalidEmailException("Invalid email format.");
+		}
+		if (!isValidPassword(password)) {
+			throw new WeakPasswordException("Password too weak. Must be at least 6 characters.");
+		}
+	}
+
+	/**
+	 * Waits for a hashing result, unwrapping the failure of the task.
+	 */
+	private static <T> T await(CompletableFuture<T> future) throws PasswordHashingException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new PasswordHashingException("Interrupted while hashing password", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof PasswordHashingException) {
+				throw (PasswordHashingException) e.getCause();
+			}
+			throw new PasswordHashingException("Couldn't hash password", e.getCause());
+		}
+	}
+
+	/**
+	 * Returns the username filter once it is warm. The first call starts
+	 * warming it on a daemon thread and returns {@code null}, as do the calls
+	 * made until it is done.
+	 */
+	private ScalableBloomFilter getWarmUsernameFilter() {
+		if (usernameFilterReady) {
+			return usernameFilter;
 		}
+		if (usernameFilter != null && usernameFilterWarming.compareAndSet(false, true)) {
+			Thread warmer = new Thread(this::warmUsernameFilter, "username-filter-warmer");
+			warmer.setDaemon(true);
+			warmer.start();
+		}
+		return null;
+	}
 
+	/**
+	 * Adds every registered username to the filter. Users registered while it
+	 * runs are added by {@link #addToUsernameFilter(String)} as usual, so none
+	 * is missed.
+	 */
+	private void warmUsernameFilter() {
+		try {
+			userDAO.forEachUsername(username -> usernameFilter.add(toFilterKey(username)));
+			usernameFilterReady = true;
+		} catch (UserDataAccessException e) {
+			LOGGER.log(Level.WARNING, "Couldn't warm the username filter, availability checks will query the database",
+					e);
+		}
+	}
+
+	private void addToUsernameFilter(String username) {
+		if (usernameFilter != null) {
+			usernameFilter.add(toFilterKey(username));
+		}
+	}
+
+	/**
+	 * Folds case and surrounding blanks, which the database collation may
+	 * ignore too. A coarser key only adds false positives, never a wrong
+	 * "definitely free".
+	 */
+	private static String toFilterKey(String username) {
+		return username.trim().toLowerCase(Locale.ROOT);
 	}
 }
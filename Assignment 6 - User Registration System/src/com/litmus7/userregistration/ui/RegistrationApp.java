@@ -3,8 +3,11 @@ package com.litmus7.userregistration.ui;
 import java.util.Scanner;
 
 import com.litmus7.userregistration.controller.UserRegistrationController;
+import com.litmus7.userregistration.dto.BulkRegistrationResult;
+import com.litmus7.userregistration.dto.RegistrationError;
 import com.litmus7.userregistration.dto.Response;
 import com.litmus7.userregistration.dto.User;
+import com.litmus7.userregistration.util.DBConnection;
 
 import static com.litmus7.userregistration.constant.ResponseConstants.*;
 
@@ -18,7 +21,9 @@ import static com.litmus7.userregistration.constant.ResponseConstants.*;
  * </p>
  * 
  * <p>
- * It displays the registration result or error messages accordingly.
+ * It displays the registration result or error messages accordingly. Given a
+ * file path as argument, it instead registers every user listed in the file
+ * and prints a summary and the rejected records.
  * </p>
  * 
  * @author Muhammed Irfan
@@ -30,14 +35,21 @@ public class RegistrationApp {
 	 * 
 	 * <p>
 	 * Reads user input from the console for registration details, calls the
-	 * controller to perform registration, and prints the result.
+	 * controller to perform registration, and prints the result. A taken
+	 * username is reported before the remaining details are asked for.
 	 * </p>
 	 * 
-	 * @param args command-line arguments (not used)
+	 * @param args command-line arguments; an optional path of a file of users to
+	 *             register in bulk
 	 */
 	public static void main(String[] args) {
 
 		UserRegistrationController userRegistrationController = new UserRegistrationController();
+		if (args.length > 0) {
+			registerUsersFromFile(userRegistrationController, args[0]);
+			DBConnection.closeConnectionPool();
+			return;
+		}
 		Response<User> registrationResponse = new Response<>();
 
 		Scanner scanner = new Scanner(System.in);
@@ -45,6 +57,15 @@ public class RegistrationApp {
 		System.out.print("Enter username: ");
 		String username = scanner.nextLine();
 
+		Response<Boolean> availabilityResponse = userRegistrationController.isUsernameAvailable(username);
+		if (availabilityResponse.getStatusCode() != SUCCESS_CODE || !availabilityResponse.getData()) {
+			System.out.println(availabilityResponse.getStatusCode() == SUCCESS_CODE ? "Username already exists"
+					: availabilityResponse.getErrorMessage());
+			scanner.close();
+			DBConnection.closeConnectionPool();
+			return;
+		}
+
 		System.out.print("Enter age: ");
 		int age = scanner.nextInt();
 		scanner.nextLine();
@@ -63,6 +84,27 @@ public class RegistrationApp {
 		}
 
 		scanner.close();
+		DBConnection.closeConnectionPool();
+	}
+
+	/**
+	 * Registers every user listed in the file and prints the rejected records
+	 * followed by a summary.
+	 * 
+	 * @param userRegistrationController the controller to register through
+	 * @param filePath                   the path of the file to import
+	 */
+	private static void registerUsersFromFile(UserRegistrationController userRegistrationController,
+			String filePath) {
+		Response<BulkRegistrationResult> bulkResponse = userRegistrationController.registerUsersFromFile(filePath);
+		if (bulkResponse.getStatusCode() != SUCCESS_CODE) {
+			System.out.println(bulkResponse.getErrorMessage());
+			return;
+		}
+		for (RegistrationError error : bulkResponse.getData().getErrors()) {
+			System.out.println(error);
+		}
+		System.out.println(bulkResponse.getData());
 	}
 
 }
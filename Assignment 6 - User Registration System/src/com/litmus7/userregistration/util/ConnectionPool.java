@@ -0,0 +1,395 @@
+package com.litmus7.userregistration.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.litmus7.userregistration.dto.ConnectionPoolStats;
+import com.litmus7.userregistration.exception.DBConnectionException;
+
+/**
+ * A bounded, self-validating pool of JDBC connections.
+ *
+ * <p>
+ * Callers borrow a connection with {@link #getConnection()} and give it back by
+ * calling {@link Connection#close()} on it, so the usual try-with-resources
+ * pattern keeps working unchanged. The returned object is a proxy around a
+ * physical connection; closing it returns the physical connection to the pool
+ * instead of closing the socket.
+ * </p>
+ *
+ * <p>
+ * The pool never holds more than {@code maxSize} physical connections, and a
+ * borrower waits at most {@code borrowTimeoutMillis} for a free one. An idle
+ * connection is validated before it is handed out, unless it was returned
+ * less than {@code validationBypassMillis} ago. Connections are replaced once
+ * they are older than {@code maxLifetimeMillis}, minus a small random jitter
+ * so they don't all expire together, which keeps them clear of the server's
+ * own idle timeout. A background housekeeper keeps at least {@code minSize}
+ * connections open and closes connections that have been idle longer than
+ * {@code idleTimeoutMillis}.
+ * </p>
+ *
+ * @author Muhammed Irfan
+ */
+public class ConnectionPool {
+
+	private static final Logger LOGGER = Logger.getLogger(ConnectionPool.class.getName());
+
+	private final String url;
+	private final String username;
+	private final String password;
+	private final int minSize;
+	private final int maxSize;
+	private final long idleTimeoutMillis;
+	private final long maxLifetimeMillis;
+	private final long borrowTimeoutMillis;
+	private final int validationTimeoutSeconds;
+	private final long validationBypassMillis;
+
+	private final Semaphore permits;
+	private final LinkedBlockingDeque<PooledConnection> idleConnections = new LinkedBlockingDeque<>();
+	private final Set<PooledConnection> borrowedConnections = ConcurrentHashMap.newKeySet();
+	private final AtomicInteger totalConnections = new AtomicInteger();
+	private final ScheduledExecutorService housekeeper;
+	private volatile boolean closed;
+
+	private final AtomicLong borrowCount = new AtomicLong();
+	private final AtomicLong timeoutCount = new AtomicLong();
+	private final AtomicLong totalWaitNanos = new AtomicLong();
+	private final AtomicLong maxWaitNanos = new AtomicLong();
+	private final AtomicLong createdCount = new AtomicLong();
+	private final AtomicLong retiredCount = new AtomicLong();
+
+	/**
+	 * Creates a pool and starts its housekeeping task.
+	 *
+	 * @param url                      the JDBC url
+	 * @param username                 the database user
+	 * @param password                 the database password
+	 * @param minSize                  the number of connections kept open while
+	 *                                 idle
+	 * @param maxSize                  the maximum number of physical connections
+	 * @param idleTimeoutMillis        how long a connection above {@code minSize}
+	 *                                 may stay idle before it is closed
+	 * @param maxLifetimeMillis        how long a connection is used before it is
+	 *                                 replaced, or {@code 0} to keep it until it
+	 *                                 fails validation
+	 * @param borrowTimeoutMillis      how long a borrower waits for a free
+	 *                                 connection
+	 * @param validationTimeoutSeconds the timeout passed to
+	 *                                 {@link Connection#isValid(int)}
+	 * @param validationBypassMillis   how recently a connection must have been
+	 *                                 returned to be handed out without
+	 *                                 validation, or {@code 0} to validate on
+	 *                                 every borrow
+	 */
+	public ConnectionPool(String url, String username, String password, int minSize, int maxSize,
+			long idleTimeoutMillis, long maxLifetimeMillis, long borrowTimeoutMillis, int validationTimeoutSeconds,
+			long validationBypassMillis) {
+		if (maxSize < 1 || minSize < 0 || minSize > maxSize) {
+			throw new IllegalArgumentException("Invalid pool size, min: " + minSize + ", max: " + maxSize);
+		}
+		this.url = url;
+		this.username = username;
+		this.password = password;
+		this.minSize = minSize;
+		this.maxSize = maxSize;
+		this.idleTimeoutMillis = idleTimeoutMillis;
+		this.maxLifetimeMillis = maxLifetimeMillis;
+		this.borrowTimeoutMillis = borrowTimeoutMillis;
+		this.validationTimeoutSeconds = validationTimeoutSeconds;
+		this.validationBypassMillis = validationBypassMillis;
+		this.permits = new Semaphore(maxSize, true);
+
+		this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "connection-pool-housekeeper");
+			thread.setDaemon(true);
+			return thread;
+		});
+		long shortestTimeout = maxLifetimeMillis > 0 ? Math.min(idleTimeoutMillis, maxLifetimeMillis)
+				: idleTimeoutMillis;
+		long period = Math.max(1000L, Math.min(30_000L, shortestTimeout / 2));
+		housekeeper.scheduleWithFixedDelay(this::houseKeep, 0, period, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Borrows a connection from the pool.
+	 *
+	 * <p>
+	 * An idle connection is reused if it hasn't expired and is still valid;
+	 * otherwise a new physical connection is opened. The caller must close the
+	 * returned connection to give it back.
+	 * </p>
+	 *
+	 * @return a valid {@link Connection}
+	 * @throws DBConnectionException if the pool is closed, no connection becomes
+	 *                               free within the borrow timeout, or a new
+	 *                               connection cannot be opened
+	 */
+	public Connection getConnection() throws DBConnectionException {
+		if (closed) {
+			throw new DBConnectionException("Connection pool is closed");
+		}
+		long waitStart = System.nanoTime();
+		try {
+			if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+				timeoutCount.incrementAndGet();
+				throw new DBConnectionException(
+						"Timed out after " + borrowTimeoutMillis + "ms waiting for a database connection");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new DBConnectionException("Interrupted while waiting for a database connection", e);
+		}
+		recordWait(System.nanoTime() - waitStart);
+
+		try {
+			PooledConnection pooledConnection;
+			long now = System.currentTimeMillis();
+			while ((pooledConnection = idleConnections.pollFirst()) != null) {
+				if (!pooledConnection.isExpired(now) && isUsable(pooledConnection, now)) {
+					return lend(pooledConnection);
+				}
+				retire(pooledConnection);
+			}
+			return lend(open());
+		} catch (DBConnectionException | RuntimeException e) {
+			permits.release();
+			throw e;
+		}
+	}
+
+	/**
+	 * Closes all idle connections and stops the housekeeper. Borrowed connections
+	 * are closed when they are returned.
+	 */
+	public void close() {
+		closed = true;
+		housekeeper.shutdownNow();
+		PooledConnection pooledConnection;
+		while ((pooledConnection = idleConnections.pollFirst()) != null) {
+			discard(pooledConnection);
+		}
+	}
+
+	/**
+	 * Returns the current gauges and the counters since the pool was created.
+	 *
+	 * @return a snapshot of the pool
+	 */
+	public ConnectionPoolStats getStats() {
+		return new ConnectionPoolStats(totalConnections.get(), borrowedConnections.size(), idleConnections.size(),
+				permits.getQueueLength(), maxSize, borrowCount.get(), timeoutCount.get(), totalWaitNanos.get(),
+				maxWaitNanos.get(), createdCount.get(), retiredCount.get());
+	}
+
+	private PooledConnection open() throws DBConnectionException {
+		totalConnections.incrementAndGet();
+		try {
+			PooledConnection pooledConnection = new PooledConnection(
+					DriverManager.getConnection(url, username, password));
+			createdCount.incrementAndGet();
+			return pooledConnection;
+		} catch (SQLException e) {
+			totalConnections.decrementAndGet();
+			throw new DBConnectionException("Couldn't connect to Database", e);
+		}
+	}
+
+	private Connection lend(PooledConnection pooledConnection) {
+		borrowCount.incrementAndGet();
+		borrowedConnections.add(pooledConnection);
+		return pooledConnection.newHandle();
+	}
+
+	private void giveBack(PooledConnection pooledConnection) {
+		borrowedConnections.remove(pooledConnection);
+		try {
+			Connection physical = pooledConnection.physical;
+			long now = System.currentTimeMillis();
+			if (closed || physical.isClosed()) {
+				discard(pooledConnection);
+			} else if (pooledConnection.isExpired(now)) {
+				retire(pooledConnection);
+			} else {
+				if (!physical.getAutoCommit()) {
+					physical.rollback();
+					physical.setAutoCommit(true);
+				}
+				physical.clearWarnings();
+				pooledConnection.lastReturnedAt = now;
+				idleConnections.offerFirst(pooledConnection);
+			}
+		} catch (SQLException e) {
+			retire(pooledConnection);
+		} finally {
+			permits.release();
+		}
+	}
+
+	/**
+	 * Tells whether an idle connection can be handed out. One returned within
+	 * the bypass window was working moments ago and is trusted without a round
+	 * trip to the server.
+	 */
+	private boolean isUsable(PooledConnection pooledConnection, long now) {
+		if (now - pooledConnection.lastReturnedAt < validationBypassMillis) {
+			return true;
+		}
+		try {
+			return pooledConnection.physical.isValid(validationTimeoutSeconds);
+		} catch (SQLException e) {
+			return false;
+		}
+	}
+
+	private void recordWait(long waitNanos) {
+		totalWaitNanos.addAndGet(waitNanos);
+		long max;
+		while (waitNanos > (max = maxWaitNanos.get()) && !maxWaitNanos.compareAndSet(max, waitNanos)) {
+			// another borrower raised the maximum meanwhile; compare again
+		}
+	}
+
+	/**
+	 * Closes a connection the pool no longer wants and counts it as retired.
+	 */
+	private void retire(PooledConnection pooledConnection) {
+		retiredCount.incrementAndGet();
+		discard(pooledConnection);
+	}
+
+	private void discard(PooledConnection pooledConnection) {
+		totalConnections.decrementAndGet();
+		try {
+			pooledConnection.physical.close();
+		} catch (SQLException e) {
+			LOGGER.log(Level.FINE, "Failed to close pooled connection", e);
+		}
+	}
+
+	private void houseKeep() {
+		try {
+			long now = System.currentTimeMillis();
+
+			Iterator<PooledConnection> iterator = idleConnections.descendingIterator();
+			while (iterator.hasNext()) {
+				PooledConnection pooledConnection = iterator.next();
+				boolean idleTooLong = totalConnections.get() > minSize
+						&& now - pooledConnection.lastReturnedAt > idleTimeoutMillis;
+				if ((idleTooLong || pooledConnection.isExpired(now))
+						&& idleConnections.removeLastOccurrence(pooledConnection)) {
+					retire(pooledConnection);
+				}
+			}
+
+			// opening under a permit, like a borrower, keeps the pool within maxSize
+			while (!closed && totalConnections.get() < minSize && permits.tryAcquire()) {
+				try {
+					PooledConnection pooledConnection = open();
+					pooledConnection.lastReturnedAt = now;
+					idleConnections.offerLast(pooledConnection);
+				} catch (DBConnectionException e) {
+					LOGGER.log(Level.WARNING, "Couldn't open connection to keep the pool at its minimum size", e);
+					break;
+				} finally {
+					permits.release();
+				}
+			}
+		} catch (RuntimeException e) {
+			LOGGER.log(Level.WARNING, "Connection pool housekeeping failed", e);
+		}
+	}
+
+	/**
+	 * A physical connection together with its pool bookkeeping.
+	 */
+	private class PooledConnection {
+		private final Connection physical;
+		private final long expiresAt;
+		private volatile long lastReturnedAt;
+
+		private PooledConnection(Connection physical) {
+			this.physical = physical;
+			long jitter = maxLifetimeMillis > 0 ? ThreadLocalRandom.current().nextLong(maxLifetimeMillis / 40 + 1) : 0;
+			this.expiresAt = maxLifetimeMillis > 0 ? System.currentTimeMillis() + maxLifetimeMillis - jitter
+					: Long.MAX_VALUE;
+		}
+
+		private boolean isExpired(long now) {
+			return now >= expiresAt;
+		}
+
+		private Connection newHandle() {
+			return (Connection) Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(),
+					new Class<?>[] { Connection.class }, new Handle(this));
+		}
+	}
+
+	/**
+	 * Proxy handler given to borrowers. Closing it returns the physical
+	 * connection to the pool; any later use of the handle fails.
+	 */
+	private class Handle implements InvocationHandler {
+		private PooledConnection pooledConnection;
+
+		private Handle(PooledConnection pooledConnection) {
+			this.pooledConnection = pooledConnection;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			String name = method.getName();
+			if ("close".equals(name)) {
+				PooledConnection toReturn;
+				synchronized (this) {
+					toReturn = pooledConnection;
+					pooledConnection = null;
+				}
+				if (toReturn != null) {
+					giveBack(toReturn);
+				}
+				return null;
+			}
+			if ("isClosed".equals(name)) {
+				return pooledConnection == null;
+			}
+			if ("equals".equals(name)) {
+				return proxy == args[0];
+			}
+			if ("hashCode".equals(name)) {
+				return System.identityHashCode(proxy);
+			}
+			if ("toString".equals(name)) {
+				return "PooledConnection@" + Integer.toHexString(System.identityHashCode(proxy));
+			}
+			PooledConnection current = pooledConnection;
+			if (current == null) {
+				throw new SQLException("Connection is closed");
+			}
+			try {
+				return method.invoke(current.physical, args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		}
+	}
+}
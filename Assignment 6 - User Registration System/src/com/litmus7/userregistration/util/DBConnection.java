@@ -1,10 +1,9 @@
 package com.litmus7.userregistration.util;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
-import java.sql.SQLException;
 import java.util.Properties;
 
+import com.litmus7.userregistration.dto.ConnectionPoolStats;
 import com.litmus7.userregistration.exception.DBConnectionException;
 import com.litmus7.userregistration.constant.DBConstants;
 
@@ -12,35 +11,39 @@ import java.io.IOException;
 import java.io.InputStream;
 
 /**
- * Utility class responsible for establishing database connections.
+ * Utility class responsible for handing out database connections.
  * 
  * <p>
  * This class reads database configuration properties from the
- * {@code userdb.properties} file and creates a {@link Connection} using
- * {@link DriverManager}.
+ * {@code userdb.properties} file and serves {@link Connection}s from a shared
+ * {@link ConnectionPool}, so a registration reuses open connections instead
+ * of paying a new handshake for every query. Closing a connection obtained
+ * here returns it to the pool. The pool keys are optional and fall back to
+ * the defaults in {@link DBConstants}. Other components read their optional
+ * settings from the same file through the typed getters.
  * </p>
  * 
  * <p>
- * If the properties file is missing, unreadable, or the connection attempt
- * fails, it throws a {@link DBConnectionException}.
+ * If the properties file is missing or unreadable, class loading fails. If
+ * the connection attempt fails or no pooled connection becomes available in
+ * time, it throws a {@link DBConnectionException}.
  * </p>
  * 
  * @author Muhammed Irfan
  */
 public class DBConnection {
 
-	private static String url;
-	private static String username;
-	private static String password;
+	private static Properties properties;
+	private static ConnectionPool connectionPool;
 
 	/**
 	 * Static initializer block to load database configuration from a properties
-	 * file.
+	 * file and create the connection pool.
 	 * 
 	 * <p>
 	 * This block reads the database connection details such as URL, username, and
-	 * password from a properties file at class load time. The file is loaded using
-	 * the class loader, and its values are assigned to static fields.
+	 * password, and the pool sizing and timeouts, from a properties file at class
+	 * load time. The file is loaded using the class loader.
 	 * </p>
 	 * 
 	 * <p>
@@ -57,26 +60,101 @@ public class DBConnection {
 				throw new RuntimeException("Unable to find properties file");
 			}
 			props.load(input);
-			url = props.getProperty(DBConstants.DB_URL_KEY);
-			username = props.getProperty(DBConstants.DB_USERNAME_KEY);
-			password = props.getProperty(DBConstants.DB_PASSWORD_KEY);
+			properties = props;
+			connectionPool = new ConnectionPool(props.getProperty(DBConstants.DB_URL_KEY),
+					props.getProperty(DBConstants.DB_USERNAME_KEY), props.getProperty(DBConstants.DB_PASSWORD_KEY),
+					getIntProperty(DBConstants.POOL_MIN_SIZE_KEY, DBConstants.DEFAULT_POOL_MIN_SIZE),
+					getIntProperty(DBConstants.POOL_MAX_SIZE_KEY, DBConstants.DEFAULT_POOL_MAX_SIZE),
+					getLongProperty(DBConstants.POOL_IDLE_TIMEOUT_KEY, DBConstants.DEFAULT_POOL_IDLE_TIMEOUT),
+					getLongProperty(DBConstants.POOL_MAX_LIFETIME_KEY, DBConstants.DEFAULT_POOL_MAX_LIFETIME),
+					getLongProperty(DBConstants.POOL_BORROW_TIMEOUT_KEY, DBConstants.DEFAULT_POOL_BORROW_TIMEOUT),
+					getIntProperty(DBConstants.POOL_VALIDATION_TIMEOUT_KEY,
+							DBConstants.DEFAULT_POOL_VALIDATION_TIMEOUT),
+					getLongProperty(DBConstants.POOL_VALIDATION_BYPASS_KEY,
+							DBConstants.DEFAULT_POOL_VALIDATION_BYPASS));
 		} catch (IOException e) {
 			throw new RuntimeException("Failed to load DB configuration", e);
 		}
 	}
 
 	/**
-	 * Establishes and returns a connection to the database.
+	 * Borrows a connection to the database from the pool.
 	 * 
 	 * 
 	 * @return a valid {@link Connection} to the database
 	 * @throws DBConnectionException if the connection cannot be established
 	 */
 	public static Connection getConnection() throws DBConnectionException {
-		try {
-			return DriverManager.getConnection(url, username, password);
-		} catch (SQLException e) {
-			throw new DBConnectionException("Couldn't connect to Database", e);
-		}
+		return connectionPool.getConnection();
+	}
+
+	/**
+	 * Returns the gauges and counters of the connection pool, e.g. to tell
+	 * whether it is saturated.
+	 * 
+	 * @return a snapshot of the pool
+	 */
+	public static ConnectionPoolStats getConnectionPoolStats() {
+		return connectionPool.getStats();
+	}
+
+	/**
+	 * Closes every idle pooled connection. Intended to be called once on
+	 * application shutdown.
+	 */
+	public static void closeConnectionPool() {
+		connectionPool.close();
+	}
+
+	/**
+	 * Reads an optional integer from the {@code userdb.properties} file.
+	 * 
+	 * @param key          the property key
+	 * @param defaultValue the value used when the key is missing or blank
+	 * @return the configured value or the default
+	 * @throws NumberFormatException if the value is not an integer
+	 */
+	public static int getIntProperty(String key, int defaultValue) {
+		String value = properties.getProperty(key);
+		return value == null || value.trim().isEmpty() ? defaultValue : Integer.parseInt(value.trim());
+	}
+
+	/**
+	 * Reads an optional long from the {@code userdb.properties} file.
+	 * 
+	 * @param key          the property key
+	 * @param defaultValue the value used when the key is missing or blank
+	 * @return the configured value or the default
+	 * @throws NumberFormatException if the value is not a long
+	 */
+	public static long getLongProperty(String key, long defaultValue) {
+		String value = properties.getProperty(key);
+		return value == null || value.trim().isEmpty() ? defaultValue : Long.parseLong(value.trim());
+	}
+
+	/**
+	 * Reads an optional decimal number from the {@code userdb.properties} file.
+	 * 
+	 * @param key          the property key
+	 * @param defaultValue the value used when the key is missing or blank
+	 * @return the configured value or the default
+	 * @throws NumberFormatException if the value is not a number
+	 */
+	public static double getDoubleProperty(String key, double defaultValue) {
+		String value = properties.getProperty(key);
+		return value == null || value.trim().isEmpty() ? defaultValue : Double.parseDouble(value.trim());
+	}
+
+	/**
+	 * Reads an optional flag from the {@code userdb.properties} file.
+	 * 
+	 * @param key          the property key
+	 * @param defaultValue the value used when the key is missing or blank
+	 * @return {@code true} if the value is {@code true} ignoring case, the
+	 *         default if it is missing, {@code false} otherwise
+	 */
+	public static boolean getBooleanProperty(String key, boolean defaultValue) {
+		String value = properties.getProperty(key);
+		return value == null || value.trim().isEmpty() ? defaultValue : Boolean.parseBoolean(value.trim());
 	}
 }
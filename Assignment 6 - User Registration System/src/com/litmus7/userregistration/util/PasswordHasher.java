@@ -0,0 +1,261 @@
+package com.litmus7.userregistration.util;
+
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+import com.litmus7.userregistration.constant.PasswordHashingConstants;
+import com.litmus7.userregistration.dto.PasswordHashingStats;
+import com.litmus7.userregistration.exception.PasswordHashingException;
+
+/**
+ * Hashes and verifies passwords with PBKDF2-HMAC-SHA256 on a dedicated, fixed
+ * set of worker threads.
+ *
+ * <p>
+ * A hash costs tens to hundreds of milliseconds of CPU by design, so the work
+ * never runs on the caller's thread: {@link #hashAsync(String)} and
+ * {@link #verifyAsync(String, String)} queue it for one of {@code threads}
+ * workers and return a future. At most {@code queueCapacity} passwords wait
+ * for a worker; a caller finding the queue full waits up to
+ * {@code submitTimeoutMillis} for room, and then gets a future failed with a
+ * {@link PasswordHashingException}. Hashing load therefore never takes more
+ * than the configured threads, however many registrations arrive.
+ * </p>
+ *
+ * <p>
+ * The futures complete on a worker thread, so callers should block on them or
+ * continue with the {@code *Async} variants rather than run further work on
+ * the workers.
+ * </p>
+ *
+ * @author Muhammed Irfan
+ */
+public class PasswordHasher {
+
+	private static final Pattern ENCODING_SEPARATOR = Pattern
+			.compile(Pattern.quote(PasswordHashingConstants.ENCODING_SEPARATOR));
+
+	private final int iterations;
+	private final int threads;
+	private final int queueCapacity;
+	private final long submitTimeoutMillis;
+
+	private final SecureRandom random = new SecureRandom();
+	private final Semaphore slots;
+	private final ThreadPoolExecutor workers;
+
+	// counters since the hasher was created
+	private final AtomicLong submittedCount = new AtomicLong();
+	private final AtomicLong completedCount = new AtomicLong();
+	private final AtomicLong failedCount = new AtomicLong();
+	private final AtomicLong rejectedCount = new AtomicLong();
+	private final AtomicLong totalQueueWaitNanos = new AtomicLong();
+	private final AtomicLong totalHashNanos = new AtomicLong();
+	private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+	/**
+	 * Creates a hasher and starts its workers.
+	 *
+	 * @param iterations          the PBKDF2 iteration count of new hashes
+	 * @param threads             the number of worker threads; {@code 0} or less
+	 *                            uses one per available processor
+	 * @param queueCapacity       the maximum number of passwords waiting for a
+	 *                            worker
+	 * @param submitTimeoutMillis how long a caller waits for room in a full
+	 *                            queue
+	 * @throws IllegalArgumentException if the iteration count is not positive or
+	 *                                  the queue capacity is negative
+	 */
+	public PasswordHasher(int iterations, int threads, int queueCapacity, long submitTimeoutMillis) {
+		if (iterations <= 0) {
+			throw new IllegalArgumentException("Iteration count must be positive");
+		}
+		if (queueCapacity < 0) {
+			throw new IllegalArgumentException("Queue capacity cannot be negative");
+		}
+		this.iterations = iterations;
+		this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+		this.queueCapacity = queueCapacity;
+		this.submitTimeoutMillis = submitTimeoutMillis;
+		this.slots = new Semaphore(this.threads + queueCapacity, true);
+
+		AtomicInteger threadNumber = new AtomicInteger();
+		this.workers = new ThreadPoolExecutor(this.threads, this.threads, 0L, TimeUnit.MILLISECONDS,
+				new LinkedBlockingQueue<>(), runnable -> {
+					Thread thread = new Thread(runnable, "password-hasher-" + threadNumber.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+		this.workers.prestartAllCoreThreads();
+	}
+
+	/**
+	 * Hashes a password with a new random salt on a worker thread.
+	 *
+	 * @param password the plaintext password
+	 * @return a future of the encoded hash, failed with a
+	 *         {@link PasswordHashingException} if the queue stayed full or the
+	 *         hash could not be computed
+	 */
+	public CompletableFuture<String> hashAsync(String password) {
+		return submit(() -> {
+			byte[] salt = new byte[PasswordHashingConstants.SALT_BYTES];
+			random.nextBytes(salt);
+			byte[] hash = pbkdf2(password, salt, iterations);
+			Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+			return PasswordHashingConstants.ENCODING_ID + PasswordHashingConstants.ENCODING_SEPARATOR + iterations
+					+ PasswordHashingConstants.ENCODING_SEPARATOR + encoder.encodeToString(salt)
+					+ PasswordHashingConstants.ENCODING_SEPARATOR + encoder.encodeToString(hash);
+		});
+	}
+
+	/**
+	 * Checks a password against an encoded hash on a worker thread. The hash is
+	 * recomputed with the iteration count stored in it, so hashes made with an
+	 * older work factor still verify.
+	 *
+	 * @param password the plaintext password
+	 * @param encoded  a hash made by {@link #hashAsync(String)}
+	 * @return a future of whether the password matches, failed with a
+	 *         {@link PasswordHashingException} if the queue stayed full or the
+	 *         hash is malformed
+	 */
+	public CompletableFuture<Boolean> verifyAsync(String password, String encoded) {
+		return submit(() -> {
+			String[] parts = encoded == null ? new String[0] : ENCODING_SEPARATOR.split(encoded);
+			if (parts.length != 4 || !PasswordHashingConstants.ENCODING_ID.equals(parts[0])) {
+				throw new PasswordHashingException("Unsupported password hash format");
+			}
+			try {
+				byte[] salt = Base64.getDecoder().decode(parts[2]);
+				byte[] expected = Base64.getDecoder().decode(parts[3]);
+				byte[] actual = pbkdf2(password, salt, Integer.parseInt(parts[1]));
+				return MessageDigest.isEqual(expected, actual);
+			} catch (IllegalArgumentException e) {
+				throw new PasswordHashingException("Malformed password hash", e);
+			}
+		});
+	}
+
+	/**
+	 * @return the PBKDF2 iteration count of new hashes
+	 */
+	public int getIterations() {
+		return iterations;
+	}
+
+	/**
+	 * @return the number of worker threads
+	 */
+	public int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * Returns the current gauges and the counters since the hasher was created.
+	 *
+	 * @return a snapshot of the hasher
+	 */
+	public PasswordHashingStats getStats() {
+		return new PasswordHashingStats(threads, iterations, workers.getQueue().size(), queueCapacity,
+				workers.getActiveCount(), submittedCount.get(), completedCount.get(), failedCount.get(),
+				rejectedCount.get(), totalQueueWaitNanos.get(), totalHashNanos.get(), maxLatencyNanos.get());
+	}
+
+	/**
+	 * Stops the workers once the queued passwords are done. Later calls return
+	 * failed futures.
+	 */
+	public void close() {
+		workers.shutdown();
+	}
+
+	/**
+	 * Queues a task once there is room, recording how long it waited and ran.
+	 */
+	private <T> CompletableFuture<T> submit(HashingTask<T> task) {
+		CompletableFuture<T> future = new CompletableFuture<>();
+		try {
+			if (!slots.tryAcquire(submitTimeoutMillis, TimeUnit.MILLISECONDS)) {
+				rejectedCount.incrementAndGet();
+				future.completeExceptionally(
+						new PasswordHashingException("Password hashing is saturated, please try again later"));
+				return future;
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			future.completeExceptionally(new PasswordHashingException("Interrupted while waiting to hash password", e));
+			return future;
+		}
+
+		long queuedAt = System.nanoTime();
+		submittedCount.incrementAndGet();
+		try {
+			workers.execute(() -> {
+				long startedAt = System.nanoTime();
+				try {
+					T result = task.run();
+					completedCount.incrementAndGet();
+					future.complete(result);
+				} catch (PasswordHashingException | RuntimeException e) {
+					failedCount.incrementAndGet();
+					future.completeExceptionally(e);
+				} finally {
+					long finishedAt = System.nanoTime();
+					slots.release();
+					recordTimes(startedAt - queuedAt, finishedAt - startedAt);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			slots.release();
+			submittedCount.decrementAndGet();
+			rejectedCount.incrementAndGet();
+			future.completeExceptionally(new PasswordHashingException("Password hasher is closed", e));
+		}
+		return future;
+	}
+
+	private void recordTimes(long queueWaitNanos, long hashNanos) {
+		totalQueueWaitNanos.addAndGet(queueWaitNanos);
+		totalHashNanos.addAndGet(hashNanos);
+		long latency = queueWaitNanos + hashNanos;
+		long max;
+		while (latency > (max = maxLatencyNanos.get()) && !maxLatencyNanos.compareAndSet(max, latency)) {
+			// another task raised the maximum meanwhile; compare again
+		}
+	}
+
+	private static byte[] pbkdf2(String password, byte[] salt, int iterations) throws PasswordHashingException {
+		PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations,
+				PasswordHashingConstants.HASH_BITS);
+		try {
+			return SecretKeyFactory.getInstance(PasswordHashingConstants.ALGORITHM).generateSecret(spec).getEncoded();
+		} catch (GeneralSecurityException e) {
+			throw new PasswordHashingException("Couldn't hash password", e);
+		} finally {
+			spec.clearPassword();
+		}
+	}
+
+	/**
+	 * A unit of hashing work run on a worker thread.
+	 */
+	@FunctionalInterface
+	private interface HashingTask<T> {
+		T run() throws PasswordHashingException;
+	}
+}
@@ -0,0 +1,268 @@
+package com.litmus7.userregistration.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A scalable Bloom filter of strings: a set that may answer "possibly
+ * present" for a string that was never added, but never answers "absent" for
+ * one that was.
+ *
+ * <p>
+ * The filter is a chain of plain Bloom filters. When the newest one has taken
+ * its capacity, a new one twice as large is appended, with a false-positive
+ * rate half that of the previous one. The rates form a geometric series, so
+ * the compound rate stays below the configured one however many strings are
+ * added, without knowing the final count up front.
+ * </p>
+ *
+ * <p>
+ * Adds and lookups are thread-safe and lock-free, except for the rare add that
+ * appends a new stage. Bits are never cleared, so strings cannot be removed.
+ * </p>
+ *
+ * @author Muhammed Irfan
+ */
+public class ScalableBloomFilter {
+
+	private static final int GROWTH_FACTOR = 2;
+	private static final double TIGHTENING_RATIO = 0.5;
+
+	private final int initialCapacity;
+	private final double falsePositiveRate;
+	private final AtomicInteger count = new AtomicInteger();
+
+	private volatile Stage[] stages;
+
+	/**
+	 * Creates an empty filter.
+	 *
+	 * @param initialCapacity   the number of strings the first stage holds
+	 * @param falsePositiveRate the upper bound of the compound false-positive
+	 *                          rate, e.g. {@code 0.01}
+	 * @throws IllegalArgumentException if the capacity is not positive or the
+	 *                                  rate is not between 0 and 1
+	 */
+	public ScalableBloomFilter(int initialCapacity, double falsePositiveRate) {
+		if (initialCapacity <= 0) {
+			throw new IllegalArgumentException("Initial capacity must be positive");
+		}
+		if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+			throw new IllegalArgumentException("False-positive rate must be between 0 and 1");
+		}
+		this.initialCapacity = initialCapacity;
+		this.falsePositiveRate = falsePositiveRate;
+		this.stages = new Stage[] { new Stage(initialCapacity, falsePositiveRate * (1 - TIGHTENING_RATIO)) };
+	}
+
+	/**
+	 * Checks whether the string may have been added.
+	 *
+	 * @param value the string to look up
+	 * @return {@code false} if the string was definitely never added
+	 */
+	public boolean mightContain(String value) {
+		long hash = hash(value);
+		for (Stage stage : stages) {
+			if (stage.mightContain(hash)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Adds the string. Strings the filter already reports as possibly present
+	 * are skipped, so adding the same string again doesn't use up capacity.
+	 *
+	 * @param value the string to add
+	 */
+	public void add(String value) {
+		long hash = hash(value);
+		Stage[] current = stages;
+		for (Stage stage : current) {
+			if (stage.mightContain(hash)) {
+				return;
+			}
+		}
+		Stage last = current[current.length - 1];
+		while (!last.reserve()) {
+			last = grow(last);
+		}
+		last.add(hash);
+		count.incrementAndGet();
+	}
+
+	/**
+	 * @return the configured upper bound of the false-positive rate
+	 */
+	public double getFalsePositiveRate() {
+		return falsePositiveRate;
+	}
+
+	/**
+	 * Estimates the current false-positive rate from the share of bits set in
+	 * each stage. It stays below {@link #getFalsePositiveRate()} while the
+	 * filter is used as intended.
+	 *
+	 * @return the chance that a lookup of a string never added answers
+	 *         "possibly present"
+	 */
+	public double getEstimatedFalsePositiveRate() {
+		double allNegative = 1;
+		for (Stage stage : stages) {
+			allNegative *= 1 - stage.getEstimatedFalsePositiveRate();
+		}
+		return 1 - allNegative;
+	}
+
+	/**
+	 * @return the number of distinct strings added, not counting those that
+	 *         were skipped as possibly present
+	 */
+	public int size() {
+		return count.get();
+	}
+
+	/**
+	 * @return the number of chained Bloom filters
+	 */
+	public int getStageCount() {
+		return stages.length;
+	}
+
+	/**
+	 * @return the memory used by the bit arrays, in bytes
+	 */
+	public long getSizeInBytes() {
+		long bytes = 0;
+		for (Stage stage : stages) {
+			bytes += (long) stage.bits.length() * Long.BYTES;
+		}
+		return bytes;
+	}
+
+	/**
+	 * Appends a new stage unless another thread already did.
+	 *
+	 * @return the newest stage
+	 */
+	private synchronized Stage grow(Stage full) {
+		Stage[] current = stages;
+		Stage last = current[current.length - 1];
+		if (last != full) {
+			return last;
+		}
+		long capacity = Math.min((long) full.capacity * GROWTH_FACTOR, Integer.MAX_VALUE);
+		Stage next = new Stage((int) capacity, full.falsePositiveRate * TIGHTENING_RATIO);
+		Stage[] grown = Arrays.copyOf(current, current.length + 1);
+		grown[current.length] = next;
+		stages = grown;
+		return next;
+	}
+
+	/**
+	 * Hashes the UTF-8 bytes of the string with 64-bit FNV-1a and a final mix,
+	 * so every bit of the result depends on every byte.
+	 */
+	private static long hash(String value) {
+		long hash = 0xcbf29ce484222325L;
+		for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+			hash ^= b & 0xff;
+			hash *= 0x100000001b3L;
+		}
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		hash *= 0xc4ceb9fe1a85ec53L;
+		hash ^= hash >>> 33;
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("ScalableBloomFilter[size=%d, stages=%d, bytes=%d, initialCapacity=%d, fpp=%s]", size(),
+				getStageCount(), getSizeInBytes(), initialCapacity, falsePositiveRate);
+	}
+
+	/**
+	 * One plain Bloom filter sized for its capacity and false-positive rate.
+	 * The bit positions are derived from one 64-bit hash by double hashing; the
+	 * step is kept odd so the probes never collapse onto one bit.
+	 */
+	private static final class Stage {
+		private final int capacity;
+		private final double falsePositiveRate;
+		private final long bitCount;
+		private final int hashCount;
+		private final AtomicLongArray bits;
+		private final AtomicInteger reserved = new AtomicInteger();
+		private final AtomicLong setBits = new AtomicLong();
+
+		Stage(int capacity, double falsePositiveRate) {
+			this.capacity = capacity;
+			this.falsePositiveRate = falsePositiveRate;
+			double ln2 = Math.log(2);
+			this.hashCount = Math.max(1, (int) Math.ceil(-Math.log(falsePositiveRate) / ln2));
+			// enough bits that a full stage has about half of them set, so its rate is at most 2^-hashCount
+			long words = (long) Math.ceil(hashCount * (double) capacity / ln2 / Long.SIZE);
+			this.bits = new AtomicLongArray((int) Math.max(1, Math.min(words, Integer.MAX_VALUE - 8)));
+			this.bitCount = (long) bits.length() * Long.SIZE;
+		}
+
+		/**
+		 * Claims room for one more string.
+		 *
+		 * @return {@code false} if the stage is full
+		 */
+		boolean reserve() {
+			int current;
+			do {
+				current = reserved.get();
+				if (current >= capacity) {
+					return false;
+				}
+			} while (!reserved.compareAndSet(current, current + 1));
+			return true;
+		}
+
+		void add(long hash) {
+			int low = (int) hash;
+			int high = (int) (hash >>> 32) | 1;
+			for (int i = 0; i < hashCount; i++) {
+				long bit = Math.floorMod(low + (long) i * high, bitCount);
+				int word = (int) (bit >>> 6);
+				long mask = 1L << bit;
+				long previous;
+				do {
+					previous = bits.get(word);
+					if ((previous & mask) != 0) {
+						break;
+					}
+				} while (!bits.compareAndSet(word, previous, previous | mask));
+				if ((previous & mask) == 0) {
+					setBits.incrementAndGet();
+				}
+			}
+		}
+
+		boolean mightContain(long hash) {
+			int low = (int) hash;
+			int high = (int) (hash >>> 32) | 1;
+			for (int i = 0; i < hashCount; i++) {
+				long bit = Math.floorMod(low + (long) i * high, bitCount);
+				if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		double getEstimatedFalsePositiveRate() {
+			return Math.pow((double) setBits.get() / bitCount, hashCount);
+		}
+	}
+}
@@ -0,0 +1,102 @@
+package com.litmus7.retailproductcatalog.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.litmus7.retailproductcatalog.dao.impl.ProductDAOImpl;
+import com.litmus7.retailproductcatalog.dto.BatchResult;
+import com.litmus7.retailproductcatalog.dto.Product;
+import com.litmus7.retailproductcatalog.exception.DBConnectionException;
+import com.litmus7.retailproductcatalog.exception.ProductDataAccessException;
+import com.litmus7.retailproductcatalog.util.DBUtil;
+
+/**
+ * Prepares the embedded benchmark database.
+ *
+ * <p>
+ * The {@code products} table is created from the {@code CREATE TABLE}
+ * statement in {@code retaildb.sql}, so the benchmarks always run against the
+ * same schema as the application.
+ * </p>
+ *
+ * @author Muhammed Irfan
+ */
+public class BenchmarkDatabase {
+
+	private static final String SCHEMA_FILE = "retaildb.sql";
+	private static final Pattern CREATE_PRODUCTS_TABLE = Pattern
+			.compile("CREATE TABLE products\\s*\\(.*?\\)\\s*;", Pattern.DOTALL | Pattern.CASE_INSENSITIVE);
+
+	/**
+	 * Drops and re-creates the {@code products} table.
+	 *
+	 * @throws IOException           if {@code retaildb.sql} cannot be read
+	 * @throws SQLException          if the DDL fails
+	 * @throws DBConnectionException if no connection is available
+	 */
+	public static void createSchema() throws IOException, SQLException, DBConnectionException {
+		String script = new String(Files.readAllBytes(Paths.get(SCHEMA_FILE)), StandardCharsets.UTF_8);
+		Matcher matcher = CREATE_PRODUCTS_TABLE.matcher(script);
+		if (!matcher.find()) {
+			throw new IllegalStateException("No CREATE TABLE products statement in " + SCHEMA_FILE);
+		}
+		String createTable = matcher.group();
+
+		try (Connection connection = DBUtil.getConnection(); Statement statement = connection.createStatement()) {
+			statement.execute("DROP TABLE IF EXISTS products");
+			statement.execute(createTable.substring(0, createTable.lastIndexOf(';')));
+		}
+	}
+
+	/**
+	 * Removes every row of the {@code products} table.
+	 *
+	 * @throws SQLException          if the statement fails
+	 * @throws DBConnectionException if no connection is available
+	 */
+	public static void truncate() throws SQLException, DBConnectionException {
+		try (Connection connection = DBUtil.getConnection(); Statement statement = connection.createStatement()) {
+			statement.execute("TRUNCATE TABLE products");
+		}
+	}
+
+	/**
+	 * Inserts products with IDs {@code 1..rowCount}.
+	 *
+	 * @param rowCount the number of products to insert
+	 * @throws ProductDataAccessException if the insert fails
+	 */
+	public static void populate(int rowCount) throws ProductDataAccessException {
+		ProductDAOImpl productDAO = new ProductDAOImpl();
+		int chunk = 10_000;
+		for (int first = 1; first <= rowCount; first += chunk) {
+			List<Product> products = new ArrayList<>(chunk);
+			for (int id = first; id < first + chunk && id <= rowCount; id++) {
+				products.add(newProduct(id));
+			}
+			BatchResult result = productDAO.addProducts(products);
+			if (result.getFailureCount() > 0) {
+				throw new IllegalStateException("Failed to populate benchmark table: " + result);
+			}
+		}
+	}
+
+	/**
+	 * Creates a product with deterministic values for the given ID.
+	 *
+	 * @param id the product ID
+	 * @return a valid product
+	 */
+	public static Product newProduct(int id) {
+		return new Product(id, "Product " + id, "Category " + (id % 50), 1 + (id % 1000) / 10.0, 1 + id % 500);
+	}
+}
@@ -0,0 +1,40 @@
+package com.litmus7.retailproductcatalog.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs every benchmark in this package and writes the results as JSON.
+ *
+ * <p>
+ * Run it from the project directory, so that {@code retaildb.sql} can be
+ * found, with the {@code src} and {@code bench} folders and the JMH and H2 jars
+ * on the classpath. The first argument is the result file; it defaults to
+ * {@code jmh-result.json}. Comparing the files of two releases shows
+ * regressions per benchmark and table size.
+ * </p>
+ *
+ * @author Muhammed Irfan
+ */
+public class BenchmarkRunner {
+
+	private static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+	/**
+	 * Entry point of the benchmark run.
+	 *
+	 * @param args an optional result file path
+	 * @throws RunnerException if JMH fails to run the benchmarks
+	 */
+	public static void main(String[] args) throws RunnerException {
+		Options options = new OptionsBuilder()
+				.include(BenchmarkRunner.class.getPackage().getName() + ".*Benchmark")
+				.resultFormat(ResultFormatType.JSON)
+				.result(args.length > 0 ? args[0] : DEFAULT_RESULT_FILE)
+				.build();
+		new Runner(options).run();
+	}
+}
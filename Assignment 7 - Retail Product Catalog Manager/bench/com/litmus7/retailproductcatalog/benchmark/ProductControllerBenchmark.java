@@ -0,0 +1,59 @@
+package com.litmus7.retailproductcatalog.benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.litmus7.retailproductcatalog.controller.RetailProductController;
+import com.litmus7.retailproductcatalog.dto.Product;
+import com.litmus7.retailproductcatalog.dto.Response;
+
+/**
+ * Round trips through {@link RetailProductController}, including validation,
+ * the service layer and the {@link Response} wrapper.
+ *
+ * @author Muhammed Irfan
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dretaildb.config=RetailDB-bench.properties")
+public class ProductControllerBenchmark {
+
+	private static final int TABLE_SIZE = 10_000;
+
+	private RetailProductController retailProductController;
+	private int nextId;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		BenchmarkDatabase.createSchema();
+		BenchmarkDatabase.populate(TABLE_SIZE);
+		retailProductController = new RetailProductController();
+		nextId = TABLE_SIZE + 1;
+	}
+
+	@Benchmark
+	public Response<Product> getProductById() {
+		return retailProductController.getProductById(ThreadLocalRandom.current().nextInt(1, TABLE_SIZE + 1));
+	}
+
+	@Benchmark
+	public Response<Integer> addThenDeleteProduct() {
+		Response<Product> added = retailProductController.addProduct(BenchmarkDatabase.newProduct(nextId++));
+		return retailProductController.deleteProductById(added.getData().getId());
+	}
+}
@@ -0,0 +1,86 @@
+package com.litmus7.retailproductcatalog.benchmark;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.litmus7.retailproductcatalog.dao.ProductDAO;
+import com.litmus7.retailproductcatalog.dao.impl.ProductDAOImpl;
+import com.litmus7.retailproductcatalog.dto.Product;
+import com.litmus7.retailproductcatalog.exception.ProductDataAccessException;
+import com.litmus7.retailproductcatalog.exception.RetailProductServiceException;
+import com.litmus7.retailproductcatalog.service.RetailProductService;
+
+/**
+ * Read throughput of {@link ProductDAOImpl} and {@link RetailProductService}
+ * at several table sizes.
+ *
+ * @author Muhammed Irfan
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dretaildb.config=RetailDB-bench.properties")
+public class ProductReadBenchmark {
+
+	@Param({ "1000", "10000", "100000" })
+	public int tableSize;
+
+	private ProductDAO productDAO;
+	private RetailProductService retailProductService;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		BenchmarkDatabase.createSchema();
+		BenchmarkDatabase.populate(tableSize);
+		productDAO = new ProductDAOImpl();
+		retailProductService = new RetailProductService();
+	}
+
+	@Benchmark
+	public Product daoGetProductById() throws ProductDataAccessException {
+		return productDAO.getProductById(randomId());
+	}
+
+	@Benchmark
+	public Product serviceGetProductById() throws RetailProductServiceException {
+		return retailProductService.getProductById(randomId());
+	}
+
+	@Benchmark
+	public List<Product> daoGetAllProducts() throws ProductDataAccessException {
+		return productDAO.getAllProducts();
+	}
+
+	@Benchmark
+	public long daoStreamAllProducts() throws ProductDataAccessException {
+		try (Stream<Product> products = productDAO.streamAllProducts()) {
+			return products.count();
+		}
+	}
+
+	@Benchmark
+	public List<Product> daoGetProductsPage() throws ProductDataAccessException {
+		return productDAO.getProductsPage(randomId(), 100);
+	}
+
+	private int randomId() {
+		return ThreadLocalRandom.current().nextInt(1, tableSize + 1);
+	}
+}
@@ -0,0 +1,74 @@
+package com.litmus7.retailproductcatalog.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.litmus7.retailproductcatalog.dao.ProductDAO;
+import com.litmus7.retailproductcatalog.dao.impl.ProductDAOImpl;
+import com.litmus7.retailproductcatalog.dto.BatchResult;
+import com.litmus7.retailproductcatalog.dto.Product;
+import com.litmus7.retailproductcatalog.exception.ProductDataAccessException;
+
+/**
+ * Insert throughput of single-row {@code addProduct} against the batched
+ * {@code addProducts}, reported in rows per second.
+ *
+ * @author Muhammed Irfan
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dretaildb.config=RetailDB-bench.properties")
+public class ProductWriteBenchmark {
+
+	private static final int ROWS_PER_INVOCATION = 1000;
+
+	private ProductDAO productDAO;
+	private int nextId;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		BenchmarkDatabase.createSchema();
+		productDAO = new ProductDAOImpl();
+	}
+
+	@Setup(Level.Iteration)
+	public void clearTable() throws Exception {
+		BenchmarkDatabase.truncate();
+		nextId = 1;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ROWS_PER_INVOCATION)
+	public void singleInserts() throws ProductDataAccessException {
+		for (int i = 0; i < ROWS_PER_INVOCATION; i++) {
+			productDAO.addProduct(BenchmarkDatabase.newProduct(nextId++));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ROWS_PER_INVOCATION)
+	public BatchResult batchedInserts() throws ProductDataAccessException {
+		List<Product> products = new ArrayList<>(ROWS_PER_INVOCATION);
+		for (int i = 0; i < ROWS_PER_INVOCATION; i++) {
+			products.add(BenchmarkDatabase.newProduct(nextId++));
+		}
+		return productDAO.addProducts(products);
+	}
+}
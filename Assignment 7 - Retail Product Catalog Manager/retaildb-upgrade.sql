@@ -0,0 +1,8 @@
+-- Run once on a retailDB created before products had a version column and
+-- the low-stock index. New databases get both from retaildb.sql.
+USE retailDB;
+
+ALTER TABLE products ADD COLUMN version INT NOT NULL DEFAULT 0;
+
+-- serves the low-stock report without scanning the table
+CREATE INDEX idx_products_stock ON products (stock_quantity, product_id);
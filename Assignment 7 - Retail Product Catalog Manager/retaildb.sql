@@ -6,9 +6,13 @@ CREATE TABLE products (
  name VARCHAR(100) NOT NULL,
  category VARCHAR(50) NOT NULL,
  price DOUBLE NOT NULL,
- stock_quantity INT NOT NULL 
+ stock_quantity INT NOT NULL,
+ version INT NOT NULL DEFAULT 0
 );
 
+-- serves the low-stock report without scanning the table
+CREATE INDEX idx_products_stock ON products (stock_quantity, product_id);
+
 drop table products;
 
 select * from products;
\ No newline at end of file
@@ -1,11 +1,12 @@
 package com.litmus7.retailproductcatalog.app;
 
-import java.util.List;
 import java.util.Scanner;
 
 import com.litmus7.retailproductcatalog.controller.RetailProductController;
+import com.litmus7.retailproductcatalog.dto.ImportReport;
 import com.litmus7.retailproductcatalog.dto.Product;
 import com.litmus7.retailproductcatalog.dto.Response;
+import com.litmus7.retailproductcatalog.util.DBUtil;
 
 import static com.litmus7.retailproductcatalog.constant.ResponseConstants.*;
 
@@ -14,7 +15,7 @@ import static com.litmus7.retailproductcatalog.constant.ResponseConstants.*;
  * 
  * <p>This class provides a command-line interface (CLI) for users
  * to perform CRUD operations on {@link Product} objects, including:
- * adding, viewing, updating, and deleting products.
+ * adding, viewing, updating, deleting and importing products from a CSV file.
  * 
  * <p>The class interacts with the {@link RetailProductController}
  * to delegate business logic and receives {@link Response} objects
@@ -40,7 +41,8 @@ public class ProductApp {
 		int choice;
 		do {
 			System.out.println("===========MENU===========\n"
-					+ "1.Add Product\n2.View Product by ID\n3.View All Products\n4.Update Product\n5.Delete Product\n6.Exit\n"
+					+ "1.Add Product\n2.View Product by ID\n3.View All Products\n4.Update Product\n5.Delete Product\n"
+					+ "6.Import Products from CSV\n7.Exit\n"
 					+ "==========================");
 			System.out.print("Choose an Option : ");
 			choice = Integer.parseInt(scanner.nextLine());
@@ -61,14 +63,18 @@ public class ProductApp {
 				deleteProduct();
 				break;
 			case 6:
+				importProducts();
+				break;
+			case 7:
 				System.out.println("Thank you for using RetailMart Product Catalog Manager. Goodbye!");
 				break;
 			default:
 				System.out.println("Invalid choice! Please try again.");
 			}
-		} while (choice != 6);
+		} while (choice != 7);
 		
 		scanner.close();
+		DBUtil.closeConnectionPool();
 	}
 
 
@@ -124,11 +130,13 @@ public class ProductApp {
      * Displays all available products.
      */
 	private static void viewAllProducts() {
-		Response<List<Product>> response = new Response<>();
-		response = retailProductController.getAllProducts();
+		Response<Long> response = new Response<>();
+		System.out.println("All Products:");
+		response = retailProductController.forEachProduct(System.out::println);
 		if (response.getStatusCode() == SUCCESS_CODE) {
-			System.out.println("All Products:");
-			response.getData().forEach(System.out::println);
+			if (response.getData() == 0) {
+				System.out.println("No products available in the database");
+			}
 		} else {
 			System.out.println(response.getErrorMessage());
 		}
@@ -194,4 +202,22 @@ public class ProductApp {
 
 	}
 
+    /**
+     * Imports products from a CSV file and prints the import report.
+     */
+	private static void importProducts() {
+		Response<ImportReport> response = new Response<>();
+		System.out.print("Enter CSV file path: ");
+		String filePath = scanner.nextLine();
+
+		response = retailProductController.importProducts(filePath);
+		if (response.getStatusCode() == SUCCESS_CODE) {
+			System.out.println("Import finished.");
+			System.out.println(response.getData());
+			response.getData().getRejectedRows().forEach(System.out::println);
+		} else {
+			System.out.println(response.getErrorMessage());
+		}
+	}
+
 }
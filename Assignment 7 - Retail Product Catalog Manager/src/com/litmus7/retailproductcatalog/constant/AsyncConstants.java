@@ -0,0 +1,14 @@
+package com.litmus7.retailproductcatalog.constant;
+
+/**
+ * Defines configuration keys for the asynchronous product API.
+ */
+public class AsyncConstants {
+	/**
+	 * The key used to retrieve the maximum number of asynchronous calls that may
+	 * use the data store at the same time. Defaults to the maximum size of the
+	 * connection pool, so asynchronous callers queue here instead of timing out
+	 * while waiting for a connection.
+	 */
+	public static final String ASYNC_MAX_CONCURRENCY_KEY = "async.max.concurrency";
+}
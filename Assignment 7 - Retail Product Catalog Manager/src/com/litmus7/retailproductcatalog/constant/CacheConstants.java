@@ -0,0 +1,25 @@
+package com.litmus7.retailproductcatalog.constant;
+
+/**
+ * Defines configuration keys and default values for the product cache.
+ */
+public class CacheConstants {
+	/**
+	 * The key used to retrieve the maximum number of cached products.
+	 */
+	public static final String CACHE_MAX_SIZE_KEY = "cache.max.size";
+	/**
+	 * The key used to retrieve how long a cached product stays fresh, in
+	 * milliseconds.
+	 */
+	public static final String CACHE_TTL_KEY = "cache.ttl.ms";
+
+	/**
+	 * Default maximum number of cached products.
+	 */
+	public static final int DEFAULT_CACHE_MAX_SIZE = 10_000;
+	/**
+	 * Default time a cached product stays fresh, in milliseconds.
+	 */
+	public static final long DEFAULT_CACHE_TTL = 300_000L;
+}
@@ -0,0 +1,31 @@
+package com.litmus7.retailproductcatalog.constant;
+
+/**
+ * Defines the configuration key and values that select the product data
+ * store.
+ */
+public class DAOConstants {
+	/**
+	 * The key used to retrieve which {@code ProductDAO} implementation the
+	 * service uses.
+	 */
+	public static final String DAO_IMPL_KEY = "dao.impl";
+
+	/**
+	 * Selects the MySQL database through JDBC.
+	 */
+	public static final String DAO_IMPL_JDBC = "jdbc";
+	/**
+	 * Selects the in-memory hash map store.
+	 */
+	public static final String DAO_IMPL_MEMORY = "memory";
+	/**
+	 * Selects the in-memory columnar store.
+	 */
+	public static final String DAO_IMPL_COLUMNAR = "columnar";
+
+	/**
+	 * Default product data store.
+	 */
+	public static final String DEFAULT_DAO_IMPL = DAO_IMPL_JDBC;
+}
@@ -24,4 +24,20 @@ public class DBColumns {
 	 * Column name for the stock quantity.
 	 */
 	public static final String STOCK_QUANTITY = "stock_quantity";
+	/**
+	 * Column name for the row version, incremented by every update.
+	 */
+	public static final String PRODUCT_VERSION = "version";
+	/**
+	 * Column alias for the number of products in an aggregate.
+	 */
+	public static final String PRODUCT_COUNT = "product_count";
+	/**
+	 * Column alias for the sum of stock quantities in an aggregate.
+	 */
+	public static final String TOTAL_STOCK = "total_stock";
+	/**
+	 * Column alias for the sum of price times stock quantity in an aggregate.
+	 */
+	public static final String STOCK_VALUE = "stock_value";
 }
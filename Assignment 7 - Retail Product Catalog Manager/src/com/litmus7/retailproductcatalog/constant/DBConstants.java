@@ -13,6 +13,10 @@ public class DBConstants {
      * The name of the properties file that contains database configuration.
      */
 	public static final String DB_PROPERTIES_FILE = "RetailDB.properties";
+    /**
+     * The system property that names a different properties file to load instead.
+     */
+	public static final String DB_PROPERTIES_FILE_OVERRIDE_KEY = "retaildb.config";
     /**
      * The key used to retrieve the database URL from the properties file.
      */
@@ -25,4 +29,77 @@ public class DBConstants {
      * The key used to retrieve the database password from the properties file.
      */
 	public static final String DB_PASSWORD_KEY = "password";
+    /**
+     * The key used to retrieve the minimum number of pooled connections.
+     */
+	public static final String POOL_MIN_SIZE_KEY = "pool.min.size";
+    /**
+     * The key used to retrieve the maximum number of pooled connections.
+     */
+	public static final String POOL_MAX_SIZE_KEY = "pool.max.size";
+    /**
+     * The key used to retrieve how long an idle connection is kept, in milliseconds.
+     */
+	public static final String POOL_IDLE_TIMEOUT_KEY = "pool.idle.timeout.ms";
+    /**
+     * The key used to retrieve how long a caller waits for a connection, in milliseconds.
+     */
+	public static final String POOL_BORROW_TIMEOUT_KEY = "pool.borrow.timeout.ms";
+    /**
+     * The key used to retrieve the connection leak detection threshold, in milliseconds.
+     */
+	public static final String POOL_LEAK_DETECTION_THRESHOLD_KEY = "pool.leak.detection.threshold.ms";
+    /**
+     * The key used to retrieve whether the stack trace of every borrow is kept for leak warnings.
+     */
+	public static final String POOL_LEAK_DETECTION_STACK_TRACES_KEY = "pool.leak.detection.stack.traces";
+    /**
+     * The key used to retrieve the connection validation timeout, in seconds.
+     */
+	public static final String POOL_VALIDATION_TIMEOUT_KEY = "pool.validation.timeout.seconds";
+    /**
+     * The key used to retrieve how recently a connection must have been returned to skip validation, in milliseconds.
+     */
+	public static final String POOL_VALIDATION_BYPASS_KEY = "pool.validation.bypass.ms";
+    /**
+     * The key used to retrieve how many prepared statements each pooled connection keeps open.
+     */
+	public static final String POOL_STATEMENT_CACHE_SIZE_KEY = "pool.statement.cache.size";
+
+    /**
+     * Default minimum number of pooled connections.
+     */
+	public static final int DEFAULT_POOL_MIN_SIZE = 2;
+    /**
+     * Default maximum number of pooled connections.
+     */
+	public static final int DEFAULT_POOL_MAX_SIZE = 10;
+    /**
+     * Default idle timeout of a pooled connection, in milliseconds.
+     */
+	public static final long DEFAULT_POOL_IDLE_TIMEOUT = 600_000L;
+    /**
+     * Default time a caller waits for a pooled connection, in milliseconds.
+     */
+	public static final long DEFAULT_POOL_BORROW_TIMEOUT = 30_000L;
+    /**
+     * Default leak detection threshold, in milliseconds. {@code 0} disables it.
+     */
+	public static final long DEFAULT_POOL_LEAK_DETECTION_THRESHOLD = 60_000L;
+    /**
+     * By default leak warnings name the borrowing thread only, since capturing a stack trace on every borrow is costly.
+     */
+	public static final boolean DEFAULT_POOL_LEAK_DETECTION_STACK_TRACES = false;
+    /**
+     * Default connection validation timeout, in seconds.
+     */
+	public static final int DEFAULT_POOL_VALIDATION_TIMEOUT = 5;
+    /**
+     * Default validation bypass window, in milliseconds. {@code 0} validates on every borrow.
+     */
+	public static final long DEFAULT_POOL_VALIDATION_BYPASS = 500L;
+    /**
+     * Default number of prepared statements cached per connection. {@code 0} disables the cache.
+     */
+	public static final int DEFAULT_POOL_STATEMENT_CACHE_SIZE = 32;
 }
@@ -0,0 +1,45 @@
+package com.litmus7.retailproductcatalog.constant;
+
+/**
+ * Defines configuration keys and default values for the product change event
+ * stream.
+ */
+public class EventConstants {
+	/**
+	 * The key used to retrieve the number of events the ring buffer holds before
+	 * writers wait for the dispatcher. Rounded up to a power of two.
+	 */
+	public static final String EVENT_RING_SIZE_KEY = "event.ring.size";
+	/**
+	 * The key used to retrieve the largest number of events passed to a listener
+	 * in one call.
+	 */
+	public static final String EVENT_BATCH_SIZE_KEY = "event.batch.size";
+	/**
+	 * The key used to retrieve the path of the append-only change log. The log is
+	 * disabled when the key is missing or empty.
+	 */
+	public static final String EVENT_LOG_PATH_KEY = "event.log.path";
+	/**
+	 * The key used to retrieve whether every batch appended to the change log is
+	 * forced to disk before it is delivered.
+	 */
+	public static final String EVENT_LOG_FSYNC_KEY = "event.log.fsync";
+
+	/**
+	 * Default number of events the ring buffer holds.
+	 */
+	public static final int DEFAULT_EVENT_RING_SIZE = 1024;
+	/**
+	 * Default largest number of events passed to a listener in one call.
+	 */
+	public static final int DEFAULT_EVENT_BATCH_SIZE = 100;
+	/**
+	 * Default change log path; empty disables the log.
+	 */
+	public static final String DEFAULT_EVENT_LOG_PATH = "";
+	/**
+	 * Default change log fsync setting.
+	 */
+	public static final String DEFAULT_EVENT_LOG_FSYNC = "false";
+}
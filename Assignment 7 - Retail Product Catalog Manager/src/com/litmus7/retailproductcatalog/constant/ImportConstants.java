@@ -0,0 +1,44 @@
+package com.litmus7.retailproductcatalog.constant;
+
+/**
+ * Defines configuration keys and default values for the CSV product import.
+ */
+public class ImportConstants {
+	/**
+	 * The key used to retrieve the number of threads that parse and validate
+	 * rows.
+	 */
+	public static final String IMPORT_PARSER_THREADS_KEY = "import.parser.threads";
+	/**
+	 * The key used to retrieve how many chunks may wait between two stages.
+	 */
+	public static final String IMPORT_QUEUE_CAPACITY_KEY = "import.queue.capacity";
+	/**
+	 * The key used to retrieve the number of lines handed between stages at once.
+	 */
+	public static final String IMPORT_CHUNK_SIZE_KEY = "import.chunk.size";
+
+	/**
+	 * Default number of parser threads.
+	 */
+	public static final int DEFAULT_IMPORT_PARSER_THREADS = Math.max(1,
+			Runtime.getRuntime().availableProcessors() - 1);
+	/**
+	 * Default number of chunks that may wait between two stages.
+	 */
+	public static final int DEFAULT_IMPORT_QUEUE_CAPACITY = 16;
+	/**
+	 * Default number of lines per chunk.
+	 */
+	public static final int DEFAULT_IMPORT_CHUNK_SIZE = 500;
+	/**
+	 * The maximum number of rejected rows listed in an import report. Rows
+	 * beyond this are only counted.
+	 */
+	public static final int MAX_REPORTED_REJECTIONS = 1000;
+	/**
+	 * The number of fields in a product CSV line: id, name, category, price and
+	 * stock quantity.
+	 */
+	public static final int CSV_FIELD_COUNT = 5;
+}
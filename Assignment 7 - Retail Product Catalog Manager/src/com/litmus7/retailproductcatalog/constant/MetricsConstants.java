@@ -0,0 +1,16 @@
+package com.litmus7.retailproductcatalog.constant;
+
+/**
+ * Defines configuration keys and default values for operation metrics.
+ */
+public class MetricsConstants {
+	/**
+	 * The key used to retrieve how often metrics are logged, in milliseconds.
+	 * {@code 0} turns periodic logging off.
+	 */
+	public static final String METRICS_LOG_INTERVAL_KEY = "metrics.log.interval.ms";
+	/**
+	 * Default metrics logging interval; periodic logging is off by default.
+	 */
+	public static final long DEFAULT_METRICS_LOG_INTERVAL = 0L;
+}
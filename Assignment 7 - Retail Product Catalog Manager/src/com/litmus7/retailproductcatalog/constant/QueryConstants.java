@@ -0,0 +1,44 @@
+package com.litmus7.retailproductcatalog.constant;
+
+/**
+ * Defines configuration keys and limits for bulk product reads and writes.
+ */
+public class QueryConstants {
+	/**
+	 * The key used to retrieve the JDBC fetch size of streaming reads.
+	 */
+	public static final String STREAM_FETCH_SIZE_KEY = "stream.fetch.size";
+	/**
+	 * Default number of rows the driver fetches per round trip while streaming.
+	 */
+	public static final int DEFAULT_STREAM_FETCH_SIZE = 1000;
+	/**
+	 * The largest page a caller may request.
+	 */
+	public static final int MAX_PAGE_SIZE = 1000;
+	/**
+	 * The key used to retrieve the number of rows sent to the database per batch.
+	 */
+	public static final String BATCH_SIZE_KEY = "batch.size";
+	/**
+	 * Default number of rows sent to the database per batch.
+	 */
+	public static final int DEFAULT_BATCH_SIZE = 500;
+	/**
+	 * The key used to retrieve the largest number of IDs sent in one
+	 * {@code IN (...)} lookup.
+	 */
+	public static final String MULTI_GET_CHUNK_SIZE_KEY = "multiget.chunk.size";
+	/**
+	 * Default largest number of IDs sent in one {@code IN (...)} lookup.
+	 */
+	public static final int DEFAULT_MULTI_GET_CHUNK_SIZE = 100;
+	/**
+	 * The largest number of IDs a caller may look up at once.
+	 */
+	public static final int MAX_MULTI_GET_SIZE = 1000;
+	/**
+	 * The largest number of ranked search matches a caller may skip.
+	 */
+	public static final int MAX_SEARCH_OFFSET = 10000;
+}
@@ -15,17 +15,83 @@ public class SQLQueries {
 	/**
 	 * SQL query to retrieve a product from the database by id.
 	 */
-	public static final String GET_PRODUCT_BY_ID = "SELECT product_id, name, category, price, stock_quantity FROM products WHERE product_id = ?";
+	public static final String GET_PRODUCT_BY_ID = "SELECT product_id, name, category, price, stock_quantity, version FROM products WHERE product_id = ?";
 	
 	/**
 	 * SQL query to retrieve all products from the database.
 	 */
-	public static final String GET_ALL_PRODUCTS = "SELECT product_id, name, category, price, stock_quantity FROM products";
+	public static final String GET_ALL_PRODUCTS = "SELECT product_id, name, category, price, stock_quantity, version FROM products";
+	
+	/**
+	 * SQL query to retrieve the next page of products after a given id, ordered by id.
+	 * <p>
+	 * Expects two parameters: the last product_id of the previous page and the page size.
+	 * </p>
+	 */
+	public static final String GET_PRODUCTS_PAGE = "SELECT product_id, name, category, price, stock_quantity, version FROM products WHERE product_id > ? ORDER BY product_id LIMIT ?";
+	
+	/**
+	 * Start of the SQL query to retrieve the products with any of a list of ids;
+	 * followed by one {@code ?} per id, separated by commas, and a closing
+	 * parenthesis.
+	 */
+	public static final String GET_PRODUCTS_BY_IDS_PREFIX = "SELECT product_id, name, category, price, stock_quantity, version FROM products WHERE product_id IN (";
+	
+	/**
+	 * SQL query to retrieve the number of products, units in stock and stock
+	 * value of every category.
+	 */
+	public static final String GET_CATEGORY_SUMMARIES = "SELECT category, COUNT(*) AS product_count, COALESCE(SUM(stock_quantity), 0) AS total_stock, COALESCE(SUM(price * stock_quantity), 0) AS stock_value FROM products GROUP BY category ORDER BY category";
+	
+	/**
+	 * SQL query to retrieve the products with at most a given stock, lowest
+	 * stock first.
+	 * <p>
+	 * Expects two parameters: the stock threshold and the maximum number of rows.
+	 * </p>
+	 */
+	public static final String GET_LOW_STOCK_PRODUCTS = "SELECT product_id, name, category, price, stock_quantity, version FROM products WHERE stock_quantity <= ? ORDER BY stock_quantity, product_id LIMIT ?";
 	
 	/**
 	 * SQL query to update product info in the database.
 	 */
-	public static final String UPDATE_PRODUCT = "UPDATE products SET name = ?, category = ?, price = ?, stock_quantity = ? WHERE product_id = ?";
+	public static final String UPDATE_PRODUCT = "UPDATE products SET name = ?, category = ?, price = ?, stock_quantity = ?, version = version + 1 WHERE product_id = ?";
+	
+	/**
+	 * SQL query to add a delta to the stock of a product, unless the stock would
+	 * become negative.
+	 * <p>
+	 * Expects three parameters: the delta, the product_id and the delta again.
+	 * </p>
+	 */
+	public static final String ADJUST_STOCK = "UPDATE products SET stock_quantity = stock_quantity + ?, version = version + 1 WHERE product_id = ? AND stock_quantity + ? >= 0";
+	
+	/**
+	 * SQL query to add a delta to the stock of a product, unless the stock would
+	 * become negative or the product was changed since it was read.
+	 * <p>
+	 * Expects four parameters: the delta, the product_id, the expected version and
+	 * the delta again.
+	 * </p>
+	 */
+	public static final String ADJUST_STOCK_IF_VERSION = "UPDATE products SET stock_quantity = stock_quantity + ?, version = version + 1 WHERE product_id = ? AND version = ? AND stock_quantity + ? >= 0";
+	
+	/**
+	 * SQL query to read the stock and version of a product, used to tell why a
+	 * stock adjustment didn't apply.
+	 */
+	public static final String GET_STOCK_AND_VERSION = "SELECT stock_quantity, version FROM products WHERE product_id = ?";
+	
+	/**
+	 * Start of a partial product update; followed by one {@code column = ?, } per
+	 * changed column and then {@link #UPDATE_PRODUCT_FIELDS_SUFFIX}.
+	 */
+	public static final String UPDATE_PRODUCT_FIELDS_PREFIX = "UPDATE products SET ";
+	
+	/**
+	 * End of a partial product update. Expects the product_id as its parameter.
+	 */
+	public static final String UPDATE_PRODUCT_FIELDS_SUFFIX = "version = version + 1 WHERE product_id = ?";
 	
 	/**
 	 * SQL query to delete product data in the database.
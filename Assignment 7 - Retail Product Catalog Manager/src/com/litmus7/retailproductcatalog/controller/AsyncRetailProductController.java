@@ -0,0 +1,189 @@
+package com.litmus7.retailproductcatalog.controller;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import com.litmus7.retailproductcatalog.dto.Product;
+import com.litmus7.retailproductcatalog.dto.ProductLookupResult;
+import com.litmus7.retailproductcatalog.dto.Response;
+import com.litmus7.retailproductcatalog.metrics.MetricsRegistry;
+import com.litmus7.retailproductcatalog.metrics.OperationMetrics;
+import com.litmus7.retailproductcatalog.service.AsyncRetailProductService;
+import com.litmus7.retailproductcatalog.service.RetailProductService;
+
+import static com.litmus7.retailproductcatalog.constant.ResponseConstants.*;
+import static com.litmus7.retailproductcatalog.util.ValidationUtil.*;
+
+/**
+ * Non-blocking variant of {@link RetailProductController}.
+ *
+ * <p>Input is validated on the calling thread; invalid input gives an already
+ * completed future. Valid calls run on the executor of
+ * {@link AsyncRetailProductService}, and their futures always complete
+ * normally with a {@link Response}, never exceptionally.
+ *
+ * <p>To share the product cache and indexes with a
+ * {@link RetailProductController}, build both over the same
+ * {@link RetailProductService}.
+ * 
+ * @author Muhammed Irfan
+ */
+public class AsyncRetailProductController implements AutoCloseable {
+	private final AsyncRetailProductService asyncRetailProductService;
+	private final MetricsRegistry metricsRegistry = MetricsRegistry.getInstance();
+	private final OperationMetrics addProductMetrics = metricsRegistry.operation("controller.async.addProduct");
+	private final OperationMetrics getProductByIdMetrics = metricsRegistry
+			.operation("controller.async.getProductById");
+	private final OperationMetrics getProductsByIdsMetrics = metricsRegistry
+			.operation("controller.async.getProductsByIds");
+	private final OperationMetrics getAllProductsMetrics = metricsRegistry
+			.operation("controller.async.getAllProducts");
+	private final OperationMetrics updateProductMetrics = metricsRegistry.operation("controller.async.updateProduct");
+	private final OperationMetrics deleteProductByIdMetrics = metricsRegistry
+			.operation("controller.async.deleteProductById");
+
+    /**
+     * Creates a controller with its own {@link RetailProductService}.
+     */
+	public AsyncRetailProductController() {
+		this(new AsyncRetailProductService(new RetailProductService()));
+	}
+
+    /**
+     * Creates a controller over the given asynchronous service.
+     *
+     * @param asyncRetailProductService the service that runs the calls
+     */
+	public AsyncRetailProductController(AsyncRetailProductService asyncRetailProductService) {
+		this.asyncRetailProductService = asyncRetailProductService;
+	}
+
+    /**
+     * Adds a new product to the catalog after validation.
+     *
+     * @param product the product to be added
+     * @return a future of a {@link Response} containing the added product or an error message
+     */
+	public CompletableFuture<Response<Product>> addProduct(Product product) {
+		long start = System.nanoTime();
+		if (!isProductValid(product)) {
+			return failed(addProductMetrics, start, "Ivalid Input Parameters");
+		}
+		return toResponse(addProductMetrics, start, asyncRetailProductService.addProduct(product));
+	}
+
+    /**
+     * Retrieves a product by its ID.
+     *
+     * @param productId the ID of the product
+     * @return a future of a {@link Response} containing the product or an error message
+     */
+	public CompletableFuture<Response<Product>> getProductById(int productId) {
+		long start = System.nanoTime();
+		if (productId < 0) {
+			return failed(getProductByIdMetrics, start, "Product Id cannot be less than 0");
+		}
+		return toResponse(getProductByIdMetrics, start, asyncRetailProductService.getProductById(productId));
+	}
+
+    /**
+     * Retrieves several products by ID in one bulk lookup.
+     *
+     * @param productIds the IDs of the products
+     * @return a future of a {@link Response} containing the products found in request
+     *         order and the missing IDs, or an error message
+     */
+	public CompletableFuture<Response<ProductLookupResult>> getProductsByIds(int... productIds) {
+		long start = System.nanoTime();
+		if (productIds == null) {
+			return failed(getProductsByIdsMetrics, start, "Invalid value for parameters");
+		}
+		for (int productId : productIds) {
+			if (productId < 0) {
+				return failed(getProductsByIdsMetrics, start, "Product Id cannot be less than 0");
+			}
+		}
+		return toResponse(getProductsByIdsMetrics, start, asyncRetailProductService.getProductsByIds(productIds));
+	}
+
+    /**
+     * Retrieves all products from the catalog.
+     *
+     * @return a future of a {@link Response} containing the list of products or an error message
+     */
+	public CompletableFuture<Response<List<Product>>> getAllProducts() {
+		long start = System.nanoTime();
+		return toResponse(getAllProductsMetrics, start, asyncRetailProductService.getAllProducts());
+	}
+
+    /**
+     * Updates an existing product after input validation.
+     *
+     * @param product the updated product details
+     * @return a future of a {@link Response} containing the updated product or an error message
+     */
+	public CompletableFuture<Response<Product>> updateProduct(Product product) {
+		long start = System.nanoTime();
+		if (!isProductValid(product)) {
+			return failed(updateProductMetrics, start, "Invalid Parameters for Updation");
+		}
+		return toResponse(updateProductMetrics, start, asyncRetailProductService.updateProduct(product));
+	}
+
+    /**
+     * Deletes a product by its ID after validating the input.
+     *
+     * @param productId the ID of the product to delete
+     * @return a future of a {@link Response} containing the deleted product ID or an error message
+     */
+	public CompletableFuture<Response<Integer>> deleteProductById(int productId) {
+		long start = System.nanoTime();
+		if (productId < 0) {
+			return failed(deleteProductByIdMetrics, start, "Product Id cannot be less than 0");
+		}
+		return toResponse(deleteProductByIdMetrics, start, asyncRetailProductService.deleteProductById(productId));
+	}
+
+    /**
+     * Stops accepting calls. Calls already submitted still complete.
+     */
+	@Override
+	public void close() {
+		asyncRetailProductService.close();
+	}
+
+	/**
+	 * Turns the outcome of a service future into a {@link Response} and records
+	 * the call once it completes.
+	 */
+	private static <T> CompletableFuture<Response<T>> toResponse(OperationMetrics metrics, long start,
+			CompletableFuture<T> future) {
+		return future.handle((data, error) -> {
+			Response<T> response = new Response<>();
+			if (error == null) {
+				response.setData(data);
+				response.setStatusCode(SUCCESS_CODE);
+			} else {
+				Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause()
+						: error;
+				response.setErrorMessage(cause.getMessage());
+				response.setStatusCode(ERROR_CODE);
+			}
+			metrics.record(start, error == null);
+			return response;
+		});
+	}
+
+	/**
+	 * Returns a completed future of an error {@link Response} and records the
+	 * call as failed.
+	 */
+	private static <T> CompletableFuture<Response<T>> failed(OperationMetrics metrics, long start, String message) {
+		Response<T> response = new Response<>();
+		response.setErrorMessage(message);
+		response.setStatusCode(ERROR_CODE);
+		metrics.record(start, false);
+		return CompletableFuture.completedFuture(response);
+	}
+}
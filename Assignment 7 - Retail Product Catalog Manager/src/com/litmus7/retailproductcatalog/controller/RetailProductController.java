@@ -1,11 +1,34 @@
 package com.litmus7.retailproductcatalog.controller;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+import com.litmus7.retailproductcatalog.dto.BatchResult;
+import com.litmus7.retailproductcatalog.dto.BatchRowResult;
+import com.litmus7.retailproductcatalog.dto.CacheStats;
+import com.litmus7.retailproductcatalog.dto.ChangeStreamStats;
+import com.litmus7.retailproductcatalog.dto.CoalescingStats;
+import com.litmus7.retailproductcatalog.dto.ImportReport;
+import com.litmus7.retailproductcatalog.dto.InventorySummary;
+import com.litmus7.retailproductcatalog.dto.OperationSnapshot;
 import com.litmus7.retailproductcatalog.dto.Product;
+import com.litmus7.retailproductcatalog.dto.ProductLookupResult;
+import com.litmus7.retailproductcatalog.dto.ProductSearchResult;
+import com.litmus7.retailproductcatalog.dto.StatementCacheStats;
+import com.litmus7.retailproductcatalog.service.ProductImportService;
 import com.litmus7.retailproductcatalog.service.RetailProductService;
 import com.litmus7.retailproductcatalog.dto.Response;
+import com.litmus7.retailproductcatalog.exception.ProductStreamException;
 import com.litmus7.retailproductcatalog.exception.RetailProductServiceException;
+import com.litmus7.retailproductcatalog.metrics.MetricsRegistry;
+import com.litmus7.retailproductcatalog.metrics.OperationMetrics;
 
 import static com.litmus7.retailproductcatalog.constant.ResponseConstants.*;
 import static com.litmus7.retailproductcatalog.util.ValidationUtil.*;
@@ -20,7 +43,50 @@ import static com.litmus7.retailproductcatalog.util.ValidationUtil.*;
  * @author Muhammed Irfan
  */
 public class RetailProductController {
-	private final RetailProductService retailProductService = new RetailProductService();
+	private final RetailProductService retailProductService;
+	private final ProductImportService productImportService;
+	private final MetricsRegistry metricsRegistry = MetricsRegistry.getInstance();
+	private final OperationMetrics addProductMetrics = metricsRegistry.operation("controller.addProduct");
+	private final OperationMetrics getProductByIdMetrics = metricsRegistry.operation("controller.getProductById");
+	private final OperationMetrics getProductsByIdsMetrics = metricsRegistry.operation("controller.getProductsByIds");
+	private final OperationMetrics getAllProductsMetrics = metricsRegistry.operation("controller.getAllProducts");
+	private final OperationMetrics getProductsPageMetrics = metricsRegistry.operation("controller.getProductsPage");
+	private final OperationMetrics getProductsByCategoryMetrics = metricsRegistry
+			.operation("controller.getProductsByCategory");
+	private final OperationMetrics getProductsByPriceRangeMetrics = metricsRegistry
+			.operation("controller.getProductsByPriceRange");
+	private final OperationMetrics searchProductsMetrics = metricsRegistry.operation("controller.searchProducts");
+	private final OperationMetrics forEachProductMetrics = metricsRegistry.operation("controller.forEachProduct");
+	private final OperationMetrics updateProductMetrics = metricsRegistry.operation("controller.updateProduct");
+	private final OperationMetrics deleteProductByIdMetrics = metricsRegistry.operation("controller.deleteProductById");
+	private final OperationMetrics addProductsMetrics = metricsRegistry.operation("controller.addProducts");
+	private final OperationMetrics updateProductsMetrics = metricsRegistry.operation("controller.updateProducts");
+	private final OperationMetrics deleteProductsMetrics = metricsRegistry.operation("controller.deleteProducts");
+	private final OperationMetrics importProductsMetrics = metricsRegistry.operation("controller.importProducts");
+	private final OperationMetrics adjustStockMetrics = metricsRegistry.operation("controller.adjustStock");
+	private final OperationMetrics reserveStockMetrics = metricsRegistry.operation("controller.reserveStock");
+	private final OperationMetrics getInventorySummaryMetrics = metricsRegistry
+			.operation("controller.getInventorySummary");
+	private final OperationMetrics getLowStockProductsMetrics = metricsRegistry
+			.operation("controller.getLowStockProducts");
+
+    /**
+     * Creates a controller with its own {@link RetailProductService}.
+     */
+	public RetailProductController() {
+		this(new RetailProductService());
+	}
+
+    /**
+     * Creates a controller over the given service, e.g. to share its product
+     * cache with an {@link AsyncRetailProductController}.
+     *
+     * @param retailProductService the service that handles the operations
+     */
+	public RetailProductController(RetailProductService retailProductService) {
+		this.retailProductService = retailProductService;
+		this.productImportService = new ProductImportService(retailProductService);
+	}
 
     /**
      * Adds a new product to the catalog after validation.
@@ -29,6 +95,7 @@ public class RetailProductController {
      * @return a {@link Response} containing the added product or an error message
      */
 	public Response<Product> addProduct(Product product) {
+		long start = System.nanoTime();
 		Response<Product> response = new Response<>();
 		if (!isProductValid(product)) {
 			response.setErrorMessage("Ivalid Input Parameters");
@@ -42,7 +109,7 @@ public class RetailProductController {
 				response.setStatusCode(ERROR_CODE);
 			}
 		}
-		return response;
+		return record(addProductMetrics, start, response);
 	}
 
     /**
@@ -52,6 +119,7 @@ public class RetailProductController {
      * @return a {@link Response} containing the product or an error message
      */
 	public Response<Product> getProductById(int productId) {
+		long start = System.nanoTime();
 		Response<Product> response = new Response<>();
 		if (productId < 0) {
 			response.setErrorMessage("Product Id cannot be less than 0");
@@ -65,16 +133,45 @@ public class RetailProductController {
 				response.setStatusCode(ERROR_CODE);
 			}
 		}
-		return response;
+		return record(getProductByIdMetrics, start, response);
 	}
 
 
+    /**
+     * Retrieves many products by ID at once, e.g. to render a cart.
+     *
+     * @param productIds the IDs of the products
+     * @return a {@link Response} containing the products found in request order and the
+     *         missing IDs, or an error message
+     */
+	public Response<ProductLookupResult> getProductsByIds(Collection<Integer> productIds) {
+		long start = System.nanoTime();
+		Response<ProductLookupResult> response = new Response<>();
+		if (productIds == null || productIds.stream().anyMatch(Objects::isNull)) {
+			response.setErrorMessage("Invalid value for parameters");
+			response.setStatusCode(ERROR_CODE);
+		} else if (productIds.stream().anyMatch(productId -> productId < 0)) {
+			response.setErrorMessage("Product Id cannot be less than 0");
+			response.setStatusCode(ERROR_CODE);
+		} else {
+			try {
+				response.setData(retailProductService.getProductsByIds(productIds));
+				response.setStatusCode(SUCCESS_CODE);
+			} catch (RetailProductServiceException e) {
+				response.setErrorMessage(e.getMessage());
+				response.setStatusCode(ERROR_CODE);
+			}
+		}
+		return record(getProductsByIdsMetrics, start, response);
+	}
+
     /**
      * Retrieves all products from the catalog.
      *
      * @return a {@link Response} containing the list of products or an error message
      */
 	public Response<List<Product>> getAllProducts() {
+		long start = System.nanoTime();
 		Response<List<Product>> response = new Response<>();
 		try {
 			response.setData(retailProductService.getAllProducts());
@@ -83,7 +180,135 @@ public class RetailProductController {
 			response.setErrorMessage(e.getMessage());
 			response.setStatusCode(ERROR_CODE);
 		}
-		return response;
+		return record(getAllProductsMetrics, start, response);
+	}
+
+    /**
+     * Retrieves one page of products ordered by ID.
+     *
+     * @param afterProductId the ID after which the page starts, {@code 0} for the first page
+     * @param pageSize the maximum number of products in the page
+     * @return a {@link Response} containing the page of products or an error message
+     */
+	public Response<List<Product>> getProductsPage(int afterProductId, int pageSize) {
+		long start = System.nanoTime();
+		Response<List<Product>> response = new Response<>();
+		if (afterProductId < 0) {
+			response.setErrorMessage("Product Id cannot be less than 0");
+			response.setStatusCode(ERROR_CODE);
+		} else {
+			try {
+				response.setData(retailProductService.getProductsPage(afterProductId, pageSize));
+				response.setStatusCode(SUCCESS_CODE);
+			} catch (RetailProductServiceException e) {
+				response.setErrorMessage(e.getMessage());
+				response.setStatusCode(ERROR_CODE);
+			}
+		}
+		return record(getProductsPageMetrics, start, response);
+	}
+
+    /**
+     * Retrieves the products of a category.
+     *
+     * @param category the category, matched case-insensitively
+     * @return a {@link Response} containing the products of the category or an error message
+     */
+	public Response<List<Product>> getProductsByCategory(String category) {
+		long start = System.nanoTime();
+		Response<List<Product>> response = new Response<>();
+		if (category == null || category.trim().isEmpty()) {
+			response.setErrorMessage("Category cannot be empty");
+			response.setStatusCode(ERROR_CODE);
+		} else {
+			try {
+				response.setData(retailProductService.getProductsByCategory(category));
+				response.setStatusCode(SUCCESS_CODE);
+			} catch (RetailProductServiceException e) {
+				response.setErrorMessage(e.getMessage());
+				response.setStatusCode(ERROR_CODE);
+			}
+		}
+		return record(getProductsByCategoryMetrics, start, response);
+	}
+
+    /**
+     * Retrieves the products whose price is within a range.
+     *
+     * @param minPrice the lowest price, inclusive
+     * @param maxPrice the highest price, inclusive
+     * @return a {@link Response} containing the products ordered by price or an error message
+     */
+	public Response<List<Product>> getProductsByPriceRange(double minPrice, double maxPrice) {
+		long start = System.nanoTime();
+		Response<List<Product>> response = new Response<>();
+		if (minPrice < 0 || maxPrice < 0) {
+			response.setErrorMessage("Price cannot be less than 0");
+			response.setStatusCode(ERROR_CODE);
+		} else {
+			try {
+				response.setData(retailProductService.getProductsByPriceRange(minPrice, maxPrice));
+				response.setStatusCode(SUCCESS_CODE);
+			} catch (RetailProductServiceException e) {
+				response.setErrorMessage(e.getMessage());
+				response.setStatusCode(ERROR_CODE);
+			}
+		}
+		return record(getProductsByPriceRangeMetrics, start, response);
+	}
+
+
+    /**
+     * Searches product names and categories, best match first.
+     *
+     * @param query the words to search for; each must start a word of the name or category
+     * @param offset the number of ranked matches to skip
+     * @param limit the largest number of products to return
+     * @return a {@link Response} containing the page of matches or an error message
+     */
+	public Response<ProductSearchResult> searchProducts(String query, int offset, int limit) {
+		long start = System.nanoTime();
+		Response<ProductSearchResult> response = new Response<>();
+		if (query == null || query.trim().isEmpty()) {
+			response.setErrorMessage("Search query cannot be empty");
+			response.setStatusCode(ERROR_CODE);
+		} else {
+			try {
+				response.setData(retailProductService.searchProducts(query, offset, limit));
+				response.setStatusCode(SUCCESS_CODE);
+			} catch (RetailProductServiceException e) {
+				response.setErrorMessage(e.getMessage());
+				response.setStatusCode(ERROR_CODE);
+			}
+		}
+		return record(searchProductsMetrics, start, response);
+	}
+
+    /**
+     * Passes every product in the catalog to the given action, one at a time.
+     * 
+     * <p>Products are streamed from the data store, so memory use stays constant
+     * no matter how many products there are.
+     *
+     * @param action the action to perform on each product
+     * @return a {@link Response} containing the number of products processed or an error message
+     */
+	public Response<Long> forEachProduct(Consumer<? super Product> action) {
+		long start = System.nanoTime();
+		Response<Long> response = new Response<>();
+		long[] count = new long[1];
+		try (Stream<Product> products = retailProductService.streamAllProducts()) {
+			products.forEach(product -> {
+				action.accept(product);
+				count[0]++;
+			});
+			response.setData(count[0]);
+			response.setStatusCode(SUCCESS_CODE);
+		} catch (RetailProductServiceException | ProductStreamException e) {
+			response.setErrorMessage(e.getMessage());
+			response.setStatusCode(ERROR_CODE);
+		}
+		return record(forEachProductMetrics, start, response);
 	}
 
     /**
@@ -93,6 +318,7 @@ public class RetailProductController {
      * @return a {@link Response} containing the updated product or an error message
      */
 	public Response<Product> updateProduct(Product product) {
+		long start = System.nanoTime();
 		Response<Product> response = new Response<>();
 		if (!isProductValid(product)) {
 			response.setErrorMessage("Invalid Parameters for Updation");
@@ -106,7 +332,7 @@ public class RetailProductController {
 				response.setStatusCode(ERROR_CODE);
 			}
 		}
-		return response;
+		return record(updateProductMetrics, start, response);
 	}
 
     /**
@@ -116,6 +342,7 @@ public class RetailProductController {
      * @return a {@link Response} containing the deleted product ID or an error message
      */
 	public Response<Integer> deleteProductById(int productId) {
+		long start = System.nanoTime();
 		Response<Integer> response = new Response<>();
 		if (productId < 0) {
 			response.setErrorMessage("Product Id cannot be less than 0");
@@ -129,6 +356,327 @@ public class RetailProductController {
 				response.setStatusCode(ERROR_CODE);
 			}
 		}
+		return record(deleteProductByIdMetrics, start, response);
+	}
+
+    /**
+     * Adds to or takes from the stock of a product without overwriting
+     * concurrent changes.
+     *
+     * @param productId the ID of the product
+     * @param delta the amount to add, negative to take stock out
+     * @return a {@link Response} containing the product ID or an error message
+     */
+	public Response<Integer> adjustStock(int productId, int delta) {
+		long start = System.nanoTime();
+		Response<Integer> response = new Response<>();
+		if (productId < 0) {
+			response.setErrorMessage("Product Id cannot be less than 0");
+			response.setStatusCode(ERROR_CODE);
+		} else {
+			try {
+				response.setData(retailProductService.adjustStock(productId, delta));
+				response.setStatusCode(SUCCESS_CODE);
+			} catch (RetailProductServiceException e) {
+				response.setErrorMessage(e.getMessage());
+				response.setStatusCode(ERROR_CODE);
+			}
+		}
+		return record(adjustStockMetrics, start, response);
+	}
+
+    /**
+     * Adds to or takes from the stock of a product, only if the product is still
+     * at the version the caller read.
+     *
+     * @param productId the ID of the product
+     * @param delta the amount to add, negative to take stock out
+     * @param expectedVersion the version of the product the caller read
+     * @return a {@link Response} containing the product ID or an error message
+     */
+	public Response<Integer> adjustStock(int productId, int delta, int expectedVersion) {
+		long start = System.nanoTime();
+		Response<Integer> response = new Response<>();
+		if (productId < 0) {
+			response.setErrorMessage("Product Id cannot be less than 0");
+			response.setStatusCode(ERROR_CODE);
+		} else {
+			try {
+				response.setData(retailProductService.adjustStock(productId, delta, expectedVersion));
+				response.setStatusCode(SUCCESS_CODE);
+			} catch (RetailProductServiceException e) {
+				response.setErrorMessage(e.getMessage());
+				response.setStatusCode(ERROR_CODE);
+			}
+		}
+		return record(adjustStockMetrics, start, response);
+	}
+
+    /**
+     * Reserves units of a product for a checkout.
+     *
+     * @param productId the ID of the product
+     * @param quantity the number of units to reserve
+     * @return a {@link Response} containing the product ID or an error message
+     */
+	public Response<Integer> reserveStock(int productId, int quantity) {
+		long start = System.nanoTime();
+		Response<Integer> response = new Response<>();
+		if (productId < 0) {
+			response.setErrorMessage("Product Id cannot be less than 0");
+			response.setStatusCode(ERROR_CODE);
+		} else {
+			try {
+				response.setData(retailProductService.reserveStock(productId, quantity));
+				response.setStatusCode(SUCCESS_CODE);
+			} catch (RetailProductServiceException e) {
+				response.setErrorMessage(e.getMessage());
+				response.setStatusCode(ERROR_CODE);
+			}
+		}
+		return record(reserveStockMetrics, start, response);
+	}
+
+    /**
+     * Retrieves the inventory valuation and the totals of every category.
+     *
+     * @return a {@link Response} containing the inventory totals or an error message
+     */
+	public Response<InventorySummary> getInventorySummary() {
+		long start = System.nanoTime();
+		Response<InventorySummary> response = new Response<>();
+		try {
+			response.setData(retailProductService.getInventorySummary());
+			response.setStatusCode(SUCCESS_CODE);
+		} catch (RetailProductServiceException e) {
+			response.setErrorMessage(e.getMessage());
+			response.setStatusCode(ERROR_CODE);
+		}
+		return record(getInventorySummaryMetrics, start, response);
+	}
+
+    /**
+     * Retrieves the products that are running out of stock, lowest stock first.
+     *
+     * @param threshold the highest stock quantity reported
+     * @param limit the maximum number of products to return
+     * @return a {@link Response} containing the low-stock products or an error message
+     */
+	public Response<List<Product>> getLowStockProducts(int threshold, int limit) {
+		long start = System.nanoTime();
+		Response<List<Product>> response = new Response<>();
+		try {
+			response.setData(retailProductService.getLowStockProducts(threshold, limit));
+			response.setStatusCode(SUCCESS_CODE);
+		} catch (RetailProductServiceException e) {
+			response.setErrorMessage(e.getMessage());
+			response.setStatusCode(ERROR_CODE);
+		}
+		return record(getLowStockProductsMetrics, start, response);
+	}
+
+    /**
+     * Adds many products in one batch. Products that fail validation are
+     * reported as failed rows and are not sent to the database.
+     *
+     * @param products the products to be added
+     * @return a {@link Response} containing the outcome of every product or an error message
+     */
+	public Response<BatchResult> addProducts(List<Product> products) {
+		long start = System.nanoTime();
+		return record(addProductsMetrics, start,
+				runBatch(products, "Ivalid Input Parameters", retailProductService::addProducts));
+	}
+
+    /**
+     * Updates many products in one batch. Products that fail validation are
+     * reported as failed rows and are not sent to the database.
+     *
+     * @param products the updated product details
+     * @return a {@link Response} containing the outcome of every product or an error message
+     */
+	public Response<BatchResult> updateProducts(List<Product> products) {
+		long start = System.nanoTime();
+		return record(updateProductsMetrics, start,
+				runBatch(products, "Invalid Parameters for Updation", retailProductService::updateProducts));
+	}
+
+    /**
+     * Deletes many products in one batch. Negative IDs are reported as failed
+     * rows and are not sent to the database.
+     *
+     * @param productIds the IDs of the products to delete
+     * @return a {@link Response} containing the outcome of every product or an error message
+     */
+	public Response<BatchResult> deleteProducts(int[] productIds) {
+		long start = System.nanoTime();
+		Response<BatchResult> response = new Response<>();
+		if (productIds == null) {
+			response.setErrorMessage("Invalid value for parameters");
+			response.setStatusCode(ERROR_CODE);
+			return record(deleteProductsMetrics, start, response);
+		}
+		try {
+			int[] validIds = Arrays.stream(productIds).filter(productId -> productId >= 0).toArray();
+			Iterator<BatchRowResult> deletedRows = (validIds.length == 0 ? new BatchResult(Collections.emptyList())
+					: retailProductService.deleteProducts(validIds)).getRows().iterator();
+
+			List<BatchRowResult> rows = new ArrayList<>(productIds.length);
+			for (int productId : productIds) {
+				rows.add(productId >= 0 ? deletedRows.next()
+						: BatchRowResult.failed(productId, "Product Id cannot be less than 0"));
+			}
+			response.setData(new BatchResult(rows));
+			response.setStatusCode(SUCCESS_CODE);
+		} catch (RetailProductServiceException e) {
+			response.setErrorMessage(e.getMessage());
+			response.setStatusCode(ERROR_CODE);
+		}
+		return record(deleteProductsMetrics, start, response);
+	}
+
+    /**
+     * Imports products from a CSV file with lines of
+     * {@code id,name,category,price,stockQuantity}.
+     *
+     * @param filePath the path of the CSV file
+     * @return a {@link Response} containing the import report or an error message
+     */
+	public Response<ImportReport> importProducts(String filePath) {
+		long start = System.nanoTime();
+		Response<ImportReport> response = new Response<>();
+		if (filePath == null || filePath.trim().isEmpty()) {
+			response.setErrorMessage("File path cannot be empty");
+			response.setStatusCode(ERROR_CODE);
+		} else {
+			try {
+				response.setData(productImportService.importProducts(filePath.trim()));
+				response.setStatusCode(SUCCESS_CODE);
+			} catch (RetailProductServiceException e) {
+				response.setErrorMessage(e.getMessage());
+				response.setStatusCode(ERROR_CODE);
+			}
+		}
+		return record(importProductsMetrics, start, response);
+	}
+
+	/**
+	 * Validates every product, sends the valid ones to the given batch operation
+	 * and merges the outcomes back into input order.
+	 */
+	private Response<BatchResult> runBatch(List<Product> products, String invalidMessage, BatchOperation operation) {
+		Response<BatchResult> response = new Response<>();
+		if (products == null) {
+			response.setErrorMessage("Invalid value for parameters");
+			response.setStatusCode(ERROR_CODE);
+			return response;
+		}
+		try {
+			boolean[] valid = new boolean[products.size()];
+			List<Product> validProducts = new ArrayList<>(products.size());
+			for (int i = 0; i < valid.length; i++) {
+				valid[i] = isProductValid(products.get(i));
+				if (valid[i]) {
+					validProducts.add(products.get(i));
+				}
+			}
+			Iterator<BatchRowResult> writtenRows = (validProducts.isEmpty()
+					? new BatchResult(Collections.emptyList())
+					: operation.run(validProducts)).getRows().iterator();
+
+			List<BatchRowResult> rows = new ArrayList<>(valid.length);
+			for (int i = 0; i < valid.length; i++) {
+				Product product = products.get(i);
+				rows.add(valid[i] ? writtenRows.next()
+						: BatchRowResult.failed(product == null ? 0 : product.getId(), invalidMessage));
+			}
+			response.setData(new BatchResult(rows));
+			response.setStatusCode(SUCCESS_CODE);
+		} catch (RetailProductServiceException e) {
+			response.setErrorMessage(e.getMessage());
+			response.setStatusCode(ERROR_CODE);
+		}
 		return response;
 	}
+
+    /**
+     * Retrieves the counters of the product cache.
+     *
+     * @return a {@link Response} containing the cache counters
+     */
+	public Response<CacheStats> getProductCacheStats() {
+		Response<CacheStats> response = new Response<>();
+		response.setData(retailProductService.getProductCacheStats());
+		response.setStatusCode(SUCCESS_CODE);
+		return response;
+	}
+
+    /**
+     * Retrieves the counters of product lookups that were collapsed into a
+     * concurrent lookup of the same product.
+     *
+     * @return a {@link Response} containing the coalescing counters
+     */
+	public Response<CoalescingStats> getProductLookupStats() {
+		Response<CoalescingStats> response = new Response<>();
+		response.setData(retailProductService.getProductLookupStats());
+		response.setStatusCode(SUCCESS_CODE);
+		return response;
+	}
+
+    /**
+     * Retrieves the counters of the prepared statement cache of the connection
+     * pool.
+     *
+     * @return a {@link Response} containing the statement cache counters
+     */
+	public Response<StatementCacheStats> getStatementCacheStats() {
+		Response<StatementCacheStats> response = new Response<>();
+		response.setData(retailProductService.getStatementCacheStats());
+		response.setStatusCode(SUCCESS_CODE);
+		return response;
+	}
+
+    /**
+     * Retrieves the publish, dispatch and backlog counters of the product
+     * change stream.
+     *
+     * @return a {@link Response} containing the change stream counters
+     */
+	public Response<ChangeStreamStats> getChangeStreamStats() {
+		Response<ChangeStreamStats> response = new Response<>();
+		response.setData(retailProductService.getChangeStreamStats());
+		response.setStatusCode(SUCCESS_CODE);
+		return response;
+	}
+
+    /**
+     * Retrieves the call counts, error rates and latency percentiles of every
+     * controller and DAO operation.
+     *
+     * @return a {@link Response} containing one snapshot per operation
+     */
+	public Response<List<OperationSnapshot>> getOperationMetrics() {
+		Response<List<OperationSnapshot>> response = new Response<>();
+		response.setData(metricsRegistry.snapshot());
+		response.setStatusCode(SUCCESS_CODE);
+		return response;
+	}
+
+	/**
+	 * Records the call that started at {@code start} as failed unless the
+	 * response is successful, and returns the response.
+	 */
+	private static <T> Response<T> record(OperationMetrics metrics, long start, Response<T> response) {
+		metrics.record(start, response.getStatusCode() == SUCCESS_CODE);
+		return response;
+	}
+
+	/**
+	 * A batch write of the service layer.
+	 */
+	@FunctionalInterface
+	private interface BatchOperation {
+		BatchResult run(List<Product> products) throws RetailProductServiceException;
+	}
 }
@@ -1,9 +1,25 @@
 package com.litmus7.retailproductcatalog.dao;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import com.litmus7.retailproductcatalog.dto.BatchResult;
+import com.litmus7.retailproductcatalog.dto.CategorySummary;
+import com.litmus7.retailproductcatalog.dto.InventorySummary;
 import com.litmus7.retailproductcatalog.dto.Product;
+import com.litmus7.retailproductcatalog.exception.DuplicateProductException;
+import com.litmus7.retailproductcatalog.exception.InsufficientStockException;
 import com.litmus7.retailproductcatalog.exception.ProductDataAccessException;
+import com.litmus7.retailproductcatalog.exception.ProductNotFoundException;
+import com.litmus7.retailproductcatalog.exception.StaleProductException;
 
 
 /**
@@ -20,6 +36,7 @@ public interface ProductDAO {
      *
      * @param product the product to be added
      * @return the added product
+     * @throws DuplicateProductException if a product with the same ID already exists
      * @throws ProductDataAccessException if a data access error occurs
      */
 	Product addProduct(Product product) throws ProductDataAccessException;
@@ -33,6 +50,28 @@ public interface ProductDAO {
      */
 	Product getProductById(int productId) throws ProductDataAccessException;
 	
+    /**
+     * Retrieves the products with the given IDs.
+     * 
+     * <p>The default implementation looks the products up one by one;
+     * implementations backed by a database should fetch them in bulk.
+     *
+     * @param productIds the IDs of the products to retrieve
+     * @return the products that exist, in the order their IDs first appear in
+     *         {@code productIds}; IDs without a product are left out
+     * @throws ProductDataAccessException if a data access error occurs
+     */
+	default List<Product> getProductsByIds(Collection<Integer> productIds) throws ProductDataAccessException {
+		List<Product> products = new ArrayList<>(productIds.size());
+		for (int productId : new LinkedHashSet<>(productIds)) {
+			Product product = getProductById(productId);
+			if (product != null) {
+				products.add(product);
+			}
+		}
+		return products;
+	}
+	
     /**
      * Retrieves all products from the data store.
      *
@@ -41,11 +80,37 @@ public interface ProductDAO {
      */
 	List<Product> getAllProducts() throws ProductDataAccessException;
 	
+    /**
+     * Retrieves one page of products ordered by ID, starting after the given ID.
+     * 
+     * <p>Pass {@code 0} to get the first page and the ID of the last product of a
+     * page to get the next one. An empty list means there are no more products.
+     *
+     * @param afterProductId the ID after which the page starts
+     * @param pageSize the maximum number of products to return
+     * @return the products of the page
+     * @throws ProductDataAccessException if a data access error occurs
+     */
+	List<Product> getProductsPage(int afterProductId, int pageSize) throws ProductDataAccessException;
+	
+    /**
+     * Opens a lazily populated stream over all products.
+     * 
+     * <p>Rows are fetched from the data store as the stream is consumed, so memory use
+     * does not grow with the size of the table. The stream holds data store resources
+     * until it is closed and must be used in a try-with-resources block.
+     *
+     * @return a stream of all products
+     * @throws ProductDataAccessException if the stream cannot be opened
+     */
+	Stream<Product> streamAllProducts() throws ProductDataAccessException;
+	
     /**
      * Updates an existing product in the data store.
      *
      * @param product the product with updated data
      * @return the updated product
+     * @throws ProductNotFoundException if no product has the given ID
      * @throws ProductDataAccessException if the update fails or a data access error occurs
      */
 	Product updateProduct(Product product) throws ProductDataAccessException;
@@ -55,7 +120,117 @@ public interface ProductDAO {
      *
      * @param productId the ID of the product to delete
      * @return the id of the deleted product
+     * @throws ProductNotFoundException if no product has the given ID
      * @throws ProductDataAccessException if the deletion fails or a data access error occurs
      */
 	int deleteProductById(int productId) throws ProductDataAccessException;
+	
+    /**
+     * Adds many products in a single transaction.
+     * 
+     * <p>A row that cannot be written is reported in the result and does not
+     * prevent the other rows from being written.
+     *
+     * @param products the products to add
+     * @return the outcome of every row, in input order
+     * @throws ProductDataAccessException if the batch as a whole fails
+     */
+	BatchResult addProducts(List<Product> products) throws ProductDataAccessException;
+	
+    /**
+     * Updates many products in a single transaction.
+     *
+     * @param products the products with updated data
+     * @return the outcome of every row, in input order
+     * @throws ProductDataAccessException if the batch as a whole fails
+     */
+	BatchResult updateProducts(List<Product> products) throws ProductDataAccessException;
+	
+    /**
+     * Deletes many products in a single transaction.
+     *
+     * @param productIds the IDs of the products to delete
+     * @return the outcome of every row, in input order
+     * @throws ProductDataAccessException if the batch as a whole fails
+     */
+	BatchResult deleteProducts(int[] productIds) throws ProductDataAccessException;
+	
+    /**
+     * Adds {@code delta} to the stock of a product in one atomic step, without
+     * reading the product first. The adjustment is rejected if the stock would
+     * become negative.
+     *
+     * @param productId the ID of the product
+     * @param delta the amount to add, negative to take stock out
+     * @throws ProductNotFoundException if no product has the given ID
+     * @throws InsufficientStockException if the stock would become negative
+     * @throws ProductDataAccessException if a data access error occurs
+     */
+	void adjustStock(int productId, int delta) throws ProductDataAccessException;
+	
+    /**
+     * Adds {@code delta} to the stock of a product in one atomic step, only if
+     * the product is still at the version the caller read.
+     *
+     * @param productId the ID of the product
+     * @param delta the amount to add, negative to take stock out
+     * @param expectedVersion the version of the product the caller read
+     * @throws ProductNotFoundException if no product has the given ID
+     * @throws StaleProductException if the product has been changed since it was read
+     * @throws InsufficientStockException if the stock would become negative
+     * @throws ProductDataAccessException if a data access error occurs
+     */
+	void adjustStock(int productId, int delta, int expectedVersion) throws ProductDataAccessException;
+	
+    /**
+     * Takes {@code quantity} units of a product out of stock, e.g. for a
+     * checkout.
+     *
+     * @param productId the ID of the product
+     * @param quantity the number of units to reserve
+     * @throws ProductNotFoundException if no product has the given ID
+     * @throws InsufficientStockException if there are fewer units in stock
+     * @throws ProductDataAccessException if a data access error occurs
+     */
+	default void reserveStock(int productId, int quantity) throws ProductDataAccessException {
+		adjustStock(productId, -quantity);
+	}
+	
+    /**
+     * Computes the inventory valuation and the totals of every category.
+     * 
+     * <p>The default implementation folds {@link #streamAllProducts()} in
+     * parallel; implementations backed by a database should aggregate there.
+     *
+     * @return the inventory totals, with categories in ascending order
+     * @throws ProductDataAccessException if a data access error occurs
+     */
+	default InventorySummary getInventorySummary() throws ProductDataAccessException {
+		try (Stream<Product> products = streamAllProducts()) {
+			Map<String, CategorySummary> summaries = products.parallel().collect(Collectors.toMap(
+					product -> Objects.toString(product.getCategory(), ""), CategorySummary::of,
+					CategorySummary::plus, TreeMap::new));
+			return new InventorySummary(summaries.values());
+		}
+	}
+	
+    /**
+     * Retrieves the products with at most {@code threshold} units in stock,
+     * lowest stock first and then by ID.
+     * 
+     * <p>The default implementation filters {@link #streamAllProducts()} in
+     * parallel; implementations backed by a database should filter there.
+     *
+     * @param threshold the highest stock quantity reported
+     * @param limit the maximum number of products to return
+     * @return the low-stock products
+     * @throws ProductDataAccessException if a data access error occurs
+     */
+	default List<Product> getLowStockProducts(int threshold, int limit) throws ProductDataAccessException {
+		try (Stream<Product> products = streamAllProducts()) {
+			return products.parallel().filter(product -> product.getStockQuantity() <= threshold)
+					.sorted(Comparator.comparingInt(Product::getStockQuantity).thenComparingInt(Product::getId))
+					.limit(limit).collect(Collectors.toList());
+		}
+	}
 }
@@ -0,0 +1,65 @@
+package com.litmus7.retailproductcatalog.dao;
+
+import com.litmus7.retailproductcatalog.constant.DAOConstants;
+import com.litmus7.retailproductcatalog.dao.impl.ColumnarProductDAO;
+import com.litmus7.retailproductcatalog.dao.impl.InMemoryProductDAO;
+import com.litmus7.retailproductcatalog.dao.impl.ProductDAOImpl;
+import com.litmus7.retailproductcatalog.util.ConfigUtil;
+
+/**
+ * Creates the {@link ProductDAO} that owns the product data, selected by the
+ * {@code dao.impl} configuration key.
+ *
+ * <p>
+ * {@code jdbc} stores products in the MySQL database and is the default.
+ * {@code memory} and {@code columnar} keep them in memory only, starting
+ * empty, so the application runs without a database, e.g. for load tests.
+ * </p>
+ *
+ * <p>
+ * The configured DAO is created once per JVM and shared by every service, so
+ * with the in-memory implementations all of them see the same products.
+ * </p>
+ *
+ * @author Muhammed Irfan
+ */
+public class ProductDAOFactory {
+
+	private static ProductDAO configured;
+
+	/**
+	 * Returns the implementation named by the {@code dao.impl} key, creating it
+	 * on first use.
+	 *
+	 * @return the DAO shared by the application
+	 * @throws IllegalArgumentException if the key names an unknown
+	 *                                  implementation
+	 */
+	public static synchronized ProductDAO getConfigured() {
+		if (configured == null) {
+			configured = create(ConfigUtil.getString(DAOConstants.DAO_IMPL_KEY, DAOConstants.DEFAULT_DAO_IMPL));
+		}
+		return configured;
+	}
+
+	/**
+	 * Creates the named implementation.
+	 *
+	 * @param implementation one of {@code jdbc}, {@code memory} or
+	 *                       {@code columnar}, case-insensitively
+	 * @return a new DAO
+	 * @throws IllegalArgumentException if the implementation is unknown
+	 */
+	public static ProductDAO create(String implementation) {
+		switch (implementation.trim().toLowerCase()) {
+		case DAOConstants.DAO_IMPL_JDBC:
+			return new ProductDAOImpl();
+		case DAOConstants.DAO_IMPL_MEMORY:
+			return new InMemoryProductDAO();
+		case DAOConstants.DAO_IMPL_COLUMNAR:
+			return new ColumnarProductDAO();
+		default:
+			throw new IllegalArgumentException("Unknown product DAO implementation: " + implementation);
+		}
+	}
+}
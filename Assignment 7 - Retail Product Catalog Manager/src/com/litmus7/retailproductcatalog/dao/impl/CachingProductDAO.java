@@ -0,0 +1,493 @@
+package com.litmus7.retailproductcatalog.dao.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import com.litmus7.retailproductcatalog.dao.ProductDAO;
+import com.litmus7.retailproductcatalog.dto.BatchResult;
+import com.litmus7.retailproductcatalog.dto.CacheStats;
+import com.litmus7.retailproductcatalog.dto.InventorySummary;
+import com.litmus7.retailproductcatalog.dto.Product;
+import com.litmus7.retailproductcatalog.exception.ProductDataAccessException;
+
+/**
+ * A {@link ProductDAO} decorator that keeps recently read products in memory.
+ *
+ * <p>
+ * {@link #getProductById(int)} is served from a size-bounded cache keyed by
+ * product id; entries older than the time to live are reloaded from the
+ * wrapped DAO. Writes go to the wrapped DAO first and then refresh or
+ * invalidate the cached entry, so a successful write is never followed by a
+ * stale read from this instance.
+ *
+ * <p>
+ * Hits take no lock, so concurrent readers of the same hot product don't
+ * queue behind each other. Eviction is approximately least recently used:
+ * each entry records when it was last read, and once the cache outgrows its
+ * size, one thread drops the least recently read tenth of the entries in one
+ * pass.
+ *
+ * <p>
+ * The inventory summary and low-stock reports are cached too, until the next
+ * write through this instance or until the time to live passes, whichever
+ * comes first.
+ *
+ * <p>
+ * Products are copied on the way in and out of the cache, so callers may
+ * modify the objects they receive without corrupting cached state.
+ *
+ * @author Muhammed Irfan
+ */
+public class CachingProductDAO implements ProductDAO {
+
+	private static final int MAX_LOW_STOCK_REPORTS = 64;
+	// an eviction pass makes room for this share of the maximum size at once
+	private static final int EVICTION_BATCH_DIVISOR = 10;
+
+	private final ProductDAO delegate;
+	private final int maxSize;
+	private final long ttlMillis;
+	private final ConcurrentMap<Integer, CacheEntry> entries = new ConcurrentHashMap<>();
+	private final ReentrantLock evictionLock = new ReentrantLock();
+
+	/*
+	 * Bumped on every write. A read that started before a write must not put
+	 * what it loaded into the cache, since it may have read the old row. The
+	 * check is repeated after the put, since a write may have invalidated
+	 * the entry just before it was added.
+	 */
+	private final AtomicLong writeGeneration = new AtomicLong();
+
+	/*
+	 * Aggregates, valid while no write has happened since they were read.
+	 * Low-stock reports are keyed by threshold and limit.
+	 */
+	private volatile Aggregate<InventorySummary> inventorySummary;
+	private final ConcurrentMap<Long, Aggregate<List<Product>>> lowStockReports = new ConcurrentHashMap<>();
+
+	private final AtomicLong hitCount = new AtomicLong();
+	private final AtomicLong missCount = new AtomicLong();
+	private final AtomicLong evictionCount = new AtomicLong();
+	private final AtomicLong expiredCount = new AtomicLong();
+
+	/**
+	 * Creates a cache in front of the given DAO.
+	 *
+	 * @param delegate  the DAO that owns the data
+	 * @param maxSize   the maximum number of cached products
+	 * @param ttlMillis how long a cached product stays fresh, in milliseconds
+	 */
+	public CachingProductDAO(ProductDAO delegate, int maxSize, long ttlMillis) {
+		this.delegate = delegate;
+		this.maxSize = maxSize;
+		this.ttlMillis = ttlMillis;
+	}
+
+	/**
+	 * Adds the product through the wrapped DAO and caches it. Cached reports
+	 * are invalidated once the insert is done, so a report computed while it
+	 * ran is not served afterwards. If another write happened meanwhile, e.g.
+	 * an update of the new product, the product is not cached, since it may
+	 * already be out of date.
+	 */
+	@Override
+	public Product addProduct(Product product) throws ProductDataAccessException {
+		long generation = writeGeneration.get();
+		Product addedProduct;
+		long writtenGeneration;
+		try {
+			addedProduct = delegate.addProduct(product);
+		} finally {
+			writtenGeneration = writeGeneration.incrementAndGet();
+			lowStockReports.clear();
+		}
+		if (addedProduct != null && writtenGeneration == generation + 1) {
+			Product cachedProduct = new Product(addedProduct);
+			cachedProduct.markClean();
+			putIfUnchanged(cachedProduct, writtenGeneration);
+		}
+		return addedProduct;
+	}
+
+	/**
+	 * Returns the cached product, or loads it from the wrapped DAO on a miss.
+	 * Missing products are not cached.
+	 */
+	@Override
+	public Product getProductById(int productId) throws ProductDataAccessException {
+		Product cachedProduct = lookup(productId, System.currentTimeMillis());
+		if (cachedProduct != null) {
+			return cachedProduct;
+		}
+		missCount.incrementAndGet();
+
+		long generation = writeGeneration.get();
+		Product product = delegate.getProductById(productId);
+		if (product != null) {
+			putIfUnchanged(new Product(product), generation);
+		}
+		return product;
+	}
+
+	/**
+	 * Serves the cached products and loads only the missing ones from the
+	 * wrapped DAO, in one call. Loaded products are cached.
+	 */
+	@Override
+	public List<Product> getProductsByIds(Collection<Integer> productIds) throws ProductDataAccessException {
+		Set<Integer> ids = new LinkedHashSet<>(productIds);
+		Map<Integer, Product> productsById = new HashMap<>(ids.size() * 2);
+		List<Integer> missingIds = new ArrayList<>();
+		long now = System.currentTimeMillis();
+		for (Integer productId : ids) {
+			Product cachedProduct = lookup(productId, now);
+			if (cachedProduct != null) {
+				productsById.put(productId, cachedProduct);
+			} else {
+				missingIds.add(productId);
+			}
+		}
+
+		if (!missingIds.isEmpty()) {
+			missCount.addAndGet(missingIds.size());
+			long generation = writeGeneration.get();
+			List<Product> loadedProducts = delegate.getProductsByIds(missingIds);
+			for (Product product : loadedProducts) {
+				putIfUnchanged(new Product(product), generation);
+				productsById.put(product.getId(), product);
+			}
+		}
+
+		List<Product> products = new ArrayList<>(productsById.size());
+		for (Integer productId : ids) {
+			Product product = productsById.get(productId);
+			if (product != null) {
+				products.add(product);
+			}
+		}
+		return products;
+	}
+
+	/**
+	 * Always reads from the wrapped DAO; full listings are not cached.
+	 */
+	@Override
+	public List<Product> getAllProducts() throws ProductDataAccessException {
+		return delegate.getAllProducts();
+	}
+
+	/**
+	 * Always reads from the wrapped DAO; pages are not cached.
+	 */
+	@Override
+	public List<Product> getProductsPage(int afterProductId, int pageSize) throws ProductDataAccessException {
+		return delegate.getProductsPage(afterProductId, pageSize);
+	}
+
+	/**
+	 * Always streams from the wrapped DAO; streamed rows are not cached.
+	 */
+	@Override
+	public Stream<Product> streamAllProducts() throws ProductDataAccessException {
+		return delegate.streamAllProducts();
+	}
+
+	/**
+	 * Updates the product through the wrapped DAO and invalidates its entry.
+	 */
+	@Override
+	public Product updateProduct(Product product) throws ProductDataAccessException {
+		try {
+			return delegate.updateProduct(product);
+		} finally {
+			invalidate(product.getId());
+		}
+	}
+
+	/**
+	 * Deletes the product through the wrapped DAO and invalidates its entry.
+	 */
+	@Override
+	public int deleteProductById(int productId) throws ProductDataAccessException {
+		try {
+			return delegate.deleteProductById(productId);
+		} finally {
+			invalidate(productId);
+		}
+	}
+
+	/**
+	 * Adds the products through the wrapped DAO and invalidates their entries.
+	 */
+	@Override
+	public BatchResult addProducts(List<Product> products) throws ProductDataAccessException {
+		try {
+			return delegate.addProducts(products);
+		} finally {
+			products.forEach(product -> invalidate(product.getId()));
+		}
+	}
+
+	/**
+	 * Updates the products through the wrapped DAO and invalidates their entries.
+	 */
+	@Override
+	public BatchResult updateProducts(List<Product> products) throws ProductDataAccessException {
+		try {
+			return delegate.updateProducts(products);
+		} finally {
+			products.forEach(product -> invalidate(product.getId()));
+		}
+	}
+
+	/**
+	 * Deletes the products through the wrapped DAO and invalidates their entries.
+	 */
+	@Override
+	public BatchResult deleteProducts(int[] productIds) throws ProductDataAccessException {
+		try {
+			return delegate.deleteProducts(productIds);
+		} finally {
+			for (int productId : productIds) {
+				invalidate(productId);
+			}
+		}
+	}
+
+	/**
+	 * Adjusts the stock through the wrapped DAO and invalidates the entry.
+	 */
+	@Override
+	public void adjustStock(int productId, int delta) throws ProductDataAccessException {
+		try {
+			delegate.adjustStock(productId, delta);
+		} finally {
+			invalidate(productId);
+		}
+	}
+
+	/**
+	 * Adjusts the stock through the wrapped DAO and invalidates the entry.
+	 */
+	@Override
+	public void adjustStock(int productId, int delta, int expectedVersion) throws ProductDataAccessException {
+		try {
+			delegate.adjustStock(productId, delta, expectedVersion);
+		} finally {
+			invalidate(productId);
+		}
+	}
+
+	/**
+	 * Returns the cached inventory summary, or computes it through the wrapped
+	 * DAO if a write happened since.
+	 */
+	@Override
+	public InventorySummary getInventorySummary() throws ProductDataAccessException {
+		Aggregate<InventorySummary> cached = inventorySummary;
+		if (isFresh(cached)) {
+			return cached.value;
+		}
+		long generation = writeGeneration.get();
+		InventorySummary summary = delegate.getInventorySummary();
+		inventorySummary = new Aggregate<>(summary, generation);
+		return summary;
+	}
+
+	/**
+	 * Returns the cached low-stock report for the same threshold and limit, or
+	 * reads it through the wrapped DAO if a write happened since.
+	 */
+	@Override
+	public List<Product> getLowStockProducts(int threshold, int limit) throws ProductDataAccessException {
+		Long key = ((long) threshold << 32) | (limit & 0xFFFFFFFFL);
+		Aggregate<List<Product>> cached = lowStockReports.get(key);
+		if (!isFresh(cached)) {
+			long generation = writeGeneration.get();
+			List<Product> products = delegate.getLowStockProducts(threshold, limit);
+			List<Product> copies = new ArrayList<>(products.size());
+			products.forEach(product -> copies.add(new Product(product)));
+			if (lowStockReports.size() >= MAX_LOW_STOCK_REPORTS) {
+				lowStockReports.clear();
+			}
+			cached = new Aggregate<>(copies, generation);
+			lowStockReports.put(key, cached);
+		}
+		List<Product> products = new ArrayList<>(cached.value.size());
+		cached.value.forEach(product -> products.add(new Product(product)));
+		return products;
+	}
+
+	/**
+	 * Drops every cached product whose entry has expired. Expired entries are
+	 * also dropped lazily on lookup, so calling this is only needed to release
+	 * memory early.
+	 */
+	public void removeExpired() {
+		long now = System.currentTimeMillis();
+		for (Map.Entry<Integer, CacheEntry> entry : entries.entrySet()) {
+			if (now - entry.getValue().loadedAt > ttlMillis && entries.remove(entry.getKey(), entry.getValue())) {
+				expiredCount.incrementAndGet();
+			}
+		}
+	}
+
+	/**
+	 * Removes every cached product.
+	 */
+	public void clear() {
+		writeGeneration.incrementAndGet();
+		lowStockReports.clear();
+		entries.clear();
+	}
+
+	/**
+	 * Returns a snapshot of the cache counters.
+	 *
+	 * @return the current {@link CacheStats}
+	 */
+	public CacheStats getStats() {
+		return new CacheStats(hitCount.get(), missCount.get(), evictionCount.get(), expiredCount.get(),
+				entries.size(), maxSize);
+	}
+
+	/**
+	 * Returns a copy of the cached product if it is fresh, counting the hit
+	 * and recording the read for eviction. Drops an expired entry.
+	 */
+	private Product lookup(int productId, long now) {
+		CacheEntry entry = entries.get(productId);
+		if (entry == null) {
+			return null;
+		}
+		if (now - entry.loadedAt <= ttlMillis) {
+			hitCount.incrementAndGet();
+			// written at most once a millisecond, so hot entries don't bounce between cores
+			if (entry.lastReadAt != now) {
+				entry.lastReadAt = now;
+			}
+			return new Product(entry.product);
+		}
+		if (entries.remove(productId, entry)) {
+			expiredCount.incrementAndGet();
+		}
+		return null;
+	}
+
+	/**
+	 * Caches the product unless a write happened since {@code generation} was
+	 * read. The check is repeated after the put, and the entry is taken back
+	 * if a write came in between, since that write's invalidation may have run
+	 * before the entry was there to remove.
+	 */
+	private void putIfUnchanged(Product product, long generation) {
+		if (writeGeneration.get() != generation) {
+			return;
+		}
+		CacheEntry entry = new CacheEntry(product);
+		entries.put(product.getId(), entry);
+		if (writeGeneration.get() != generation) {
+			entries.remove(product.getId(), entry);
+			return;
+		}
+		if (entries.size() > maxSize) {
+			evict();
+		}
+	}
+
+	/**
+	 * Drops the least recently read entries until the cache is a tenth below
+	 * its maximum size. Only one thread evicts at a time; others that find the
+	 * cache over its size carry on, since the running pass makes room for
+	 * them too.
+	 */
+	private void evict() {
+		if (!evictionLock.tryLock()) {
+			return;
+		}
+		try {
+			int excess = entries.size() - maxSize + Math.max(1, maxSize / EVICTION_BATCH_DIVISOR);
+			if (excess <= 0) {
+				return;
+			}
+			long[] readTimes = new long[entries.size()];
+			int count = 0;
+			for (CacheEntry entry : entries.values()) {
+				if (count == readTimes.length) {
+					break;
+				}
+				readTimes[count++] = entry.lastReadAt;
+			}
+			Arrays.sort(readTimes, 0, count);
+			long cutoff = readTimes[Math.min(excess, count) - 1];
+			for (Map.Entry<Integer, CacheEntry> entry : entries.entrySet()) {
+				if (excess == 0) {
+					break;
+				}
+				if (entry.getValue().lastReadAt <= cutoff && entries.remove(entry.getKey(), entry.getValue())) {
+					evictionCount.incrementAndGet();
+					excess--;
+				}
+			}
+		} finally {
+			evictionLock.unlock();
+		}
+	}
+
+	private void invalidate(int productId) {
+		writeGeneration.incrementAndGet();
+		lowStockReports.clear();
+		entries.remove(productId);
+	}
+
+	/**
+	 * Tells whether the aggregate was read after the last write and is still
+	 * within its time to live.
+	 */
+	private boolean isFresh(Aggregate<?> aggregate) {
+		return aggregate != null && aggregate.generation == writeGeneration.get()
+				&& System.currentTimeMillis() - aggregate.loadedAt <= ttlMillis;
+	}
+
+	/**
+	 * A cached aggregate, the write generation it was read at and the time it
+	 * was loaded.
+	 */
+	private static class Aggregate<T> {
+		private final T value;
+		private final long generation;
+		private final long loadedAt;
+
+		private Aggregate(T value, long generation) {
+			this.value = value;
+			this.generation = generation;
+			this.loadedAt = System.currentTimeMillis();
+		}
+	}
+
+	/**
+	 * A cached product, the time it was loaded and the time it was last read.
+	 */
+	private static class CacheEntry {
+		private final Product product;
+		private final long loadedAt;
+		private volatile long lastReadAt;
+
+		private CacheEntry(Product product) {
+			this.product = product;
+			this.loadedAt = System.currentTimeMillis();
+			this.lastReadAt = loadedAt;
+		}
+	}
+}
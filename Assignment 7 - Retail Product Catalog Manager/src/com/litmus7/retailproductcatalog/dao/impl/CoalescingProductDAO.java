@@ -0,0 +1,219 @@
+package com.litmus7.retailproductcatalog.dao.impl;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import com.litmus7.retailproductcatalog.dao.ProductDAO;
+import com.litmus7.retailproductcatalog.dto.BatchResult;
+import com.litmus7.retailproductcatalog.dto.InventorySummary;
+import com.litmus7.retailproductcatalog.dto.CoalescingStats;
+import com.litmus7.retailproductcatalog.dto.Product;
+import com.litmus7.retailproductcatalog.exception.ProductDataAccessException;
+
+/**
+ * A {@link ProductDAO} decorator that collapses concurrent lookups of the same
+ * product into one call to the wrapped DAO.
+ *
+ * <p>
+ * The first caller of {@link #getProductById(int)} for an ID runs the query;
+ * callers that arrive while it is in flight wait for it and get a copy of its
+ * result, or the same exception. Once the query finishes, the next caller runs
+ * a new one, so results are never reused after the fact.
+ * </p>
+ *
+ * <p>
+ * A write of a product detaches its in-flight lookup, so a caller that arrives
+ * after the write starts a fresh query instead of joining one that may have
+ * read the old row.
+ * </p>
+ *
+ * @author Muhammed Irfan
+ */
+public class CoalescingProductDAO implements ProductDAO {
+
+	private final ProductDAO delegate;
+	private final ConcurrentMap<Integer, CompletableFuture<Product>> inFlight = new ConcurrentHashMap<>();
+	private final AtomicLong executedCount = new AtomicLong();
+	private final AtomicLong collapsedCount = new AtomicLong();
+
+	/**
+	 * Creates a coalescing layer in front of the given DAO.
+	 *
+	 * @param delegate the DAO that owns the data
+	 */
+	public CoalescingProductDAO(ProductDAO delegate) {
+		this.delegate = delegate;
+	}
+
+	@Override
+	public Product addProduct(Product product) throws ProductDataAccessException {
+		try {
+			return delegate.addProduct(product);
+		} finally {
+			inFlight.remove(product.getId());
+		}
+	}
+
+	/**
+	 * Returns the product, sharing the query of a concurrent lookup of the same
+	 * ID if there is one.
+	 */
+	@Override
+	public Product getProductById(int productId) throws ProductDataAccessException {
+		CompletableFuture<Product> lookup = new CompletableFuture<>();
+		CompletableFuture<Product> running = inFlight.putIfAbsent(productId, lookup);
+		if (running != null) {
+			collapsedCount.incrementAndGet();
+			return awaitCopy(running);
+		}
+
+		executedCount.incrementAndGet();
+		try {
+			Product product = delegate.getProductById(productId);
+			lookup.complete(product);
+			return product;
+		} catch (Throwable e) {
+			// errors too, or the callers that joined would wait forever
+			lookup.completeExceptionally(e);
+			throw e;
+		} finally {
+			inFlight.remove(productId, lookup);
+		}
+	}
+
+	@Override
+	public List<Product> getProductsByIds(Collection<Integer> productIds) throws ProductDataAccessException {
+		return delegate.getProductsByIds(productIds);
+	}
+
+	@Override
+	public List<Product> getAllProducts() throws ProductDataAccessException {
+		return delegate.getAllProducts();
+	}
+
+	@Override
+	public List<Product> getProductsPage(int afterProductId, int pageSize) throws ProductDataAccessException {
+		return delegate.getProductsPage(afterProductId, pageSize);
+	}
+
+	@Override
+	public Stream<Product> streamAllProducts() throws ProductDataAccessException {
+		return delegate.streamAllProducts();
+	}
+
+	@Override
+	public Product updateProduct(Product product) throws ProductDataAccessException {
+		try {
+			return delegate.updateProduct(product);
+		} finally {
+			inFlight.remove(product.getId());
+		}
+	}
+
+	@Override
+	public int deleteProductById(int productId) throws ProductDataAccessException {
+		try {
+			return delegate.deleteProductById(productId);
+		} finally {
+			inFlight.remove(productId);
+		}
+	}
+
+	@Override
+	public BatchResult addProducts(List<Product> products) throws ProductDataAccessException {
+		try {
+			return delegate.addProducts(products);
+		} finally {
+			products.forEach(product -> inFlight.remove(product.getId()));
+		}
+	}
+
+	@Override
+	public BatchResult updateProducts(List<Product> products) throws ProductDataAccessException {
+		try {
+			return delegate.updateProducts(products);
+		} finally {
+			products.forEach(product -> inFlight.remove(product.getId()));
+		}
+	}
+
+	@Override
+	public BatchResult deleteProducts(int[] productIds) throws ProductDataAccessException {
+		try {
+			return delegate.deleteProducts(productIds);
+		} finally {
+			for (int productId : productIds) {
+				inFlight.remove(productId);
+			}
+		}
+	}
+
+	@Override
+	public void adjustStock(int productId, int delta) throws ProductDataAccessException {
+		try {
+			delegate.adjustStock(productId, delta);
+		} finally {
+			inFlight.remove(productId);
+		}
+	}
+
+	@Override
+	public void adjustStock(int productId, int delta, int expectedVersion) throws ProductDataAccessException {
+		try {
+			delegate.adjustStock(productId, delta, expectedVersion);
+		} finally {
+			inFlight.remove(productId);
+		}
+	}
+
+	@Override
+	public InventorySummary getInventorySummary() throws ProductDataAccessException {
+		return delegate.getInventorySummary();
+	}
+
+	@Override
+	public List<Product> getLowStockProducts(int threshold, int limit) throws ProductDataAccessException {
+		return delegate.getLowStockProducts(threshold, limit);
+	}
+
+	/**
+	 * Returns a snapshot of the coalescing counters.
+	 *
+	 * @return the current {@link CoalescingStats}
+	 */
+	public CoalescingStats getStats() {
+		return new CoalescingStats(executedCount.get(), collapsedCount.get(), inFlight.size());
+	}
+
+	/**
+	 * Waits for a lookup started by another caller and returns a copy of its
+	 * product, so the callers don't share one mutable object.
+	 */
+	private static Product awaitCopy(CompletableFuture<Product> running) throws ProductDataAccessException {
+		try {
+			Product product = running.get();
+			return product == null ? null : new Product(product);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ProductDataAccessException("Interrupted while waiting for product lookup", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof ProductDataAccessException) {
+				throw (ProductDataAccessException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new ProductDataAccessException("Failed to fetch product", cause);
+		}
+	}
+}
@@ -0,0 +1,675 @@
+package com.litmus7.retailproductcatalog.dao.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.litmus7.retailproductcatalog.constant.QueryConstants;
+import com.litmus7.retailproductcatalog.dao.ProductDAO;
+import com.litmus7.retailproductcatalog.dto.BatchResult;
+import com.litmus7.retailproductcatalog.dto.BatchRowResult;
+import com.litmus7.retailproductcatalog.dto.CategorySummary;
+import com.litmus7.retailproductcatalog.dto.InventorySummary;
+import com.litmus7.retailproductcatalog.dto.Product;
+import com.litmus7.retailproductcatalog.dto.ProductField;
+import com.litmus7.retailproductcatalog.exception.DuplicateProductException;
+import com.litmus7.retailproductcatalog.exception.InsufficientStockException;
+import com.litmus7.retailproductcatalog.exception.ProductDataAccessException;
+import com.litmus7.retailproductcatalog.exception.ProductNotFoundException;
+import com.litmus7.retailproductcatalog.exception.StaleProductException;
+import com.litmus7.retailproductcatalog.util.ConfigUtil;
+
+/**
+ * A {@link ProductDAO} that holds the whole catalog in memory, one primitive
+ * array per column, so it can stay resident at a fraction of the memory a
+ * list of {@link Product} objects would take.
+ *
+ * <p>
+ * Rows are kept sorted by product ID in parallel arrays of IDs, prices, stock
+ * quantities and versions. Categories repeat a lot, so each distinct category
+ * is stored once and rows hold its number. Names are stored as UTF-8 bytes in
+ * one shared byte array, and rows hold their offset and length. A product
+ * costs about 32 bytes plus the bytes of its name, against well over 100 for
+ * a {@link Product} with its two strings.
+ * </p>
+ *
+ * <p>
+ * {@link Product} objects are only created on the way out, and the store
+ * never hands out its own state. Lookups by ID are binary searches and pages
+ * are slices, so both behave like the indexed queries of
+ * {@link ProductDAOImpl}. Adds in ascending ID order append; others shift
+ * the following rows, and batches that don't append are merged in one pass.
+ * Replaced names leave their old bytes behind, which are reclaimed once they
+ * take more room than the live names.
+ * </p>
+ *
+ * <p>
+ * The store is thread-safe. It follows the behaviour of
+ * {@link ProductDAOImpl}, including versions and the exceptions of stock
+ * adjustments, so either can sit behind the service.
+ * </p>
+ *
+ * @author Muhammed Irfan
+ */
+public class ColumnarProductDAO implements ProductDAO {
+
+	private static final int INITIAL_CAPACITY = 16;
+	private static final int NO_VALUE = -1;
+	private static final int STREAM_PAGE_SIZE = ConfigUtil.getInt(QueryConstants.STREAM_FETCH_SIZE_KEY,
+			QueryConstants.DEFAULT_STREAM_FETCH_SIZE);
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private int size;
+	private int[] ids = new int[INITIAL_CAPACITY];
+	private double[] prices = new double[INITIAL_CAPACITY];
+	private int[] stockQuantities = new int[INITIAL_CAPACITY];
+	private int[] versions = new int[INITIAL_CAPACITY];
+	private int[] categoryCodes = new int[INITIAL_CAPACITY];
+	private int[] nameOffsets = new int[INITIAL_CAPACITY];
+	private int[] nameLengths = new int[INITIAL_CAPACITY];
+
+	private byte[] nameBytes = new byte[INITIAL_CAPACITY * 16];
+	private int nameBytesUsed;
+	private int deadNameBytes;
+
+	private final List<String> categories = new ArrayList<>();
+	private final Map<String, Integer> categoryCodesByName = new HashMap<>();
+
+	/**
+	 * Replaces the whole content of the store with the given products, e.g.
+	 * to load the catalog from the database at startup. Products with an ID
+	 * already loaded are skipped. Versions are kept as given.
+	 *
+	 * @param products every product, preferably in ascending ID order
+	 */
+	public void reload(Iterable<Product> products) {
+		lock.writeLock().lock();
+		try {
+			clearUnlocked();
+			List<Product> chunk = new ArrayList<>(STREAM_PAGE_SIZE);
+			for (Product product : products) {
+				chunk.add(product);
+				if (chunk.size() == STREAM_PAGE_SIZE) {
+					addAllUnlocked(chunk, true);
+					chunk.clear();
+				}
+			}
+			addAllUnlocked(chunk, true);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns the number of bytes the columns and the name bytes take,
+	 * including spare capacity. Objects created on the way out are not
+	 * counted.
+	 *
+	 * @return the approximate memory footprint in bytes
+	 */
+	public long getMemoryBytes() {
+		lock.readLock().lock();
+		try {
+			long bytes = (long) ids.length * (Integer.BYTES * 6 + Double.BYTES) + nameBytes.length;
+			for (String category : categories) {
+				bytes += category == null ? 0 : category.length() * 2L;
+			}
+			return bytes;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * @return the number of stored products
+	 */
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return size;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Adds the product with version {@code 0}, as the database would.
+	 *
+	 * @throws DuplicateProductException if a product with the same ID exists
+	 */
+	@Override
+	public Product addProduct(Product product) throws ProductDataAccessException {
+		lock.writeLock().lock();
+		try {
+			int slot = slotOf(product.getId());
+			if (slot >= 0) {
+				throw new DuplicateProductException("Product with the Id exists");
+			}
+			insertAt(-slot - 1, product, 0);
+			return product;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns the product with the given ID, or {@code null} if there is none.
+	 */
+	@Override
+	public Product getProductById(int productId) throws ProductDataAccessException {
+		lock.readLock().lock();
+		try {
+			int slot = slotOf(productId);
+			return slot < 0 ? null : productAt(slot);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public List<Product> getProductsByIds(Collection<Integer> productIds) throws ProductDataAccessException {
+		lock.readLock().lock();
+		try {
+			List<Product> products = new ArrayList<>(productIds.size());
+			Set<Integer> seenIds = new HashSet<>();
+			for (int productId : productIds) {
+				int slot = slotOf(productId);
+				if (slot >= 0 && seenIds.add(productId)) {
+					products.add(productAt(slot));
+				}
+			}
+			return products;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns every product, ordered by ID.
+	 */
+	@Override
+	public List<Product> getAllProducts() throws ProductDataAccessException {
+		lock.readLock().lock();
+		try {
+			List<Product> products = new ArrayList<>(size);
+			for (int slot = 0; slot < size; slot++) {
+				products.add(productAt(slot));
+			}
+			return products;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public List<Product> getProductsPage(int afterProductId, int pageSize) throws ProductDataAccessException {
+		return pageAfter(afterProductId, pageSize);
+	}
+
+	/**
+	 * Streams every product in ID order, a page at a time, so the stream never
+	 * holds more than one page of {@link Product} objects and never holds the
+	 * lock between pages. Writes made while streaming may or may not be seen.
+	 */
+	@Override
+	public Stream<Product> streamAllProducts() throws ProductDataAccessException {
+		Spliterator<Product> spliterator = new Spliterators.AbstractSpliterator<Product>(Long.MAX_VALUE,
+				Spliterator.ORDERED | Spliterator.NONNULL) {
+			private List<Product> page = new ArrayList<>();
+			private int next;
+			private int lastProductId = Integer.MIN_VALUE;
+			private boolean exhausted;
+
+			@Override
+			public boolean tryAdvance(Consumer<? super Product> action) {
+				if (next == page.size()) {
+					if (exhausted) {
+						return false;
+					}
+					page = pageAfter(lastProductId, STREAM_PAGE_SIZE);
+					next = 0;
+					exhausted = page.size() < STREAM_PAGE_SIZE;
+					if (page.isEmpty()) {
+						return false;
+					}
+				}
+				Product product = page.get(next++);
+				lastProductId = product.getId();
+				action.accept(product);
+				return true;
+			}
+		};
+		return StreamSupport.stream(spliterator, false);
+	}
+
+	/**
+	 * Writes the dirty fields of the product and advances its version. Like
+	 * the database, an update of a product that doesn't exist fails.
+	 */
+	@Override
+	public Product updateProduct(Product product) throws ProductDataAccessException {
+		if (product.getDirtyFields() == 0) {
+			return product;
+		}
+		lock.writeLock().lock();
+		try {
+			int slot = slotOf(product.getId());
+			if (slot < 0) {
+				throw new ProductNotFoundException("Product with the Id " + product.getId() + " doesn't exist");
+			}
+			updateAt(slot, product);
+			return product;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public int deleteProductById(int productId) throws ProductDataAccessException {
+		lock.writeLock().lock();
+		try {
+			int slot = slotOf(productId);
+			if (slot < 0) {
+				throw new ProductNotFoundException("Product with the Id " + productId + " doesn't exist");
+			}
+			removeAt(slot);
+			return productId;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Adds the products, with version {@code 0}. Rows whose ID already exists,
+	 * in the store or earlier in the batch, are reported as failed.
+	 */
+	@Override
+	public BatchResult addProducts(List<Product> products) throws ProductDataAccessException {
+		lock.writeLock().lock();
+		try {
+			return new BatchResult(addAllUnlocked(products, false));
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public BatchResult updateProducts(List<Product> products) throws ProductDataAccessException {
+		lock.writeLock().lock();
+		try {
+			List<BatchRowResult> results = new ArrayList<>(products.size());
+			for (Product product : products) {
+				int slot = slotOf(product.getId());
+				if (product.getDirtyFields() == 0) {
+					results.add(BatchRowResult.succeeded(product.getId()));
+				} else if (slot < 0) {
+					results.add(missing(product.getId()));
+				} else {
+					updateAt(slot, product);
+					results.add(BatchRowResult.succeeded(product.getId()));
+				}
+			}
+			return new BatchResult(results);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public BatchResult deleteProducts(int[] productIds) throws ProductDataAccessException {
+		lock.writeLock().lock();
+		try {
+			List<BatchRowResult> results = new ArrayList<>(productIds.length);
+			for (int productId : productIds) {
+				int slot = slotOf(productId);
+				if (slot < 0) {
+					results.add(missing(productId));
+				} else {
+					removeAt(slot);
+					results.add(BatchRowResult.succeeded(productId));
+				}
+			}
+			return new BatchResult(results);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void adjustStock(int productId, int delta) throws ProductDataAccessException {
+		adjustStock(productId, delta, null);
+	}
+
+	@Override
+	public void adjustStock(int productId, int delta, int expectedVersion) throws ProductDataAccessException {
+		adjustStock(productId, delta, Integer.valueOf(expectedVersion));
+	}
+
+	private void adjustStock(int productId, int delta, Integer expectedVersion) throws ProductDataAccessException {
+		lock.writeLock().lock();
+		try {
+			int slot = slotOf(productId);
+			if (slot < 0) {
+				throw new ProductNotFoundException("Product with the Id " + productId + " doesn't exist");
+			}
+			if (expectedVersion != null && versions[slot] != expectedVersion) {
+				throw new StaleProductException("Product with the Id " + productId + " was changed by someone else");
+			}
+			if ((long) stockQuantities[slot] + delta < 0) {
+				throw new InsufficientStockException("Not enough stock for product with the Id " + productId);
+			}
+			stockQuantities[slot] += delta;
+			versions[slot]++;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Sums the stock columns per category code in one pass over the arrays,
+	 * without creating a {@link Product} per row.
+	 */
+	@Override
+	public InventorySummary getInventorySummary() throws ProductDataAccessException {
+		lock.readLock().lock();
+		try {
+			int[] productCounts = new int[categories.size() + 1];
+			long[] totalStocks = new long[productCounts.length];
+			double[] stockValues = new double[productCounts.length];
+			for (int slot = 0; slot < size; slot++) {
+				// a missing category is counted under the last code
+				int code = categoryCodes[slot] == NO_VALUE ? categories.size() : categoryCodes[slot];
+				productCounts[code]++;
+				totalStocks[code] += stockQuantities[slot];
+				stockValues[code] += prices[slot] * stockQuantities[slot];
+			}
+			Map<String, CategorySummary> summaries = new TreeMap<>();
+			for (int code = 0; code < productCounts.length; code++) {
+				if (productCounts[code] > 0) {
+					String category = code == categories.size() ? "" : categories.get(code);
+					summaries.merge(category,
+							new CategorySummary(category, productCounts[code], totalStocks[code], stockValues[code]),
+							CategorySummary::plus);
+				}
+			}
+			return new InventorySummary(summaries.values());
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Scans the stock column and creates products only for the rows reported.
+	 */
+	@Override
+	public List<Product> getLowStockProducts(int threshold, int limit) throws ProductDataAccessException {
+		lock.readLock().lock();
+		try {
+			// stock in the high half and slot in the low half, so sorting
+			// orders by stock and then, since slots are in ID order, by ID
+			long[] matches = new long[16];
+			int matchCount = 0;
+			for (int slot = 0; slot < size; slot++) {
+				if (stockQuantities[slot] <= threshold) {
+					if (matchCount == matches.length) {
+						matches = Arrays.copyOf(matches, grow(matchCount));
+					}
+					matches[matchCount++] = ((long) stockQuantities[slot] << 32) | slot;
+				}
+			}
+			Arrays.sort(matches, 0, matchCount);
+			List<Product> products = new ArrayList<>(Math.min(limit, matchCount));
+			for (int i = 0; i < matchCount && i < limit; i++) {
+				products.add(productAt((int) matches[i]));
+			}
+			return products;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private List<Product> pageAfter(int afterProductId, int pageSize) {
+		lock.readLock().lock();
+		try {
+			int start = slotOf(afterProductId);
+			start = start >= 0 ? start + 1 : -start - 1;
+			int end = (int) Math.min((long) start + pageSize, size);
+			List<Product> products = new ArrayList<>(Math.max(0, end - start));
+			for (int slot = start; slot < end; slot++) {
+				products.add(productAt(slot));
+			}
+			return products;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns the slot of the product, or {@code -(insertion point) - 1} if
+	 * there is none, like {@link Arrays#binarySearch(int[], int, int, int)}.
+	 */
+	private int slotOf(int productId) {
+		return Arrays.binarySearch(ids, 0, size, productId);
+	}
+
+	private Product productAt(int slot) {
+		Product product = new Product(ids[slot], nameAt(slot), categoryCodes[slot] == NO_VALUE ? null
+				: categories.get(categoryCodes[slot]), prices[slot], stockQuantities[slot]);
+		product.setVersion(versions[slot]);
+		product.markClean();
+		return product;
+	}
+
+	private String nameAt(int slot) {
+		return nameLengths[slot] == NO_VALUE ? null
+				: new String(nameBytes, nameOffsets[slot], nameLengths[slot], StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Adds the products that don't clash with an existing ID, appending when
+	 * they all sort after the last stored ID and merging otherwise.
+	 */
+	private List<BatchRowResult> addAllUnlocked(List<Product> products, boolean keepVersions) {
+		List<BatchRowResult> results = new ArrayList<>(products.size());
+		List<Product> accepted = new ArrayList<>(products.size());
+		Set<Integer> batchIds = new HashSet<>();
+		for (Product product : products) {
+			if (slotOf(product.getId()) >= 0 || !batchIds.add(product.getId())) {
+				results.add(BatchRowResult.failed(product.getId(), "Product with the Id exists"));
+			} else {
+				accepted.add(product);
+				results.add(BatchRowResult.succeeded(product.getId()));
+			}
+		}
+		if (accepted.isEmpty()) {
+			return results;
+		}
+
+		accepted.sort(Comparator.comparingInt(Product::getId));
+		ensureCapacity(size + accepted.size());
+		if (size == 0 || accepted.get(0).getId() > ids[size - 1]) {
+			for (Product product : accepted) {
+				writeAt(size++, product, keepVersions ? product.getVersion() : 0);
+			}
+		} else {
+			mergeUnlocked(accepted, keepVersions);
+		}
+		return results;
+	}
+
+	/**
+	 * Merges sorted new products into the sorted columns, from the back, so
+	 * every existing row moves at most once.
+	 */
+	private void mergeUnlocked(List<Product> sortedProducts, boolean keepVersions) {
+		int existing = size - 1;
+		int incoming = sortedProducts.size() - 1;
+		int target = size + sortedProducts.size() - 1;
+		while (incoming >= 0) {
+			Product product = sortedProducts.get(incoming);
+			if (existing >= 0 && ids[existing] > product.getId()) {
+				moveSlot(existing--, target--);
+			} else {
+				writeAt(target--, product, keepVersions ? product.getVersion() : 0);
+				incoming--;
+			}
+		}
+		size += sortedProducts.size();
+	}
+
+	private void insertAt(int slot, Product product, int version) {
+		ensureCapacity(size + 1);
+		shift(slot, slot + 1, size - slot);
+		writeAt(slot, product, version);
+		size++;
+	}
+
+	private void removeAt(int slot) {
+		if (nameLengths[slot] != NO_VALUE) {
+			deadNameBytes += nameLengths[slot];
+		}
+		shift(slot + 1, slot, size - slot - 1);
+		size--;
+		compactNamesIfWasteful();
+	}
+
+	private void updateAt(int slot, Product product) {
+		if (product.isDirty(ProductField.NAME)) {
+			if (nameLengths[slot] != NO_VALUE) {
+				deadNameBytes += nameLengths[slot];
+			}
+			writeName(slot, product.getName());
+		}
+		if (product.isDirty(ProductField.CATEGORY)) {
+			categoryCodes[slot] = categoryCodeOf(product.getCategory());
+		}
+		if (product.isDirty(ProductField.PRICE)) {
+			prices[slot] = product.getPrice();
+		}
+		if (product.isDirty(ProductField.STOCK_QUANTITY)) {
+			stockQuantities[slot] = product.getStockQuantity();
+		}
+		versions[slot]++;
+		compactNamesIfWasteful();
+	}
+
+	private void writeAt(int slot, Product product, int version) {
+		ids[slot] = product.getId();
+		prices[slot] = product.getPrice();
+		stockQuantities[slot] = product.getStockQuantity();
+		versions[slot] = version;
+		categoryCodes[slot] = categoryCodeOf(product.getCategory());
+		writeName(slot, product.getName());
+	}
+
+	private void writeName(int slot, String name) {
+		if (name == null) {
+			nameOffsets[slot] = 0;
+			nameLengths[slot] = NO_VALUE;
+			return;
+		}
+		byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+		if (nameBytesUsed + bytes.length > nameBytes.length) {
+			nameBytes = Arrays.copyOf(nameBytes, Math.max(nameBytesUsed + bytes.length, grow(nameBytes.length)));
+		}
+		System.arraycopy(bytes, 0, nameBytes, nameBytesUsed, bytes.length);
+		nameOffsets[slot] = nameBytesUsed;
+		nameLengths[slot] = bytes.length;
+		nameBytesUsed += bytes.length;
+	}
+
+	/**
+	 * Copies the live names into a fresh array once replaced and deleted names
+	 * take more room than the live ones.
+	 */
+	private void compactNamesIfWasteful() {
+		if (deadNameBytes <= nameBytesUsed - deadNameBytes) {
+			return;
+		}
+		byte[] compacted = new byte[Math.max(INITIAL_CAPACITY, grow(nameBytesUsed - deadNameBytes))];
+		int used = 0;
+		for (int slot = 0; slot < size; slot++) {
+			if (nameLengths[slot] != NO_VALUE) {
+				System.arraycopy(nameBytes, nameOffsets[slot], compacted, used, nameLengths[slot]);
+				nameOffsets[slot] = used;
+				used += nameLengths[slot];
+			}
+		}
+		nameBytes = compacted;
+		nameBytesUsed = used;
+		deadNameBytes = 0;
+	}
+
+	private int categoryCodeOf(String category) {
+		if (category == null) {
+			return NO_VALUE;
+		}
+		Integer code = categoryCodesByName.get(category);
+		if (code == null) {
+			code = categories.size();
+			categories.add(category);
+			categoryCodesByName.put(category, code);
+		}
+		return code;
+	}
+
+	private void moveSlot(int from, int to) {
+		shift(from, to, 1);
+	}
+
+	private void shift(int from, int to, int count) {
+		System.arraycopy(ids, from, ids, to, count);
+		System.arraycopy(prices, from, prices, to, count);
+		System.arraycopy(stockQuantities, from, stockQuantities, to, count);
+		System.arraycopy(versions, from, versions, to, count);
+		System.arraycopy(categoryCodes, from, categoryCodes, to, count);
+		System.arraycopy(nameOffsets, from, nameOffsets, to, count);
+		System.arraycopy(nameLengths, from, nameLengths, to, count);
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (capacity <= ids.length) {
+			return;
+		}
+		int newCapacity = Math.max(capacity, grow(ids.length));
+		ids = Arrays.copyOf(ids, newCapacity);
+		prices = Arrays.copyOf(prices, newCapacity);
+		stockQuantities = Arrays.copyOf(stockQuantities, newCapacity);
+		versions = Arrays.copyOf(versions, newCapacity);
+		categoryCodes = Arrays.copyOf(categoryCodes, newCapacity);
+		nameOffsets = Arrays.copyOf(nameOffsets, newCapacity);
+		nameLengths = Arrays.copyOf(nameLengths, newCapacity);
+	}
+
+	private void clearUnlocked() {
+		size = 0;
+		nameBytesUsed = 0;
+		deadNameBytes = 0;
+		categories.clear();
+		categoryCodesByName.clear();
+	}
+
+	private static int grow(int capacity) {
+		return capacity + (capacity >> 1) + 1;
+	}
+
+	private static BatchRowResult missing(int productId) {
+		return BatchRowResult.failed(productId, "Product with the Id " + productId + " doesn't exist");
+	}
+}
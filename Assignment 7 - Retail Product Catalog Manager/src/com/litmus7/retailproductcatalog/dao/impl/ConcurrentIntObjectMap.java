@@ -0,0 +1,361 @@
+package com.litmus7.retailproductcatalog.dao.impl;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * A concurrent hash map from primitive {@code int} keys to objects, so keys
+ * are never boxed.
+ *
+ * <p>
+ * The map is split into segments by a hash of the key. Each segment is an
+ * open-addressing table with linear probing and its own {@link StampedLock}.
+ * Reads are optimistic: they probe without locking and only retry under the
+ * read lock if a write to the same segment happened meanwhile. Writes lock
+ * one segment, and removals shift the following entries back instead of
+ * leaving tombstones, so probe chains stay short.
+ * </p>
+ *
+ * <p>
+ * Values are handed out as stored; callers that need isolation must store
+ * objects they never modify afterwards.
+ * </p>
+ *
+ * @param <V> the value type
+ */
+class ConcurrentIntObjectMap<V> {
+
+	private static final int SEGMENT_BITS = 6;
+	private static final int INITIAL_SEGMENT_CAPACITY = 16;
+
+	private final Segment<V>[] segments;
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	ConcurrentIntObjectMap() {
+		segments = new Segment[1 << SEGMENT_BITS];
+		for (int i = 0; i < segments.length; i++) {
+			segments[i] = new Segment<>();
+		}
+	}
+
+	/**
+	 * @return the value of the key, or {@code null} if there is none
+	 */
+	V get(int key) {
+		int hash = hash(key);
+		return segmentFor(hash).get(key, hash);
+	}
+
+	/**
+	 * Stores the value under the key, replacing any value it had.
+	 *
+	 * @return the previous value, or {@code null} if there was none
+	 */
+	V put(int key, V value) {
+		int hash = hash(key);
+		Segment<V> segment = segmentFor(hash);
+		long stamp = segment.lock.writeLock();
+		try {
+			return segment.put(key, hash, value, false);
+		} finally {
+			segment.lock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * Stores the value under the key unless the key already has one.
+	 *
+	 * @return the existing value, or {@code null} if the value was stored
+	 */
+	V putIfAbsent(int key, V value) {
+		int hash = hash(key);
+		Segment<V> segment = segmentFor(hash);
+		long stamp = segment.lock.writeLock();
+		try {
+			return segment.put(key, hash, value, true);
+		} finally {
+			segment.lock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * Removes the key.
+	 *
+	 * @return the removed value, or {@code null} if there was none
+	 */
+	V remove(int key) {
+		int hash = hash(key);
+		Segment<V> segment = segmentFor(hash);
+		long stamp = segment.lock.writeLock();
+		try {
+			return segment.remove(key, hash);
+		} finally {
+			segment.lock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * Replaces the value of the key with the result of the function, atomically
+	 * with respect to other writes to the map. The function receives
+	 * {@code null} if the key has no value; returning {@code null} removes the
+	 * key. If the function throws, the map is unchanged.
+	 *
+	 * @return the new value, or {@code null} if the key has none
+	 * @throws X if the function throws it
+	 */
+	<X extends Exception> V compute(int key, Remapping<V, X> function) throws X {
+		int hash = hash(key);
+		Segment<V> segment = segmentFor(hash);
+		long stamp = segment.lock.writeLock();
+		try {
+			V current = segment.getUnlocked(key, hash);
+			V next = function.apply(current);
+			if (next != null) {
+				segment.put(key, hash, next, false);
+			} else if (current != null) {
+				segment.remove(key, hash);
+			}
+			return next;
+		} finally {
+			segment.lock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * Passes every entry to the visitor, one segment at a time under its read
+	 * lock. Entries written to other segments meanwhile may or may not be seen.
+	 */
+	<X extends Exception> void forEach(EntryVisitor<V, X> visitor) throws X {
+		for (Segment<V> segment : segments) {
+			long stamp = segment.lock.readLock();
+			try {
+				int[] keys = segment.keys;
+				Object[] values = segment.values;
+				for (int i = 0; i < values.length; i++) {
+					if (values[i] != null) {
+						visitor.visit(keys[i], segment.valueAt(i));
+					}
+				}
+			} finally {
+				segment.lock.unlockRead(stamp);
+			}
+		}
+	}
+
+	/**
+	 * @return every key, in no particular order
+	 */
+	int[] keys() {
+		int[] keys = new int[Math.max(INITIAL_SEGMENT_CAPACITY, size())];
+		int count = 0;
+		for (Segment<V> segment : segments) {
+			long stamp = segment.lock.readLock();
+			try {
+				if (count + segment.size > keys.length) {
+					keys = Arrays.copyOf(keys, (count + segment.size) * 2);
+				}
+				for (int i = 0; i < segment.values.length; i++) {
+					if (segment.values[i] != null) {
+						keys[count++] = segment.keys[i];
+					}
+				}
+			} finally {
+				segment.lock.unlockRead(stamp);
+			}
+		}
+		return Arrays.copyOf(keys, count);
+	}
+
+	/**
+	 * @return the number of entries; exact only while no writes are running
+	 */
+	int size() {
+		int size = 0;
+		for (Segment<V> segment : segments) {
+			size += segment.size;
+		}
+		return size;
+	}
+
+	/**
+	 * Removes every entry, one segment at a time.
+	 */
+	void clear() {
+		for (Segment<V> segment : segments) {
+			long stamp = segment.lock.writeLock();
+			try {
+				segment.reset();
+			} finally {
+				segment.lock.unlockWrite(stamp);
+			}
+		}
+	}
+
+	private Segment<V> segmentFor(int hash) {
+		return segments[hash >>> (Integer.SIZE - SEGMENT_BITS)];
+	}
+
+	/**
+	 * Spreads the key so that sequential IDs land in different segments and
+	 * slots; the high bits pick the segment and the low bits the slot.
+	 */
+	private static int hash(int key) {
+		int hash = key * 0x9E3779B9;
+		return hash ^ (hash >>> 16) << SEGMENT_BITS;
+	}
+
+	/**
+	 * Computes the new value of a key in {@link ConcurrentIntObjectMap#compute}.
+	 */
+	@FunctionalInterface
+	interface Remapping<V, X extends Exception> {
+		V apply(V current) throws X;
+	}
+
+	/**
+	 * Receives the entries in {@link ConcurrentIntObjectMap#forEach}.
+	 */
+	@FunctionalInterface
+	interface EntryVisitor<V, X extends Exception> {
+		void visit(int key, V value) throws X;
+	}
+
+	/**
+	 * One open-addressing table. The key and value arrays are replaced
+	 * together on resize, and readers that raced with a write retry under the
+	 * read lock.
+	 */
+	private static final class Segment<V> {
+		private final StampedLock lock = new StampedLock();
+		private int[] keys;
+		private Object[] values;
+		private volatile int size;
+
+		Segment() {
+			reset();
+		}
+
+		V get(int key, int hash) {
+			long stamp = lock.tryOptimisticRead();
+			if (stamp != 0) {
+				int[] currentKeys = keys;
+				Object[] currentValues = values;
+				Object value = null;
+				if (currentKeys.length == currentValues.length) {
+					int mask = currentValues.length - 1;
+					for (int slot = hash & mask, probes = 0; probes <= mask; slot = (slot + 1) & mask, probes++) {
+						Object candidate = currentValues[slot];
+						if (candidate == null) {
+							break;
+						}
+						if (currentKeys[slot] == key) {
+							value = candidate;
+							break;
+						}
+					}
+				}
+				if (lock.validate(stamp)) {
+					@SuppressWarnings("unchecked")
+					V result = (V) value;
+					return result;
+				}
+			}
+			stamp = lock.readLock();
+			try {
+				return getUnlocked(key, hash);
+			} finally {
+				lock.unlockRead(stamp);
+			}
+		}
+
+		V getUnlocked(int key, int hash) {
+			int slot = slotOf(key, hash);
+			return slot < 0 ? null : valueAt(slot);
+		}
+
+		V put(int key, int hash, V value, boolean onlyIfAbsent) {
+			int mask = values.length - 1;
+			int slot = hash & mask;
+			while (values[slot] != null) {
+				if (keys[slot] == key) {
+					V previous = valueAt(slot);
+					if (!onlyIfAbsent) {
+						values[slot] = value;
+					}
+					return previous;
+				}
+				slot = (slot + 1) & mask;
+			}
+			keys[slot] = key;
+			values[slot] = value;
+			size++;
+			if (size * 4 > values.length * 3) {
+				resize(values.length * 2);
+			}
+			return null;
+		}
+
+		V remove(int key, int hash) {
+			int slot = slotOf(key, hash);
+			if (slot < 0) {
+				return null;
+			}
+			V removed = valueAt(slot);
+			int mask = values.length - 1;
+			// shift later entries of the probe chain back into the hole
+			int hole = slot;
+			for (int next = (hole + 1) & mask; values[next] != null; next = (next + 1) & mask) {
+				int home = hash(keys[next]) & mask;
+				if (((next - home) & mask) >= ((next - hole) & mask)) {
+					keys[hole] = keys[next];
+					values[hole] = values[next];
+					hole = next;
+				}
+			}
+			values[hole] = null;
+			size--;
+			return removed;
+		}
+
+		@SuppressWarnings("unchecked")
+		V valueAt(int slot) {
+			return (V) values[slot];
+		}
+
+		void reset() {
+			keys = new int[INITIAL_SEGMENT_CAPACITY];
+			values = new Object[INITIAL_SEGMENT_CAPACITY];
+			size = 0;
+		}
+
+		private int slotOf(int key, int hash) {
+			int mask = values.length - 1;
+			for (int slot = hash & mask; values[slot] != null; slot = (slot + 1) & mask) {
+				if (keys[slot] == key) {
+					return slot;
+				}
+			}
+			return -1;
+		}
+
+		private void resize(int capacity) {
+			int[] oldKeys = keys;
+			Object[] oldValues = values;
+			int[] newKeys = new int[capacity];
+			Object[] newValues = new Object[capacity];
+			int mask = capacity - 1;
+			for (int i = 0; i < oldValues.length; i++) {
+				if (oldValues[i] != null) {
+					int slot = hash(oldKeys[i]) & mask;
+					while (newValues[slot] != null) {
+						slot = (slot + 1) & mask;
+					}
+					newKeys[slot] = oldKeys[i];
+					newValues[slot] = oldValues[i];
+				}
+			}
+			keys = newKeys;
+			values = newValues;
+		}
+	}
+}
@@ -0,0 +1,439 @@
+package com.litmus7.retailproductcatalog.dao.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.litmus7.retailproductcatalog.constant.QueryConstants;
+import com.litmus7.retailproductcatalog.dao.ProductDAO;
+import com.litmus7.retailproductcatalog.dto.BatchResult;
+import com.litmus7.retailproductcatalog.dto.BatchRowResult;
+import com.litmus7.retailproductcatalog.dto.CategorySummary;
+import com.litmus7.retailproductcatalog.dto.InventorySummary;
+import com.litmus7.retailproductcatalog.dto.Product;
+import com.litmus7.retailproductcatalog.dto.ProductChangeEvent;
+import com.litmus7.retailproductcatalog.dto.ProductField;
+import com.litmus7.retailproductcatalog.exception.DuplicateProductException;
+import com.litmus7.retailproductcatalog.exception.InsufficientStockException;
+import com.litmus7.retailproductcatalog.exception.ProductDataAccessException;
+import com.litmus7.retailproductcatalog.exception.ProductNotFoundException;
+import com.litmus7.retailproductcatalog.exception.StaleProductException;
+import com.litmus7.retailproductcatalog.util.ConfigUtil;
+
+/**
+ * A {@link ProductDAO} that keeps every product in a
+ * {@link ConcurrentIntObjectMap}, for load tests that shouldn't be bound by
+ * database latency and as a read replica of the database.
+ *
+ * <p>
+ * Lookups by ID are lock-free hash probes on an {@code int} key, and writes
+ * lock only the segment of the map that holds the product, so unrelated
+ * writes never wait for each other. Stored products are never modified; a
+ * write replaces the product with an updated copy, and callers always get
+ * copies, so the store never hands out its own state.
+ * </p>
+ *
+ * <p>
+ * Pages, streams and full reads are served in ID order from a sorted array of
+ * IDs, which is rebuilt on the first ordered read after an add or delete.
+ * Updates and stock adjustments don't invalidate it.
+ * </p>
+ *
+ * <p>
+ * The store follows the behaviour of {@link ProductDAOImpl}, including
+ * versions and the exceptions of stock adjustments, so either can sit behind
+ * the service. Batches are applied row by row; a concurrent reader may see
+ * part of a batch.
+ * </p>
+ *
+ * @author Muhammed Irfan
+ */
+public class InMemoryProductDAO implements ProductDAO {
+
+	private static final int STREAM_PAGE_SIZE = ConfigUtil.getInt(QueryConstants.STREAM_FETCH_SIZE_KEY,
+			QueryConstants.DEFAULT_STREAM_FETCH_SIZE);
+	private static final Comparator<Product> BY_STOCK_THEN_ID = Comparator.comparingInt(Product::getStockQuantity)
+			.thenComparingInt(Product::getId);
+
+	private final ConcurrentIntObjectMap<Product> products = new ConcurrentIntObjectMap<>();
+	private final AtomicLong idChanges = new AtomicLong();
+	private volatile SortedIds sortedIds = new SortedIds(new int[0], 0);
+
+	/**
+	 * Replaces the whole content of the store with the given products, e.g. to
+	 * load the catalog from the database at startup. Versions are kept as
+	 * given. Readers may see the store partly loaded while this runs.
+	 *
+	 * @param products every product
+	 */
+	public void reload(Iterable<Product> products) {
+		this.products.clear();
+		for (Product product : products) {
+			this.products.put(product.getId(), stored(product, product.getVersion()));
+		}
+		idChanges.incrementAndGet();
+	}
+
+	/**
+	 * Applies change events published by the primary, so the store can follow
+	 * it as a hot standby read replica. Subscribe this method to the
+	 * publisher with a replay from the change log, so no event is missed or
+	 * applied twice.
+	 *
+	 * <p>
+	 * Adds replace any product with the same ID, and updates write only the
+	 * fields the primary wrote. Updates, deletes and stock adjustments of
+	 * products the store doesn't hold are ignored.
+	 * </p>
+	 *
+	 * @param events the events, in sequence order
+	 */
+	public void applyChanges(List<ProductChangeEvent> events) {
+		for (ProductChangeEvent event : events) {
+			switch (event.getType()) {
+			case ADDED:
+				if (products.put(event.getProductId(), stored(event.getProduct(), 0)) == null) {
+					idChanges.incrementAndGet();
+				}
+				break;
+			case UPDATED:
+				products.compute(event.getProductId(),
+						current -> current == null ? null : updated(current, event.getProduct()));
+				break;
+			case DELETED:
+				if (products.remove(event.getProductId()) != null) {
+					idChanges.incrementAndGet();
+				}
+				break;
+			case STOCK_ADJUSTED:
+				products.compute(event.getProductId(),
+						current -> current == null ? null : adjusted(current, event.getStockDelta()));
+				break;
+			}
+		}
+	}
+
+	/**
+	 * @return the number of stored products
+	 */
+	public int size() {
+		return products.size();
+	}
+
+	/**
+	 * Adds the product with version {@code 0}, as the database would.
+	 *
+	 * @throws DuplicateProductException if a product with the same ID exists
+	 */
+	@Override
+	public Product addProduct(Product product) throws ProductDataAccessException {
+		if (products.putIfAbsent(product.getId(), stored(product, 0)) != null) {
+			throw new DuplicateProductException("Product with the Id exists");
+		}
+		idChanges.incrementAndGet();
+		return product;
+	}
+
+	/**
+	 * Returns the product with the given ID, or {@code null} if there is none.
+	 */
+	@Override
+	public Product getProductById(int productId) throws ProductDataAccessException {
+		Product product = products.get(productId);
+		return product == null ? null : new Product(product);
+	}
+
+	@Override
+	public List<Product> getProductsByIds(Collection<Integer> productIds) throws ProductDataAccessException {
+		List<Product> found = new ArrayList<>(productIds.size());
+		Set<Integer> seenIds = new HashSet<>();
+		for (int productId : productIds) {
+			Product product = products.get(productId);
+			if (product != null && seenIds.add(productId)) {
+				found.add(new Product(product));
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * Returns every product, ordered by ID.
+	 */
+	@Override
+	public List<Product> getAllProducts() throws ProductDataAccessException {
+		return pageAfter(Integer.MIN_VALUE, Integer.MAX_VALUE);
+	}
+
+	@Override
+	public List<Product> getProductsPage(int afterProductId, int pageSize) throws ProductDataAccessException {
+		return pageAfter(afterProductId, pageSize);
+	}
+
+	/**
+	 * Streams every product in ID order, a page at a time, so the stream never
+	 * holds more than one page of {@link Product} objects. Writes made while
+	 * streaming may or may not be seen.
+	 */
+	@Override
+	public Stream<Product> streamAllProducts() throws ProductDataAccessException {
+		Spliterator<Product> spliterator = new Spliterators.AbstractSpliterator<Product>(Long.MAX_VALUE,
+				Spliterator.ORDERED | Spliterator.NONNULL) {
+			private List<Product> page = new ArrayList<>();
+			private int next;
+			private int lastProductId = Integer.MIN_VALUE;
+			private boolean exhausted;
+
+			@Override
+			public boolean tryAdvance(Consumer<? super Product> action) {
+				if (next == page.size()) {
+					if (exhausted) {
+						return false;
+					}
+					page = pageAfter(lastProductId, STREAM_PAGE_SIZE);
+					next = 0;
+					exhausted = page.size() < STREAM_PAGE_SIZE;
+					if (page.isEmpty()) {
+						return false;
+					}
+				}
+				Product product = page.get(next++);
+				lastProductId = product.getId();
+				action.accept(product);
+				return true;
+			}
+		};
+		return StreamSupport.stream(spliterator, false);
+	}
+
+	/**
+	 * Writes the dirty fields of the product and advances its version. Like
+	 * the database, an update of a product that doesn't exist fails.
+	 */
+	@Override
+	public Product updateProduct(Product product) throws ProductDataAccessException {
+		if (product.getDirtyFields() != 0 && products.compute(product.getId(),
+				current -> current == null ? null : updated(current, product)) == null) {
+			throw new ProductNotFoundException("Product with the Id " + product.getId() + " doesn't exist");
+		}
+		return product;
+	}
+
+	@Override
+	public int deleteProductById(int productId) throws ProductDataAccessException {
+		if (products.remove(productId) == null) {
+			throw new ProductNotFoundException("Product with the Id " + productId + " doesn't exist");
+		}
+		idChanges.incrementAndGet();
+		return productId;
+	}
+
+	/**
+	 * Adds the products, with version {@code 0}. Rows whose ID already exists,
+	 * in the store or earlier in the batch, are reported as failed.
+	 */
+	@Override
+	public BatchResult addProducts(List<Product> products) throws ProductDataAccessException {
+		List<BatchRowResult> results = new ArrayList<>(products.size());
+		for (Product product : products) {
+			if (this.products.putIfAbsent(product.getId(), stored(product, 0)) != null) {
+				results.add(BatchRowResult.failed(product.getId(), "Product with the Id exists"));
+			} else {
+				idChanges.incrementAndGet();
+				results.add(BatchRowResult.succeeded(product.getId()));
+			}
+		}
+		return new BatchResult(results);
+	}
+
+	@Override
+	public BatchResult updateProducts(List<Product> products) throws ProductDataAccessException {
+		List<BatchRowResult> results = new ArrayList<>(products.size());
+		for (Product product : products) {
+			if (product.getDirtyFields() == 0) {
+				results.add(BatchRowResult.succeeded(product.getId()));
+			} else if (this.products.compute(product.getId(),
+					current -> current == null ? null : updated(current, product)) == null) {
+				results.add(missing(product.getId()));
+			} else {
+				results.add(BatchRowResult.succeeded(product.getId()));
+			}
+		}
+		return new BatchResult(results);
+	}
+
+	@Override
+	public BatchResult deleteProducts(int[] productIds) throws ProductDataAccessException {
+		List<BatchRowResult> results = new ArrayList<>(productIds.length);
+		for (int productId : productIds) {
+			if (products.remove(productId) == null) {
+				results.add(missing(productId));
+			} else {
+				idChanges.incrementAndGet();
+				results.add(BatchRowResult.succeeded(productId));
+			}
+		}
+		return new BatchResult(results);
+	}
+
+	@Override
+	public void adjustStock(int productId, int delta) throws ProductDataAccessException {
+		adjustStock(productId, delta, null);
+	}
+
+	@Override
+	public void adjustStock(int productId, int delta, int expectedVersion) throws ProductDataAccessException {
+		adjustStock(productId, delta, Integer.valueOf(expectedVersion));
+	}
+
+	private void adjustStock(int productId, int delta, Integer expectedVersion) throws ProductDataAccessException {
+		products.compute(productId, current -> {
+			if (current == null) {
+				throw new ProductNotFoundException("Product with the Id " + productId + " doesn't exist");
+			}
+			if (expectedVersion != null && current.getVersion() != expectedVersion) {
+				throw new StaleProductException("Product with the Id " + productId + " was changed by someone else");
+			}
+			if ((long) current.getStockQuantity() + delta < 0) {
+				throw new InsufficientStockException("Not enough stock for product with the Id " + productId);
+			}
+			return adjusted(current, delta);
+		});
+	}
+
+	/**
+	 * Folds every stored product into its category in one pass, without
+	 * copying any of them.
+	 */
+	@Override
+	public InventorySummary getInventorySummary() throws ProductDataAccessException {
+		Map<String, CategorySummary> summaries = new TreeMap<>();
+		products.forEach((productId, product) -> summaries.merge(Objects.toString(product.getCategory(), ""),
+				CategorySummary.of(product), CategorySummary::plus));
+		return new InventorySummary(summaries.values());
+	}
+
+	/**
+	 * Scans the stored products and copies only the ones reported.
+	 */
+	@Override
+	public List<Product> getLowStockProducts(int threshold, int limit) throws ProductDataAccessException {
+		List<Product> matches = new ArrayList<>();
+		products.forEach((productId, product) -> {
+			if (product.getStockQuantity() <= threshold) {
+				matches.add(product);
+			}
+		});
+		matches.sort(BY_STOCK_THEN_ID);
+		List<Product> lowStockProducts = new ArrayList<>(Math.min(limit, matches.size()));
+		for (int i = 0; i < matches.size() && i < limit; i++) {
+			lowStockProducts.add(new Product(matches.get(i)));
+		}
+		return lowStockProducts;
+	}
+
+	/**
+	 * Returns up to {@code pageSize} products with an ID above
+	 * {@code afterProductId}, skipping IDs deleted since the sorted IDs were
+	 * built.
+	 */
+	private List<Product> pageAfter(int afterProductId, int pageSize) {
+		int[] ids = sortedIds();
+		int start = Arrays.binarySearch(ids, afterProductId);
+		start = start >= 0 ? start + 1 : -start - 1;
+		List<Product> page = new ArrayList<>(Math.min(pageSize, ids.length - start));
+		for (int i = start; i < ids.length && page.size() < pageSize; i++) {
+			Product product = products.get(ids[i]);
+			if (product != null) {
+				page.add(new Product(product));
+			}
+		}
+		return page;
+	}
+
+	/**
+	 * Returns the stored IDs in ascending order, rebuilding them if an add or
+	 * delete happened since they were last built. The change count is read
+	 * before the keys, so a write racing with the rebuild leaves it stale and
+	 * the next call rebuilds again.
+	 */
+	private int[] sortedIds() {
+		SortedIds current = sortedIds;
+		long changes = idChanges.get();
+		if (current.changes == changes) {
+			return current.ids;
+		}
+		int[] ids = products.keys();
+		Arrays.sort(ids);
+		sortedIds = new SortedIds(ids, changes);
+		return ids;
+	}
+
+	/**
+	 * Returns the updated copy of a stored product with the dirty fields of
+	 * {@code changes} written and the version advanced.
+	 */
+	private static Product updated(Product current, Product changes) {
+		Product product = new Product(current);
+		if (changes.isDirty(ProductField.NAME)) {
+			product.setName(changes.getName());
+		}
+		if (changes.isDirty(ProductField.CATEGORY)) {
+			product.setCategory(changes.getCategory());
+		}
+		if (changes.isDirty(ProductField.PRICE)) {
+			product.setPrice(changes.getPrice());
+		}
+		if (changes.isDirty(ProductField.STOCK_QUANTITY)) {
+			product.setStockQuantity(changes.getStockQuantity());
+		}
+		product.setVersion(current.getVersion() + 1);
+		product.markClean();
+		return product;
+	}
+
+	private static Product adjusted(Product current, int delta) {
+		Product product = new Product(current);
+		product.setStockQuantity(current.getStockQuantity() + delta);
+		product.setVersion(current.getVersion() + 1);
+		product.markClean();
+		return product;
+	}
+
+	private static Product stored(Product product, int version) {
+		Product storedProduct = new Product(product);
+		storedProduct.setVersion(version);
+		storedProduct.markClean();
+		return storedProduct;
+	}
+
+	private static BatchRowResult missing(int productId) {
+		return BatchRowResult.failed(productId, "Product with the Id " + productId + " doesn't exist");
+	}
+
+	/**
+	 * The stored IDs in ascending order and the add and delete count they were
+	 * built at.
+	 */
+	private static final class SortedIds {
+		private final int[] ids;
+		private final long changes;
+
+		SortedIds(int[] ids, long changes) {
+			this.ids = ids;
+			this.changes = changes;
+		}
+	}
+}
@@ -0,0 +1,266 @@
+package com.litmus7.retailproductcatalog.dao.impl;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import com.litmus7.retailproductcatalog.dao.ProductDAO;
+import com.litmus7.retailproductcatalog.dto.BatchResult;
+import com.litmus7.retailproductcatalog.dto.InventorySummary;
+import com.litmus7.retailproductcatalog.dto.Product;
+import com.litmus7.retailproductcatalog.dto.ProductSearchResult;
+import com.litmus7.retailproductcatalog.exception.ProductDataAccessException;
+import com.litmus7.retailproductcatalog.exception.ProductStreamException;
+import com.litmus7.retailproductcatalog.index.ProductIndex;
+
+/**
+ * A {@link ProductDAO} decorator that answers category, price range and text
+ * search queries from a {@link ProductIndex} instead of scanning the table.
+ *
+ * <p>
+ * The index is built from the wrapped DAO on the first query and is then kept
+ * up to date by every write that goes through this DAO. Writes are applied to
+ * the index only after the wrapped DAO has succeeded, and only for the rows
+ * that succeeded. Writes made to the database by other processes are not seen
+ * until {@link #rebuildIndex()} is called.
+ * </p>
+ *
+ * <p>
+ * Writes are applied to the index even before it is built. Building reads
+ * the products without holding the index lock, so queries and writes go on
+ * meanwhile; the products written while it runs are read again once the new
+ * index is in place. Adds and deletes set the whole product, so applying one
+ * that the load already saw is harmless. Updates and stock adjustments are
+ * relative; if the index was reloaded since they started, the product is read
+ * again instead, so its version is the one of the row as written.
+ * </p>
+ *
+ * @author Muhammed Irfan
+ */
+public class IndexedProductDAO implements ProductDAO {
+
+	private final ProductDAO delegate;
+	private final ProductIndex index = new ProductIndex();
+	private volatile boolean indexLoaded;
+
+	/**
+	 * Creates an index in front of the given DAO.
+	 *
+	 * @param delegate the DAO that owns the data
+	 */
+	public IndexedProductDAO(ProductDAO delegate) {
+		this.delegate = delegate;
+	}
+
+	/**
+	 * Returns the products of a category, ordered by ID.
+	 *
+	 * @param category the category, matched case-insensitively
+	 * @return the matching products, empty if there are none
+	 * @throws ProductDataAccessException if the index has to be built and
+	 *                                    building it fails
+	 */
+	public List<Product> getProductsByCategory(String category) throws ProductDataAccessException {
+		ensureIndexLoaded();
+		return index.findByCategory(category);
+	}
+
+	/**
+	 * Returns the products whose price is within the given range, ordered by
+	 * price and then by ID.
+	 *
+	 * @param minPrice the lowest price, inclusive
+	 * @param maxPrice the highest price, inclusive
+	 * @return the matching products, empty if there are none
+	 * @throws ProductDataAccessException if the index has to be built and
+	 *                                    building it fails
+	 */
+	public List<Product> getProductsByPriceRange(double minPrice, double maxPrice)
+			throws ProductDataAccessException {
+		ensureIndexLoaded();
+		return index.findByPriceRange(minPrice, maxPrice);
+	}
+
+	/**
+	 * Searches product names and categories for products having a word that
+	 * starts with each word of the query, best match first.
+	 *
+	 * @param query  the words to search for, matched case-insensitively
+	 * @param offset the number of ranked matches to skip
+	 * @param limit  the largest number of products to return
+	 * @return the requested page of matches and the total number of matches
+	 * @throws ProductDataAccessException if the index has to be built and
+	 *                                    building it fails
+	 */
+	public ProductSearchResult searchProducts(String query, int offset, int limit)
+			throws ProductDataAccessException {
+		ensureIndexLoaded();
+		return index.search(query, offset, limit);
+	}
+
+	/**
+	 * Reloads the index from the wrapped DAO. Queries are answered from the old
+	 * index until the new one is complete.
+	 *
+	 * @throws ProductDataAccessException if reading the products fails
+	 */
+	public synchronized void rebuildIndex() throws ProductDataAccessException {
+		Set<Integer> writtenDuringReload;
+		try (Stream<Product> products = delegate.streamAllProducts()) {
+			writtenDuringReload = index.reload(products::iterator);
+		} catch (ProductStreamException e) {
+			indexLoaded = false;
+			index.clear();
+			throw new ProductDataAccessException("Failed to build product index", e);
+		}
+		for (int productId : writtenDuringReload) {
+			refresh(productId);
+		}
+		indexLoaded = true;
+	}
+
+	@Override
+	public Product addProduct(Product product) throws ProductDataAccessException {
+		Product addedProduct = delegate.addProduct(product);
+		index.put(addedProduct);
+		return addedProduct;
+	}
+
+	@Override
+	public Product getProductById(int productId) throws ProductDataAccessException {
+		return delegate.getProductById(productId);
+	}
+
+	@Override
+	public List<Product> getProductsByIds(Collection<Integer> productIds) throws ProductDataAccessException {
+		return delegate.getProductsByIds(productIds);
+	}
+
+	@Override
+	public List<Product> getAllProducts() throws ProductDataAccessException {
+		return delegate.getAllProducts();
+	}
+
+	@Override
+	public List<Product> getProductsPage(int afterProductId, int pageSize) throws ProductDataAccessException {
+		return delegate.getProductsPage(afterProductId, pageSize);
+	}
+
+	@Override
+	public Stream<Product> streamAllProducts() throws ProductDataAccessException {
+		return delegate.streamAllProducts();
+	}
+
+	/**
+	 * Updates the product through the wrapped DAO and then in the index. If the
+	 * index was reloaded meanwhile, the product is read again instead, since the
+	 * reload may already have seen the update.
+	 */
+	@Override
+	public Product updateProduct(Product product) throws ProductDataAccessException {
+		long generation = index.getGeneration();
+		Product updatedProduct = delegate.updateProduct(product);
+		if (!index.replace(updatedProduct, generation)) {
+			refresh(updatedProduct.getId());
+		}
+		return updatedProduct;
+	}
+
+	@Override
+	public int deleteProductById(int productId) throws ProductDataAccessException {
+		int deletedProductId = delegate.deleteProductById(productId);
+		index.remove(productId);
+		return deletedProductId;
+	}
+
+	@Override
+	public BatchResult addProducts(List<Product> products) throws ProductDataAccessException {
+		BatchResult result = delegate.addProducts(products);
+		for (int i = 0; i < products.size(); i++) {
+			if (result.getRows().get(i).isSuccess()) {
+				index.put(products.get(i));
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public BatchResult updateProducts(List<Product> products) throws ProductDataAccessException {
+		long generation = index.getGeneration();
+		BatchResult result = delegate.updateProducts(products);
+		for (int i = 0; i < products.size(); i++) {
+			if (result.getRows().get(i).isSuccess() && !index.replace(products.get(i), generation)) {
+				refresh(products.get(i).getId());
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public BatchResult deleteProducts(int[] productIds) throws ProductDataAccessException {
+		BatchResult result = delegate.deleteProducts(productIds);
+		for (int i = 0; i < productIds.length; i++) {
+			if (result.getRows().get(i).isSuccess()) {
+				index.remove(productIds[i]);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Adjusts the stock through the wrapped DAO and then in the index. If the
+	 * index was reloaded meanwhile, the product is read again instead, since the
+	 * reload may already have seen the adjustment.
+	 */
+	@Override
+	public void adjustStock(int productId, int delta) throws ProductDataAccessException {
+		long generation = index.getGeneration();
+		delegate.adjustStock(productId, delta);
+		if (!index.adjustStock(productId, delta, generation)) {
+			refresh(productId);
+		}
+	}
+
+	/**
+	 * Adjusts the stock through the wrapped DAO and then in the index, like
+	 * {@link #adjustStock(int, int)}.
+	 */
+	@Override
+	public void adjustStock(int productId, int delta, int expectedVersion) throws ProductDataAccessException {
+		long generation = index.getGeneration();
+		delegate.adjustStock(productId, delta, expectedVersion);
+		if (!index.adjustStock(productId, delta, generation)) {
+			refresh(productId);
+		}
+	}
+
+	@Override
+	public InventorySummary getInventorySummary() throws ProductDataAccessException {
+		return delegate.getInventorySummary();
+	}
+
+	@Override
+	public List<Product> getLowStockProducts(int threshold, int limit) throws ProductDataAccessException {
+		return delegate.getLowStockProducts(threshold, limit);
+	}
+
+	private void refresh(int productId) throws ProductDataAccessException {
+		Product product = delegate.getProductById(productId);
+		if (product == null) {
+			index.remove(productId);
+		} else {
+			index.put(product);
+		}
+	}
+
+	private void ensureIndexLoaded() throws ProductDataAccessException {
+		if (!indexLoaded) {
+			synchronized (this) {
+				if (!indexLoaded) {
+					rebuildIndex();
+				}
+			}
+		}
+	}
+}
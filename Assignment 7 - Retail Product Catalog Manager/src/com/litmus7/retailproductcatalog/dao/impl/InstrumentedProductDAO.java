@@ -0,0 +1,261 @@
+package com.litmus7.retailproductcatalog.dao.impl;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.litmus7.retailproductcatalog.dao.ProductDAO;
+import com.litmus7.retailproductcatalog.dto.BatchResult;
+import com.litmus7.retailproductcatalog.dto.InventorySummary;
+import com.litmus7.retailproductcatalog.dto.Product;
+import com.litmus7.retailproductcatalog.exception.ProductDataAccessException;
+import com.litmus7.retailproductcatalog.metrics.MetricsRegistry;
+import com.litmus7.retailproductcatalog.metrics.OperationMetrics;
+
+/**
+ * A {@link ProductDAO} decorator that records the latency and failures of every
+ * call to the wrapped DAO.
+ *
+ * <p>
+ * Operations are registered as {@code dao.<methodName>}. A call counts as
+ * failed when it throws; for {@link #streamAllProducts()} only opening the
+ * stream is timed.
+ * </p>
+ *
+ * @author Muhammed Irfan
+ */
+public class InstrumentedProductDAO implements ProductDAO {
+
+	private final ProductDAO delegate;
+	private final OperationMetrics addProductMetrics;
+	private final OperationMetrics getProductByIdMetrics;
+	private final OperationMetrics getProductsByIdsMetrics;
+	private final OperationMetrics getAllProductsMetrics;
+	private final OperationMetrics getProductsPageMetrics;
+	private final OperationMetrics streamAllProductsMetrics;
+	private final OperationMetrics updateProductMetrics;
+	private final OperationMetrics deleteProductByIdMetrics;
+	private final OperationMetrics addProductsMetrics;
+	private final OperationMetrics updateProductsMetrics;
+	private final OperationMetrics deleteProductsMetrics;
+	private final OperationMetrics adjustStockMetrics;
+	private final OperationMetrics getInventorySummaryMetrics;
+	private final OperationMetrics getLowStockProductsMetrics;
+
+	/**
+	 * Instruments the given DAO, recording into the given registry.
+	 *
+	 * @param delegate the DAO to instrument
+	 * @param registry the registry that holds the metrics
+	 */
+	public InstrumentedProductDAO(ProductDAO delegate, MetricsRegistry registry) {
+		this.delegate = delegate;
+		this.addProductMetrics = registry.operation("dao.addProduct");
+		this.getProductByIdMetrics = registry.operation("dao.getProductById");
+		this.getProductsByIdsMetrics = registry.operation("dao.getProductsByIds");
+		this.getAllProductsMetrics = registry.operation("dao.getAllProducts");
+		this.getProductsPageMetrics = registry.operation("dao.getProductsPage");
+		this.streamAllProductsMetrics = registry.operation("dao.streamAllProducts");
+		this.updateProductMetrics = registry.operation("dao.updateProduct");
+		this.deleteProductByIdMetrics = registry.operation("dao.deleteProductById");
+		this.addProductsMetrics = registry.operation("dao.addProducts");
+		this.updateProductsMetrics = registry.operation("dao.updateProducts");
+		this.deleteProductsMetrics = registry.operation("dao.deleteProducts");
+		this.adjustStockMetrics = registry.operation("dao.adjustStock");
+		this.getInventorySummaryMetrics = registry.operation("dao.getInventorySummary");
+		this.getLowStockProductsMetrics = registry.operation("dao.getLowStockProducts");
+	}
+
+	@Override
+	public Product addProduct(Product product) throws ProductDataAccessException {
+		long start = System.nanoTime();
+		boolean success = false;
+		try {
+			Product addedProduct = delegate.addProduct(product);
+			success = true;
+			return addedProduct;
+		} finally {
+			addProductMetrics.record(start, success);
+		}
+	}
+
+	@Override
+	public Product getProductById(int productId) throws ProductDataAccessException {
+		long start = System.nanoTime();
+		boolean success = false;
+		try {
+			Product product = delegate.getProductById(productId);
+			success = true;
+			return product;
+		} finally {
+			getProductByIdMetrics.record(start, success);
+		}
+	}
+
+	@Override
+	public List<Product> getProductsByIds(Collection<Integer> productIds) throws ProductDataAccessException {
+		long start = System.nanoTime();
+		boolean success = false;
+		try {
+			List<Product> products = delegate.getProductsByIds(productIds);
+			success = true;
+			return products;
+		} finally {
+			getProductsByIdsMetrics.record(start, success);
+		}
+	}
+
+	@Override
+	public List<Product> getAllProducts() throws ProductDataAccessException {
+		long start = System.nanoTime();
+		boolean success = false;
+		try {
+			List<Product> products = delegate.getAllProducts();
+			success = true;
+			return products;
+		} finally {
+			getAllProductsMetrics.record(start, success);
+		}
+	}
+
+	@Override
+	public List<Product> getProductsPage(int afterProductId, int pageSize) throws ProductDataAccessException {
+		long start = System.nanoTime();
+		boolean success = false;
+		try {
+			List<Product> products = delegate.getProductsPage(afterProductId, pageSize);
+			success = true;
+			return products;
+		} finally {
+			getProductsPageMetrics.record(start, success);
+		}
+	}
+
+	@Override
+	public Stream<Product> streamAllProducts() throws ProductDataAccessException {
+		long start = System.nanoTime();
+		boolean success = false;
+		try {
+			Stream<Product> products = delegate.streamAllProducts();
+			success = true;
+			return products;
+		} finally {
+			streamAllProductsMetrics.record(start, success);
+		}
+	}
+
+	@Override
+	public Product updateProduct(Product product) throws ProductDataAccessException {
+		long start = System.nanoTime();
+		boolean success = false;
+		try {
+			Product updatedProduct = delegate.updateProduct(product);
+			success = true;
+			return updatedProduct;
+		} finally {
+			updateProductMetrics.record(start, success);
+		}
+	}
+
+	@Override
+	public int deleteProductById(int productId) throws ProductDataAccessException {
+		long start = System.nanoTime();
+		boolean success = false;
+		try {
+			int deletedProductId = delegate.deleteProductById(productId);
+			success = true;
+			return deletedProductId;
+		} finally {
+			deleteProductByIdMetrics.record(start, success);
+		}
+	}
+
+	@Override
+	public BatchResult addProducts(List<Product> products) throws ProductDataAccessException {
+		long start = System.nanoTime();
+		boolean success = false;
+		try {
+			BatchResult result = delegate.addProducts(products);
+			success = true;
+			return result;
+		} finally {
+			addProductsMetrics.record(start, success);
+		}
+	}
+
+	@Override
+	public BatchResult updateProducts(List<Product> products) throws ProductDataAccessException {
+		long start = System.nanoTime();
+		boolean success = false;
+		try {
+			BatchResult result = delegate.updateProducts(products);
+			success = true;
+			return result;
+		} finally {
+			updateProductsMetrics.record(start, success);
+		}
+	}
+
+	@Override
+	public BatchResult deleteProducts(int[] productIds) throws ProductDataAccessException {
+		long start = System.nanoTime();
+		boolean success = false;
+		try {
+			BatchResult result = delegate.deleteProducts(productIds);
+			success = true;
+			return result;
+		} finally {
+			deleteProductsMetrics.record(start, success);
+		}
+	}
+
+	@Override
+	public void adjustStock(int productId, int delta) throws ProductDataAccessException {
+		long start = System.nanoTime();
+		boolean success = false;
+		try {
+			delegate.adjustStock(productId, delta);
+			success = true;
+		} finally {
+			adjustStockMetrics.record(start, success);
+		}
+	}
+
+	@Override
+	public void adjustStock(int productId, int delta, int expectedVersion) throws ProductDataAccessException {
+		long start = System.nanoTime();
+		boolean success = false;
+		try {
+			delegate.adjustStock(productId, delta, expectedVersion);
+			success = true;
+		} finally {
+			adjustStockMetrics.record(start, success);
+		}
+	}
+
+	@Override
+	public InventorySummary getInventorySummary() throws ProductDataAccessException {
+		long start = System.nanoTime();
+		boolean success = false;
+		try {
+			InventorySummary summary = delegate.getInventorySummary();
+			success = true;
+			return summary;
+		} finally {
+			getInventorySummaryMetrics.record(start, success);
+		}
+	}
+
+	@Override
+	public List<Product> getLowStockProducts(int threshold, int limit) throws ProductDataAccessException {
+		long start = System.nanoTime();
+		boolean success = false;
+		try {
+			List<Product> products = delegate.getLowStockProducts(threshold, limit);
+			success = true;
+			return products;
+		} finally {
+			getLowStockProductsMetrics.record(start, success);
+		}
+	}
+}
@@ -1,18 +1,46 @@
 package com.litmus7.retailproductcatalog.dao.impl;
 
+import java.sql.BatchUpdateException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import com.litmus7.retailproductcatalog.dao.ProductDAO;
+import com.litmus7.retailproductcatalog.dto.BatchResult;
+import com.litmus7.retailproductcatalog.dto.BatchRowResult;
+import com.litmus7.retailproductcatalog.dto.CategorySummary;
+import com.litmus7.retailproductcatalog.dto.InventorySummary;
 import com.litmus7.retailproductcatalog.dto.Product;
+import com.litmus7.retailproductcatalog.dto.ProductField;
 import com.litmus7.retailproductcatalog.exception.DBConnectionException;
+import com.litmus7.retailproductcatalog.exception.DuplicateProductException;
+import com.litmus7.retailproductcatalog.exception.InsufficientStockException;
 import com.litmus7.retailproductcatalog.exception.ProductDataAccessException;
+import com.litmus7.retailproductcatalog.exception.ProductNotFoundException;
+import com.litmus7.retailproductcatalog.exception.ProductStreamException;
+import com.litmus7.retailproductcatalog.exception.StaleProductException;
+import com.litmus7.retailproductcatalog.util.ConfigUtil;
 import com.litmus7.retailproductcatalog.util.DBUtil;
+import com.litmus7.retailproductcatalog.constant.QueryConstants;
 import com.litmus7.retailproductcatalog.constant.SQLQueries;
 
 import static com.litmus7.retailproductcatalog.constant.DBColumns.*;
@@ -32,11 +60,25 @@ import static com.litmus7.retailproductcatalog.constant.DBColumns.*;
  */
 public class ProductDAOImpl implements ProductDAO {
 
+	private static final int STREAM_FETCH_SIZE = ConfigUtil.getInt(QueryConstants.STREAM_FETCH_SIZE_KEY,
+			QueryConstants.DEFAULT_STREAM_FETCH_SIZE);
+	private static final int MYSQL_DUPLICATE_KEY_ERROR = 1062;
+	private static final int BATCH_SIZE = ConfigUtil.getInt(QueryConstants.BATCH_SIZE_KEY,
+			QueryConstants.DEFAULT_BATCH_SIZE);
+	private static final ConcurrentMap<Integer, String> UPDATE_SQL_BY_DIRTY_FIELDS = new ConcurrentHashMap<>();
+	private static final int MULTI_GET_CHUNK_SIZE = Math.max(1, ConfigUtil
+			.getInt(QueryConstants.MULTI_GET_CHUNK_SIZE_KEY, QueryConstants.DEFAULT_MULTI_GET_CHUNK_SIZE));
+	private static final ConcurrentMap<Integer, String> SELECT_BY_IDS_SQL_BY_SIZE = new ConcurrentHashMap<>();
+
     /**
      * Inserts a new {@link Product} into the database.
+     * 
+     * <p>The primary key constraint is the duplicate check, so adding costs a
+     * single statement and two concurrent adds of the same ID can't both succeed.
      *
      * @param product the product to add
      * @return the product that was added
+     * @throws DuplicateProductException if a product with the same ID exists
      * @throws ProductDataAccessException if a database error occurs
      */
 	@Override
@@ -45,11 +87,7 @@ public class ProductDAOImpl implements ProductDAO {
 				PreparedStatement preparedStatement = connnection.prepareStatement(SQLQueries.INSERT_PRODUCT,
 						PreparedStatement.RETURN_GENERATED_KEYS)) {
 
-			preparedStatement.setInt(1, product.getId());
-			preparedStatement.setString(2, product.getName());
-			preparedStatement.setString(3, product.getCategory());
-			preparedStatement.setDouble(4, product.getPrice());
-			preparedStatement.setInt(5, product.getStockQuantity());
+			bindInsert(preparedStatement, product);
 
 			int affectedRows = preparedStatement.executeUpdate();
 			if (affectedRows == 0) {
@@ -57,7 +95,12 @@ public class ProductDAOImpl implements ProductDAO {
 			}
 
 			return product;
-		} catch (SQLException | DBConnectionException e) {
+		} catch (SQLException e) {
+			if (isDuplicateKey(e)) {
+				throw new DuplicateProductException("Product with the Id exists", e);
+			}
+			throw new ProductDataAccessException("Failed to add product", e);
+		} catch (DBConnectionException e) {
 			throw new ProductDataAccessException("Failed to add product", e);
 		}
 	}
@@ -80,13 +123,7 @@ public class ProductDAOImpl implements ProductDAO {
 	        
 	        try (ResultSet resultSet = preparedStatement.executeQuery()) {
 				if (resultSet.next()) {
-				    product = new Product(
-				    	resultSet.getInt(PRODUCT_ID),
-				        resultSet.getString(PRODUCT_NAME),
-				        resultSet.getString(PRODUCT_CATEGORY),
-				        resultSet.getDouble(PRODUCT_PRICE),
-				        resultSet.getInt(STOCK_QUANTITY)
-				    );
+				    product = mapProduct(resultSet);
 				}
 			}
 	    } catch (SQLException | DBConnectionException e) {
@@ -95,6 +132,57 @@ public class ProductDAOImpl implements ProductDAO {
 	    return product;
 	}
 	
+    /**
+     * Retrieves the {@link Product}s with the given IDs using
+     * {@code IN (...)} queries on one connection.
+     * 
+     * <p>IDs are de-duplicated and sent in chunks of at most
+     * {@code multiget.chunk.size}. The number of placeholders is rounded up to
+     * a power of two by repeating the last ID, so only a handful of distinct
+     * statements exist and they stay in the statement cache.
+     *
+     * @param productIds the IDs of the products to retrieve
+     * @return the products that exist, in the order their IDs first appear
+     * @throws ProductDataAccessException if a database error occurs
+     */
+	@Override
+	public List<Product> getProductsByIds(Collection<Integer> productIds) throws ProductDataAccessException {
+		int[] ids = new LinkedHashSet<>(productIds).stream().mapToInt(Integer::intValue).toArray();
+		Map<Integer, Product> productsById = new HashMap<>(ids.length * 2);
+
+		if (ids.length > 0) {
+			try (Connection connection = DBUtil.getConnection()) {
+				for (int start = 0; start < ids.length; start += MULTI_GET_CHUNK_SIZE) {
+					int end = Math.min(start + MULTI_GET_CHUNK_SIZE, ids.length);
+					int placeholders = placeholderCountFor(end - start);
+					try (PreparedStatement preparedStatement = connection
+							.prepareStatement(selectByIdsSqlFor(placeholders))) {
+						for (int i = 0; i < placeholders; i++) {
+							preparedStatement.setInt(i + 1, ids[Math.min(start + i, end - 1)]);
+						}
+						try (ResultSet resultSet = preparedStatement.executeQuery()) {
+							while (resultSet.next()) {
+								Product product = mapProduct(resultSet);
+								productsById.put(product.getId(), product);
+							}
+						}
+					}
+				}
+			} catch (SQLException | DBConnectionException e) {
+				throw new ProductDataAccessException("Failed to fetch products", e);
+			}
+		}
+
+		List<Product> products = new ArrayList<>(productsById.size());
+		for (int id : ids) {
+			Product product = productsById.get(id);
+			if (product != null) {
+				products.add(product);
+			}
+		}
+		return products;
+	}
+
     /**
      * Retrieves all {@link Product}s from the database.
      *
@@ -110,14 +198,7 @@ public class ProductDAOImpl implements ProductDAO {
 	         ResultSet resultSet = statement.executeQuery(SQLQueries.GET_ALL_PRODUCTS)) {
 
 	        while (resultSet.next()) {
-	            Product product = new Product(
-            		resultSet.getInt(PRODUCT_ID),
-			        resultSet.getString(PRODUCT_NAME),
-			        resultSet.getString(PRODUCT_CATEGORY),
-			        resultSet.getDouble(PRODUCT_PRICE),
-			        resultSet.getInt(STOCK_QUANTITY)
-	            );
-	            products.add(product);
+	            products.add(mapProduct(resultSet));
 	        }
 	    } catch (SQLException | DBConnectionException e) {
 	        throw new ProductDataAccessException("Failed to retrieve products", e);
@@ -125,25 +206,164 @@ public class ProductDAOImpl implements ProductDAO {
 	    return products;
 	}
 
+    /**
+     * Retrieves a page of {@link Product}s using keyset pagination on the
+     * primary key, so every page costs an index range scan regardless of
+     * how deep into the table it is.
+     *
+     * @param afterProductId the ID after which the page starts
+     * @param pageSize the maximum number of products to return
+     * @return the products of the page, ordered by ID
+     * @throws ProductDataAccessException if a database error occurs
+     */
+	@Override
+	public List<Product> getProductsPage(int afterProductId, int pageSize) throws ProductDataAccessException {
+		List<Product> products = new ArrayList<>(pageSize);
+
+		try (Connection connection = DBUtil.getConnection();
+				PreparedStatement preparedStatement = connection.prepareStatement(SQLQueries.GET_PRODUCTS_PAGE)) {
+
+			preparedStatement.setInt(1, afterProductId);
+			preparedStatement.setInt(2, pageSize);
+
+			try (ResultSet resultSet = preparedStatement.executeQuery()) {
+				while (resultSet.next()) {
+					products.add(mapProduct(resultSet));
+				}
+			}
+		} catch (SQLException | DBConnectionException e) {
+			throw new ProductDataAccessException("Failed to retrieve products", e);
+		}
+		return products;
+	}
+
+    /**
+     * Opens a cursor over all {@link Product}s and exposes it as a stream.
+     * 
+     * <p>The statement uses a bounded fetch size so the driver pulls rows in
+     * chunks instead of buffering the whole result. The connection stays
+     * borrowed until the stream is closed.
+     *
+     * @return a stream of all products
+     * @throws ProductDataAccessException if the query cannot be started
+     */
+	@Override
+	public Stream<Product> streamAllProducts() throws ProductDataAccessException {
+		Connection connection = null;
+		PreparedStatement preparedStatement = null;
+		ResultSet resultSet = null;
+		try {
+			connection = DBUtil.getConnection();
+			preparedStatement = connection.prepareStatement(SQLQueries.GET_ALL_PRODUCTS, ResultSet.TYPE_FORWARD_ONLY,
+					ResultSet.CONCUR_READ_ONLY);
+			preparedStatement.setFetchSize(STREAM_FETCH_SIZE);
+			resultSet = preparedStatement.executeQuery();
+		} catch (SQLException | DBConnectionException e) {
+			closeQuietly(resultSet, preparedStatement, connection);
+			throw new ProductDataAccessException("Failed to retrieve products", e);
+		}
+
+		final Connection streamConnection = connection;
+		final PreparedStatement streamStatement = preparedStatement;
+		final ResultSet streamResultSet = resultSet;
+
+		Spliterator<Product> spliterator = new Spliterators.AbstractSpliterator<Product>(Long.MAX_VALUE,
+				Spliterator.ORDERED | Spliterator.NONNULL) {
+			@Override
+			public boolean tryAdvance(Consumer<? super Product> action) {
+				try {
+					if (!streamResultSet.next()) {
+						return false;
+					}
+					action.accept(mapProduct(streamResultSet));
+					return true;
+				} catch (SQLException e) {
+					throw new ProductStreamException("Failed to read next product", e);
+				}
+			}
+		};
+		return StreamSupport.stream(spliterator, false)
+				.onClose(() -> closeQuietly(streamResultSet, streamStatement, streamConnection));
+	}
+
+    /**
+     * Aggregates the inventory in the database with one {@code GROUP BY}
+     * query, so only one row per category is transferred.
+     *
+     * @return the inventory totals, with categories in ascending order
+     * @throws ProductDataAccessException if a database error occurs
+     */
+	@Override
+	public InventorySummary getInventorySummary() throws ProductDataAccessException {
+	    try (Connection connection = DBUtil.getConnection();
+	         PreparedStatement preparedStatement = connection.prepareStatement(SQLQueries.GET_CATEGORY_SUMMARIES);
+	         ResultSet resultSet = preparedStatement.executeQuery()) {
+
+	        List<CategorySummary> summaries = new ArrayList<>();
+	        while (resultSet.next()) {
+	            summaries.add(new CategorySummary(resultSet.getString(PRODUCT_CATEGORY), resultSet.getInt(PRODUCT_COUNT),
+	                    resultSet.getLong(TOTAL_STOCK), resultSet.getDouble(STOCK_VALUE)));
+	        }
+	        return new InventorySummary(summaries);
+	    } catch (SQLException | DBConnectionException e) {
+	        throw new ProductDataAccessException("Failed to summarize inventory", e);
+	    }
+	}
+
+    /**
+     * Retrieves the low-stock {@link Product}s with a filtered, ordered and
+     * limited query.
+     *
+     * @param threshold the highest stock quantity reported
+     * @param limit the maximum number of products to return
+     * @return the low-stock products, lowest stock first
+     * @throws ProductDataAccessException if a database error occurs
+     */
+	@Override
+	public List<Product> getLowStockProducts(int threshold, int limit) throws ProductDataAccessException {
+	    try (Connection connection = DBUtil.getConnection();
+	         PreparedStatement preparedStatement = connection.prepareStatement(SQLQueries.GET_LOW_STOCK_PRODUCTS)) {
+
+	        preparedStatement.setInt(1, threshold);
+	        preparedStatement.setInt(2, limit);
+	        List<Product> products = new ArrayList<>();
+	        try (ResultSet resultSet = preparedStatement.executeQuery()) {
+	            while (resultSet.next()) {
+	                products.add(mapProduct(resultSet));
+	            }
+	        }
+	        return products;
+	    } catch (SQLException | DBConnectionException e) {
+	        throw new ProductDataAccessException("Failed to retrieve low-stock products", e);
+	    }
+	}
+
     /**
      * Updates an existing {@link Product} in the database.
+     * 
+     * <p>Only the fields marked dirty on the product are written, so changing
+     * the price doesn't rewrite the name or race with concurrent stock
+     * adjustments. A product with no dirty fields is not written at all.
+     * Whether the product exists is taken from the affected row count.
      *
      * @param product the product with updated values
      * @return the updated product
+     * @throws ProductNotFoundException if no product has the given ID
      * @throws ProductDataAccessException if a database error occurs
      */
 	@Override
 	public Product updateProduct(Product product) throws ProductDataAccessException {
+	    if (product.getDirtyFields() == 0) {
+	        return product;
+	    }
 	    try (Connection connection = DBUtil.getConnection();
-	         PreparedStatement preparedStatement = connection.prepareStatement(SQLQueries.UPDATE_PRODUCT)) {
+	         PreparedStatement preparedStatement = connection.prepareStatement(updateSqlFor(product.getDirtyFields()))) {
 
-	        preparedStatement.setString(1, product.getName());
-	        preparedStatement.setString(2, product.getCategory());
-	        preparedStatement.setDouble(3, product.getPrice());
-	        preparedStatement.setInt(4, product.getStockQuantity());
-	        preparedStatement.setInt(5, product.getId());
+	        bindUpdate(preparedStatement, product);
 
-	        preparedStatement.executeUpdate();
+	        if (preparedStatement.executeUpdate() == 0) {
+	            throw new ProductNotFoundException("Product with the Id " + product.getId() + " doesn't exist");
+	        }
 	        
 	        return product;
 	    } catch (SQLException | DBConnectionException e) {
@@ -152,10 +372,12 @@ public class ProductDAOImpl implements ProductDAO {
 	}
 
     /**
-     * Deletes a {@link Product} by its ID.
+     * Deletes a {@link Product} by its ID. Whether the product existed is
+     * taken from the affected row count, so no lookup is needed first.
      *
      * @param productId the ID of the product to delete
      * @return the ID of the deleted product
+     * @throws ProductNotFoundException if no product has the given ID
      * @throws ProductDataAccessException if a database error occurs
      */
 	@Override
@@ -164,7 +386,9 @@ public class ProductDAOImpl implements ProductDAO {
 	         PreparedStatement preparedStatement = connection.prepareStatement(SQLQueries.DELETE_PRODUCT_BY_ID)) {
 
 	        preparedStatement.setInt(1, productId);
-	        preparedStatement.executeUpdate();
+	        if (preparedStatement.executeUpdate() == 0) {
+	            throw new ProductNotFoundException("Product with the Id " + productId + " doesn't exist");
+	        }
 	        
 	        return productId;
 	    } catch (SQLException | DBConnectionException e) {
@@ -172,4 +396,374 @@ public class ProductDAOImpl implements ProductDAO {
 	    }
 	}
 
+    /**
+     * Adds {@code delta} to the stock of a product with a single conditional
+     * {@code UPDATE}.
+     * 
+     * <p>The statement runs in auto-commit mode, so the row lock is held only
+     * for the statement itself and concurrent adjustments of the same product
+     * never wait on each other's round trips. Only when no row was updated is
+     * the product read, to tell the caller why.
+     *
+     * @param productId the ID of the product
+     * @param delta the amount to add, negative to take stock out
+     * @throws ProductNotFoundException if no product has the given ID
+     * @throws InsufficientStockException if the stock would become negative
+     * @throws ProductDataAccessException if a database error occurs
+     */
+	@Override
+	public void adjustStock(int productId, int delta) throws ProductDataAccessException {
+	    try (Connection connection = DBUtil.getConnection();
+	         PreparedStatement preparedStatement = connection.prepareStatement(SQLQueries.ADJUST_STOCK)) {
+
+	        preparedStatement.setInt(1, delta);
+	        preparedStatement.setInt(2, productId);
+	        preparedStatement.setInt(3, delta);
+	        if (preparedStatement.executeUpdate() == 0) {
+	            throw stockAdjustmentFailure(connection, productId, null);
+	        }
+	    } catch (SQLException | DBConnectionException e) {
+	        throw new ProductDataAccessException("Failed to adjust stock", e);
+	    }
+	}
+
+    /**
+     * Adds {@code delta} to the stock of a product with a single conditional
+     * {@code UPDATE} that also checks the version of the row.
+     *
+     * @param productId the ID of the product
+     * @param delta the amount to add, negative to take stock out
+     * @param expectedVersion the version of the product the caller read
+     * @throws ProductNotFoundException if no product has the given ID
+     * @throws StaleProductException if the product has been changed since it was read
+     * @throws InsufficientStockException if the stock would become negative
+     * @throws ProductDataAccessException if a database error occurs
+     */
+	@Override
+	public void adjustStock(int productId, int delta, int expectedVersion) throws ProductDataAccessException {
+	    try (Connection connection = DBUtil.getConnection();
+	         PreparedStatement preparedStatement = connection.prepareStatement(SQLQueries.ADJUST_STOCK_IF_VERSION)) {
+
+	        preparedStatement.setInt(1, delta);
+	        preparedStatement.setInt(2, productId);
+	        preparedStatement.setInt(3, expectedVersion);
+	        preparedStatement.setInt(4, delta);
+	        if (preparedStatement.executeUpdate() == 0) {
+	            throw stockAdjustmentFailure(connection, productId, expectedVersion);
+	        }
+	    } catch (SQLException | DBConnectionException e) {
+	        throw new ProductDataAccessException("Failed to adjust stock", e);
+	    }
+	}
+
+    /**
+     * Inserts many {@link Product}s with JDBC batching in one transaction.
+     *
+     * @param products the products to add
+     * @return the outcome of every row, in input order
+     * @throws ProductDataAccessException if the connection or transaction fails
+     */
+	@Override
+	public BatchResult addProducts(List<Product> products) throws ProductDataAccessException {
+		return executeBatch(row -> SQLQueries.INSERT_PRODUCT, products.size(), row -> products.get(row).getId(),
+				(preparedStatement, row) -> bindInsert(preparedStatement, products.get(row)),
+				"Failed to add product", false);
+	}
+
+    /**
+     * Updates many {@link Product}s with JDBC batching in one transaction.
+     * 
+     * <p>Products are grouped by their set of dirty fields and each group is
+     * batched with its own partial update. Products without dirty fields are
+     * reported as succeeded without being written.
+     *
+     * @param products the products with updated values
+     * @return the outcome of every row, in input order
+     * @throws ProductDataAccessException if the connection or transaction fails
+     */
+	@Override
+	public BatchResult updateProducts(List<Product> products) throws ProductDataAccessException {
+		return executeBatch(row -> products.get(row).getDirtyFields() == 0 ? null
+				: updateSqlFor(products.get(row).getDirtyFields()), products.size(), row -> products.get(row).getId(),
+				(preparedStatement, row) -> bindUpdate(preparedStatement, products.get(row)),
+				"Failed to update product", true);
+	}
+
+    /**
+     * Deletes many {@link Product}s with JDBC batching in one transaction.
+     *
+     * @param productIds the IDs of the products to delete
+     * @return the outcome of every row, in input order
+     * @throws ProductDataAccessException if the connection or transaction fails
+     */
+	@Override
+	public BatchResult deleteProducts(int[] productIds) throws ProductDataAccessException {
+		return executeBatch(row -> SQLQueries.DELETE_PRODUCT_BY_ID, productIds.length, row -> productIds[row],
+				(preparedStatement, row) -> preparedStatement.setInt(1, productIds[row]),
+				"Failed to delete product", true);
+	}
+
+	/**
+	 * Runs a statement for each of many rows inside a single transaction and
+	 * turns the driver's update counts into per-row outcomes.
+	 * 
+	 * <p>Rows are grouped by their statement, and each group is sent in chunks
+	 * of {@code BATCH_SIZE}. Rows the driver did not report on after a batch
+	 * failure are retried one at a time so that every row gets an exact
+	 * outcome. The transaction is committed once all groups have run; it is
+	 * rolled back only if the connection itself fails.
+	 *
+	 * @param sqlOf gives the statement of a row, or {@code null} if the row has nothing to write
+	 * @param rowCount the number of rows
+	 * @param productIdOf gives the product ID of a row
+	 * @param binder sets the statement parameters of a row
+	 * @param failedMessage the message of a row the database rejected
+	 * @param zeroRowsIsMissing whether a row that affected nothing means the product doesn't exist
+	 */
+	private BatchResult executeBatch(IntFunction<String> sqlOf, int rowCount, IntUnaryOperator productIdOf,
+			RowBinder binder, String failedMessage, boolean zeroRowsIsMissing) throws ProductDataAccessException {
+		BatchRowResult[] results = new BatchRowResult[rowCount];
+		Map<String, List<Integer>> rowsBySql = new LinkedHashMap<>();
+		for (int row = 0; row < rowCount; row++) {
+			String sql = sqlOf.apply(row);
+			if (sql == null) {
+				results[row] = BatchRowResult.succeeded(productIdOf.applyAsInt(row));
+			} else {
+				rowsBySql.computeIfAbsent(sql, key -> new ArrayList<>()).add(row);
+			}
+		}
+		if (rowsBySql.isEmpty()) {
+			return new BatchResult(Arrays.asList(results));
+		}
+
+		try (Connection connection = DBUtil.getConnection()) {
+			connection.setAutoCommit(false);
+			try {
+				for (Map.Entry<String, List<Integer>> group : rowsBySql.entrySet()) {
+					try (PreparedStatement preparedStatement = connection.prepareStatement(group.getKey())) {
+						executeGroup(preparedStatement, group.getValue(), results, productIdOf, binder, failedMessage,
+								zeroRowsIsMissing);
+					}
+				}
+				connection.commit();
+			} catch (SQLException e) {
+				connection.rollback();
+				throw e;
+			}
+		} catch (SQLException | DBConnectionException e) {
+			throw new ProductDataAccessException("Failed to run product batch", e);
+		}
+		return new BatchResult(Arrays.asList(results));
+	}
+
+	/**
+	 * Runs the rows of one statement in chunks of {@code BATCH_SIZE} and stores
+	 * their outcomes at their row positions.
+	 */
+	private static void executeGroup(PreparedStatement preparedStatement, List<Integer> rows,
+			BatchRowResult[] results, IntUnaryOperator productIdOf, RowBinder binder, String failedMessage,
+			boolean zeroRowsIsMissing) throws SQLException {
+		for (int start = 0; start < rows.size(); start += BATCH_SIZE) {
+			int end = Math.min(start + BATCH_SIZE, rows.size());
+			for (int i = start; i < end; i++) {
+				binder.bind(preparedStatement, rows.get(i));
+				preparedStatement.addBatch();
+			}
+
+			int[] updateCounts;
+			try {
+				updateCounts = preparedStatement.executeBatch();
+			} catch (BatchUpdateException e) {
+				updateCounts = e.getUpdateCounts() != null ? e.getUpdateCounts() : new int[0];
+				preparedStatement.clearBatch();
+			}
+
+			for (int i = start; i < end; i++) {
+				int row = rows.get(i);
+				int index = i - start;
+				int updateCount = index < updateCounts.length ? updateCounts[index]
+						: executeSingle(preparedStatement, binder, row);
+				results[row] = toRowResult(productIdOf.applyAsInt(row), updateCount, failedMessage,
+						zeroRowsIsMissing);
+			}
+		}
+	}
+
+	/**
+	 * Returns the update statement that writes exactly the given dirty fields.
+	 * Statements are generated once per distinct field set and cached; with
+	 * every field dirty this is {@link SQLQueries#UPDATE_PRODUCT}.
+	 */
+	private static String updateSqlFor(int dirtyFields) {
+		return UPDATE_SQL_BY_DIRTY_FIELDS.computeIfAbsent(dirtyFields, fields -> {
+			StringBuilder sql = new StringBuilder(SQLQueries.UPDATE_PRODUCT_FIELDS_PREFIX);
+			for (ProductField field : ProductField.values()) {
+				if ((fields & field.mask()) != 0) {
+					sql.append(columnOf(field)).append(" = ?, ");
+				}
+			}
+			return sql.append(SQLQueries.UPDATE_PRODUCT_FIELDS_SUFFIX).toString();
+		});
+	}
+
+	/**
+	 * Returns the number of placeholders used for a chunk of {@code idCount}
+	 * IDs: the next power of two, but at most the chunk size.
+	 */
+	private static int placeholderCountFor(int idCount) {
+		int placeholders = idCount == 1 ? 1 : Integer.highestOneBit(idCount - 1) << 1;
+		return Math.min(placeholders, MULTI_GET_CHUNK_SIZE);
+	}
+
+	/**
+	 * Returns the lookup by IDs with the given number of placeholders.
+	 * Statements are generated once per placeholder count and cached.
+	 */
+	private static String selectByIdsSqlFor(int placeholders) {
+		return SELECT_BY_IDS_SQL_BY_SIZE.computeIfAbsent(placeholders, size -> {
+			StringBuilder sql = new StringBuilder(SQLQueries.GET_PRODUCTS_BY_IDS_PREFIX);
+			for (int i = 0; i < size; i++) {
+				sql.append(i == 0 ? "?" : ", ?");
+			}
+			return sql.append(')').toString();
+		});
+	}
+
+	private static String columnOf(ProductField field) {
+		switch (field) {
+		case NAME:
+			return PRODUCT_NAME;
+		case CATEGORY:
+			return PRODUCT_CATEGORY;
+		case PRICE:
+			return PRODUCT_PRICE;
+		default:
+			return STOCK_QUANTITY;
+		}
+	}
+
+	/**
+	 * Executes a single row of a batch on its own, returning
+	 * {@link Statement#EXECUTE_FAILED} if the database rejects it.
+	 */
+	private static int executeSingle(PreparedStatement preparedStatement, RowBinder binder, int row) {
+		try {
+			binder.bind(preparedStatement, row);
+			return preparedStatement.executeUpdate();
+		} catch (SQLException e) {
+			return Statement.EXECUTE_FAILED;
+		}
+	}
+
+	private static BatchRowResult toRowResult(int productId, int updateCount, String failedMessage,
+			boolean zeroRowsIsMissing) {
+		if (updateCount > 0 || updateCount == Statement.SUCCESS_NO_INFO) {
+			return BatchRowResult.succeeded(productId);
+		}
+		if (updateCount == 0 && zeroRowsIsMissing) {
+			return BatchRowResult.failed(productId, "Product with the Id " + productId + " doesn't exist");
+		}
+		return BatchRowResult.failed(productId, failedMessage);
+	}
+
+	/**
+	 * Tells whether the exception is a primary or unique key violation: MySQL
+	 * error 1062, or the standard SQLState 23505 used by other databases.
+	 */
+	private static boolean isDuplicateKey(SQLException e) {
+		return e.getErrorCode() == MYSQL_DUPLICATE_KEY_ERROR || "23505".equals(e.getSQLState());
+	}
+
+	/**
+	 * Reads the product after a stock adjustment updated no row and returns the
+	 * exception that explains why. The row may have changed again in between,
+	 * so the reason is a best guess.
+	 */
+	private static ProductDataAccessException stockAdjustmentFailure(Connection connection, int productId,
+			Integer expectedVersion) throws SQLException {
+		try (PreparedStatement preparedStatement = connection.prepareStatement(SQLQueries.GET_STOCK_AND_VERSION)) {
+			preparedStatement.setInt(1, productId);
+			try (ResultSet resultSet = preparedStatement.executeQuery()) {
+				if (!resultSet.next()) {
+					return new ProductNotFoundException("Product with the Id " + productId + " doesn't exist");
+				}
+				if (expectedVersion != null && resultSet.getInt(PRODUCT_VERSION) != expectedVersion) {
+					return new StaleProductException("Product with the Id " + productId + " was changed by someone else");
+				}
+				return new InsufficientStockException("Not enough stock for product with the Id " + productId);
+			}
+		}
+	}
+
+	/**
+	 * Sets the parameters of {@link SQLQueries#INSERT_PRODUCT}.
+	 */
+	private static void bindInsert(PreparedStatement preparedStatement, Product product) throws SQLException {
+		preparedStatement.setInt(1, product.getId());
+		preparedStatement.setString(2, product.getName());
+		preparedStatement.setString(3, product.getCategory());
+		preparedStatement.setDouble(4, product.getPrice());
+		preparedStatement.setInt(5, product.getStockQuantity());
+	}
+
+	/**
+	 * Sets the parameters of the update returned by {@link #updateSqlFor(int)}
+	 * for the product's dirty fields.
+	 */
+	private static void bindUpdate(PreparedStatement preparedStatement, Product product) throws SQLException {
+		int index = 1;
+		if (product.isDirty(ProductField.NAME)) {
+			preparedStatement.setString(index++, product.getName());
+		}
+		if (product.isDirty(ProductField.CATEGORY)) {
+			preparedStatement.setString(index++, product.getCategory());
+		}
+		if (product.isDirty(ProductField.PRICE)) {
+			preparedStatement.setDouble(index++, product.getPrice());
+		}
+		if (product.isDirty(ProductField.STOCK_QUANTITY)) {
+			preparedStatement.setInt(index++, product.getStockQuantity());
+		}
+		preparedStatement.setInt(index, product.getId());
+	}
+
+	/**
+	 * Maps the current row of the result set to a {@link Product}.
+	 */
+	private static Product mapProduct(ResultSet resultSet) throws SQLException {
+		Product product = new Product(
+			resultSet.getInt(PRODUCT_ID),
+			resultSet.getString(PRODUCT_NAME),
+			resultSet.getString(PRODUCT_CATEGORY),
+			resultSet.getDouble(PRODUCT_PRICE),
+			resultSet.getInt(STOCK_QUANTITY)
+		);
+		product.setVersion(resultSet.getInt(PRODUCT_VERSION));
+		product.markClean();
+		return product;
+	}
+
+	/**
+	 * Closes the given JDBC resources, ignoring failures and {@code null}s.
+	 */
+	private static void closeQuietly(AutoCloseable... resources) {
+		for (AutoCloseable resource : resources) {
+			if (resource != null) {
+				try {
+					resource.close();
+				} catch (Exception e) {
+					// nothing useful can be done if closing fails
+				}
+			}
+		}
+	}
+
+	/**
+	 * Sets the statement parameters of one row of a batch.
+	 */
+	@FunctionalInterface
+	private interface RowBinder {
+		void bind(PreparedStatement preparedStatement, int row) throws SQLException;
+	}
+
 }
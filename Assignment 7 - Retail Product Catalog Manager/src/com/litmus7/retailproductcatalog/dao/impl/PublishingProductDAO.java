@@ -0,0 +1,161 @@
+package com.litmus7.retailproductcatalog.dao.impl;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.litmus7.retailproductcatalog.dao.ProductDAO;
+import com.litmus7.retailproductcatalog.dto.BatchResult;
+import com.litmus7.retailproductcatalog.dto.InventorySummary;
+import com.litmus7.retailproductcatalog.dto.Product;
+import com.litmus7.retailproductcatalog.dto.ProductChangeType;
+import com.litmus7.retailproductcatalog.event.ProductChangePublisher;
+import com.litmus7.retailproductcatalog.exception.ProductDataAccessException;
+
+/**
+ * A {@link ProductDAO} decorator that publishes a change event for every
+ * write that succeeds.
+ *
+ * <p>
+ * Events are published after the wrapped DAO returns, and only for the rows
+ * of a batch that succeeded, so a failed write never reaches a listener. Two
+ * writers changing the same product at the same time may publish in a
+ * different order than the database applied their writes; listeners that
+ * need the final state should read the product again.
+ * </p>
+ *
+ * @author Muhammed Irfan
+ */
+public class PublishingProductDAO implements ProductDAO {
+
+	private final ProductDAO delegate;
+	private final ProductChangePublisher publisher;
+
+	/**
+	 * Creates a publishing DAO in front of the given DAO.
+	 *
+	 * @param delegate  the DAO that owns the data
+	 * @param publisher the publisher that receives the events
+	 */
+	public PublishingProductDAO(ProductDAO delegate, ProductChangePublisher publisher) {
+		this.delegate = delegate;
+		this.publisher = publisher;
+	}
+
+	@Override
+	public Product addProduct(Product product) throws ProductDataAccessException {
+		Product addedProduct = delegate.addProduct(product);
+		publisher.publish(ProductChangeType.ADDED, addedProduct.getId(), addedProduct, 0);
+		return addedProduct;
+	}
+
+	@Override
+	public Product getProductById(int productId) throws ProductDataAccessException {
+		return delegate.getProductById(productId);
+	}
+
+	@Override
+	public List<Product> getProductsByIds(Collection<Integer> productIds) throws ProductDataAccessException {
+		return delegate.getProductsByIds(productIds);
+	}
+
+	@Override
+	public List<Product> getAllProducts() throws ProductDataAccessException {
+		return delegate.getAllProducts();
+	}
+
+	@Override
+	public List<Product> getProductsPage(int afterProductId, int pageSize) throws ProductDataAccessException {
+		return delegate.getProductsPage(afterProductId, pageSize);
+	}
+
+	@Override
+	public Stream<Product> streamAllProducts() throws ProductDataAccessException {
+		return delegate.streamAllProducts();
+	}
+
+	/**
+	 * Updates the product through the wrapped DAO and publishes the product as
+	 * written. An update with no changed fields writes nothing and publishes
+	 * nothing.
+	 */
+	@Override
+	public Product updateProduct(Product product) throws ProductDataAccessException {
+		boolean dirty = product.getDirtyFields() != 0;
+		Product updatedProduct = delegate.updateProduct(product);
+		if (dirty) {
+			publisher.publish(ProductChangeType.UPDATED, updatedProduct.getId(), updatedProduct, 0);
+		}
+		return updatedProduct;
+	}
+
+	@Override
+	public int deleteProductById(int productId) throws ProductDataAccessException {
+		int deletedProductId = delegate.deleteProductById(productId);
+		publisher.publish(ProductChangeType.DELETED, deletedProductId, null, 0);
+		return deletedProductId;
+	}
+
+	@Override
+	public BatchResult addProducts(List<Product> products) throws ProductDataAccessException {
+		BatchResult result = delegate.addProducts(products);
+		for (int i = 0; i < products.size(); i++) {
+			if (result.getRows().get(i).isSuccess()) {
+				publisher.publish(ProductChangeType.ADDED, products.get(i).getId(), products.get(i), 0);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Updates the products through the wrapped DAO and publishes the ones that
+	 * succeeded and had changed fields.
+	 */
+	@Override
+	public BatchResult updateProducts(List<Product> products) throws ProductDataAccessException {
+		boolean[] dirty = new boolean[products.size()];
+		for (int i = 0; i < dirty.length; i++) {
+			dirty[i] = products.get(i).getDirtyFields() != 0;
+		}
+		BatchResult result = delegate.updateProducts(products);
+		for (int i = 0; i < products.size(); i++) {
+			if (dirty[i] && result.getRows().get(i).isSuccess()) {
+				publisher.publish(ProductChangeType.UPDATED, products.get(i).getId(), products.get(i), 0);
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public BatchResult deleteProducts(int[] productIds) throws ProductDataAccessException {
+		BatchResult result = delegate.deleteProducts(productIds);
+		for (int i = 0; i < productIds.length; i++) {
+			if (result.getRows().get(i).isSuccess()) {
+				publisher.publish(ProductChangeType.DELETED, productIds[i], null, 0);
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public void adjustStock(int productId, int delta) throws ProductDataAccessException {
+		delegate.adjustStock(productId, delta);
+		publisher.publish(ProductChangeType.STOCK_ADJUSTED, productId, null, delta);
+	}
+
+	@Override
+	public void adjustStock(int productId, int delta, int expectedVersion) throws ProductDataAccessException {
+		delegate.adjustStock(productId, delta, expectedVersion);
+		publisher.publish(ProductChangeType.STOCK_ADJUSTED, productId, null, delta);
+	}
+
+	@Override
+	public InventorySummary getInventorySummary() throws ProductDataAccessException {
+		return delegate.getInventorySummary();
+	}
+
+	@Override
+	public List<Product> getLowStockProducts(int threshold, int limit) throws ProductDataAccessException {
+		return delegate.getLowStockProducts(threshold, limit);
+	}
+}
@@ -0,0 +1,63 @@
+package com.litmus7.retailproductcatalog.dto;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The outcome of a batch write, with one {@link BatchRowResult} per input row
+ * in input order.
+ *
+ * @author Muhammed Irfan
+ */
+public class BatchResult {
+
+	private final List<BatchRowResult> rows;
+	private final int successCount;
+
+	/**
+	 * Constructs a {@code BatchResult} from the per-row outcomes.
+	 *
+	 * @param rows the outcome of every input row, in input order
+	 */
+	public BatchResult(List<BatchRowResult> rows) {
+		this.rows = Collections.unmodifiableList(rows);
+		this.successCount = (int) rows.stream().filter(BatchRowResult::isSuccess).count();
+	}
+
+	/**
+	 * @return the outcome of every input row, in input order
+	 */
+	public List<BatchRowResult> getRows() {
+		return rows;
+	}
+
+	/**
+	 * @return the outcomes of the rows that were not written
+	 */
+	public List<BatchRowResult> getFailedRows() {
+		return rows.stream().filter(row -> !row.isSuccess()).collect(Collectors.toList());
+	}
+
+	/**
+	 * @return the number of rows that were written
+	 */
+	public int getSuccessCount() {
+		return successCount;
+	}
+
+	/**
+	 * @return the number of rows that were not written
+	 */
+	public int getFailureCount() {
+		return rows.size() - successCount;
+	}
+
+	/**
+	 * Override the toString method to display the batch summary
+	 */
+	@Override
+	public String toString() {
+		return "Rows: " + rows.size() + " | Succeeded: " + successCount + " | Failed: " + getFailureCount();
+	}
+}
@@ -0,0 +1,76 @@
+package com.litmus7.retailproductcatalog.dto;
+
+/**
+ * The outcome of a single row of a batch write.
+ *
+ * @author Muhammed Irfan
+ */
+public class BatchRowResult {
+
+	private final int productId;
+	private final boolean success;
+	private final String errorMessage;
+
+	/**
+	 * Constructs a {@code BatchRowResult}.
+	 *
+	 * @param productId    the id of the product the row refers to
+	 * @param success      whether the row was written
+	 * @param errorMessage why the row was not written, or {@code null} on success
+	 */
+	public BatchRowResult(int productId, boolean success, String errorMessage) {
+		this.productId = productId;
+		this.success = success;
+		this.errorMessage = errorMessage;
+	}
+
+	/**
+	 * Creates a successful row outcome.
+	 *
+	 * @param productId the id of the product the row refers to
+	 * @return the row outcome
+	 */
+	public static BatchRowResult succeeded(int productId) {
+		return new BatchRowResult(productId, true, null);
+	}
+
+	/**
+	 * Creates a failed row outcome.
+	 *
+	 * @param productId    the id of the product the row refers to
+	 * @param errorMessage why the row was not written
+	 * @return the row outcome
+	 */
+	public static BatchRowResult failed(int productId, String errorMessage) {
+		return new BatchRowResult(productId, false, errorMessage);
+	}
+
+	/**
+	 * @return the id of the product the row refers to
+	 */
+	public int getProductId() {
+		return productId;
+	}
+
+	/**
+	 * @return {@code true} if the row was written
+	 */
+	public boolean isSuccess() {
+		return success;
+	}
+
+	/**
+	 * @return why the row was not written, or {@code null} on success
+	 */
+	public String getErrorMessage() {
+		return errorMessage;
+	}
+
+	/**
+	 * Override the toString method to display the row outcome
+	 */
+	@Override
+	public String toString() {
+		return "ID: " + productId + " | " + (success ? "OK" : "FAILED: " + errorMessage);
+	}
+}
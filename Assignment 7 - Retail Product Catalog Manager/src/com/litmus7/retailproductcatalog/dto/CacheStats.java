@@ -0,0 +1,100 @@
+package com.litmus7.retailproductcatalog.dto;
+
+/**
+ * A point-in-time snapshot of the product cache counters.
+ *
+ * <p>
+ * It is used to size the cache: a low hit rate together with a high eviction
+ * count means the cache is too small for the working set.
+ * </p>
+ *
+ * @author Muhammed Irfan
+ */
+public class CacheStats {
+
+	private final long hitCount;
+	private final long missCount;
+	private final long evictionCount;
+	private final long expiredCount;
+	private final int size;
+	private final int maxSize;
+
+	/**
+	 * Constructs a {@code CacheStats} with the given counters.
+	 *
+	 * @param hitCount      lookups served from the cache
+	 * @param missCount     lookups that went to the data store
+	 * @param evictionCount entries removed to stay within the maximum size
+	 * @param expiredCount  entries dropped because their time to live passed
+	 * @param size          the current number of entries
+	 * @param maxSize       the maximum number of entries
+	 */
+	public CacheStats(long hitCount, long missCount, long evictionCount, long expiredCount, int size, int maxSize) {
+		this.hitCount = hitCount;
+		this.missCount = missCount;
+		this.evictionCount = evictionCount;
+		this.expiredCount = expiredCount;
+		this.size = size;
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * @return the number of lookups served from the cache
+	 */
+	public long getHitCount() {
+		return hitCount;
+	}
+
+	/**
+	 * @return the number of lookups that went to the data store
+	 */
+	public long getMissCount() {
+		return missCount;
+	}
+
+	/**
+	 * @return the number of entries evicted to stay within the maximum size
+	 */
+	public long getEvictionCount() {
+		return evictionCount;
+	}
+
+	/**
+	 * @return the number of entries dropped because they expired
+	 */
+	public long getExpiredCount() {
+		return expiredCount;
+	}
+
+	/**
+	 * @return the current number of entries
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * @return the maximum number of entries
+	 */
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * @return the fraction of lookups served from the cache, between 0 and 1
+	 */
+	public double getHitRate() {
+		long requests = hitCount + missCount;
+		return requests == 0 ? 0 : (double) hitCount / requests;
+	}
+
+	/**
+	 * Override the toString method to display the cache counters
+	 */
+	@Override
+	public String toString() {
+		return "Hits: " + hitCount + " | Misses: " + missCount + " | Hit Rate: " + String.format("%.2f", getHitRate())
+				+ " | Evictions: " + evictionCount + " | Expired: " + expiredCount + " | Size: " + size + "/"
+				+ maxSize;
+	}
+}
@@ -0,0 +1,90 @@
+package com.litmus7.retailproductcatalog.dto;
+
+/**
+ * Inventory totals of one category: how many products it has, how many units
+ * they have in stock, and what that stock is worth.
+ *
+ * @author Muhammed Irfan
+ */
+public class CategorySummary {
+
+	private final String category;
+	private final int productCount;
+	private final long totalStock;
+	private final double stockValue;
+
+	/**
+	 * Constructs a {@code CategorySummary}.
+	 *
+	 * @param category     the category
+	 * @param productCount the number of products in the category
+	 * @param totalStock   the sum of their stock quantities
+	 * @param stockValue   the sum of price times stock quantity
+	 */
+	public CategorySummary(String category, int productCount, long totalStock, double stockValue) {
+		this.category = category;
+		this.productCount = productCount;
+		this.totalStock = totalStock;
+		this.stockValue = stockValue;
+	}
+
+	/**
+	 * Returns the totals of a category holding only the given product.
+	 *
+	 * @param product the product
+	 * @return the totals of the product alone
+	 */
+	public static CategorySummary of(Product product) {
+		return new CategorySummary(product.getCategory(), 1, product.getStockQuantity(),
+				product.getPrice() * product.getStockQuantity());
+	}
+
+	/**
+	 * Returns the totals of this category and another part of it added up, so
+	 * partial totals computed in parallel can be combined.
+	 *
+	 * @param other totals of more products of the same category
+	 * @return the combined totals
+	 */
+	public CategorySummary plus(CategorySummary other) {
+		return new CategorySummary(category, productCount + other.productCount, totalStock + other.totalStock,
+				stockValue + other.stockValue);
+	}
+
+	/**
+	 * @return the category
+	 */
+	public String getCategory() {
+		return category;
+	}
+
+	/**
+	 * @return the number of products in the category
+	 */
+	public int getProductCount() {
+		return productCount;
+	}
+
+	/**
+	 * @return the sum of the stock quantities of the category
+	 */
+	public long getTotalStock() {
+		return totalStock;
+	}
+
+	/**
+	 * @return the sum of price times stock quantity over the category
+	 */
+	public double getStockValue() {
+		return stockValue;
+	}
+
+	/**
+	 * Override the toString method to display the category totals
+	 */
+	@Override
+	public String toString() {
+		return "Category: " + category + " | Products: " + productCount + " | Stock: " + totalStock + " | Value: "
+				+ String.format("%.2f", stockValue);
+	}
+}
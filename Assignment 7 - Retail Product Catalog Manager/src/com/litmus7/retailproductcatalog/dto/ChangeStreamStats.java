@@ -0,0 +1,97 @@
+package com.litmus7.retailproductcatalog.dto;
+
+/**
+ * A point-in-time snapshot of the product change stream counters.
+ *
+ * <p>
+ * A backlog that keeps growing means listeners are slower than writers; once
+ * the ring buffer is full, writers wait for the dispatcher.
+ * </p>
+ *
+ * @author Muhammed Irfan
+ */
+public class ChangeStreamStats {
+
+	private final long publishedCount;
+	private final long dispatchedCount;
+	private final long batchCount;
+	private final long listenerFailureCount;
+	private final long lastSequence;
+	private final int subscriberCount;
+
+	/**
+	 * Constructs a {@code ChangeStreamStats} with the given counters.
+	 *
+	 * @param publishedCount       events put into the ring buffer
+	 * @param dispatchedCount      events taken out and delivered
+	 * @param batchCount           batches delivered
+	 * @param listenerFailureCount listener calls that threw
+	 * @param lastSequence         the sequence of the last dispatched event
+	 * @param subscriberCount      the number of live listeners
+	 */
+	public ChangeStreamStats(long publishedCount, long dispatchedCount, long batchCount, long listenerFailureCount,
+			long lastSequence, int subscriberCount) {
+		this.publishedCount = publishedCount;
+		this.dispatchedCount = dispatchedCount;
+		this.batchCount = batchCount;
+		this.listenerFailureCount = listenerFailureCount;
+		this.lastSequence = lastSequence;
+		this.subscriberCount = subscriberCount;
+	}
+
+	/**
+	 * @return the number of events put into the ring buffer
+	 */
+	public long getPublishedCount() {
+		return publishedCount;
+	}
+
+	/**
+	 * @return the number of events taken out of the ring buffer and delivered
+	 */
+	public long getDispatchedCount() {
+		return dispatchedCount;
+	}
+
+	/**
+	 * @return the number of events published but not yet dispatched
+	 */
+	public long getBacklog() {
+		return Math.max(0, publishedCount - dispatchedCount);
+	}
+
+	/**
+	 * @return the number of batches delivered
+	 */
+	public long getBatchCount() {
+		return batchCount;
+	}
+
+	/**
+	 * @return the number of listener calls that threw an exception
+	 */
+	public long getListenerFailureCount() {
+		return listenerFailureCount;
+	}
+
+	/**
+	 * @return the sequence of the last dispatched event, {@code 0} if none
+	 */
+	public long getLastSequence() {
+		return lastSequence;
+	}
+
+	/**
+	 * @return the number of live listeners
+	 */
+	public int getSubscriberCount() {
+		return subscriberCount;
+	}
+
+	@Override
+	public String toString() {
+		return "Published: " + publishedCount + " | Dispatched: " + dispatchedCount + " | Backlog: " + getBacklog()
+				+ " | Batches: " + batchCount + " | Listener Failures: " + listenerFailureCount
+				+ " | Last Sequence: " + lastSequence + " | Subscribers: " + subscriberCount;
+	}
+}
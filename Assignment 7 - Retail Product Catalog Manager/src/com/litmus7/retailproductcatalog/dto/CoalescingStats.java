@@ -0,0 +1,70 @@
+package com.litmus7.retailproductcatalog.dto;
+
+/**
+ * A point-in-time snapshot of the product lookup coalescing counters.
+ *
+ * <p>
+ * A high collapsed count means many callers asked for the same product at the
+ * same time and shared one database query instead of each running their own.
+ * </p>
+ *
+ * @author Muhammed Irfan
+ */
+public class CoalescingStats {
+
+	private final long executedCount;
+	private final long collapsedCount;
+	private final int inFlightCount;
+
+	/**
+	 * Constructs a {@code CoalescingStats} with the given counters.
+	 *
+	 * @param executedCount  lookups that ran a query of their own
+	 * @param collapsedCount lookups that waited for a query already in flight
+	 * @param inFlightCount  the number of queries currently in flight
+	 */
+	public CoalescingStats(long executedCount, long collapsedCount, int inFlightCount) {
+		this.executedCount = executedCount;
+		this.collapsedCount = collapsedCount;
+		this.inFlightCount = inFlightCount;
+	}
+
+	/**
+	 * @return the number of lookups that ran a query of their own
+	 */
+	public long getExecutedCount() {
+		return executedCount;
+	}
+
+	/**
+	 * @return the number of lookups that shared a query already in flight
+	 */
+	public long getCollapsedCount() {
+		return collapsedCount;
+	}
+
+	/**
+	 * @return the number of queries currently in flight
+	 */
+	public int getInFlightCount() {
+		return inFlightCount;
+	}
+
+	/**
+	 * @return the fraction of lookups that shared another lookup's query, between
+	 *         0 and 1
+	 */
+	public double getCollapseRate() {
+		long requests = executedCount + collapsedCount;
+		return requests == 0 ? 0 : (double) collapsedCount / requests;
+	}
+
+	/**
+	 * Override the toString method to display the coalescing counters
+	 */
+	@Override
+	public String toString() {
+		return "Executed: " + executedCount + " | Collapsed: " + collapsedCount + " | Collapse Rate: "
+				+ String.format("%.2f", getCollapseRate()) + " | In Flight: " + inFlightCount;
+	}
+}
@@ -0,0 +1,121 @@
+package com.litmus7.retailproductcatalog.dto;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Summary of a bulk product import: how many rows were read, imported and
+ * rejected, and how long each pipeline stage ran.
+ *
+ * @author Muhammed Irfan
+ */
+public class ImportReport {
+
+	private final long totalRows;
+	private final long importedRows;
+	private final long rejectedRowCount;
+	private final List<RejectedRow> rejectedRows;
+	private final long readMillis;
+	private final long parseMillis;
+	private final long writeMillis;
+	private final long totalMillis;
+
+	/**
+	 * Constructs an {@code ImportReport}.
+	 *
+	 * @param totalRows        the number of data rows read from the file
+	 * @param importedRows     the number of rows written to the database
+	 * @param rejectedRowCount the number of rows that were not imported
+	 * @param rejectedRows     the first rejected rows, in no particular order
+	 * @param readMillis       how long the read stage ran
+	 * @param parseMillis      how long the parse and validate stage ran
+	 * @param writeMillis      how long the database write stage ran
+	 * @param totalMillis      how long the whole import took
+	 */
+	public ImportReport(long totalRows, long importedRows, long rejectedRowCount, List<RejectedRow> rejectedRows,
+			long readMillis, long parseMillis, long writeMillis, long totalMillis) {
+		this.totalRows = totalRows;
+		this.importedRows = importedRows;
+		this.rejectedRowCount = rejectedRowCount;
+		this.rejectedRows = Collections.unmodifiableList(rejectedRows);
+		this.readMillis = readMillis;
+		this.parseMillis = parseMillis;
+		this.writeMillis = writeMillis;
+		this.totalMillis = totalMillis;
+	}
+
+	/**
+	 * @return the number of data rows read from the file
+	 */
+	public long getTotalRows() {
+		return totalRows;
+	}
+
+	/**
+	 * @return the number of rows written to the database
+	 */
+	public long getImportedRows() {
+		return importedRows;
+	}
+
+	/**
+	 * @return the number of rows that were not imported
+	 */
+	public long getRejectedRowCount() {
+		return rejectedRowCount;
+	}
+
+	/**
+	 * @return the first rejected rows; the list is capped, see
+	 *         {@link #getRejectedRowCount()} for the full count
+	 */
+	public List<RejectedRow> getRejectedRows() {
+		return rejectedRows;
+	}
+
+	/**
+	 * @return how long the read stage ran, in milliseconds
+	 */
+	public long getReadMillis() {
+		return readMillis;
+	}
+
+	/**
+	 * @return how long the parse and validate stage ran, in milliseconds
+	 */
+	public long getParseMillis() {
+		return parseMillis;
+	}
+
+	/**
+	 * @return how long the database write stage ran, in milliseconds
+	 */
+	public long getWriteMillis() {
+		return writeMillis;
+	}
+
+	/**
+	 * @return how long the whole import took, in milliseconds
+	 */
+	public long getTotalMillis() {
+		return totalMillis;
+	}
+
+	/**
+	 * @return the number of rows processed per second
+	 */
+	public double getRowsPerSecond() {
+		return totalMillis == 0 ? totalRows : totalRows * 1000.0 / totalMillis;
+	}
+
+	/**
+	 * Override the toString method to display the import summary
+	 */
+	@Override
+	public String toString() {
+		return "Rows: " + totalRows + " | Imported: " + importedRows + " | Rejected: " + rejectedRowCount
+				+ "\nRead: " + readMillis + "ms | Parse: " + parseMillis + "ms | Write: " + writeMillis
+				+ "ms | Total: " + totalMillis + "ms | Throughput: " + String.format("%.0f", getRowsPerSecond())
+				+ " rows/s";
+	}
+}
@@ -0,0 +1,77 @@
+package com.litmus7.retailproductcatalog.dto;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The valuation of the whole inventory, with the totals of every category.
+ *
+ * @author Muhammed Irfan
+ */
+public class InventorySummary {
+
+	private final List<CategorySummary> categories;
+	private final int productCount;
+	private final long totalStock;
+	private final double stockValue;
+
+	/**
+	 * Constructs an {@code InventorySummary} from the totals of every category;
+	 * the overall totals are their sums.
+	 *
+	 * @param categories the totals of every category, in display order
+	 */
+	public InventorySummary(Collection<CategorySummary> categories) {
+		int products = 0;
+		long stock = 0;
+		double value = 0;
+		for (CategorySummary category : categories) {
+			products += category.getProductCount();
+			stock += category.getTotalStock();
+			value += category.getStockValue();
+		}
+		this.categories = Collections.unmodifiableList(new ArrayList<>(categories));
+		this.productCount = products;
+		this.totalStock = stock;
+		this.stockValue = value;
+	}
+
+	/**
+	 * @return the totals of every category
+	 */
+	public List<CategorySummary> getCategories() {
+		return categories;
+	}
+
+	/**
+	 * @return the number of products
+	 */
+	public int getProductCount() {
+		return productCount;
+	}
+
+	/**
+	 * @return the number of units in stock over all products
+	 */
+	public long getTotalStock() {
+		return totalStock;
+	}
+
+	/**
+	 * @return the value of the inventory: the sum of price times stock quantity
+	 */
+	public double getStockValue() {
+		return stockValue;
+	}
+
+	/**
+	 * Override the toString method to display the inventory totals
+	 */
+	@Override
+	public String toString() {
+		return "Products: " + productCount + " | Stock: " + totalStock + " | Value: "
+				+ String.format("%.2f", stockValue) + " | Categories: " + categories.size();
+	}
+}
@@ -0,0 +1,118 @@
+package com.litmus7.retailproductcatalog.dto;
+
+/**
+ * Point-in-time call count, error count and latency percentiles of one
+ * operation.
+ *
+ * @author Muhammed Irfan
+ */
+public class OperationSnapshot {
+
+	private final String name;
+	private final long count;
+	private final long errorCount;
+	private final double meanNanos;
+	private final long p50Nanos;
+	private final long p99Nanos;
+	private final long p999Nanos;
+	private final long maxNanos;
+
+	/**
+	 * Constructs an {@code OperationSnapshot}.
+	 *
+	 * @param name       the operation name
+	 * @param count      the number of calls
+	 * @param errorCount the number of failed calls
+	 * @param meanNanos  the mean latency in nanoseconds
+	 * @param p50Nanos   the median latency in nanoseconds
+	 * @param p99Nanos   the 99th percentile latency in nanoseconds
+	 * @param p999Nanos  the 99.9th percentile latency in nanoseconds
+	 * @param maxNanos   the largest latency in nanoseconds
+	 */
+	public OperationSnapshot(String name, long count, long errorCount, double meanNanos, long p50Nanos,
+			long p99Nanos, long p999Nanos, long maxNanos) {
+		this.name = name;
+		this.count = count;
+		this.errorCount = errorCount;
+		this.meanNanos = meanNanos;
+		this.p50Nanos = p50Nanos;
+		this.p99Nanos = p99Nanos;
+		this.p999Nanos = p999Nanos;
+		this.maxNanos = maxNanos;
+	}
+
+	/**
+	 * @return the operation name
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return the number of calls
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * @return the number of failed calls
+	 */
+	public long getErrorCount() {
+		return errorCount;
+	}
+
+	/**
+	 * @return the fraction of calls that failed, between 0 and 1
+	 */
+	public double getErrorRate() {
+		return count == 0 ? 0 : (double) errorCount / count;
+	}
+
+	/**
+	 * @return the mean latency in nanoseconds
+	 */
+	public double getMeanNanos() {
+		return meanNanos;
+	}
+
+	/**
+	 * @return the median latency in nanoseconds
+	 */
+	public long getP50Nanos() {
+		return p50Nanos;
+	}
+
+	/**
+	 * @return the 99th percentile latency in nanoseconds
+	 */
+	public long getP99Nanos() {
+		return p99Nanos;
+	}
+
+	/**
+	 * @return the 99.9th percentile latency in nanoseconds
+	 */
+	public long getP999Nanos() {
+		return p999Nanos;
+	}
+
+	/**
+	 * @return the largest latency in nanoseconds
+	 */
+	public long getMaxNanos() {
+		return maxNanos;
+	}
+
+	/**
+	 * Override the toString method to display the operation metrics in
+	 * microseconds
+	 */
+	@Override
+	public String toString() {
+		return name + " | Calls: " + count + " | Errors: " + errorCount + " ("
+				+ String.format("%.2f", getErrorRate() * 100) + "%) | Mean: " + String.format("%.1f", meanNanos / 1000)
+				+ "us | p50: " + p50Nanos / 1000 + "us | p99: " + p99Nanos / 1000 + "us | p999: " + p999Nanos / 1000
+				+ "us | Max: " + maxNanos / 1000 + "us";
+	}
+}
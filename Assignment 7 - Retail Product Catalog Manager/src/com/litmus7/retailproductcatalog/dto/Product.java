@@ -6,8 +6,8 @@ package com.litmus7.retailproductcatalog.dto;
  * DAO.
  * 
  * <p>
- * It includes fields for id, name, category, price and stockQuantity, along with
- * appropriate getters and setters.
+ * It includes fields for id, name, category, price, stockQuantity and version,
+ * along with appropriate getters and setters.
  * </p>
  * 
  * <p>
@@ -24,6 +24,8 @@ public class Product {
 	private String category;
 	private double price;
 	private int stockQuantity;
+	private int version;
+	private int dirtyFields = ProductField.ALL;
 	
 	public Product(int id, String name, String category, double price, int stockQuantity) {
 		super();
@@ -34,6 +36,17 @@ public class Product {
 		this.stockQuantity = stockQuantity;
 	}
 
+	/**
+	 * Creates a copy of the given product.
+	 *
+	 * @param product the product to copy
+	 */
+	public Product(Product product) {
+		this(product.id, product.name, product.category, product.price, product.stockQuantity);
+		this.version = product.version;
+		this.dirtyFields = product.dirtyFields;
+	}
+
 	/**
 	 * Get the id
 	 * 
@@ -68,6 +81,7 @@ public class Product {
 	 */
 	public void setName(String name) {
 		this.name = name;
+		this.dirtyFields |= ProductField.NAME.mask();
 	}
 
 	/**
@@ -86,6 +100,7 @@ public class Product {
 	 */
 	public void setCategory(String category) {
 		this.category = category;
+		this.dirtyFields |= ProductField.CATEGORY.mask();
 	}
 
 	/**
@@ -104,6 +119,7 @@ public class Product {
 	 */
 	public void setPrice(double price) {
 		this.price = price;
+		this.dirtyFields |= ProductField.PRICE.mask();
 	}
 
 	/**
@@ -122,8 +138,57 @@ public class Product {
 	 */
 	public void setStockQuantity(int stockQuantity) {
 		this.stockQuantity = stockQuantity;
+		this.dirtyFields |= ProductField.STOCK_QUANTITY.mask();
+	}
+
+	/**
+	 * Get the Version. The version is incremented by every update of the product
+	 * in the data store and is used to detect concurrent changes.
+	 * 
+	 * @return the version
+	 */
+	public int getVersion() {
+		return version;
+	}
+
+	/**
+	 * Set the Version
+	 * 
+	 * @param version the version to set
+	 */
+	public void setVersion(int version) {
+		this.version = version;
 	}
 	
+	/**
+	 * Get the fields changed since the product was loaded from the data store,
+	 * as a mask of {@link ProductField#mask()} bits. A product created with a
+	 * constructor has every field dirty; updates write only the dirty fields.
+	 * 
+	 * @return the dirty field mask
+	 */
+	public int getDirtyFields() {
+		return dirtyFields;
+	}
+
+	/**
+	 * Tells whether a field was changed since the product was loaded.
+	 * 
+	 * @param field the field to check
+	 * @return {@code true} if the field is dirty
+	 */
+	public boolean isDirty(ProductField field) {
+		return (dirtyFields & field.mask()) != 0;
+	}
+
+	/**
+	 * Marks every field as unchanged, e.g. after the product was loaded from or
+	 * written to the data store.
+	 */
+	public void markClean() {
+		this.dirtyFields = 0;
+	}
+
 	/**
 	 * Override the toString method to display the Product details
 	 */
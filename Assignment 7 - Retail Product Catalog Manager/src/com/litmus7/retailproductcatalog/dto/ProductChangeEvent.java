@@ -0,0 +1,95 @@
+package com.litmus7.retailproductcatalog.dto;
+
+/**
+ * A successful write to a product, as delivered to change listeners.
+ *
+ * <p>
+ * Sequence numbers start at 1 and increase by one per event, so a consumer
+ * that remembers the last sequence it processed can resume from the change
+ * log after a restart.
+ * </p>
+ *
+ * @author Muhammed Irfan
+ */
+public class ProductChangeEvent {
+
+	private final long sequence;
+	private final long timestamp;
+	private final ProductChangeType type;
+	private final int productId;
+	private final Product product;
+	private final int stockDelta;
+
+	/**
+	 * Constructs a {@code ProductChangeEvent}.
+	 *
+	 * @param sequence   the position of the event in the change stream
+	 * @param timestamp  when the event was published, in epoch milliseconds
+	 * @param type       the kind of change
+	 * @param productId  the ID of the changed product
+	 * @param product    the product as written, or {@code null} for deletes and
+	 *                   stock adjustments
+	 * @param stockDelta the stock adjustment, {@code 0} unless {@code type} is
+	 *                   {@link ProductChangeType#STOCK_ADJUSTED}
+	 */
+	public ProductChangeEvent(long sequence, long timestamp, ProductChangeType type, int productId, Product product,
+			int stockDelta) {
+		this.sequence = sequence;
+		this.timestamp = timestamp;
+		this.type = type;
+		this.productId = productId;
+		this.product = product;
+		this.stockDelta = stockDelta;
+	}
+
+	/**
+	 * @return the position of the event in the change stream
+	 */
+	public long getSequence() {
+		return sequence;
+	}
+
+	/**
+	 * @return when the event was published, in epoch milliseconds
+	 */
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	/**
+	 * @return the kind of change
+	 */
+	public ProductChangeType getType() {
+		return type;
+	}
+
+	/**
+	 * @return the ID of the changed product
+	 */
+	public int getProductId() {
+		return productId;
+	}
+
+	/**
+	 * Returns the product as written. The product is shared by every listener
+	 * and must not be modified.
+	 *
+	 * @return the product, or {@code null} for deletes and stock adjustments
+	 */
+	public Product getProduct() {
+		return product;
+	}
+
+	/**
+	 * @return the stock adjustment, {@code 0} for other kinds of change
+	 */
+	public int getStockDelta() {
+		return stockDelta;
+	}
+
+	@Override
+	public String toString() {
+		return "Sequence: " + sequence + " | Type: " + type + " | Product ID: " + productId
+				+ (type == ProductChangeType.STOCK_ADJUSTED ? " | Stock Delta: " + stockDelta : "");
+	}
+}
@@ -0,0 +1,26 @@
+package com.litmus7.retailproductcatalog.dto;
+
+/**
+ * The kinds of change a {@link ProductChangeEvent} describes.
+ *
+ * @author Muhammed Irfan
+ */
+public enum ProductChangeType {
+	/**
+	 * A product was added; the event carries the added product.
+	 */
+	ADDED,
+	/**
+	 * A product was updated; the event carries the product as written.
+	 */
+	UPDATED,
+	/**
+	 * A product was deleted; the event carries no product.
+	 */
+	DELETED,
+	/**
+	 * The stock of a product was adjusted; the event carries the delta but no
+	 * product, since the new quantity is computed by the data store.
+	 */
+	STOCK_ADJUSTED
+}
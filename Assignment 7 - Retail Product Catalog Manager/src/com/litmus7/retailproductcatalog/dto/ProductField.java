@@ -0,0 +1,23 @@
+package com.litmus7.retailproductcatalog.dto;
+
+/**
+ * The fields of a {@link Product} that can be changed after it is created.
+ * Each field has a bit in {@link Product#getDirtyFields()}.
+ *
+ * @author Muhammed Irfan
+ */
+public enum ProductField {
+	NAME, CATEGORY, PRICE, STOCK_QUANTITY;
+
+	/**
+	 * The mask with the bit of every field set.
+	 */
+	public static final int ALL = (1 << values().length) - 1;
+
+	/**
+	 * @return the bit of this field in a dirty field mask
+	 */
+	public int mask() {
+		return 1 << ordinal();
+	}
+}
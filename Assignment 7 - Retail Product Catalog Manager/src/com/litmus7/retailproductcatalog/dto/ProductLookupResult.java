@@ -0,0 +1,56 @@
+package com.litmus7.retailproductcatalog.dto;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The outcome of looking up many products by ID at once: the products that
+ * were found and the IDs that don't exist, both in request order.
+ *
+ * @author Muhammed Irfan
+ */
+public class ProductLookupResult {
+
+	private final List<Product> products;
+	private final List<Integer> missingIds;
+
+	/**
+	 * Constructs a {@code ProductLookupResult}.
+	 *
+	 * @param products   the products found, in the order their IDs were requested
+	 * @param missingIds the requested IDs with no product, in request order
+	 */
+	public ProductLookupResult(List<Product> products, List<Integer> missingIds) {
+		this.products = Collections.unmodifiableList(products);
+		this.missingIds = Collections.unmodifiableList(missingIds);
+	}
+
+	/**
+	 * @return the products found, in the order their IDs were requested
+	 */
+	public List<Product> getProducts() {
+		return products;
+	}
+
+	/**
+	 * @return the requested IDs with no product, in request order
+	 */
+	public List<Integer> getMissingIds() {
+		return missingIds;
+	}
+
+	/**
+	 * @return {@code true} if every requested product was found
+	 */
+	public boolean isComplete() {
+		return missingIds.isEmpty();
+	}
+
+	/**
+	 * Override the toString method to display the lookup outcome
+	 */
+	@Override
+	public String toString() {
+		return "Found: " + products.size() + " | Missing: " + missingIds;
+	}
+}
@@ -0,0 +1,66 @@
+package com.litmus7.retailproductcatalog.dto;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of a product search: the matching products in rank order and the
+ * total number of matches, so callers can tell whether more pages follow.
+ *
+ * @author Muhammed Irfan
+ */
+public class ProductSearchResult {
+
+	private final List<Product> products;
+	private final int totalMatches;
+	private final int offset;
+
+	/**
+	 * Constructs a {@code ProductSearchResult}.
+	 *
+	 * @param products     the products of the page, best match first
+	 * @param totalMatches the number of products matching the query
+	 * @param offset       the number of ranked matches before the page
+	 */
+	public ProductSearchResult(List<Product> products, int totalMatches, int offset) {
+		this.products = Collections.unmodifiableList(products);
+		this.totalMatches = totalMatches;
+		this.offset = offset;
+	}
+
+	/**
+	 * @return the products of the page, best match first
+	 */
+	public List<Product> getProducts() {
+		return products;
+	}
+
+	/**
+	 * @return the number of products matching the query
+	 */
+	public int getTotalMatches() {
+		return totalMatches;
+	}
+
+	/**
+	 * @return the number of ranked matches before the page
+	 */
+	public int getOffset() {
+		return offset;
+	}
+
+	/**
+	 * @return {@code true} if more matches follow this page
+	 */
+	public boolean hasMore() {
+		return offset + products.size() < totalMatches;
+	}
+
+	/**
+	 * Override the toString method to display the search outcome
+	 */
+	@Override
+	public String toString() {
+		return "Matches: " + totalMatches + " | Offset: " + offset + " | Page: " + products.size();
+	}
+}
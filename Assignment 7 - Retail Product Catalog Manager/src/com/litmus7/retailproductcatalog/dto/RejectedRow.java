@@ -0,0 +1,45 @@
+package com.litmus7.retailproductcatalog.dto;
+
+/**
+ * A row of an import file that was not imported, with the reason.
+ *
+ * @author Muhammed Irfan
+ */
+public class RejectedRow {
+
+	private final long lineNumber;
+	private final String reason;
+
+	/**
+	 * Constructs a {@code RejectedRow}.
+	 *
+	 * @param lineNumber the 1-based line number in the file
+	 * @param reason     why the row was rejected
+	 */
+	public RejectedRow(long lineNumber, String reason) {
+		this.lineNumber = lineNumber;
+		this.reason = reason;
+	}
+
+	/**
+	 * @return the 1-based line number in the file
+	 */
+	public long getLineNumber() {
+		return lineNumber;
+	}
+
+	/**
+	 * @return why the row was rejected
+	 */
+	public String getReason() {
+		return reason;
+	}
+
+	/**
+	 * Override the toString method to display the rejected row
+	 */
+	@Override
+	public String toString() {
+		return "Line " + lineNumber + ": " + reason;
+	}
+}
@@ -0,0 +1,98 @@
+package com.litmus7.retailproductcatalog.dto;
+
+/**
+ * A point-in-time snapshot of the prepared statement cache counters of the
+ * connection pool.
+ *
+ * <p>
+ * Every miss pays for a statement prepare; the average prepare time is the
+ * cost a hit saves.
+ * </p>
+ *
+ * @author Muhammed Irfan
+ */
+public class StatementCacheStats {
+
+	private final long hitCount;
+	private final long missCount;
+	private final long evictionCount;
+	private final long prepareNanos;
+	private final int size;
+
+	/**
+	 * Constructs a {@code StatementCacheStats} with the given counters.
+	 *
+	 * @param hitCount      prepares served from a connection's cache
+	 * @param missCount     prepares that went to the driver
+	 * @param evictionCount statements closed to stay within the cache size
+	 * @param prepareNanos  total time spent preparing on misses, in nanoseconds
+	 * @param size          the number of statements cached over all connections
+	 */
+	public StatementCacheStats(long hitCount, long missCount, long evictionCount, long prepareNanos, int size) {
+		this.hitCount = hitCount;
+		this.missCount = missCount;
+		this.evictionCount = evictionCount;
+		this.prepareNanos = prepareNanos;
+		this.size = size;
+	}
+
+	/**
+	 * @return the number of prepares served from a connection's cache
+	 */
+	public long getHitCount() {
+		return hitCount;
+	}
+
+	/**
+	 * @return the number of prepares that went to the driver
+	 */
+	public long getMissCount() {
+		return missCount;
+	}
+
+	/**
+	 * @return the number of statements closed to stay within the cache size
+	 */
+	public long getEvictionCount() {
+		return evictionCount;
+	}
+
+	/**
+	 * @return the total time spent preparing statements, in nanoseconds
+	 */
+	public long getPrepareNanos() {
+		return prepareNanos;
+	}
+
+	/**
+	 * @return the number of statements cached over all connections
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * @return the fraction of prepares served from the cache, between 0 and 1
+	 */
+	public double getHitRate() {
+		long requests = hitCount + missCount;
+		return requests == 0 ? 0 : (double) hitCount / requests;
+	}
+
+	/**
+	 * @return the average time of one prepare on a miss, in microseconds
+	 */
+	public double getAveragePrepareMicros() {
+		return missCount == 0 ? 0 : prepareNanos / 1000.0 / missCount;
+	}
+
+	/**
+	 * Override the toString method to display the statement cache counters
+	 */
+	@Override
+	public String toString() {
+		return "Hits: " + hitCount + " | Misses: " + missCount + " | Hit Rate: " + String.format("%.2f", getHitRate())
+				+ " | Evictions: " + evictionCount + " | Avg Prepare: "
+				+ String.format("%.1f", getAveragePrepareMicros()) + "us | Size: " + size;
+	}
+}
@@ -0,0 +1,107 @@
+package com.litmus7.retailproductcatalog.event;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded, lock-free ring buffer for many writers and one reader.
+ *
+ * <p>
+ * A writer claims a position with a compare-and-set on the tail and then
+ * fills the slot; the reader takes filled slots in position order, clears
+ * them and only then moves the head, so a claimed slot is always empty. A
+ * position that is claimed but not yet filled stops the reader until it is,
+ * which keeps the output in claim order.
+ * </p>
+ *
+ * @param <E> the element type
+ */
+class ChangeEventRing<E> {
+
+	private final AtomicReferenceArray<E> slots;
+	private final int mask;
+	private final AtomicLong tail = new AtomicLong();
+	private final AtomicLong head = new AtomicLong();
+
+	/**
+	 * @param capacity the requested capacity, rounded up to a power of two
+	 */
+	ChangeEventRing(int capacity) {
+		int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+		this.slots = new AtomicReferenceArray<>(size);
+		this.mask = size - 1;
+	}
+
+	/**
+	 * Claims the next position if the ring has room. The caller must
+	 * {@link #fill(long, Object)} the position, or the reader stalls.
+	 *
+	 * @return the claimed position, or {@code -1} if the ring is full
+	 */
+	long claim() {
+		while (true) {
+			long position = tail.get();
+			if (position - head.get() > mask) {
+				return -1;
+			}
+			if (tail.compareAndSet(position, position + 1)) {
+				return position;
+			}
+		}
+	}
+
+	/**
+	 * Publishes an element at a claimed position.
+	 */
+	void fill(long position, E element) {
+		slots.set((int) position & mask, element);
+	}
+
+	/**
+	 * Moves up to {@code max} elements, in position order, to {@code out}.
+	 * Must only be called by the reader thread.
+	 *
+	 * @return the number of elements moved
+	 */
+	int drainTo(List<E> out, int max) {
+		long position = head.get();
+		int count = 0;
+		while (count < max) {
+			int index = (int) position & mask;
+			E element = slots.get(index);
+			if (element == null) {
+				break;
+			}
+			slots.lazySet(index, null);
+			out.add(element);
+			position++;
+			count++;
+		}
+		if (count > 0) {
+			head.set(position);
+		}
+		return count;
+	}
+
+	/**
+	 * @return whether no position is claimed beyond the head
+	 */
+	boolean isEmpty() {
+		return tail.get() == head.get();
+	}
+
+	/**
+	 * @return the number of positions claimed so far
+	 */
+	long claimedCount() {
+		return tail.get();
+	}
+
+	/**
+	 * @return the number of elements the ring holds
+	 */
+	int capacity() {
+		return mask + 1;
+	}
+}
@@ -0,0 +1,29 @@
+package com.litmus7.retailproductcatalog.event;
+
+import java.util.List;
+
+import com.litmus7.retailproductcatalog.dto.ProductChangeEvent;
+
+/**
+ * Receives product change events from a {@link ProductChangePublisher}.
+ *
+ * <p>
+ * Listeners are called on the dispatcher thread, one batch at a time and in
+ * sequence order. A slow listener delays every other listener and, once the
+ * ring buffer is full, the writers; listeners with slow work should hand it
+ * to their own executor.
+ * </p>
+ *
+ * @author Muhammed Irfan
+ */
+@FunctionalInterface
+public interface ProductChangeListener {
+
+	/**
+	 * Handles a batch of events. An exception thrown here is logged and
+	 * counted; the batch is not delivered again.
+	 *
+	 * @param events the events, ordered by sequence; never empty
+	 */
+	void onEvents(List<ProductChangeEvent> events);
+}
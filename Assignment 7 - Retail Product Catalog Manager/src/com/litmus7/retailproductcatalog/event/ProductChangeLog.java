@@ -0,0 +1,366 @@
+package com.litmus7.retailproductcatalog.event;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+import com.litmus7.retailproductcatalog.dto.Product;
+import com.litmus7.retailproductcatalog.dto.ProductChangeEvent;
+import com.litmus7.retailproductcatalog.dto.ProductChangeType;
+import com.litmus7.retailproductcatalog.dto.ProductField;
+
+/**
+ * A local append-only file of product change events, so consumers can resume
+ * from the last sequence they processed instead of re-scanning the table.
+ *
+ * <p>
+ * Every event is one record: its payload length, the payload and a CRC-32 of
+ * the payload. A record that is cut short or fails its checksum can only be
+ * the result of a crash during an append, so opening the log truncates the
+ * file at the first such record. An append that fails part way is cut back
+ * the same way before the exception is thrown; if that fails too, the log is
+ * marked failed and refuses further appends and reads, since its end is no
+ * longer known. The log keeps every event; rotating or compacting it is left
+ * to the operator.
+ * </p>
+ *
+ * <p>
+ * The file offset of every {@value #INDEX_INTERVAL}th record is kept in
+ * memory, so a reader resuming near the end seeks close to its position
+ * instead of reading the log from the start.
+ * </p>
+ *
+ * <p>
+ * The log is not thread-safe; the {@link ProductChangePublisher} uses it only
+ * from its dispatcher thread.
+ * </p>
+ *
+ * @author Muhammed Irfan
+ */
+public class ProductChangeLog implements Closeable {
+
+	private static final Logger LOGGER = Logger.getLogger(ProductChangeLog.class.getName());
+	private static final int MAX_RECORD_LENGTH = 1 << 20;
+	private static final int INDEX_INTERVAL = 1024;
+
+	private final Path path;
+	private final boolean fsync;
+	private final FileChannel channel;
+	private long lastSequence;
+	private long endOffset;
+	private long recordCount;
+	private long[] indexSequences = new long[16];
+	private long[] indexOffsets = new long[16];
+	private int indexSize;
+	private IOException failure;
+
+	/**
+	 * Opens the log at the given path, creating it if it doesn't exist and
+	 * dropping a torn record at its end.
+	 *
+	 * @param path  the log file
+	 * @param fsync whether {@link #append(List)} forces the appended records to
+	 *              disk before it returns
+	 * @throws IOException if the file cannot be read or opened for writing
+	 */
+	public ProductChangeLog(Path path, boolean fsync) throws IOException {
+		this.path = path;
+		this.fsync = fsync;
+		this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		try {
+			long validLength = scan();
+			if (validLength < channel.size()) {
+				LOGGER.warning("Truncating torn change log record at byte " + validLength + " of " + path);
+				channel.truncate(validLength);
+				channel.force(true);
+			}
+			channel.position(validLength);
+			endOffset = validLength;
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * @return the sequence of the last event in the log, {@code 0} if it is
+	 *         empty
+	 */
+	public long getLastSequence() {
+		return lastSequence;
+	}
+
+	/**
+	 * @return whether a failed append could not be cut back, leaving the log
+	 *         unusable until it is reopened
+	 */
+	public boolean isFailed() {
+		return failure != null;
+	}
+
+	/**
+	 * Appends the events at the end of the log with a single write. If the
+	 * write fails, whatever part of it reached the file is truncated, so the
+	 * log still ends at its last complete record.
+	 *
+	 * @param events the events, ordered by sequence
+	 * @throws IOException if the write fails or the log has failed
+	 */
+	public void append(List<ProductChangeEvent> events) throws IOException {
+		checkNotFailed();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(events.size() * 64);
+		DataOutputStream out = new DataOutputStream(bytes);
+		ByteArrayOutputStream payload = new ByteArrayOutputStream(64);
+		DataOutputStream payloadOut = new DataOutputStream(payload);
+		CRC32 crc = new CRC32();
+		long[] offsets = new long[events.size()];
+		for (int i = 0; i < events.size(); i++) {
+			offsets[i] = endOffset + out.size();
+			payload.reset();
+			writeEvent(payloadOut, events.get(i));
+			crc.reset();
+			crc.update(payload.toByteArray());
+			out.writeInt(payload.size());
+			payload.writeTo(out);
+			out.writeInt((int) crc.getValue());
+		}
+		ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+		try {
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			if (fsync) {
+				channel.force(false);
+			}
+		} catch (IOException e) {
+			rollBack(e);
+			throw e;
+		}
+		endOffset += out.size();
+		for (int i = 0; i < events.size(); i++) {
+			recordAppended(events.get(i).getSequence(), offsets[i]);
+		}
+	}
+
+	/**
+	 * Reads the events after the given sequence, in order, and passes them to
+	 * the consumer in batches.
+	 *
+	 * @param afterSequence the sequence after which to start, {@code 0} for the
+	 *                      whole log
+	 * @param batchSize     the largest number of events per batch
+	 * @param consumer      receives each batch; the list is not reused
+	 * @throws IOException if the log cannot be read or has failed
+	 */
+	public void read(long afterSequence, int batchSize, Consumer<List<ProductChangeEvent>> consumer)
+			throws IOException {
+		checkNotFailed();
+		long offset = seekOffset(afterSequence + 1);
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+				Channels.newInputStream(FileChannel.open(path, StandardOpenOption.READ).position(offset))))) {
+			List<ProductChangeEvent> batch = new ArrayList<>(batchSize);
+			while (offset < endOffset) {
+				int length = in.readInt();
+				byte[] payload = new byte[length];
+				in.readFully(payload);
+				in.readInt();
+				offset += 8 + length;
+				ProductChangeEvent event = readEvent(new DataInputStream(new ByteArrayInputStream(payload)));
+				if (event.getSequence() <= afterSequence) {
+					continue;
+				}
+				batch.add(event);
+				if (batch.size() == batchSize) {
+					consumer.accept(batch);
+					batch = new ArrayList<>(batchSize);
+				}
+			}
+			if (!batch.isEmpty()) {
+				consumer.accept(batch);
+			}
+		}
+	}
+
+	/**
+	 * Forces appended records to disk and closes the file.
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			channel.force(false);
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Cuts the file back to the end of the last complete record after a failed
+	 * append, or marks the log failed if that is not possible.
+	 */
+	private void rollBack(IOException cause) {
+		try {
+			channel.truncate(endOffset);
+			channel.position(endOffset);
+		} catch (IOException e) {
+			cause.addSuppressed(e);
+			failure = cause;
+			LOGGER.severe("Could not truncate the failed append at byte " + endOffset + " of " + path
+					+ "; the change log is unusable until reopened");
+		}
+	}
+
+	private void checkNotFailed() throws IOException {
+		if (failure != null) {
+			throw new IOException("Product change log " + path + " failed", failure);
+		}
+	}
+
+	/**
+	 * Reads the log from the start, remembering the last sequence, and returns
+	 * the length of its intact prefix.
+	 */
+	private long scan() throws IOException {
+		long size = channel.size();
+		long offset = 0;
+		CRC32 crc = new CRC32();
+		try (DataInputStream in = new DataInputStream(
+				new BufferedInputStream(Channels.newInputStream(FileChannel.open(path, StandardOpenOption.READ))))) {
+			while (offset < size) {
+				int length;
+				byte[] payload;
+				int checksum;
+				try {
+					length = in.readInt();
+					if (length <= 0 || length > MAX_RECORD_LENGTH || offset + 8 + length > size) {
+						break;
+					}
+					payload = new byte[length];
+					in.readFully(payload);
+					checksum = in.readInt();
+				} catch (EOFException e) {
+					break;
+				}
+				crc.reset();
+				crc.update(payload);
+				if ((int) crc.getValue() != checksum) {
+					break;
+				}
+				recordAppended(new DataInputStream(new ByteArrayInputStream(payload)).readLong(), offset);
+				offset += 8 + length;
+			}
+		}
+		return offset;
+	}
+
+	/**
+	 * Counts a record and, for every {@value #INDEX_INTERVAL}th one, remembers
+	 * where it starts.
+	 */
+	private void recordAppended(long sequence, long offset) {
+		if (recordCount++ % INDEX_INTERVAL == 0) {
+			if (indexSize == indexSequences.length) {
+				indexSequences = Arrays.copyOf(indexSequences, indexSize * 2);
+				indexOffsets = Arrays.copyOf(indexOffsets, indexSize * 2);
+			}
+			indexSequences[indexSize] = sequence;
+			indexOffsets[indexSize] = offset;
+			indexSize++;
+		}
+		lastSequence = sequence;
+	}
+
+	/**
+	 * Returns the offset of the last indexed record at or before the given
+	 * sequence, or {@code 0} if there is none.
+	 */
+	private long seekOffset(long sequence) {
+		int index = Arrays.binarySearch(indexSequences, 0, indexSize, sequence);
+		if (index < 0) {
+			index = -index - 2;
+		}
+		return index < 0 ? 0 : indexOffsets[index];
+	}
+
+	private static void writeEvent(DataOutputStream out, ProductChangeEvent event) throws IOException {
+		out.writeLong(event.getSequence());
+		out.writeLong(event.getTimestamp());
+		out.writeByte(event.getType().ordinal());
+		out.writeInt(event.getProductId());
+		out.writeInt(event.getStockDelta());
+		Product product = event.getProduct();
+		out.writeBoolean(product != null);
+		if (product != null) {
+			writeNullableString(out, product.getName());
+			writeNullableString(out, product.getCategory());
+			out.writeDouble(product.getPrice());
+			out.writeInt(product.getStockQuantity());
+			out.writeInt(product.getVersion());
+			out.writeInt(product.getDirtyFields());
+		}
+	}
+
+	private static ProductChangeEvent readEvent(DataInputStream in) throws IOException {
+		long sequence = in.readLong();
+		long timestamp = in.readLong();
+		ProductChangeType type = ProductChangeType.values()[in.readByte()];
+		int productId = in.readInt();
+		int stockDelta = in.readInt();
+		Product product = null;
+		if (in.readBoolean()) {
+			String name = readNullableString(in);
+			String category = readNullableString(in);
+			product = new Product(productId, name, category, in.readDouble(), in.readInt());
+			product.setVersion(in.readInt());
+			restoreDirtyFields(product, in.readInt());
+		}
+		return new ProductChangeEvent(sequence, timestamp, type, productId, product, stockDelta);
+	}
+
+	/**
+	 * Marks exactly the given fields dirty, so a replayed update still tells
+	 * which fields it wrote.
+	 */
+	private static void restoreDirtyFields(Product product, int dirtyFields) {
+		product.markClean();
+		if ((dirtyFields & ProductField.NAME.mask()) != 0) {
+			product.setName(product.getName());
+		}
+		if ((dirtyFields & ProductField.CATEGORY.mask()) != 0) {
+			product.setCategory(product.getCategory());
+		}
+		if ((dirtyFields & ProductField.PRICE.mask()) != 0) {
+			product.setPrice(product.getPrice());
+		}
+		if ((dirtyFields & ProductField.STOCK_QUANTITY.mask()) != 0) {
+			product.setStockQuantity(product.getStockQuantity());
+		}
+	}
+
+	private static void writeNullableString(DataOutputStream out, String value) throws IOException {
+		out.writeBoolean(value != null);
+		if (value != null) {
+			out.writeUTF(value);
+		}
+	}
+
+	private static String readNullableString(DataInputStream in) throws IOException {
+		return in.readBoolean() ? in.readUTF() : null;
+	}
+}
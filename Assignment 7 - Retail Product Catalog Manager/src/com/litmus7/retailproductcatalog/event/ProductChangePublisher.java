@@ -0,0 +1,320 @@
+package com.litmus7.retailproductcatalog.event;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.litmus7.retailproductcatalog.constant.EventConstants;
+import com.litmus7.retailproductcatalog.dto.ChangeStreamStats;
+import com.litmus7.retailproductcatalog.dto.Product;
+import com.litmus7.retailproductcatalog.dto.ProductChangeEvent;
+import com.litmus7.retailproductcatalog.dto.ProductChangeType;
+import com.litmus7.retailproductcatalog.util.ConfigUtil;
+
+/**
+ * Publishes product change events to listeners asynchronously.
+ *
+ * <p>
+ * Writers put events into a bounded, lock-free {@link ChangeEventRing} and
+ * return. A single daemon dispatcher thread takes them out in batches of up
+ * to {@code event.batch.size}, appends each batch to the
+ * {@link ProductChangeLog} if one is configured and then passes it to every
+ * listener. When the ring is full, writers wait for the dispatcher instead of
+ * dropping events.
+ * </p>
+ *
+ * <p>
+ * The sequence of an event is fixed by its position in the ring, so
+ * listeners see events in the order writers published them. With a log,
+ * sequences continue from the last logged event after a restart, and
+ * {@link #subscribe(ProductChangeListener, long)} replays the logged events a
+ * listener missed before it receives live ones.
+ * </p>
+ *
+ * <p>
+ * A batch that cannot be logged is retried a few times. If it still fails,
+ * the log is abandoned: later batches are not appended, so the log never has
+ * a gap, and replays are refused, since the log no longer holds every
+ * event. Live listeners keep receiving events.
+ * </p>
+ *
+ * <p>
+ * The application uses the shared instance from {@link #getInstance()},
+ * configured from the {@code event.*} keys.
+ * </p>
+ *
+ * @author Muhammed Irfan
+ */
+public class ProductChangePublisher {
+
+	private static final Logger LOGGER = Logger.getLogger(ProductChangePublisher.class.getName());
+	private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+	private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+	private static final int LOG_APPEND_ATTEMPTS = 3;
+	private static final long LOG_RETRY_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+	private static final ProductChangePublisher INSTANCE = new ProductChangePublisher(
+			ConfigUtil.getInt(EventConstants.EVENT_RING_SIZE_KEY, EventConstants.DEFAULT_EVENT_RING_SIZE),
+			ConfigUtil.getInt(EventConstants.EVENT_BATCH_SIZE_KEY, EventConstants.DEFAULT_EVENT_BATCH_SIZE),
+			openConfiguredLog());
+
+	private final ChangeEventRing<ProductChangeEvent> ring;
+	private final int batchSize;
+	private final ProductChangeLog log;
+	private final long firstSequence;
+	private final List<ProductChangeListener> listeners = new CopyOnWriteArrayList<>();
+	private final Queue<Replay> pendingReplays = new ConcurrentLinkedQueue<>();
+	private final Thread dispatcher;
+	private volatile boolean running = true;
+	private volatile boolean dispatcherIdle;
+	private volatile boolean logFailed;
+	private volatile long dispatchedCount;
+	private volatile long batchCount;
+	private volatile long listenerFailureCount;
+	private volatile long lastSequence;
+
+	/**
+	 * Creates a publisher and starts its dispatcher thread.
+	 *
+	 * @param ringSize  the number of events the ring buffer holds, rounded up to
+	 *                  a power of two
+	 * @param batchSize the largest number of events passed to a listener in one
+	 *                  call
+	 * @param log       the change log, or {@code null} to keep events in memory
+	 *                  only
+	 */
+	public ProductChangePublisher(int ringSize, int batchSize, ProductChangeLog log) {
+		if (batchSize < 1) {
+			throw new IllegalArgumentException("Batch size must be at least 1");
+		}
+		this.ring = new ChangeEventRing<>(ringSize);
+		this.batchSize = batchSize;
+		this.log = log;
+		this.firstSequence = log == null ? 1 : log.getLastSequence() + 1;
+		this.lastSequence = firstSequence - 1;
+		this.dispatcher = new Thread(this::dispatch, "product-change-dispatcher");
+		dispatcher.setDaemon(true);
+		dispatcher.start();
+	}
+
+	/**
+	 * @return the publisher shared by the application
+	 */
+	public static ProductChangePublisher getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Publishes an event, waiting for the dispatcher if the ring buffer is full.
+	 *
+	 * @param type       the kind of change
+	 * @param productId  the ID of the changed product
+	 * @param product    the product as written, or {@code null}; it is copied
+	 * @param stockDelta the stock adjustment, {@code 0} for other changes
+	 * @throws IllegalStateException if the publisher is closed
+	 */
+	public void publish(ProductChangeType type, int productId, Product product, int stockDelta) {
+		if (!running) {
+			throw new IllegalStateException("Product change publisher is closed");
+		}
+		Product snapshot = product == null ? null : new Product(product);
+		long position;
+		while ((position = ring.claim()) < 0) {
+			if (!running) {
+				throw new IllegalStateException("Product change publisher is closed");
+			}
+			LockSupport.unpark(dispatcher);
+			LockSupport.parkNanos(FULL_PARK_NANOS);
+		}
+		ring.fill(position, new ProductChangeEvent(firstSequence + position, System.currentTimeMillis(), type,
+				productId, snapshot, stockDelta));
+		if (dispatcherIdle) {
+			LockSupport.unpark(dispatcher);
+		}
+	}
+
+	/**
+	 * Adds a listener that receives the events dispatched from now on.
+	 *
+	 * @param listener the listener
+	 */
+	public void subscribe(ProductChangeListener listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * Adds a listener that first receives the logged events after
+	 * {@code afterSequence} and then every event dispatched from now on, with
+	 * no gap and no duplicate between the two. The replay runs on the
+	 * dispatcher thread, which delays live events until it is done.
+	 *
+	 * @param listener      the listener
+	 * @param afterSequence the last sequence the listener has processed
+	 * @throws IllegalStateException if no change log is configured or it has
+	 *                               failed
+	 */
+	public void subscribe(ProductChangeListener listener, long afterSequence) {
+		if (log == null) {
+			throw new IllegalStateException("Product change log is not enabled");
+		}
+		if (logFailed) {
+			throw new IllegalStateException("Product change log has failed and cannot be replayed");
+		}
+		pendingReplays.add(new Replay(listener, afterSequence));
+		LockSupport.unpark(dispatcher);
+	}
+
+	/**
+	 * Removes a listener. A batch being delivered may still reach it.
+	 *
+	 * @param listener the listener
+	 */
+	public void unsubscribe(ProductChangeListener listener) {
+		listeners.remove(listener);
+		pendingReplays.removeIf(replay -> replay.listener == listener);
+	}
+
+	/**
+	 * Returns the publish, dispatch and listener failure counters.
+	 *
+	 * @return a snapshot of the counters
+	 */
+	public ChangeStreamStats getStats() {
+		return new ChangeStreamStats(ring.claimedCount(), dispatchedCount, batchCount, listenerFailureCount,
+				lastSequence, listeners.size());
+	}
+
+	/**
+	 * Stops accepting events, waits up to {@code timeoutMillis} for the
+	 * dispatcher to deliver the ones already published and closes the log.
+	 *
+	 * @param timeoutMillis how long to wait for the dispatcher, in milliseconds
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	public void close(long timeoutMillis) throws InterruptedException {
+		running = false;
+		LockSupport.unpark(dispatcher);
+		dispatcher.join(timeoutMillis);
+	}
+
+	private void dispatch() {
+		List<ProductChangeEvent> batch = new ArrayList<>(batchSize);
+		while (running || !ring.isEmpty()) {
+			startReplays();
+			if (ring.drainTo(batch, batchSize) == 0) {
+				dispatcherIdle = true;
+				if (ring.isEmpty() && pendingReplays.isEmpty() && running) {
+					LockSupport.parkNanos(IDLE_PARK_NANOS);
+				}
+				dispatcherIdle = false;
+				continue;
+			}
+			List<ProductChangeEvent> events = Collections.unmodifiableList(new ArrayList<>(batch));
+			batch.clear();
+			appendToLog(events);
+			for (ProductChangeListener listener : listeners) {
+				deliver(listener, events);
+			}
+			lastSequence = events.get(events.size() - 1).getSequence();
+			dispatchedCount += events.size();
+			batchCount++;
+		}
+		closeLog();
+	}
+
+	private void startReplays() {
+		Replay replay;
+		while ((replay = pendingReplays.poll()) != null) {
+			ProductChangeListener listener = replay.listener;
+			if (logFailed) {
+				LOGGER.severe("Product change log has failed; not replaying it or subscribing the listener");
+				continue;
+			}
+			try {
+				log.read(replay.afterSequence, batchSize, events -> deliver(listener,
+						Collections.unmodifiableList(events)));
+			} catch (IOException e) {
+				LOGGER.log(Level.SEVERE, "Failed to replay the product change log", e);
+			}
+			listeners.add(listener);
+		}
+	}
+
+	private void appendToLog(List<ProductChangeEvent> events) {
+		if (log == null || logFailed) {
+			return;
+		}
+		for (int attempt = 1; !log.isFailed(); attempt++) {
+			try {
+				log.append(events);
+				return;
+			} catch (IOException e) {
+				if (attempt == LOG_APPEND_ATTEMPTS) {
+					LOGGER.log(Level.SEVERE, "Failed to append " + events.size()
+							+ " events to the product change log; no longer logging or replaying events", e);
+					break;
+				}
+				LOGGER.log(Level.WARNING, "Failed to append " + events.size()
+						+ " events to the product change log, retrying", e);
+				LockSupport.parkNanos(LOG_RETRY_PARK_NANOS);
+			}
+		}
+		logFailed = true;
+	}
+
+	private void deliver(ProductChangeListener listener, List<ProductChangeEvent> events) {
+		try {
+			listener.onEvents(events);
+		} catch (RuntimeException e) {
+			listenerFailureCount++;
+			LOGGER.log(Level.WARNING, "Product change listener failed", e);
+		}
+	}
+
+	private void closeLog() {
+		if (log == null) {
+			return;
+		}
+		try {
+			log.close();
+		} catch (IOException e) {
+			LOGGER.log(Level.WARNING, "Failed to close the product change log", e);
+		}
+	}
+
+	private static ProductChangeLog openConfiguredLog() {
+		String path = ConfigUtil.getString(EventConstants.EVENT_LOG_PATH_KEY, EventConstants.DEFAULT_EVENT_LOG_PATH)
+				.trim();
+		if (path.isEmpty()) {
+			return null;
+		}
+		boolean fsync = Boolean.parseBoolean(
+				ConfigUtil.getString(EventConstants.EVENT_LOG_FSYNC_KEY, EventConstants.DEFAULT_EVENT_LOG_FSYNC).trim());
+		try {
+			return new ProductChangeLog(Paths.get(path), fsync);
+		} catch (IOException e) {
+			throw new RuntimeException("Failed to open product change log " + path, e);
+		}
+	}
+
+	/**
+	 * A listener waiting for its replay of the log.
+	 */
+	private static class Replay {
+		private final ProductChangeListener listener;
+		private final long afterSequence;
+
+		Replay(ProductChangeListener listener, long afterSequence) {
+			this.listener = listener;
+			this.afterSequence = afterSequence;
+		}
+	}
+}
@@ -0,0 +1,28 @@
+package com.litmus7.retailproductcatalog.exception;
+
+/**
+ * Exception thrown when a product cannot be added because a product with the
+ * same id already exists in the database.
+ */
+public class DuplicateProductException extends ProductDataAccessException {
+	/**
+	 * Constructs a new {@code DuplicateProductException} with the specified
+	 * detail message, for stores that detect the conflict themselves.
+	 * 
+	 * @param errorMessage the detail message explaining the conflict
+	 */
+	public DuplicateProductException(String errorMessage) {
+		super(errorMessage);
+	}
+
+	/**
+	 * Constructs a new {@code DuplicateProductException} with the specified
+	 * detail message and cause.
+	 * 
+	 * @param errorMessage the detail message explaining the conflict
+	 * @param cause        the constraint violation reported by the database
+	 */
+	public DuplicateProductException(String errorMessage, Throwable cause) {
+		super(errorMessage, cause);
+	}
+}
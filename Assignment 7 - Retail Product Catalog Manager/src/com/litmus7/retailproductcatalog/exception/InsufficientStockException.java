@@ -0,0 +1,17 @@
+package com.litmus7.retailproductcatalog.exception;
+
+/**
+ * Exception thrown when a stock adjustment would make the stock of a product
+ * negative.
+ */
+public class InsufficientStockException extends ProductDataAccessException {
+	/**
+	 * Constructs a new {@code InsufficientStockException} with the specified
+	 * detail message.
+	 * 
+	 * @param errorMessage the detail message naming the product
+	 */
+	public InsufficientStockException(String errorMessage) {
+		super(errorMessage);
+	}
+}
@@ -0,0 +1,17 @@
+package com.litmus7.retailproductcatalog.exception;
+
+/**
+ * Exception thrown when a write targets a product that doesn't exist in the
+ * database.
+ */
+public class ProductNotFoundException extends ProductDataAccessException {
+	/**
+	 * Constructs a new {@code ProductNotFoundException} with the specified
+	 * detail message.
+	 * 
+	 * @param errorMessage the detail message naming the missing product
+	 */
+	public ProductNotFoundException(String errorMessage) {
+		super(errorMessage);
+	}
+}
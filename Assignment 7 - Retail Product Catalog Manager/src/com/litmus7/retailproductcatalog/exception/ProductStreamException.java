@@ -0,0 +1,24 @@
+package com.litmus7.retailproductcatalog.exception;
+
+/**
+ * Unchecked exception thrown while consuming a stream of products when the
+ * underlying cursor fails.
+ *
+ * <p>
+ * {@link java.util.stream.Stream} operations cannot throw checked exceptions,
+ * so a {@link java.sql.SQLException} raised after the stream was opened is
+ * wrapped in this exception.
+ * </p>
+ */
+public class ProductStreamException extends RuntimeException {
+	/**
+	 * Constructs a new {@code ProductStreamException} with the specified detail
+	 * message and cause.
+	 * 
+	 * @param errorMessage the detail message explaining the failure
+	 * @param cause        the underlying cause of the exception
+	 */
+	public ProductStreamException(String errorMessage, Throwable cause) {
+		super(errorMessage, cause);
+	}
+}
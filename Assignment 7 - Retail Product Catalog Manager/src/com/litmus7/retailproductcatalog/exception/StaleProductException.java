@@ -0,0 +1,17 @@
+package com.litmus7.retailproductcatalog.exception;
+
+/**
+ * Exception thrown when a write expected a product version that is no longer
+ * current, because the product was changed after it was read.
+ */
+public class StaleProductException extends ProductDataAccessException {
+	/**
+	 * Constructs a new {@code StaleProductException} with the specified detail
+	 * message.
+	 * 
+	 * @param errorMessage the detail message naming the product
+	 */
+	public StaleProductException(String errorMessage) {
+		super(errorMessage);
+	}
+}
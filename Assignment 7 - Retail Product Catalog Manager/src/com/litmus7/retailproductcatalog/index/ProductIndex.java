@@ -0,0 +1,383 @@
+package com.litmus7.retailproductcatalog.index;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.litmus7.retailproductcatalog.dto.Product;
+import com.litmus7.retailproductcatalog.dto.ProductField;
+import com.litmus7.retailproductcatalog.dto.ProductSearchResult;
+
+/**
+ * In-memory secondary indexes over products, by category, by price and by the
+ * words of their names and categories.
+ *
+ * <p>
+ * Categories are kept in a hash index that matches case-insensitively, like
+ * the database collation does. Prices are kept in a sorted index, so a price
+ * range is answered by walking only the matching part of it. Words are kept in
+ * an inverted index for ranked prefix search. All indexes hold product IDs;
+ * the products themselves are kept once, by ID.
+ * </p>
+ *
+ * <p>
+ * The index is thread-safe. Products are copied on the way in and out, so
+ * callers may modify what they pass or receive. A {@link #reload(Iterable)}
+ * builds the new content without holding the lock, so queries and writes go
+ * on against the old content until the new one is swapped in.
+ * </p>
+ *
+ * @author Muhammed Irfan
+ */
+public class ProductIndex {
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private Indexes indexes = new Indexes();
+	private long generation;
+	// IDs written while a reload builds its content; null when no reload runs
+	private Set<Integer> writtenDuringReload;
+
+	/**
+	 * Adds the product, or replaces the indexed product with the same ID.
+	 *
+	 * @param product the product to index
+	 */
+	public void put(Product product) {
+		lock.writeLock().lock();
+		try {
+			written(product.getId());
+			indexes.put(new Product(product));
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Copies the dirty fields of the product onto the indexed product with the
+	 * same ID and advances its version, mirroring a partial update. Does nothing
+	 * if no product with that ID is indexed.
+	 *
+	 * <p>
+	 * Like {@link #adjustStock(int, int, long)}, an update must not be applied
+	 * to content that may already hold it, or its version would advance twice.
+	 * If a reload started or finished since {@code expectedGeneration} was read,
+	 * nothing is changed and {@code false} is returned, so that the caller can
+	 * index the row as written instead.
+	 * </p>
+	 *
+	 * @param product            the updated product
+	 * @param expectedGeneration the {@link #getGeneration()} read before the
+	 *                           update was made in the data store
+	 * @return {@code false} if the index was reloaded in the meantime
+	 */
+	public boolean replace(Product product, long expectedGeneration) {
+		lock.writeLock().lock();
+		try {
+			if (generation != expectedGeneration) {
+				return false;
+			}
+			written(product.getId());
+			Product indexedProduct = indexes.productsById.get(product.getId());
+			if (indexedProduct != null && product.getDirtyFields() != 0) {
+				Product updatedProduct = new Product(indexedProduct);
+				if (product.isDirty(ProductField.NAME)) {
+					updatedProduct.setName(product.getName());
+				}
+				if (product.isDirty(ProductField.CATEGORY)) {
+					updatedProduct.setCategory(product.getCategory());
+				}
+				if (product.isDirty(ProductField.PRICE)) {
+					updatedProduct.setPrice(product.getPrice());
+				}
+				if (product.isDirty(ProductField.STOCK_QUANTITY)) {
+					updatedProduct.setStockQuantity(product.getStockQuantity());
+				}
+				updatedProduct.setVersion(indexedProduct.getVersion() + 1);
+				indexes.put(updatedProduct);
+			}
+			return true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Adds {@code delta} to the stock of the indexed product and advances its
+	 * version, mirroring a stock adjustment made in the data store. Does nothing
+	 * if no product with that ID is indexed.
+	 *
+	 * <p>
+	 * Unlike adds and deletes, an adjustment must not be applied twice. If a
+	 * reload started or finished since {@code expectedGeneration} was read, the
+	 * reload may already contain the adjustment, so nothing is changed and
+	 * {@code false} is returned.
+	 * </p>
+	 *
+	 * @param productId          the ID of the product
+	 * @param delta              the amount added to the stock
+	 * @param expectedGeneration the {@link #getGeneration()} read before the
+	 *                           adjustment was made in the data store
+	 * @return {@code false} if the index was reloaded in the meantime
+	 */
+	public boolean adjustStock(int productId, int delta, long expectedGeneration) {
+		lock.writeLock().lock();
+		try {
+			if (generation != expectedGeneration) {
+				return false;
+			}
+			written(productId);
+			Product product = indexes.productsById.get(productId);
+			if (product != null) {
+				product.setStockQuantity(product.getStockQuantity() + delta);
+				product.setVersion(product.getVersion() + 1);
+				product.markClean();
+			}
+			return true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Removes the product with the given ID, if it is indexed.
+	 *
+	 * @param productId the ID of the product to remove
+	 */
+	public void remove(int productId) {
+		lock.writeLock().lock();
+		try {
+			written(productId);
+			indexes.remove(productId);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Replaces the whole content of the index with the given products.
+	 *
+	 * <p>
+	 * The new content is built without holding the lock; the products are
+	 * typically read from a cursor, and queries and writes must not wait for
+	 * the scan. Writes made meanwhile are applied to the old content only, and
+	 * the scan may or may not have seen them, so their IDs are returned for the
+	 * caller to index again from the data store. The generation advances when
+	 * the reload starts and again when it finishes. Only one reload may run at
+	 * a time.
+	 * </p>
+	 *
+	 * @param products every product
+	 * @return the IDs of the products written while the reload ran
+	 */
+	public Set<Integer> reload(Iterable<Product> products) {
+		lock.writeLock().lock();
+		try {
+			generation++;
+			writtenDuringReload = new HashSet<>();
+		} finally {
+			lock.writeLock().unlock();
+		}
+
+		Indexes reloaded = new Indexes();
+		try {
+			for (Product product : products) {
+				reloaded.put(new Product(product));
+			}
+		} catch (RuntimeException | Error e) {
+			lock.writeLock().lock();
+			try {
+				writtenDuringReload = null;
+			} finally {
+				lock.writeLock().unlock();
+			}
+			throw e;
+		}
+
+		lock.writeLock().lock();
+		try {
+			generation++;
+			indexes = reloaded;
+			Set<Integer> written = writtenDuringReload;
+			writtenDuringReload = null;
+			return written;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Removes every product.
+	 */
+	public void clear() {
+		lock.writeLock().lock();
+		try {
+			indexes = new Indexes();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns the products of a category, ordered by ID.
+	 *
+	 * @param category the category, matched case-insensitively
+	 * @return the matching products, empty if there are none
+	 */
+	public List<Product> findByCategory(String category) {
+		lock.readLock().lock();
+		try {
+			Set<Integer> ids = indexes.idsByCategory.get(categoryKey(category));
+			return ids == null ? Collections.emptyList() : indexes.copyOf(ids);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns the products whose price is within the given range, ordered by
+	 * price and then by ID.
+	 *
+	 * @param minPrice the lowest price, inclusive
+	 * @param maxPrice the highest price, inclusive
+	 * @return the matching products, empty if there are none
+	 */
+	public List<Product> findByPriceRange(double minPrice, double maxPrice) {
+		lock.readLock().lock();
+		try {
+			List<Product> products = new ArrayList<>();
+			for (Set<Integer> ids : indexes.idsByPrice.subMap(minPrice, true, maxPrice, true).values()) {
+				for (Integer id : ids) {
+					products.add(new Product(indexes.productsById.get(id)));
+				}
+			}
+			return products;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Searches product names and categories. Every word of the query must be
+	 * the start of a word of the name or the category; matches are ranked so
+	 * that whole words and matches in the name come first.
+	 *
+	 * @param query  the words to search for, matched case-insensitively
+	 * @param offset the number of ranked matches to skip
+	 * @param limit  the largest number of products to return
+	 * @return the requested page of matches and the total number of matches
+	 */
+	public ProductSearchResult search(String query, int offset, int limit) {
+		lock.readLock().lock();
+		try {
+			TextIndex.Hits hits = indexes.idsByWord.search(query, offset, limit);
+			return new ProductSearchResult(indexes.copyOf(hits.productIds), hits.total, offset);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns a counter that advances when a reload starts and when it
+	 * finishes, so a caller can tell whether a reload ran in between.
+	 *
+	 * @return the reload generation
+	 */
+	public long getGeneration() {
+		lock.readLock().lock();
+		try {
+			return generation;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * @return the number of indexed products
+	 */
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return indexes.productsById.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private void written(int productId) {
+		if (writtenDuringReload != null) {
+			writtenDuringReload.add(productId);
+		}
+	}
+
+	private static String categoryKey(String category) {
+		return category == null ? "" : category.trim().toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * One complete set of indexes. A reload builds a new set and swaps it in,
+	 * so the set in use is only ever changed while holding the write lock.
+	 */
+	private static final class Indexes {
+		private final Map<Integer, Product> productsById = new HashMap<>();
+		private final Map<String, Set<Integer>> idsByCategory = new HashMap<>();
+		private final NavigableMap<Double, Set<Integer>> idsByPrice = new TreeMap<>();
+		private final TextIndex idsByWord = new TextIndex();
+
+		private void put(Product product) {
+			product.markClean();
+			unindex(product.getId());
+			productsById.put(product.getId(), product);
+			idsByCategory.computeIfAbsent(categoryKey(product.getCategory()), key -> new TreeSet<>())
+					.add(product.getId());
+			idsByPrice.computeIfAbsent(product.getPrice(), key -> new TreeSet<>()).add(product.getId());
+			// Words are replaced rather than removed and re-added, so updates that
+			// don't touch the name or category leave the word index alone.
+			idsByWord.put(product.getId(), product.getName(), product.getCategory());
+		}
+
+		private void remove(int productId) {
+			unindex(productId);
+			idsByWord.remove(productId);
+		}
+
+		/**
+		 * Removes the product from every index but the word index.
+		 */
+		private void unindex(int productId) {
+			Product product = productsById.remove(productId);
+			if (product == null) {
+				return;
+			}
+			String categoryKey = categoryKey(product.getCategory());
+			Set<Integer> categoryIds = idsByCategory.get(categoryKey);
+			categoryIds.remove(productId);
+			if (categoryIds.isEmpty()) {
+				idsByCategory.remove(categoryKey);
+			}
+			Set<Integer> priceIds = idsByPrice.get(product.getPrice());
+			priceIds.remove(productId);
+			if (priceIds.isEmpty()) {
+				idsByPrice.remove(product.getPrice());
+			}
+		}
+
+		private List<Product> copyOf(Collection<Integer> ids) {
+			List<Product> products = new ArrayList<>(ids.size());
+			for (Integer id : ids) {
+				products.add(new Product(productsById.get(id)));
+			}
+			return products;
+		}
+	}
+}
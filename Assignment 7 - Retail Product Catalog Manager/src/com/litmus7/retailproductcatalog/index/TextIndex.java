@@ -0,0 +1,445 @@
+package com.litmus7.retailproductcatalog.index;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * An inverted index from the words of product names and categories to
+ * products, answering ranked prefix searches.
+ *
+ * <p>
+ * Words are kept in a sorted dictionary, so every word starting with a prefix
+ * is found by walking one range of it. Each word also gets a small number, and
+ * products keep their words as those numbers. A search turns each query word
+ * into the set of numbers of the words it is a prefix of, reads the postings
+ * of only its most selective query word, and checks the other query words
+ * against the numbers stored with each candidate. Its cost follows the number
+ * of candidates, not the number of products.
+ * </p>
+ *
+ * <p>
+ * This class is not thread-safe; {@link ProductIndex} calls it while holding
+ * its own lock, or before the instance is published by a reload.
+ * </p>
+ *
+ * @author Muhammed Irfan
+ */
+class TextIndex {
+
+	private static final String[] NO_TERMS = new String[0];
+	private static final int[] NO_TERM_IDS = new int[0];
+
+	/*
+	 * Scores of one query word, by where its best match in the product is.
+	 */
+	private static final int NAME_EXACT_SCORE = 4;
+	private static final int NAME_PREFIX_SCORE = 2;
+	private static final int CATEGORY_EXACT_SCORE = 2;
+	private static final int CATEGORY_PREFIX_SCORE = 1;
+	private static final int LEADING_WORD_BONUS = 1;
+
+	/**
+	 * Best match first: higher score, then shorter name, then lower ID.
+	 */
+	private static final Comparator<Hit> RANKING = Comparator.comparingInt((Hit hit) -> -hit.score)
+			.thenComparingInt(hit -> hit.nameLength).thenComparingInt(hit -> hit.productId);
+
+	private final NavigableMap<String, Postings> postingsByTerm = new TreeMap<>();
+	private final List<Postings> postingsByTermId = new ArrayList<>();
+	private final Deque<Integer> freeTermIds = new ArrayDeque<>();
+	private final Map<Integer, Terms> termsById = new HashMap<>();
+
+	/**
+	 * Indexes the words of a product, replacing the words indexed for it
+	 * before. Does nothing if the words did not change.
+	 *
+	 * @param productId the ID of the product
+	 * @param name      the product name
+	 * @param category  the product category
+	 */
+	void put(int productId, String name, String category) {
+		String[] nameTerms = tokenize(name);
+		String[] categoryTerms = tokenize(category);
+		Terms oldTerms = termsById.get(productId);
+		if (oldTerms != null) {
+			if (sameTerms(oldTerms.name, nameTerms) && sameTerms(oldTerms.category, categoryTerms)) {
+				return;
+			}
+			remove(productId);
+		}
+		Terms terms = new Terms(productId, termIdsOf(nameTerms), termIdsOf(categoryTerms),
+				name == null ? 0 : name.length());
+		post(terms, terms.name, 0, NO_TERM_IDS);
+		post(terms, terms.category, terms.name.length, terms.name);
+		termsById.put(productId, terms);
+	}
+
+	/**
+	 * Removes the words of a product, if it is indexed.
+	 *
+	 * @param productId the ID of the product
+	 */
+	void remove(int productId) {
+		Terms terms = termsById.remove(productId);
+		if (terms == null) {
+			return;
+		}
+		unpost(terms, terms.name, 0, NO_TERM_IDS);
+		unpost(terms, terms.category, terms.name.length, terms.name);
+	}
+
+	/**
+	 * Finds the products matching every word of the query, each word as a
+	 * prefix of a word of the product name or category.
+	 *
+	 * <p>
+	 * Products are ranked by how well the words match: a whole word scores
+	 * higher than a prefix, and a match in the name higher than one in the
+	 * category. A product whose name starts with the first query word ranks
+	 * higher still. Equal scores are ordered by shorter name, then by ID.
+	 * </p>
+	 *
+	 * @param query  the words to search for
+	 * @param offset the number of ranked matches to skip
+	 * @param limit  the largest number of IDs to return
+	 * @return the IDs of the requested page of matches and the total number of
+	 *         matches
+	 */
+	Hits search(String query, int offset, int limit) {
+		String[] queryTerms = distinct(tokenize(query));
+		if (queryTerms.length == 0) {
+			return new Hits(Collections.emptyList(), 0);
+		}
+
+		QueryTerm[] matchers = new QueryTerm[queryTerms.length];
+		QueryTerm driver = null;
+		for (int i = 0; i < queryTerms.length; i++) {
+			matchers[i] = new QueryTerm(queryTerms[i]);
+			if (matchers[i].postingCount == 0) {
+				return new Hits(Collections.emptyList(), 0);
+			}
+			if (driver == null || matchers[i].postingCount < driver.postingCount) {
+				driver = matchers[i];
+			}
+		}
+
+		int wanted = offset + limit;
+		PriorityQueue<Hit> top = new PriorityQueue<>(Math.min(wanted, 1024), RANKING.reversed());
+		int total = 0;
+		for (Postings postings : driver.range.values()) {
+			for (int i = 0; i < postings.size; i++) {
+				Terms terms = postings.entries[i];
+				// A product is posted under every word it has. Count it only
+				// from the first of them the driver matches.
+				if (driver.firstMatch(terms) != postings.termId) {
+					continue;
+				}
+				int score = score(terms, matchers);
+				if (score == 0) {
+					continue;
+				}
+				total++;
+				Hit hit = new Hit(terms.productId, score, terms.nameLength);
+				if (top.size() < wanted) {
+					top.add(hit);
+				} else if (RANKING.compare(hit, top.peek()) < 0) {
+					top.poll();
+					top.add(hit);
+				}
+			}
+		}
+
+		List<Hit> ranked = new ArrayList<>(top);
+		ranked.sort(RANKING);
+		List<Integer> ids = new ArrayList<>(Math.max(0, ranked.size() - offset));
+		for (int i = offset; i < ranked.size(); i++) {
+			ids.add(ranked.get(i).productId);
+		}
+		return new Hits(ids, total);
+	}
+
+	/**
+	 * Splits text into lower-case words of letters and digits.
+	 */
+	static String[] tokenize(String text) {
+		if (text == null || text.isEmpty()) {
+			return NO_TERMS;
+		}
+		List<String> terms = new ArrayList<>();
+		int start = -1;
+		for (int i = 0; i <= text.length(); i++) {
+			boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+			if (wordChar && start < 0) {
+				start = i;
+			} else if (!wordChar && start >= 0) {
+				terms.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+				start = -1;
+			}
+		}
+		return terms.toArray(NO_TERMS);
+	}
+
+	/**
+	 * Returns the number of each word, adding the words not yet in the
+	 * dictionary.
+	 */
+	private int[] termIdsOf(String[] terms) {
+		int[] termIds = new int[terms.length];
+		for (int i = 0; i < terms.length; i++) {
+			Postings postings = postingsByTerm.get(terms[i]);
+			if (postings == null) {
+				Integer freeTermId = freeTermIds.poll();
+				postings = new Postings(freeTermId == null ? postingsByTermId.size() : freeTermId, terms[i]);
+				postingsByTerm.put(terms[i], postings);
+				if (freeTermId == null) {
+					postingsByTermId.add(postings);
+				} else {
+					postingsByTermId.set(freeTermId, postings);
+				}
+			}
+			termIds[i] = postings.termId;
+		}
+		return termIds;
+	}
+
+	private boolean sameTerms(int[] termIds, String[] terms) {
+		if (termIds.length != terms.length) {
+			return false;
+		}
+		for (int i = 0; i < terms.length; i++) {
+			if (!postingsByTermId.get(termIds[i]).term.equals(terms[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Posts the product once under each word that is not in
+	 * {@code postedTermIds}. {@code slot} is the position of the first of
+	 * {@code termIds} among all the words of the product.
+	 */
+	private void post(Terms product, int[] termIds, int slot, int[] postedTermIds) {
+		for (int i = 0; i < termIds.length; i++) {
+			if (indexOf(termIds, termIds[i], i) < 0 && indexOf(postedTermIds, termIds[i], postedTermIds.length) < 0) {
+				postingsByTermId.get(termIds[i]).add(product, slot + i);
+			}
+		}
+	}
+
+	/**
+	 * Undoes {@link #post}, dropping the words no product has any more.
+	 */
+	private void unpost(Terms product, int[] termIds, int slot, int[] postedTermIds) {
+		for (int i = 0; i < termIds.length; i++) {
+			if (indexOf(termIds, termIds[i], i) >= 0
+					|| indexOf(postedTermIds, termIds[i], postedTermIds.length) >= 0) {
+				continue;
+			}
+			Postings postings = postingsByTermId.get(termIds[i]);
+			postings.remove(product, slot + i);
+			if (postings.size == 0) {
+				postingsByTerm.remove(postings.term);
+				postingsByTermId.set(postings.termId, null);
+				freeTermIds.push(postings.termId);
+			}
+		}
+	}
+
+	/**
+	 * Returns the score of the product for the query, or {@code 0} if some
+	 * query word matches none of its words.
+	 */
+	private static int score(Terms terms, QueryTerm[] matchers) {
+		int score = 0;
+		for (QueryTerm matcher : matchers) {
+			int best = 0;
+			for (int termId : terms.name) {
+				if (termId == matcher.exactTermId) {
+					best = NAME_EXACT_SCORE;
+					break;
+				}
+				if (matcher.prefixOf.get(termId)) {
+					best = NAME_PREFIX_SCORE;
+				}
+			}
+			if (best < CATEGORY_EXACT_SCORE) {
+				for (int termId : terms.category) {
+					if (termId == matcher.exactTermId) {
+						best = CATEGORY_EXACT_SCORE;
+						break;
+					}
+					if (matcher.prefixOf.get(termId)) {
+						best = Math.max(best, CATEGORY_PREFIX_SCORE);
+					}
+				}
+			}
+			if (best == 0) {
+				return 0;
+			}
+			score += best;
+		}
+		if (terms.name.length > 0 && matchers[0].prefixOf.get(terms.name[0])) {
+			score += LEADING_WORD_BONUS;
+		}
+		return score;
+	}
+
+	private static String[] distinct(String[] terms) {
+		return Arrays.stream(terms).distinct().toArray(String[]::new);
+	}
+
+	private static int indexOf(int[] termIds, int termId, int end) {
+		for (int i = 0; i < end; i++) {
+			if (termIds[i] == termId) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * One word of a query and the numbers of the dictionary words it is a
+	 * prefix of.
+	 */
+	private class QueryTerm {
+		private final NavigableMap<String, Postings> range;
+		private final BitSet prefixOf = new BitSet();
+		private final int exactTermId;
+		private final long postingCount;
+
+		private QueryTerm(String term) {
+			range = postingsByTerm.subMap(term, true, term + Character.MAX_VALUE, false);
+			long count = 0;
+			for (Postings postings : range.values()) {
+				prefixOf.set(postings.termId);
+				count += postings.size;
+			}
+			Postings exact = postingsByTerm.get(term);
+			exactTermId = exact == null ? -1 : exact.termId;
+			postingCount = count;
+		}
+
+		/**
+		 * Returns the number of the first name or category word of the product
+		 * that this query word is a prefix of, or {@code -1}.
+		 */
+		private int firstMatch(Terms terms) {
+			for (int termId : terms.name) {
+				if (prefixOf.get(termId)) {
+					return termId;
+				}
+			}
+			for (int termId : terms.category) {
+				if (prefixOf.get(termId)) {
+					return termId;
+				}
+			}
+			return -1;
+		}
+	}
+
+	/**
+	 * The IDs of one page of matches and the total number of matches.
+	 */
+	static class Hits {
+		final List<Integer> productIds;
+		final int total;
+
+		private Hits(List<Integer> productIds, int total) {
+			this.productIds = productIds;
+			this.total = total;
+		}
+	}
+
+	private static class Hit {
+		private final int productId;
+		private final int score;
+		private final int nameLength;
+
+		private Hit(int productId, int score, int nameLength) {
+			this.productId = productId;
+			this.score = score;
+			this.nameLength = nameLength;
+		}
+	}
+
+	/**
+	 * The words indexed for one product, by number, and where the product sits
+	 * in the postings of each. Slots number the name words first, then the
+	 * category words; a repeated word keeps only its first slot.
+	 */
+	private static class Terms {
+		private final int productId;
+		private final int[] name;
+		private final int[] category;
+		private final int nameLength;
+		private final int[] postingPositions;
+
+		private Terms(int productId, int[] name, int[] category, int nameLength) {
+			this.productId = productId;
+			this.name = name;
+			this.category = category;
+			this.nameLength = nameLength;
+			this.postingPositions = new int[name.length + category.length];
+		}
+	}
+
+	/**
+	 * One dictionary word and the products having it, unordered. The words of
+	 * each product are posted rather than its ID, so a search checks a
+	 * candidate without looking it up.
+	 *
+	 * <p>
+	 * Each entry also records the slot of this word in its product, and the
+	 * product records its position here under that slot, so a product is
+	 * removed by moving the last entry into its place without searching.
+	 * </p>
+	 */
+	private static class Postings {
+		private final int termId;
+		private final String term;
+		private Terms[] entries = new Terms[4];
+		private int[] slots = new int[4];
+		private int size;
+
+		private Postings(int termId, String term) {
+			this.termId = termId;
+			this.term = term;
+		}
+
+		private void add(Terms product, int slot) {
+			if (size == entries.length) {
+				entries = Arrays.copyOf(entries, size * 2);
+				slots = Arrays.copyOf(slots, size * 2);
+			}
+			entries[size] = product;
+			slots[size] = slot;
+			product.postingPositions[slot] = size;
+			size++;
+		}
+
+		private void remove(Terms product, int slot) {
+			int position = product.postingPositions[slot];
+			int last = --size;
+			if (position != last) {
+				entries[position] = entries[last];
+				slots[position] = slots[last];
+				entries[position].postingPositions[slots[position]] = position;
+			}
+			entries[last] = null;
+		}
+	}
+}
@@ -0,0 +1,130 @@
+package com.litmus7.retailproductcatalog.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size, lock-free histogram of latencies in nanoseconds.
+ *
+ * <p>
+ * Values are counted in log-linear buckets: every power of two is split into
+ * 32 equal sub-buckets, so a reported percentile is within about 3% of the
+ * recorded value. Values below 32ns are counted exactly and values above about
+ * 18 minutes are counted in the last bucket.
+ * </p>
+ *
+ * <p>
+ * {@link #record(long)} only updates pre-allocated atomic counters, so it
+ * allocates nothing and never blocks.
+ * </p>
+ *
+ * @author Muhammed Irfan
+ */
+public class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 5;
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	private static final int MAX_MAGNITUDE = 40;
+	private static final int BUCKET_COUNT = (MAX_MAGNITUDE - SUB_BUCKET_BITS + 2) * SUB_BUCKET_COUNT;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+	private final AtomicLong totalCount = new AtomicLong();
+	private final AtomicLong totalNanos = new AtomicLong();
+	private final AtomicLong maxNanos = new AtomicLong();
+
+	/**
+	 * Records one latency.
+	 *
+	 * @param nanos the latency in nanoseconds; negative values are counted as 0
+	 */
+	public void record(long nanos) {
+		long value = Math.max(0, nanos);
+		counts.incrementAndGet(bucketIndex(value));
+		totalCount.incrementAndGet();
+		totalNanos.addAndGet(value);
+		long max;
+		while (value > (max = maxNanos.get()) && !maxNanos.compareAndSet(max, value)) {
+			// retry until this value is recorded or a larger one won
+		}
+	}
+
+	/**
+	 * @return the number of recorded values
+	 */
+	public long getCount() {
+		return totalCount.get();
+	}
+
+	/**
+	 * @return the largest recorded value in nanoseconds
+	 */
+	public long getMaxNanos() {
+		return maxNanos.get();
+	}
+
+	/**
+	 * @return the mean of the recorded values in nanoseconds
+	 */
+	public double getMeanNanos() {
+		long count = totalCount.get();
+		return count == 0 ? 0 : (double) totalNanos.get() / count;
+	}
+
+	/**
+	 * Returns the value below which the given fraction of recorded values fall.
+	 *
+	 * @param percentile the percentile, between 0 and 100
+	 * @return the upper bound of the bucket holding the percentile, in
+	 *         nanoseconds, or 0 if nothing was recorded
+	 */
+	public long getValueAtPercentile(double percentile) {
+		long count = totalCount.get();
+		if (count == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+		long seen = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			seen += counts.get(i);
+			if (seen >= rank) {
+				return Math.min(bucketUpperBound(i), maxNanos.get());
+			}
+		}
+		return maxNanos.get();
+	}
+
+	/**
+	 * Clears every counter. Values recorded concurrently with a reset may be
+	 * partially lost.
+	 */
+	public void reset() {
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			counts.set(i, 0);
+		}
+		totalCount.set(0);
+		totalNanos.set(0);
+		maxNanos.set(0);
+	}
+
+	private static int bucketIndex(long value) {
+		if (value < SUB_BUCKET_COUNT) {
+			return (int) value;
+		}
+		int magnitude = Math.min(63 - Long.numberOfLeadingZeros(value), MAX_MAGNITUDE);
+		if (magnitude == MAX_MAGNITUDE && value >= (1L << (MAX_MAGNITUDE + 1))) {
+			return BUCKET_COUNT - 1;
+		}
+		int subBucket = (int) (value >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+		return (magnitude - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+	}
+
+	private static long bucketUpperBound(int index) {
+		if (index < SUB_BUCKET_COUNT) {
+			return index;
+		}
+		int group = index / SUB_BUCKET_COUNT;
+		int subBucket = index % SUB_BUCKET_COUNT;
+		int shift = group - 1;
+		return ((long) (SUB_BUCKET_COUNT + subBucket) << shift) + (1L << shift) - 1;
+	}
+}
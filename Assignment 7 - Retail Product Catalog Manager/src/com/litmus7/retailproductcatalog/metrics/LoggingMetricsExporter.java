@@ -0,0 +1,26 @@
+package com.litmus7.retailproductcatalog.metrics;
+
+import java.util.List;
+import java.util.logging.Logger;
+
+import com.litmus7.retailproductcatalog.dto.OperationSnapshot;
+
+/**
+ * A {@link MetricsExporter} that writes one log line per operation that has
+ * been called at least once.
+ *
+ * @author Muhammed Irfan
+ */
+public class LoggingMetricsExporter implements MetricsExporter {
+
+	private static final Logger LOGGER = Logger.getLogger(LoggingMetricsExporter.class.getName());
+
+	@Override
+	public void export(List<OperationSnapshot> snapshots) {
+		for (OperationSnapshot snapshot : snapshots) {
+			if (snapshot.getCount() > 0) {
+				LOGGER.info(snapshot.toString());
+			}
+		}
+	}
+}
@@ -0,0 +1,22 @@
+package com.litmus7.retailproductcatalog.metrics;
+
+import java.util.List;
+
+import com.litmus7.retailproductcatalog.dto.OperationSnapshot;
+
+/**
+ * Receives periodic metric snapshots, e.g. to log them or push them to a
+ * monitoring system.
+ *
+ * @author Muhammed Irfan
+ */
+@FunctionalInterface
+public interface MetricsExporter {
+
+	/**
+	 * Exports one snapshot of every operation.
+	 *
+	 * @param snapshots the snapshot of each registered operation
+	 */
+	void export(List<OperationSnapshot> snapshots);
+}
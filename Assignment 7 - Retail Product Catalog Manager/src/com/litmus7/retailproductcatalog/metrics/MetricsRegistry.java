@@ -0,0 +1,104 @@
+package com.litmus7.retailproductcatalog.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.litmus7.retailproductcatalog.constant.MetricsConstants;
+import com.litmus7.retailproductcatalog.dto.OperationSnapshot;
+import com.litmus7.retailproductcatalog.util.ConfigUtil;
+
+/**
+ * Holds the {@link OperationMetrics} of every instrumented operation and
+ * exports them periodically.
+ *
+ * <p>
+ * The application uses the shared instance from {@link #getInstance()}. If
+ * {@code metrics.log.interval.ms} is set to a positive value, that instance
+ * logs every operation through a {@link LoggingMetricsExporter} at that
+ * interval. Further exporters can be added with
+ * {@link #schedule(MetricsExporter, long)}.
+ * </p>
+ *
+ * @author Muhammed Irfan
+ */
+public class MetricsRegistry {
+
+	private static final Logger LOGGER = Logger.getLogger(MetricsRegistry.class.getName());
+	private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+
+	static {
+		long interval = ConfigUtil.getLong(MetricsConstants.METRICS_LOG_INTERVAL_KEY,
+				MetricsConstants.DEFAULT_METRICS_LOG_INTERVAL);
+		if (interval > 0) {
+			INSTANCE.schedule(new LoggingMetricsExporter(), interval);
+		}
+	}
+
+	private final ConcurrentMap<String, OperationMetrics> operations = new ConcurrentHashMap<>();
+	private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "metrics-exporter");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	/**
+	 * @return the registry shared by the application
+	 */
+	public static MetricsRegistry getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Returns the metrics of the named operation, creating them on first use.
+	 *
+	 * @param name the operation name, e.g. {@code controller.addProduct}
+	 * @return the metrics of the operation
+	 */
+	public OperationMetrics operation(String name) {
+		return operations.computeIfAbsent(name, OperationMetrics::new);
+	}
+
+	/**
+	 * Returns a snapshot of every registered operation, sorted by name.
+	 *
+	 * @return the snapshots
+	 */
+	public List<OperationSnapshot> snapshot() {
+		List<OperationSnapshot> snapshots = new ArrayList<>(operations.size());
+		for (OperationMetrics metrics : operations.values()) {
+			snapshots.add(metrics.snapshot());
+		}
+		snapshots.sort((first, second) -> first.getName().compareTo(second.getName()));
+		return snapshots;
+	}
+
+	/**
+	 * Clears the counters of every registered operation.
+	 */
+	public void reset() {
+		operations.values().forEach(OperationMetrics::reset);
+	}
+
+	/**
+	 * Passes a snapshot to the exporter at a fixed interval until the JVM exits.
+	 *
+	 * @param exporter       the exporter
+	 * @param intervalMillis the interval between exports, in milliseconds
+	 */
+	public void schedule(MetricsExporter exporter, long intervalMillis) {
+		scheduler.scheduleAtFixedRate(() -> {
+			try {
+				exporter.export(snapshot());
+			} catch (RuntimeException e) {
+				LOGGER.log(Level.WARNING, "Metrics export failed", e);
+			}
+		}, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+	}
+}
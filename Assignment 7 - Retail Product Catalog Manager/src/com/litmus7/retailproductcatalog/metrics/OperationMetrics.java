@@ -0,0 +1,70 @@
+package com.litmus7.retailproductcatalog.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.litmus7.retailproductcatalog.dto.OperationSnapshot;
+
+/**
+ * Latency histogram and error counter of one named operation.
+ *
+ * <p>
+ * Look an instance up once through {@link MetricsRegistry#operation(String)}
+ * and keep it in a field; recording is then allocation-free.
+ * </p>
+ *
+ * @author Muhammed Irfan
+ */
+public class OperationMetrics {
+
+	private final String name;
+	private final LatencyHistogram latencies = new LatencyHistogram();
+	private final AtomicLong errorCount = new AtomicLong();
+
+	/**
+	 * Creates the metrics of an operation.
+	 *
+	 * @param name the operation name
+	 */
+	OperationMetrics(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Records one call that started at {@code startNanos}.
+	 *
+	 * @param startNanos the {@link System#nanoTime()} taken when the call started
+	 * @param success    whether the call succeeded
+	 */
+	public void record(long startNanos, boolean success) {
+		latencies.record(System.nanoTime() - startNanos);
+		if (!success) {
+			errorCount.incrementAndGet();
+		}
+	}
+
+	/**
+	 * @return the operation name
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Returns the current counters and percentiles.
+	 *
+	 * @return a snapshot of this operation
+	 */
+	public OperationSnapshot snapshot() {
+		return new OperationSnapshot(name, latencies.getCount(), errorCount.get(), latencies.getMeanNanos(),
+				latencies.getValueAtPercentile(50), latencies.getValueAtPercentile(99),
+				latencies.getValueAtPercentile(99.9), latencies.getMaxNanos());
+	}
+
+	/**
+	 * Clears the histogram and error counter.
+	 */
+	public void reset() {
+		latencies.reset();
+		errorCount.set(0);
+	}
+}
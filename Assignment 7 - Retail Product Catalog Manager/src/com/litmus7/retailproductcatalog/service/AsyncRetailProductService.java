@@ -0,0 +1,197 @@
+package com.litmus7.retailproductcatalog.service;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.litmus7.retailproductcatalog.constant.AsyncConstants;
+import com.litmus7.retailproductcatalog.constant.DBConstants;
+import com.litmus7.retailproductcatalog.dto.Product;
+import com.litmus7.retailproductcatalog.dto.ProductLookupResult;
+import com.litmus7.retailproductcatalog.exception.RetailProductServiceException;
+import com.litmus7.retailproductcatalog.util.ConfigUtil;
+
+/**
+ * Non-blocking variant of {@link RetailProductService}.
+ *
+ * <p>
+ * Every method runs the blocking service call on a background executor and
+ * returns a {@link CompletableFuture}. When the runtime supports virtual
+ * threads (Java 21 and later) each call gets its own virtual thread; on older
+ * runtimes a fixed pool of platform threads is used instead. Either way at
+ * most {@code async.max.concurrency} calls use the data store at once, which
+ * defaults to the size of the connection pool.
+ * </p>
+ *
+ * <p>
+ * A failed call completes its future exceptionally with a
+ * {@link CompletionException} whose cause is the
+ * {@link RetailProductServiceException}.
+ * </p>
+ *
+ * @author Muhammed Irfan
+ */
+public class AsyncRetailProductService implements AutoCloseable {
+
+	private final RetailProductService retailProductService;
+	private final ExecutorService executor;
+	private final Semaphore concurrencyLimit;
+
+	/**
+	 * Creates an asynchronous service over the given service, with the
+	 * concurrency limit taken from the configuration.
+	 *
+	 * @param retailProductService the service that does the work
+	 */
+	public AsyncRetailProductService(RetailProductService retailProductService) {
+		this(retailProductService, ConfigUtil.getInt(AsyncConstants.ASYNC_MAX_CONCURRENCY_KEY,
+				ConfigUtil.getInt(DBConstants.POOL_MAX_SIZE_KEY, DBConstants.DEFAULT_POOL_MAX_SIZE)));
+	}
+
+	/**
+	 * Creates an asynchronous service over the given service.
+	 *
+	 * @param retailProductService the service that does the work
+	 * @param maxConcurrency       the maximum number of calls running at once
+	 */
+	public AsyncRetailProductService(RetailProductService retailProductService, int maxConcurrency) {
+		if (maxConcurrency < 1) {
+			throw new IllegalArgumentException("Concurrency limit must be at least 1");
+		}
+		this.retailProductService = retailProductService;
+		this.concurrencyLimit = new Semaphore(maxConcurrency, true);
+		this.executor = newExecutor(maxConcurrency);
+	}
+
+	/**
+	 * @return the blocking service this service runs its calls on
+	 */
+	public RetailProductService getRetailProductService() {
+		return retailProductService;
+	}
+
+	/**
+	 * Adds a new product.
+	 *
+	 * @param product the product to add
+	 * @return a future of the added product
+	 * @see RetailProductService#addProduct(Product)
+	 */
+	public CompletableFuture<Product> addProduct(Product product) {
+		return submit(() -> retailProductService.addProduct(product));
+	}
+
+	/**
+	 * Retrieves a product by its ID.
+	 *
+	 * @param productId the ID of the product
+	 * @return a future of the product
+	 * @see RetailProductService#getProductById(int)
+	 */
+	public CompletableFuture<Product> getProductById(int productId) {
+		return submit(() -> retailProductService.getProductById(productId));
+	}
+
+	/**
+	 * Retrieves several products by ID in one call, which serves cached
+	 * products from memory and fetches the rest with {@code IN (...)} queries.
+	 *
+	 * @param productIds the IDs of the products
+	 * @return a future of the products found and the missing IDs
+	 * @see RetailProductService#getProductsByIds(java.util.Collection)
+	 */
+	public CompletableFuture<ProductLookupResult> getProductsByIds(int... productIds) {
+		List<Integer> ids = new ArrayList<>(productIds.length);
+		for (int productId : productIds) {
+			ids.add(productId);
+		}
+		return submit(() -> retailProductService.getProductsByIds(ids));
+	}
+
+	/**
+	 * Retrieves all products.
+	 *
+	 * @return a future of all products
+	 * @see RetailProductService#getAllProducts()
+	 */
+	public CompletableFuture<List<Product>> getAllProducts() {
+		return submit(retailProductService::getAllProducts);
+	}
+
+	/**
+	 * Updates the details of an existing product.
+	 *
+	 * @param product the product with updated details
+	 * @return a future of the updated product
+	 * @see RetailProductService#updateProduct(Product)
+	 */
+	public CompletableFuture<Product> updateProduct(Product product) {
+		return submit(() -> retailProductService.updateProduct(product));
+	}
+
+	/**
+	 * Deletes a product by its ID.
+	 *
+	 * @param productId the ID of the product to delete
+	 * @return a future of the ID of the deleted product
+	 * @see RetailProductService#deleteProductById(int)
+	 */
+	public CompletableFuture<Integer> deleteProductById(int productId) {
+		return submit(() -> retailProductService.deleteProductById(productId));
+	}
+
+	/**
+	 * Stops accepting calls. Calls already submitted still complete.
+	 */
+	@Override
+	public void close() {
+		executor.shutdown();
+	}
+
+	private <T> CompletableFuture<T> submit(ServiceCall<T> call) {
+		return CompletableFuture.supplyAsync(() -> {
+			concurrencyLimit.acquireUninterruptibly();
+			try {
+				return call.run();
+			} catch (RetailProductServiceException e) {
+				throw new CompletionException(e);
+			} finally {
+				concurrencyLimit.release();
+			}
+		}, executor);
+	}
+
+	/**
+	 * Returns a virtual-thread-per-task executor when the runtime has one, or a
+	 * fixed pool of daemon threads otherwise. The virtual thread factory is
+	 * looked up reflectively so this class still compiles and runs on runtimes
+	 * without virtual threads.
+	 */
+	private static ExecutorService newExecutor(int poolSize) {
+		try {
+			Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) factory.invoke(null);
+		} catch (ReflectiveOperationException e) {
+			AtomicInteger threadCount = new AtomicInteger();
+			return Executors.newFixedThreadPool(poolSize, runnable -> {
+				Thread thread = new Thread(runnable, "product-async-" + threadCount.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+	}
+
+	/**
+	 * A blocking call of the service layer.
+	 */
+	@FunctionalInterface
+	private interface ServiceCall<T> {
+		T run() throws RetailProductServiceException;
+	}
+}
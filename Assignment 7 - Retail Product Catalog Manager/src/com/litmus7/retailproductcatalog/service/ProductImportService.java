@@ -0,0 +1,393 @@
+package com.litmus7.retailproductcatalog.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.litmus7.retailproductcatalog.constant.ImportConstants;
+import com.litmus7.retailproductcatalog.dto.BatchResult;
+import com.litmus7.retailproductcatalog.dto.BatchRowResult;
+import com.litmus7.retailproductcatalog.dto.ImportReport;
+import com.litmus7.retailproductcatalog.dto.Product;
+import com.litmus7.retailproductcatalog.dto.RejectedRow;
+import com.litmus7.retailproductcatalog.exception.RetailProductServiceException;
+import com.litmus7.retailproductcatalog.util.ConfigUtil;
+import com.litmus7.retailproductcatalog.util.ValidationUtil;
+
+/**
+ * Service class that imports products from a CSV file.
+ *
+ * <p>
+ * The import runs as a three stage pipeline connected by bounded queues:
+ * </p>
+ * <ol>
+ * <li>a reader thread reads the file line by line and hands out chunks of
+ * lines,</li>
+ * <li>parser threads turn lines into {@link Product}s and check them with
+ * {@link ValidationUtil#isProductValid(Product)},</li>
+ * <li>the calling thread writes the valid products with batched inserts
+ * through {@link RetailProductService#addProducts(List)}.</li>
+ * </ol>
+ *
+ * <p>
+ * Because the queues are bounded, a fast stage blocks until the slower stage
+ * behind it catches up, so only a few chunks are ever held in memory no matter
+ * how large the file is.
+ * </p>
+ *
+ * <p>
+ * The file has one product per line as
+ * {@code id,name,category,price,stockQuantity}. Fields may be wrapped in double
+ * quotes to contain commas. A first line whose id is not a number is treated
+ * as a header and skipped.
+ * </p>
+ *
+ * @author Muhammed Irfan
+ */
+public class ProductImportService {
+
+	// how often a stage blocked on a queue checks whether the import was aborted
+	private static final long QUEUE_POLL_MILLIS = 100L;
+
+	private final RetailProductService retailProductService;
+	private final int parserThreads = ConfigUtil.getInt(ImportConstants.IMPORT_PARSER_THREADS_KEY,
+			ImportConstants.DEFAULT_IMPORT_PARSER_THREADS);
+	private final int queueCapacity = ConfigUtil.getInt(ImportConstants.IMPORT_QUEUE_CAPACITY_KEY,
+			ImportConstants.DEFAULT_IMPORT_QUEUE_CAPACITY);
+	private final int chunkSize = ConfigUtil.getInt(ImportConstants.IMPORT_CHUNK_SIZE_KEY,
+			ImportConstants.DEFAULT_IMPORT_CHUNK_SIZE);
+
+	/**
+	 * Creates an import service that writes through the given product service.
+	 *
+	 * @param retailProductService the service used to insert products
+	 */
+	public ProductImportService(RetailProductService retailProductService) {
+		this.retailProductService = retailProductService;
+	}
+
+	/**
+	 * Imports every product in the given CSV file.
+	 *
+	 * <p>
+	 * Invalid rows and rows the database rejects are counted and reported; they
+	 * don't stop the import. Each chunk is committed on its own, so if the import
+	 * fails part way the chunks written so far stay in the database.
+	 * </p>
+	 *
+	 * @param filePath the path of the CSV file
+	 * @return a report with row counts, rejected rows and stage timings
+	 * @throws RetailProductServiceException if the file cannot be read or the
+	 *                                       database write fails
+	 */
+	public ImportReport importProducts(String filePath) throws RetailProductServiceException {
+		Path path = Paths.get(filePath);
+		if (!Files.isReadable(path)) {
+			throw new RetailProductServiceException("Couldn't read file: " + filePath);
+		}
+
+		BlockingQueue<LineChunk> lineQueue = new ArrayBlockingQueue<>(queueCapacity);
+		BlockingQueue<ProductChunk> productQueue = new ArrayBlockingQueue<>(queueCapacity);
+		ImportState state = new ImportState();
+
+		ExecutorService executor = Executors.newFixedThreadPool(parserThreads + 1, runnable -> {
+			Thread thread = new Thread(runnable, "product-import");
+			thread.setDaemon(true);
+			return thread;
+		});
+		long start = System.nanoTime();
+		try {
+			Future<Long> reader = executor.submit(() -> readLines(path, lineQueue, state));
+			List<Future<Long>> parsers = new ArrayList<>(parserThreads);
+			for (int i = 0; i < parserThreads; i++) {
+				parsers.add(executor.submit(() -> parseLines(lineQueue, productQueue, state)));
+			}
+
+			long writeNanos = writeProducts(productQueue, state);
+			long readNanos = reader.get();
+			long parseNanos = 0;
+			for (Future<Long> parser : parsers) {
+				parseNanos = Math.max(parseNanos, parser.get());
+			}
+			long totalNanos = System.nanoTime() - start;
+
+			return new ImportReport(state.totalRows.get(), state.importedRows.get(), state.rejectedRowCount.get(),
+					new ArrayList<>(state.rejectedRows), toMillis(readNanos), toMillis(parseNanos),
+					toMillis(writeNanos), toMillis(totalNanos));
+		} catch (ExecutionException e) {
+			throw new RetailProductServiceException("Import of " + filePath + " failed", e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RetailProductServiceException("Import of " + filePath + " was interrupted", e);
+		} finally {
+			// lets the stages still waiting on a queue give up instead of blocking forever
+			state.aborted = true;
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Read stage: streams the file into chunks of lines. Always ends by sending
+	 * one end marker per parser thread, even if reading fails, unless the
+	 * import was aborted.
+	 *
+	 * @return how long the stage ran, in nanoseconds
+	 */
+	private long readLines(Path path, BlockingQueue<LineChunk> lineQueue, ImportState state)
+			throws IOException, InterruptedException {
+		long start = System.nanoTime();
+		try (BufferedReader bufferedReader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+			long lineNumber = 0;
+			LineChunk chunk = new LineChunk(1, chunkSize);
+			String line;
+			while ((line = bufferedReader.readLine()) != null) {
+				lineNumber++;
+				chunk.lines.add(line);
+				if (chunk.lines.size() == chunkSize) {
+					if (!state.offer(lineQueue, chunk)) {
+						return System.nanoTime() - start;
+					}
+					chunk = new LineChunk(lineNumber + 1, chunkSize);
+				}
+			}
+			if (!chunk.lines.isEmpty()) {
+				state.offer(lineQueue, chunk);
+			}
+		} finally {
+			for (int i = 0; i < parserThreads && state.offer(lineQueue, LineChunk.END); i++) {
+				// one end marker per parser
+			}
+		}
+		return System.nanoTime() - start;
+	}
+
+	/**
+	 * Parse stage: turns lines into valid products and records rejects. Always
+	 * ends by forwarding an end marker to the write stage, unless the import was
+	 * aborted.
+	 *
+	 * @return how long the stage ran, in nanoseconds
+	 */
+	private long parseLines(BlockingQueue<LineChunk> lineQueue, BlockingQueue<ProductChunk> productQueue,
+			ImportState state) throws InterruptedException {
+		long start = System.nanoTime();
+		try {
+			LineChunk lineChunk;
+			while ((lineChunk = state.poll(lineQueue)) != null && lineChunk != LineChunk.END) {
+				ProductChunk productChunk = new ProductChunk(lineChunk.lines.size());
+				for (int i = 0; i < lineChunk.lines.size(); i++) {
+					long lineNumber = lineChunk.firstLineNumber + i;
+					String line = lineChunk.lines.get(i);
+					if (line.trim().isEmpty()) {
+						continue;
+					}
+					List<String> fields = parseCsvLine(line);
+					if (lineNumber == 1 && !isInteger(fields.get(0))) {
+						continue;
+					}
+					state.totalRows.incrementAndGet();
+					try {
+						Product product = toProduct(fields);
+						if (ValidationUtil.isProductValid(product)) {
+							productChunk.add(product, lineNumber);
+						} else {
+							state.reject(lineNumber, "Invalid product values");
+						}
+					} catch (IllegalArgumentException e) {
+						state.reject(lineNumber, e.getMessage());
+					}
+				}
+				if (!productChunk.products.isEmpty() && !state.offer(productQueue, productChunk)) {
+					break;
+				}
+			}
+		} finally {
+			state.offer(productQueue, ProductChunk.END);
+		}
+		return System.nanoTime() - start;
+	}
+
+	/**
+	 * Write stage: inserts each chunk of products as one batch until every
+	 * parser has finished.
+	 *
+	 * @return how long the stage ran, in nanoseconds
+	 */
+	private long writeProducts(BlockingQueue<ProductChunk> productQueue, ImportState state)
+			throws RetailProductServiceException, InterruptedException {
+		long start = System.nanoTime();
+		int runningParsers = parserThreads;
+		while (runningParsers > 0) {
+			ProductChunk productChunk = productQueue.take();
+			if (productChunk == ProductChunk.END) {
+				runningParsers--;
+				continue;
+			}
+			BatchResult batchResult = retailProductService.addProducts(productChunk.products);
+			List<BatchRowResult> rows = batchResult.getRows();
+			for (int i = 0; i < rows.size(); i++) {
+				if (rows.get(i).isSuccess()) {
+					state.importedRows.incrementAndGet();
+				} else {
+					state.reject(productChunk.lineNumbers[i], rows.get(i).getErrorMessage());
+				}
+			}
+		}
+		return System.nanoTime() - start;
+	}
+
+	private static Product toProduct(List<String> fields) {
+		if (fields.size() != ImportConstants.CSV_FIELD_COUNT) {
+			throw new IllegalArgumentException(
+					"Expected " + ImportConstants.CSV_FIELD_COUNT + " fields but found " + fields.size());
+		}
+		try {
+			return new Product(Integer.parseInt(fields.get(0).trim()), fields.get(1).trim(), fields.get(2).trim(),
+					Double.parseDouble(fields.get(3).trim()), Integer.parseInt(fields.get(4).trim()));
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid number: " + e.getMessage());
+		}
+	}
+
+	private static boolean isInteger(String value) {
+		try {
+			Integer.parseInt(value.trim());
+			return true;
+		} catch (NumberFormatException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Splits a CSV line on commas. A field wrapped in double quotes may contain
+	 * commas, and a doubled quote inside it stands for one quote.
+	 */
+	private static List<String> parseCsvLine(String line) {
+		List<String> fields = new ArrayList<>(ImportConstants.CSV_FIELD_COUNT);
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (quoted) {
+				if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+					field.append('"');
+					i++;
+				} else if (c == '"') {
+					quoted = false;
+				} else {
+					field.append(c);
+				}
+			} else if (c == '"') {
+				quoted = true;
+			} else if (c == ',') {
+				fields.add(field.toString());
+				field.setLength(0);
+			} else {
+				field.append(c);
+			}
+		}
+		fields.add(field.toString());
+		return fields;
+	}
+
+	private static long toMillis(long nanos) {
+		return nanos / 1_000_000L;
+	}
+
+	/**
+	 * Counters shared by the pipeline stages.
+	 */
+	private static class ImportState {
+		private final AtomicLong totalRows = new AtomicLong();
+		private final AtomicLong importedRows = new AtomicLong();
+		private final AtomicLong rejectedRowCount = new AtomicLong();
+		private final ConcurrentLinkedQueue<RejectedRow> rejectedRows = new ConcurrentLinkedQueue<>();
+		// set once the import is over, e.g. because the write stage failed
+		private volatile boolean aborted;
+
+		private void reject(long lineNumber, String reason) {
+			if (rejectedRowCount.incrementAndGet() <= ImportConstants.MAX_REPORTED_REJECTIONS) {
+				rejectedRows.add(new RejectedRow(lineNumber, reason));
+			}
+		}
+
+		/**
+		 * Waits for room in the queue until the import is aborted.
+		 *
+		 * @return {@code false} if the import was aborted and the item dropped
+		 */
+		private <T> boolean offer(BlockingQueue<T> queue, T item) throws InterruptedException {
+			while (!queue.offer(item, QUEUE_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+				if (aborted) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Waits for an item in the queue until the import is aborted.
+		 *
+		 * @return the item, or {@code null} if the import was aborted
+		 */
+		private <T> T poll(BlockingQueue<T> queue) throws InterruptedException {
+			T item;
+			while ((item = queue.poll(QUEUE_POLL_MILLIS, TimeUnit.MILLISECONDS)) == null) {
+				if (aborted) {
+					return null;
+				}
+			}
+			return item;
+		}
+	}
+
+	/**
+	 * Consecutive lines of the file, handed from the read to the parse stage.
+	 */
+	private static class LineChunk {
+		private static final LineChunk END = new LineChunk(0, 0);
+
+		private final long firstLineNumber;
+		private final List<String> lines;
+
+		private LineChunk(long firstLineNumber, int capacity) {
+			this.firstLineNumber = firstLineNumber;
+			this.lines = new ArrayList<>(capacity);
+		}
+	}
+
+	/**
+	 * Valid products and their line numbers, handed from the parse to the write
+	 * stage.
+	 */
+	private static class ProductChunk {
+		private static final ProductChunk END = new ProductChunk(0);
+
+		private final List<Product> products;
+		private final long[] lineNumbers;
+
+		private ProductChunk(int capacity) {
+			this.products = new ArrayList<>(capacity);
+			this.lineNumbers = new long[capacity];
+		}
+
+		private void add(Product product, long lineNumber) {
+			lineNumbers[products.size()] = lineNumber;
+			products.add(product);
+		}
+	}
+}
@@ -1,12 +1,40 @@
 package com.litmus7.retailproductcatalog.service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
+import com.litmus7.retailproductcatalog.constant.CacheConstants;
+import com.litmus7.retailproductcatalog.constant.QueryConstants;
 import com.litmus7.retailproductcatalog.dao.ProductDAO;
-import com.litmus7.retailproductcatalog.dao.impl.ProductDAOImpl;
+import com.litmus7.retailproductcatalog.dao.ProductDAOFactory;
+import com.litmus7.retailproductcatalog.dao.impl.CachingProductDAO;
+import com.litmus7.retailproductcatalog.dao.impl.CoalescingProductDAO;
+import com.litmus7.retailproductcatalog.dao.impl.IndexedProductDAO;
+import com.litmus7.retailproductcatalog.dao.impl.InstrumentedProductDAO;
+import com.litmus7.retailproductcatalog.dao.impl.PublishingProductDAO;
+import com.litmus7.retailproductcatalog.dto.BatchResult;
+import com.litmus7.retailproductcatalog.dto.CacheStats;
+import com.litmus7.retailproductcatalog.dto.ChangeStreamStats;
+import com.litmus7.retailproductcatalog.dto.CoalescingStats;
+import com.litmus7.retailproductcatalog.dto.InventorySummary;
 import com.litmus7.retailproductcatalog.dto.Product;
+import com.litmus7.retailproductcatalog.dto.ProductLookupResult;
+import com.litmus7.retailproductcatalog.dto.ProductSearchResult;
+import com.litmus7.retailproductcatalog.dto.StatementCacheStats;
+import com.litmus7.retailproductcatalog.event.ProductChangeListener;
+import com.litmus7.retailproductcatalog.event.ProductChangePublisher;
+import com.litmus7.retailproductcatalog.exception.DuplicateProductException;
 import com.litmus7.retailproductcatalog.exception.ProductDataAccessException;
+import com.litmus7.retailproductcatalog.exception.ProductNotFoundException;
 import com.litmus7.retailproductcatalog.exception.RetailProductServiceException;
+import com.litmus7.retailproductcatalog.metrics.MetricsRegistry;
+import com.litmus7.retailproductcatalog.util.ConfigUtil;
+import com.litmus7.retailproductcatalog.util.DBUtil;
 
 /**
  * Service layer class that handles business logic for operations related to
@@ -25,10 +53,26 @@ import com.litmus7.retailproductcatalog.exception.RetailProductServiceException;
  */
 public class RetailProductService {
 
-	private ProductDAO productDAO = new ProductDAOImpl();
+	// one DAO chain per JVM, so every service sees the same cache, index and store
+	private static final CoalescingProductDAO PRODUCT_LOOKUPS = new CoalescingProductDAO(
+			new InstrumentedProductDAO(ProductDAOFactory.getConfigured(), MetricsRegistry.getInstance()));
+	private static final CachingProductDAO PRODUCT_CACHE = new CachingProductDAO(PRODUCT_LOOKUPS,
+			ConfigUtil.getInt(CacheConstants.CACHE_MAX_SIZE_KEY, CacheConstants.DEFAULT_CACHE_MAX_SIZE),
+			ConfigUtil.getLong(CacheConstants.CACHE_TTL_KEY, CacheConstants.DEFAULT_CACHE_TTL));
+	private static final IndexedProductDAO PRODUCT_INDEX = new IndexedProductDAO(PRODUCT_CACHE);
+	private static final ProductDAO PRODUCT_DAO = new PublishingProductDAO(PRODUCT_INDEX,
+			ProductChangePublisher.getInstance());
+
+	private final ProductChangePublisher changePublisher = ProductChangePublisher.getInstance();
 
 	/**
-	 * Adds a new product to the system after checking for duplicate IDs.
+	 * Adds a new product to the system.
+	 *
+	 * <p>
+	 * Duplicate IDs are detected by the database's primary key constraint during
+	 * the insert itself, so this is a single round trip and is safe against
+	 * concurrent adds of the same ID.
+	 * </p>
 	 *
 	 * @param product the product to add
 	 * @return the added product
@@ -37,11 +81,9 @@ public class RetailProductService {
 	 */
 	public Product addProduct(Product product) throws RetailProductServiceException {
 		try {
-			if (productDAO.getProductById(product.getId()) != null) {
-				throw new RetailProductServiceException("Product with the Id exists");
-			}
-			Product addedProduct = productDAO.addProduct(product);
-			return addedProduct;
+			return PRODUCT_DAO.addProduct(product);
+		} catch (DuplicateProductException e) {
+			throw new RetailProductServiceException("Product with the Id exists", e);
 		} catch (ProductDataAccessException e) {
 			throw new RetailProductServiceException(e.getMessage(), e);
 		}
@@ -57,7 +99,7 @@ public class RetailProductService {
 	 */
 	public Product getProductById(int productId) throws RetailProductServiceException {
 		try {
-			Product product = productDAO.getProductById(productId);
+			Product product = PRODUCT_DAO.getProductById(productId);
 			if (product == null) {
 				throw new RetailProductServiceException("Product with the Id " + productId + " doesn't exist");
 			}
@@ -67,6 +109,41 @@ public class RetailProductService {
 		}
 	}
 
+	/**
+	 * Retrieves many products by ID at once. Cached products are served from
+	 * memory and the rest are fetched with a few {@code IN (...)} queries.
+	 *
+	 * @param productIds the IDs of the products; duplicates are looked up once
+	 * @return the products found in the order their IDs first appear, and the
+	 *         IDs that don't exist
+	 * @throws RetailProductServiceException if too many IDs are given or if a
+	 *                                       data access error occurs
+	 */
+	public ProductLookupResult getProductsByIds(Collection<Integer> productIds)
+			throws RetailProductServiceException {
+		Set<Integer> ids = new LinkedHashSet<>(productIds);
+		if (ids.size() > QueryConstants.MAX_MULTI_GET_SIZE) {
+			throw new RetailProductServiceException(
+					"Cannot look up more than " + QueryConstants.MAX_MULTI_GET_SIZE + " products at once");
+		}
+		try {
+			List<Product> products = PRODUCT_DAO.getProductsByIds(ids);
+			Set<Integer> foundIds = new HashSet<>(products.size() * 2);
+			for (Product product : products) {
+				foundIds.add(product.getId());
+			}
+			List<Integer> missingIds = new ArrayList<>();
+			for (Integer productId : ids) {
+				if (!foundIds.contains(productId)) {
+					missingIds.add(productId);
+				}
+			}
+			return new ProductLookupResult(products, missingIds);
+		} catch (ProductDataAccessException e) {
+			throw new RetailProductServiceException(e.getMessage(), e);
+		}
+	}
+
 	/**
 	 * Retrieves all products from the system.
 	 *
@@ -76,9 +153,9 @@ public class RetailProductService {
 	 */
 	public List<Product> getAllProducts() throws RetailProductServiceException {
 		try {
-			List<Product> products = productDAO.getAllProducts();
+			List<Product> products = PRODUCT_DAO.getAllProducts();
 			if (!products.isEmpty()) {
-				return productDAO.getAllProducts();
+				return products;
 			} else {
 				throw new RetailProductServiceException("No products available in the database");
 			}
@@ -87,23 +164,133 @@ public class RetailProductService {
 		}
 	}
 
+	/**
+	 * Retrieves one page of products ordered by ID.
+	 *
+	 * @param afterProductId the ID after which the page starts, {@code 0} for the
+	 *                       first page
+	 * @param pageSize       the maximum number of products in the page
+	 * @return the products of the page, empty when there are no more products
+	 * @throws RetailProductServiceException if the page size is out of range or if
+	 *                                       a data access error occurs
+	 */
+	public List<Product> getProductsPage(int afterProductId, int pageSize) throws RetailProductServiceException {
+		if (pageSize < 1 || pageSize > QueryConstants.MAX_PAGE_SIZE) {
+			throw new RetailProductServiceException(
+					"Page size must be between 1 and " + QueryConstants.MAX_PAGE_SIZE);
+		}
+		try {
+			return PRODUCT_DAO.getProductsPage(afterProductId, pageSize);
+		} catch (ProductDataAccessException e) {
+			throw new RetailProductServiceException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Retrieves the products of a category from the in-memory category index.
+	 *
+	 * @param category the category, matched case-insensitively
+	 * @return the products of the category ordered by ID, empty if there are none
+	 * @throws RetailProductServiceException if the index cannot be built
+	 */
+	public List<Product> getProductsByCategory(String category) throws RetailProductServiceException {
+		try {
+			return PRODUCT_INDEX.getProductsByCategory(category);
+		} catch (ProductDataAccessException e) {
+			throw new RetailProductServiceException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Retrieves the products within a price range from the in-memory price
+	 * index.
+	 *
+	 * @param minPrice the lowest price, inclusive
+	 * @param maxPrice the highest price, inclusive
+	 * @return the matching products ordered by price, empty if there are none
+	 * @throws RetailProductServiceException if the range is invalid or if the
+	 *                                       index cannot be built
+	 */
+	public List<Product> getProductsByPriceRange(double minPrice, double maxPrice)
+			throws RetailProductServiceException {
+		if (minPrice > maxPrice) {
+			throw new RetailProductServiceException("Minimum price cannot be greater than maximum price");
+		}
+		try {
+			return PRODUCT_INDEX.getProductsByPriceRange(minPrice, maxPrice);
+		} catch (ProductDataAccessException e) {
+			throw new RetailProductServiceException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Searches product names and categories from the in-memory word index. Every
+	 * word of the query must start a word of the name or category; whole words
+	 * and matches in the name rank first.
+	 *
+	 * @param query  the words to search for, matched case-insensitively
+	 * @param offset the number of ranked matches to skip
+	 * @param limit  the largest number of products to return
+	 * @return the requested page of matches and the total number of matches
+	 * @throws RetailProductServiceException if the paging is out of range or if
+	 *                                       the index cannot be built
+	 */
+	public ProductSearchResult searchProducts(String query, int offset, int limit)
+			throws RetailProductServiceException {
+		if (limit < 1 || limit > QueryConstants.MAX_PAGE_SIZE) {
+			throw new RetailProductServiceException(
+					"Page size must be between 1 and " + QueryConstants.MAX_PAGE_SIZE);
+		}
+		if (offset < 0 || offset > QueryConstants.MAX_SEARCH_OFFSET) {
+			throw new RetailProductServiceException(
+					"Offset must be between 0 and " + QueryConstants.MAX_SEARCH_OFFSET);
+		}
+		try {
+			return PRODUCT_INDEX.searchProducts(query, offset, limit);
+		} catch (ProductDataAccessException e) {
+			throw new RetailProductServiceException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Opens a stream over all products that reads rows as it is consumed.
+	 *
+	 * <p>
+	 * The caller must close the stream, preferably with try-with-resources.
+	 * </p>
+	 *
+	 * @return a stream of all products
+	 * @throws RetailProductServiceException if the stream cannot be opened
+	 */
+	public Stream<Product> streamAllProducts() throws RetailProductServiceException {
+		try {
+			return PRODUCT_DAO.streamAllProducts();
+		} catch (ProductDataAccessException e) {
+			throw new RetailProductServiceException(e.getMessage(), e);
+		}
+	}
+
 	/**
 	 * Updates the details of an existing product.
 	 *
 	 * @param product the product with updated details
 	 * @return the updated product
-	 * @throws RetailProductServiceException if a data access error occurs
+	 * @throws RetailProductServiceException if the product doesn't exist or if a
+	 *                                       data access error occurs
 	 */
 	public Product updateProduct(Product product) throws RetailProductServiceException {
 		try {
-			return productDAO.updateProduct(product);
+			return PRODUCT_DAO.updateProduct(product);
+		} catch (ProductNotFoundException e) {
+			throw new RetailProductServiceException("Product with the Id " + product.getId() + " doesn't exist", e);
 		} catch (ProductDataAccessException e) {
 			throw new RetailProductServiceException(e.getMessage(), e);
 		}
 	}
 
 	/**
-	 * Deletes a product by its ID.
+	 * Deletes a product by its ID in a single statement; whether the product
+	 * existed is read from the affected row count.
 	 *
 	 * @param productId the ID of the product to delete
 	 * @return the ID of the deleted product
@@ -112,12 +299,250 @@ public class RetailProductService {
 	 */
 	public int deleteProductById(int productId) throws RetailProductServiceException {
 		try {
-			if (productDAO.getProductById(productId) == null) {
-				throw new RetailProductServiceException("Product with the Id " + productId + " doesn't exist");
-			}
-			return productDAO.deleteProductById(productId);
+			return PRODUCT_DAO.deleteProductById(productId);
+		} catch (ProductNotFoundException e) {
+			throw new RetailProductServiceException("Product with the Id " + productId + " doesn't exist", e);
+		} catch (ProductDataAccessException e) {
+			throw new RetailProductServiceException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Adds many products in one transaction using batched inserts.
+	 *
+	 * @param products the products to add
+	 * @return the outcome of every product, in input order
+	 * @throws RetailProductServiceException if the batch as a whole fails
+	 */
+	public BatchResult addProducts(List<Product> products) throws RetailProductServiceException {
+		try {
+			return PRODUCT_DAO.addProducts(products);
+		} catch (ProductDataAccessException e) {
+			throw new RetailProductServiceException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Updates many products in one transaction using batched updates.
+	 *
+	 * @param products the products with updated details
+	 * @return the outcome of every product, in input order
+	 * @throws RetailProductServiceException if the batch as a whole fails
+	 */
+	public BatchResult updateProducts(List<Product> products) throws RetailProductServiceException {
+		try {
+			return PRODUCT_DAO.updateProducts(products);
 		} catch (ProductDataAccessException e) {
 			throw new RetailProductServiceException(e.getMessage(), e);
 		}
 	}
+
+	/**
+	 * Deletes many products in one transaction using batched deletes.
+	 *
+	 * @param productIds the IDs of the products to delete
+	 * @return the outcome of every product, in input order
+	 * @throws RetailProductServiceException if the batch as a whole fails
+	 */
+	public BatchResult deleteProducts(int[] productIds) throws RetailProductServiceException {
+		try {
+			return PRODUCT_DAO.deleteProducts(productIds);
+		} catch (ProductDataAccessException e) {
+			throw new RetailProductServiceException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Adds {@code delta} to the stock of a product in one atomic statement, so
+	 * concurrent adjustments never overwrite each other.
+	 *
+	 * @param productId the ID of the product
+	 * @param delta     the amount to add, negative to take stock out
+	 * @return the ID of the product
+	 * @throws RetailProductServiceException if the delta is 0, if the product
+	 *                                       doesn't exist, if the stock would
+	 *                                       become negative or if a data access
+	 *                                       error occurs
+	 */
+	public int adjustStock(int productId, int delta) throws RetailProductServiceException {
+		if (delta == 0) {
+			throw new RetailProductServiceException("Stock adjustment cannot be 0");
+		}
+		try {
+			PRODUCT_DAO.adjustStock(productId, delta);
+			return productId;
+		} catch (ProductDataAccessException e) {
+			throw new RetailProductServiceException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Adds {@code delta} to the stock of a product only if it is still at the
+	 * version the caller read, see {@link Product#getVersion()}.
+	 *
+	 * @param productId       the ID of the product
+	 * @param delta           the amount to add, negative to take stock out
+	 * @param expectedVersion the version of the product the caller read
+	 * @return the ID of the product
+	 * @throws RetailProductServiceException if the delta is 0, if the product
+	 *                                       doesn't exist or has changed, if the
+	 *                                       stock would become negative or if a
+	 *                                       data access error occurs
+	 */
+	public int adjustStock(int productId, int delta, int expectedVersion) throws RetailProductServiceException {
+		if (delta == 0) {
+			throw new RetailProductServiceException("Stock adjustment cannot be 0");
+		}
+		try {
+			PRODUCT_DAO.adjustStock(productId, delta, expectedVersion);
+			return productId;
+		} catch (ProductDataAccessException e) {
+			throw new RetailProductServiceException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Takes {@code quantity} units of a product out of stock, failing instead of
+	 * letting the stock go negative.
+	 *
+	 * @param productId the ID of the product
+	 * @param quantity  the number of units to reserve
+	 * @return the ID of the product
+	 * @throws RetailProductServiceException if the quantity is not positive, if
+	 *                                       the product doesn't exist, if there
+	 *                                       isn't enough stock or if a data access
+	 *                                       error occurs
+	 */
+	public int reserveStock(int productId, int quantity) throws RetailProductServiceException {
+		if (quantity <= 0) {
+			throw new RetailProductServiceException("Quantity must be greater than 0");
+		}
+		try {
+			PRODUCT_DAO.reserveStock(productId, quantity);
+			return productId;
+		} catch (ProductDataAccessException e) {
+			throw new RetailProductServiceException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Computes the inventory valuation and the product count, stock and value
+	 * of every category. The data store aggregates where it can, and the
+	 * result is cached until the next write.
+	 *
+	 * @return the inventory totals
+	 * @throws RetailProductServiceException if a data access error occurs
+	 */
+	public InventorySummary getInventorySummary() throws RetailProductServiceException {
+		try {
+			return PRODUCT_DAO.getInventorySummary();
+		} catch (ProductDataAccessException e) {
+			throw new RetailProductServiceException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Retrieves the products with at most {@code threshold} units in stock,
+	 * lowest stock first. The report is cached until the next write.
+	 *
+	 * @param threshold the highest stock quantity reported
+	 * @param limit     the maximum number of products to return
+	 * @return the low-stock products
+	 * @throws RetailProductServiceException if the threshold or limit is out of
+	 *                                       range or if a data access error
+	 *                                       occurs
+	 */
+	public List<Product> getLowStockProducts(int threshold, int limit) throws RetailProductServiceException {
+		if (threshold < 0) {
+			throw new RetailProductServiceException("Stock threshold cannot be less than 0");
+		}
+		if (limit < 1 || limit > QueryConstants.MAX_PAGE_SIZE) {
+			throw new RetailProductServiceException(
+					"Page size must be between 1 and " + QueryConstants.MAX_PAGE_SIZE);
+		}
+		try {
+			return PRODUCT_DAO.getLowStockProducts(threshold, limit);
+		} catch (ProductDataAccessException e) {
+			throw new RetailProductServiceException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Registers a listener for the change events of every successful add,
+	 * update, delete and stock adjustment. Events are delivered asynchronously,
+	 * in batches, on the dispatcher thread.
+	 *
+	 * @param listener the listener
+	 */
+	public void subscribeToChanges(ProductChangeListener listener) {
+		changePublisher.subscribe(listener);
+	}
+
+	/**
+	 * Registers a listener that resumes from the change log: it first receives
+	 * the logged events after {@code afterSequence} and then live events.
+	 *
+	 * @param listener      the listener
+	 * @param afterSequence the last sequence the listener has processed
+	 * @throws RetailProductServiceException if the change log is not enabled
+	 */
+	public void subscribeToChanges(ProductChangeListener listener, long afterSequence)
+			throws RetailProductServiceException {
+		if (afterSequence < 0) {
+			throw new RetailProductServiceException("Sequence cannot be less than 0");
+		}
+		try {
+			changePublisher.subscribe(listener, afterSequence);
+		} catch (IllegalStateException e) {
+			throw new RetailProductServiceException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Removes a change listener.
+	 *
+	 * @param listener the listener
+	 */
+	public void unsubscribeFromChanges(ProductChangeListener listener) {
+		changePublisher.unsubscribe(listener);
+	}
+
+	/**
+	 * Returns the publish, dispatch and backlog counters of the change stream.
+	 *
+	 * @return a snapshot of the change stream counters
+	 */
+	public ChangeStreamStats getChangeStreamStats() {
+		return changePublisher.getStats();
+	}
+
+	/**
+	 * Returns the hit, miss and eviction counters of the product cache.
+	 *
+	 * @return a snapshot of the cache counters
+	 */
+	public CacheStats getProductCacheStats() {
+		return PRODUCT_CACHE.getStats();
+	}
+
+	/**
+	 * Returns how many product lookups ran their own query and how many shared
+	 * the query of a concurrent lookup of the same product.
+	 *
+	 * @return a snapshot of the coalescing counters
+	 */
+	public CoalescingStats getProductLookupStats() {
+		return PRODUCT_LOOKUPS.getStats();
+	}
+
+	/**
+	 * Returns the hit, miss and prepare time counters of the prepared statement
+	 * cache of the connection pool, all zero if the products are not stored in
+	 * the database.
+	 *
+	 * @return a snapshot of the statement cache counters
+	 */
+	public StatementCacheStats getStatementCacheStats() {
+		return DBUtil.getStatementCacheStats();
+	}
 }
@@ -0,0 +1,108 @@
+package com.litmus7.retailproductcatalog.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+import com.litmus7.retailproductcatalog.constant.DBConstants;
+
+/**
+ * Utility class that gives read access to the application configuration.
+ *
+ * <p>
+ * The configuration is loaded once from the {@code RetailDB.properties} file
+ * on the classpath, or from the classpath resource named by the
+ * {@code retaildb.config} system property if it is set. Typed getters fall
+ * back to a default value when a key is missing, so optional tuning keys don't
+ * have to be present in the file.
+ * </p>
+ *
+ * @author Muhammed Irfan
+ */
+public class ConfigUtil {
+
+	private static final Properties properties = new Properties();
+
+	/**
+	 * Static initializer block to load the configuration from the properties
+	 * file.
+	 *
+	 * <p>
+	 * If the properties file is not found or fails to load, a
+	 * {@link RuntimeException} is thrown to prevent the application from running
+	 * with invalid or missing config.
+	 * </p>
+	 */
+	static {
+		String propertiesFile = System.getProperty(DBConstants.DB_PROPERTIES_FILE_OVERRIDE_KEY,
+				DBConstants.DB_PROPERTIES_FILE);
+		try (InputStream input = ConfigUtil.class.getClassLoader().getResourceAsStream(propertiesFile)) {
+			if (input == null) {
+				throw new RuntimeException("Unable to find properties file");
+			}
+			properties.load(input);
+		} catch (IOException e) {
+			throw new RuntimeException("Failed to load DB configuration", e);
+		}
+	}
+
+	/**
+	 * Returns the value of the given key.
+	 *
+	 * @param key the property key
+	 * @return the value, or {@code null} if the key is not present
+	 */
+	public static String getString(String key) {
+		return properties.getProperty(key);
+	}
+
+	/**
+	 * Returns the value of the given key or a default value.
+	 *
+	 * @param key          the property key
+	 * @param defaultValue the value to return if the key is not present
+	 * @return the value of the key or {@code defaultValue}
+	 */
+	public static String getString(String key, String defaultValue) {
+		return properties.getProperty(key, defaultValue);
+	}
+
+	/**
+	 * Returns the value of the given key as an {@code int}.
+	 *
+	 * @param key          the property key
+	 * @param defaultValue the value to return if the key is not present
+	 * @return the parsed value or {@code defaultValue}
+	 * @throws NumberFormatException if the value is not a valid integer
+	 */
+	public static int getInt(String key, int defaultValue) {
+		String value = properties.getProperty(key);
+		return value == null || value.trim().isEmpty() ? defaultValue : Integer.parseInt(value.trim());
+	}
+
+	/**
+	 * Returns the value of the given key as a {@code long}.
+	 *
+	 * @param key          the property key
+	 * @param defaultValue the value to return if the key is not present
+	 * @return the parsed value or {@code defaultValue}
+	 * @throws NumberFormatException if the value is not a valid long
+	 */
+	public static long getLong(String key, long defaultValue) {
+		String value = properties.getProperty(key);
+		return value == null || value.trim().isEmpty() ? defaultValue : Long.parseLong(value.trim());
+	}
+
+	/**
+	 * Returns the value of the given key as a {@code boolean}.
+	 *
+	 * @param key          the property key
+	 * @param defaultValue the value to return if the key is not present
+	 * @return {@code true} if the value is {@code true} ignoring case, the
+	 *         default if it is missing, {@code false} otherwise
+	 */
+	public static boolean getBoolean(String key, boolean defaultValue) {
+		String value = properties.getProperty(key);
+		return value == null || value.trim().isEmpty() ? defaultValue : Boolean.parseBoolean(value.trim());
+	}
+}
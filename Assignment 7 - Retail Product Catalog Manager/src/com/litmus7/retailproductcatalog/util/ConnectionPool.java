@@ -0,0 +1,674 @@
+package com.litmus7.retailproductcatalog.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.litmus7.retailproductcatalog.dto.StatementCacheStats;
+import com.litmus7.retailproductcatalog.exception.DBConnectionException;
+
+/**
+ * A bounded, self-validating pool of JDBC connections.
+ *
+ * <p>
+ * Callers borrow a connection with {@link #getConnection()} and give it back by
+ * calling {@link Connection#close()} on it, so the usual try-with-resources
+ * pattern keeps working unchanged. The returned object is a proxy around a
+ * physical connection; closing it returns the physical connection to the pool
+ * instead of closing the socket.
+ * </p>
+ *
+ * <p>
+ * The pool never holds more than {@code maxSize} physical connections. A
+ * borrower waits at most {@code borrowTimeoutMillis} for a free connection.
+ * An idle connection is validated before it is handed out, unless it was
+ * returned less than {@code validationBypassMillis} ago. A background
+ * housekeeper keeps at least {@code minSize} connections open, evicts
+ * connections that have been idle longer than {@code idleTimeoutMillis}, and
+ * logs a warning naming the borrowing thread when a connection is held longer
+ * than {@code leakDetectionThresholdMillis}. The warning includes the stack
+ * trace of the borrow only if {@code leakStackTraces} is set, since capturing
+ * it costs more than the rest of a borrow.
+ * </p>
+ *
+ * <p>
+ * Each physical connection also keeps up to {@code statementCacheSize} of its
+ * prepared statements open, evicting the least recently used one when full.
+ * Preparing the same SQL again on that connection returns the open statement,
+ * which saves the parse and round trip of a server-side prepare. Closing a
+ * cached statement only resets it and makes it available again. Only
+ * {@code prepareStatement(sql)} and
+ * {@code prepareStatement(sql, resultSetType, resultSetConcurrency)} are
+ * cached; other variants always prepare a new statement.
+ * </p>
+ *
+ * @author Muhammed Irfan
+ */
+public class ConnectionPool {
+
+	private static final Logger LOGGER = Logger.getLogger(ConnectionPool.class.getName());
+
+	private final String url;
+	private final String username;
+	private final String password;
+	private final int minSize;
+	private final int maxSize;
+	private final long idleTimeoutMillis;
+	private final long borrowTimeoutMillis;
+	private final long leakDetectionThresholdMillis;
+	private final boolean leakStackTraces;
+	private final int validationTimeoutSeconds;
+	private final long validationBypassMillis;
+	private final int statementCacheSize;
+
+	private final Semaphore permits;
+	private final LinkedBlockingDeque<PooledConnection> idleConnections = new LinkedBlockingDeque<>();
+	private final Set<PooledConnection> borrowedConnections = ConcurrentHashMap.newKeySet();
+	private final AtomicInteger totalConnections = new AtomicInteger();
+	private final ScheduledExecutorService housekeeper;
+	private volatile boolean closed;
+
+	private final AtomicLong statementHitCount = new AtomicLong();
+	private final AtomicLong statementMissCount = new AtomicLong();
+	private final AtomicLong statementEvictionCount = new AtomicLong();
+	private final AtomicLong statementPrepareNanos = new AtomicLong();
+
+	/**
+	 * Creates a pool and starts its housekeeping task.
+	 *
+	 * @param url                          the JDBC url
+	 * @param username                     the database user
+	 * @param password                     the database password
+	 * @param minSize                      the number of connections kept open
+	 *                                     while idle
+	 * @param maxSize                      the maximum number of physical
+	 *                                     connections
+	 * @param idleTimeoutMillis            how long a connection above
+	 *                                     {@code minSize} may stay idle before it
+	 *                                     is closed
+	 * @param borrowTimeoutMillis          how long a borrower waits for a free
+	 *                                     connection
+	 * @param leakDetectionThresholdMillis how long a connection may be held
+	 *                                     before a leak warning is logged, or
+	 *                                     {@code 0} to disable leak detection
+	 * @param leakStackTraces              whether to capture the stack trace of
+	 *                                     every borrow for leak warnings
+	 * @param validationTimeoutSeconds     the timeout passed to
+	 *                                     {@link Connection#isValid(int)}
+	 * @param validationBypassMillis       how recently a connection must have
+	 *                                     been returned to be handed out without
+	 *                                     validation, or {@code 0} to validate on
+	 *                                     every borrow
+	 * @param statementCacheSize           the number of prepared statements
+	 *                                     kept open per connection, or {@code 0}
+	 *                                     to disable statement caching
+	 */
+	public ConnectionPool(String url, String username, String password, int minSize, int maxSize,
+			long idleTimeoutMillis, long borrowTimeoutMillis, long leakDetectionThresholdMillis,
+			boolean leakStackTraces, int validationTimeoutSeconds, long validationBypassMillis,
+			int statementCacheSize) {
+		if (maxSize < 1 || minSize < 0 || minSize > maxSize) {
+			throw new IllegalArgumentException("Invalid pool size, min: " + minSize + ", max: " + maxSize);
+		}
+		this.url = url;
+		this.username = username;
+		this.password = password;
+		this.minSize = minSize;
+		this.maxSize = maxSize;
+		this.idleTimeoutMillis = idleTimeoutMillis;
+		this.borrowTimeoutMillis = borrowTimeoutMillis;
+		this.leakDetectionThresholdMillis = leakDetectionThresholdMillis;
+		this.leakStackTraces = leakStackTraces;
+		this.validationTimeoutSeconds = validationTimeoutSeconds;
+		this.validationBypassMillis = validationBypassMillis;
+		this.statementCacheSize = statementCacheSize;
+		this.permits = new Semaphore(maxSize, true);
+
+		this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "connection-pool-housekeeper");
+			thread.setDaemon(true);
+			return thread;
+		});
+		long period = Math.max(1000L, Math.min(idleTimeoutMillis,
+				leakDetectionThresholdMillis > 0 ? leakDetectionThresholdMillis : idleTimeoutMillis) / 2);
+		housekeeper.scheduleWithFixedDelay(this::houseKeep, 0, period, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Borrows a connection from the pool.
+	 *
+	 * <p>
+	 * An idle connection is reused if it was returned recently or is still
+	 * valid; otherwise a new physical connection is opened. The caller must close the returned connection to give
+	 * it back.
+	 * </p>
+	 *
+	 * @return a valid {@link Connection}
+	 * @throws DBConnectionException if the pool is closed, no connection becomes
+	 *                               free within the borrow timeout, or a new
+	 *                               connection cannot be opened
+	 */
+	public Connection getConnection() throws DBConnectionException {
+		if (closed) {
+			throw new DBConnectionException("Connection pool is closed");
+		}
+		try {
+			if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+				throw new DBConnectionException(
+						"Timed out after " + borrowTimeoutMillis + "ms waiting for a database connection");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new DBConnectionException("Interrupted while waiting for a database connection", e);
+		}
+
+		try {
+			PooledConnection pooledConnection;
+			long now = System.currentTimeMillis();
+			while ((pooledConnection = idleConnections.pollFirst()) != null) {
+				if (isUsable(pooledConnection, now)) {
+					return lend(pooledConnection);
+				}
+				discard(pooledConnection);
+			}
+			totalConnections.incrementAndGet();
+			try {
+				pooledConnection = new PooledConnection(DriverManager.getConnection(url, username, password));
+			} catch (SQLException e) {
+				totalConnections.decrementAndGet();
+				throw new DBConnectionException("Couldn't connect to Database", e);
+			}
+			return lend(pooledConnection);
+		} catch (DBConnectionException | RuntimeException e) {
+			permits.release();
+			throw e;
+		}
+	}
+
+	/**
+	 * Closes all idle connections and stops the housekeeper. Borrowed connections
+	 * are closed when they are returned.
+	 */
+	public void close() {
+		closed = true;
+		housekeeper.shutdownNow();
+		PooledConnection pooledConnection;
+		while ((pooledConnection = idleConnections.pollFirst()) != null) {
+			discard(pooledConnection);
+		}
+	}
+
+	/**
+	 * @return the number of open physical connections
+	 */
+	public int getTotalConnections() {
+		return totalConnections.get();
+	}
+
+	/**
+	 * @return the number of connections currently waiting in the pool
+	 */
+	public int getIdleConnections() {
+		return idleConnections.size();
+	}
+
+	/**
+	 * @return the number of connections currently borrowed
+	 */
+	public int getActiveConnections() {
+		return borrowedConnections.size();
+	}
+
+	/**
+	 * @return the number of threads waiting for a connection
+	 */
+	public int getPendingBorrowers() {
+		return permits.getQueueLength();
+	}
+
+	/**
+	 * @return the maximum number of physical connections
+	 */
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * Returns the prepared statement cache counters of all connections.
+	 *
+	 * @return a snapshot of the statement cache counters
+	 */
+	public StatementCacheStats getStatementCacheStats() {
+		int size = 0;
+		for (PooledConnection pooledConnection : idleConnections) {
+			size += pooledConnection.cachedStatementCount();
+		}
+		for (PooledConnection pooledConnection : borrowedConnections) {
+			size += pooledConnection.cachedStatementCount();
+		}
+		return new StatementCacheStats(statementHitCount.get(), statementMissCount.get(),
+				statementEvictionCount.get(), statementPrepareNanos.get(), size);
+	}
+
+	private Connection lend(PooledConnection pooledConnection) {
+		pooledConnection.borrowedAt = System.currentTimeMillis();
+		pooledConnection.leakReported = false;
+		if (leakDetectionThresholdMillis > 0) {
+			pooledConnection.borrower = Thread.currentThread().getName();
+			pooledConnection.borrowSite = leakStackTraces ? new Throwable("Connection borrowed here") : null;
+		}
+		borrowedConnections.add(pooledConnection);
+		return pooledConnection.newHandle();
+	}
+
+	private void giveBack(PooledConnection pooledConnection) {
+		borrowedConnections.remove(pooledConnection);
+		try {
+			pooledConnection.releaseStatements();
+			Connection physical = pooledConnection.physical;
+			if (!closed && !physical.isClosed()) {
+				if (!physical.getAutoCommit()) {
+					physical.rollback();
+					physical.setAutoCommit(true);
+				}
+				physical.clearWarnings();
+				pooledConnection.lastReturnedAt = System.currentTimeMillis();
+				idleConnections.offerFirst(pooledConnection);
+			} else {
+				discard(pooledConnection);
+			}
+		} catch (SQLException e) {
+			discard(pooledConnection);
+		} finally {
+			permits.release();
+		}
+	}
+
+	private boolean isUsable(PooledConnection pooledConnection, long now) {
+		// a connection that was just in use is almost certainly still alive
+		if (now - pooledConnection.lastReturnedAt < validationBypassMillis) {
+			return true;
+		}
+		try {
+			return pooledConnection.physical.isValid(validationTimeoutSeconds);
+		} catch (SQLException e) {
+			return false;
+		}
+	}
+
+	private void discard(PooledConnection pooledConnection) {
+		totalConnections.decrementAndGet();
+		pooledConnection.forgetStatements();
+		try {
+			pooledConnection.physical.close();
+		} catch (SQLException e) {
+			LOGGER.log(Level.FINE, "Failed to close pooled connection", e);
+		}
+	}
+
+	private void houseKeep() {
+		try {
+			long now = System.currentTimeMillis();
+
+			Iterator<PooledConnection> iterator = idleConnections.descendingIterator();
+			while (iterator.hasNext() && totalConnections.get() > minSize) {
+				PooledConnection pooledConnection = iterator.next();
+				if (now - pooledConnection.lastReturnedAt > idleTimeoutMillis
+						&& idleConnections.removeLastOccurrence(pooledConnection)) {
+					discard(pooledConnection);
+				}
+			}
+
+			while (!closed && totalConnections.get() < minSize) {
+				if (totalConnections.incrementAndGet() > maxSize) {
+					totalConnections.decrementAndGet();
+					break;
+				}
+				try {
+					PooledConnection pooledConnection = new PooledConnection(
+							DriverManager.getConnection(url, username, password));
+					pooledConnection.lastReturnedAt = now;
+					idleConnections.offerLast(pooledConnection);
+				} catch (SQLException e) {
+					totalConnections.decrementAndGet();
+					LOGGER.log(Level.WARNING, "Couldn't open connection to keep the pool at its minimum size", e);
+					break;
+				}
+			}
+
+			if (leakDetectionThresholdMillis > 0) {
+				for (PooledConnection pooledConnection : borrowedConnections) {
+					if (!pooledConnection.leakReported
+							&& now - pooledConnection.borrowedAt > leakDetectionThresholdMillis) {
+						pooledConnection.leakReported = true;
+						LOGGER.log(Level.WARNING, "Connection held for more than " + leakDetectionThresholdMillis
+								+ "ms by thread " + pooledConnection.borrower + ", possible leak",
+								pooledConnection.borrowSite);
+					}
+				}
+			}
+		} catch (RuntimeException e) {
+			LOGGER.log(Level.WARNING, "Connection pool housekeeping failed", e);
+		}
+	}
+
+	/**
+	 * Tells whether the {@code prepareStatement} overload is one the statement
+	 * cache handles: {@code (String)} or {@code (String, int, int)}.
+	 */
+	private static boolean isCacheablePrepare(Method method) {
+		Class<?>[] parameterTypes = method.getParameterTypes();
+		return parameterTypes.length == 1
+				|| (parameterTypes.length == 3 && parameterTypes[1] == int.class && parameterTypes[2] == int.class);
+	}
+
+	/**
+	 * A physical connection together with its pool bookkeeping.
+	 */
+	private class PooledConnection {
+		private final Connection physical;
+		private volatile long borrowedAt;
+		private volatile long lastReturnedAt;
+		private volatile boolean leakReported;
+		private volatile String borrower;
+		private volatile Throwable borrowSite;
+		private final LinkedHashMap<StatementKey, CachedStatement> statements = new LinkedHashMap<>(16, 0.75f,
+				true);
+
+		private PooledConnection(Connection physical) {
+			this.physical = physical;
+		}
+
+		private Connection newHandle() {
+			return (Connection) Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(),
+					new Class<?>[] { Connection.class }, new Handle(this));
+		}
+
+		/**
+		 * Returns the cached statement for the SQL if it is free, or prepares and
+		 * caches a new one. If the cached statement is still in use by the
+		 * borrower, or the cache is full of statements in use, an uncached
+		 * statement is prepared instead.
+		 */
+		private synchronized PreparedStatement prepare(Connection handle, Object[] args) throws SQLException {
+			StatementKey key = args.length == 1 ? new StatementKey((String) args[0], ResultSet.TYPE_FORWARD_ONLY,
+					ResultSet.CONCUR_READ_ONLY) : new StatementKey((String) args[0], (Integer) args[1], (Integer) args[2]);
+			CachedStatement cachedStatement = statements.get(key);
+			if (cachedStatement != null && !cachedStatement.inUse) {
+				statementHitCount.incrementAndGet();
+				return cachedStatement.lend(handle);
+			}
+
+			statementMissCount.incrementAndGet();
+			long start = System.nanoTime();
+			PreparedStatement statement = physical.prepareStatement(key.sql, key.resultSetType,
+					key.resultSetConcurrency);
+			statementPrepareNanos.addAndGet(System.nanoTime() - start);
+			if (cachedStatement != null) {
+				return statement;
+			}
+
+			// make room before caching, so only statements nobody holds are evicted
+			Iterator<CachedStatement> eldest = statements.values().iterator();
+			while (statements.size() >= statementCacheSize && eldest.hasNext()) {
+				CachedStatement candidate = eldest.next();
+				if (!candidate.inUse) {
+					eldest.remove();
+					statementEvictionCount.incrementAndGet();
+					closeStatement(candidate.statement);
+				}
+			}
+			if (statements.size() >= statementCacheSize) {
+				return statement;
+			}
+
+			cachedStatement = new CachedStatement(this, statement);
+			statements.put(key, cachedStatement);
+			return cachedStatement.lend(handle);
+		}
+
+		/**
+		 * Resets a statement the borrower closed and makes it available again. A
+		 * statement that can't be reset is dropped from the cache.
+		 */
+		private synchronized void release(CachedStatement cachedStatement) {
+			if (!cachedStatement.inUse) {
+				return;
+			}
+			cachedStatement.inUse = false;
+			cachedStatement.lease++;
+			try {
+				PreparedStatement statement = cachedStatement.statement;
+				ResultSet resultSet = statement.getResultSet();
+				if (resultSet != null) {
+					resultSet.close();
+				}
+				statement.clearParameters();
+				statement.clearBatch();
+				statement.clearWarnings();
+				statement.setFetchSize(cachedStatement.initialFetchSize);
+			} catch (SQLException e) {
+				statements.values().remove(cachedStatement);
+				closeStatement(cachedStatement.statement);
+			}
+		}
+
+		/**
+		 * Releases the statements the borrower didn't close before returning the
+		 * connection.
+		 */
+		private synchronized void releaseStatements() {
+			for (CachedStatement cachedStatement : new ArrayList<>(statements.values())) {
+				release(cachedStatement);
+			}
+		}
+
+		/**
+		 * Drops every cached statement; they are closed with the physical
+		 * connection.
+		 */
+		private synchronized void forgetStatements() {
+			for (CachedStatement cachedStatement : statements.values()) {
+				cachedStatement.lease++;
+			}
+			statements.clear();
+		}
+
+		private synchronized int cachedStatementCount() {
+			return statements.size();
+		}
+	}
+
+	private static void closeStatement(PreparedStatement statement) {
+		try {
+			statement.close();
+		} catch (SQLException e) {
+			LOGGER.log(Level.FINE, "Failed to close cached statement", e);
+		}
+	}
+
+	/**
+	 * The SQL and result set options a statement was prepared with.
+	 */
+	private static final class StatementKey {
+		private final String sql;
+		private final int resultSetType;
+		private final int resultSetConcurrency;
+
+		private StatementKey(String sql, int resultSetType, int resultSetConcurrency) {
+			this.sql = sql;
+			this.resultSetType = resultSetType;
+			this.resultSetConcurrency = resultSetConcurrency;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (!(other instanceof StatementKey)) {
+				return false;
+			}
+			StatementKey key = (StatementKey) other;
+			return sql.equals(key.sql) && resultSetType == key.resultSetType
+					&& resultSetConcurrency == key.resultSetConcurrency;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(sql, resultSetType, resultSetConcurrency);
+		}
+	}
+
+	/**
+	 * A prepared statement kept open by its connection. Each time it is lent
+	 * out its lease number changes, so a handle from an earlier lease can't use
+	 * it any more.
+	 */
+	private static final class CachedStatement {
+		private final PooledConnection owner;
+		private final PreparedStatement statement;
+		private final int initialFetchSize;
+		private boolean inUse;
+		private long lease;
+
+		private CachedStatement(PooledConnection owner, PreparedStatement statement) throws SQLException {
+			this.owner = owner;
+			this.statement = statement;
+			this.initialFetchSize = statement.getFetchSize();
+		}
+
+		private PreparedStatement lend(Connection handle) {
+			inUse = true;
+			lease++;
+			return (PreparedStatement) Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(),
+					new Class<?>[] { PreparedStatement.class }, new StatementHandle(this, lease, handle));
+		}
+	}
+
+	/**
+	 * Proxy handler given to borrowers for a cached statement. Closing it
+	 * returns the statement to its connection's cache; any later use fails.
+	 */
+	private static final class StatementHandle implements InvocationHandler {
+		private final CachedStatement cachedStatement;
+		private final long lease;
+		private final Connection connection;
+
+		private StatementHandle(CachedStatement cachedStatement, long lease, Connection connection) {
+			this.cachedStatement = cachedStatement;
+			this.lease = lease;
+			this.connection = connection;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			String name = method.getName();
+			boolean current;
+			synchronized (cachedStatement.owner) {
+				current = cachedStatement.inUse && cachedStatement.lease == lease;
+			}
+			if ("close".equals(name)) {
+				if (current) {
+					cachedStatement.owner.release(cachedStatement);
+				}
+				return null;
+			}
+			if ("isClosed".equals(name)) {
+				return !current;
+			}
+			if ("getConnection".equals(name)) {
+				return connection;
+			}
+			if ("equals".equals(name)) {
+				return proxy == args[0];
+			}
+			if ("hashCode".equals(name)) {
+				return System.identityHashCode(proxy);
+			}
+			if ("toString".equals(name)) {
+				return "CachedStatement@" + Integer.toHexString(System.identityHashCode(proxy));
+			}
+			if (!current) {
+				throw new SQLException("Statement is closed");
+			}
+			try {
+				return method.invoke(cachedStatement.statement, args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		}
+	}
+
+	/**
+	 * Proxy handler given to borrowers. Closing it returns the physical
+	 * connection to the pool; any later use of the handle fails.
+	 */
+	private class Handle implements InvocationHandler {
+		private PooledConnection pooledConnection;
+
+		private Handle(PooledConnection pooledConnection) {
+			this.pooledConnection = pooledConnection;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			String name = method.getName();
+			if ("close".equals(name)) {
+				PooledConnection toReturn;
+				synchronized (this) {
+					toReturn = pooledConnection;
+					pooledConnection = null;
+				}
+				if (toReturn != null) {
+					giveBack(toReturn);
+				}
+				return null;
+			}
+			if ("isClosed".equals(name)) {
+				return pooledConnection == null;
+			}
+			if ("equals".equals(name)) {
+				return proxy == args[0];
+			}
+			if ("hashCode".equals(name)) {
+				return System.identityHashCode(proxy);
+			}
+			if ("toString".equals(name)) {
+				return "PooledConnection@" + Integer.toHexString(System.identityHashCode(proxy));
+			}
+			PooledConnection current = pooledConnection;
+			if (current == null) {
+				throw new SQLException("Connection is closed");
+			}
+			if ("prepareStatement".equals(name) && statementCacheSize > 0 && isCacheablePrepare(method)) {
+				return current.prepare((Connection) proxy, args);
+			}
+			try {
+				return method.invoke(current.physical, args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		}
+	}
+}
@@ -1,82 +1,106 @@
 package com.litmus7.retailproductcatalog.util;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
-import java.sql.SQLException;
-import java.util.Properties;
 
+import com.litmus7.retailproductcatalog.dto.StatementCacheStats;
 import com.litmus7.retailproductcatalog.exception.DBConnectionException;
 import com.litmus7.retailproductcatalog.constant.DBConstants;
 
-import java.io.IOException;
-import java.io.InputStream;
-
 /**
- * Utility class responsible for establishing database connections.
+ * Utility class responsible for handing out database connections.
  * 
  * <p>
  * This class reads database configuration properties from the
- * {@code userdb.properties} file and creates a {@link Connection} using
- * {@link DriverManager}.
+ * {@code RetailDB.properties} file through {@link ConfigUtil} and serves
+ * {@link Connection}s from a shared {@link ConnectionPool}. Closing a
+ * connection obtained here returns it to the pool.
+ * </p>
+ * 
+ * <p>
+ * The pool is created on the first borrow, so an application running on the
+ * in-memory or columnar DAO never connects to the database.
  * </p>
  * 
  * <p>
- * If the properties file is missing, unreadable, or the connection attempt
- * fails, it throws a {@link DBConnectionException}.
+ * If the connection attempt fails or no pooled connection becomes available in
+ * time, it throws a {@link DBConnectionException}.
  * </p>
  * 
  * @author Muhammed Irfan
  */
 public class DBUtil {
 
-	private static String url;
-	private static String username;
-	private static String password;
+	private static volatile ConnectionPool connectionPool;
 
 	/**
-	 * Static initializer block to load database configuration from a properties
-	 * file.
+	 * Borrows a connection to the database from the pool.
 	 * 
-	 * <p>
-	 * This block reads the database connection details such as URL, username, and
-	 * password from a properties file at class load time. The file is loaded using
-	 * the class loader, and its values are assigned to static fields.
-	 * </p>
 	 * 
-	 * <p>
-	 * If the properties file is not found or fails to load, a
-	 * {@link RuntimeException} is thrown to prevent the application from running
-	 * with invalid or missing DB config.
-	 * </p>
+	 * @return a valid {@link Connection} to the database
+	 * @throws DBConnectionException if the connection cannot be established
 	 */
-	static {
-		try (InputStream input = DBUtil.class.getClassLoader().getResourceAsStream(DBConstants.DB_PROPERTIES_FILE)) {
-			Properties props = new Properties();
-			if (input == null) {
-				throw new RuntimeException("Unable to find properties file");
-			}
-			props.load(input);
-			url = props.getProperty(DBConstants.DB_URL_KEY);
-			username = props.getProperty(DBConstants.DB_USERNAME_KEY);
-			password = props.getProperty(DBConstants.DB_PASSWORD_KEY);
+	public static Connection getConnection() throws DBConnectionException {
+		return getConnectionPool().getConnection();
+	}
 
-		} catch (IOException e) {
-			throw new RuntimeException("Failed to load DB configuration", e);
+	/**
+	 * Returns the shared connection pool, e.g. to read its size, creating it
+	 * if no connection has been borrowed yet.
+	 * 
+	 * @return the {@link ConnectionPool} behind {@link #getConnection()}
+	 */
+	public static ConnectionPool getConnectionPool() {
+		ConnectionPool pool = connectionPool;
+		if (pool == null) {
+			synchronized (DBUtil.class) {
+				pool = connectionPool;
+				if (pool == null) {
+					pool = createConnectionPool();
+					connectionPool = pool;
+				}
+			}
 		}
+		return pool;
 	}
 
 	/**
-	 * Establishes and returns a connection to the database.
-	 * 
+	 * Returns the statement cache counters of the pool, all zero if the pool
+	 * has not been created.
 	 * 
-	 * @return a valid {@link Connection} to the database
-	 * @throws DBConnectionException if the connection cannot be established
+	 * @return a snapshot of the statement cache counters
 	 */
-	public static Connection getConnection() throws DBConnectionException {
-		try {
-			return DriverManager.getConnection(url, username, password);
-		} catch (SQLException e) {
-			throw new DBConnectionException("Couldn't connect to Database", e);
+	public static StatementCacheStats getStatementCacheStats() {
+		ConnectionPool pool = connectionPool;
+		return pool == null ? new StatementCacheStats(0, 0, 0, 0, 0) : pool.getStatementCacheStats();
+	}
+
+	/**
+	 * Closes every idle pooled connection, if the pool has been created.
+	 * Intended to be called once on application shutdown.
+	 */
+	public static void closeConnectionPool() {
+		ConnectionPool pool = connectionPool;
+		if (pool != null) {
+			pool.close();
 		}
 	}
+
+	private static ConnectionPool createConnectionPool() {
+		return new ConnectionPool(
+				ConfigUtil.getString(DBConstants.DB_URL_KEY),
+				ConfigUtil.getString(DBConstants.DB_USERNAME_KEY),
+				ConfigUtil.getString(DBConstants.DB_PASSWORD_KEY),
+				ConfigUtil.getInt(DBConstants.POOL_MIN_SIZE_KEY, DBConstants.DEFAULT_POOL_MIN_SIZE),
+				ConfigUtil.getInt(DBConstants.POOL_MAX_SIZE_KEY, DBConstants.DEFAULT_POOL_MAX_SIZE),
+				ConfigUtil.getLong(DBConstants.POOL_IDLE_TIMEOUT_KEY, DBConstants.DEFAULT_POOL_IDLE_TIMEOUT),
+				ConfigUtil.getLong(DBConstants.POOL_BORROW_TIMEOUT_KEY, DBConstants.DEFAULT_POOL_BORROW_TIMEOUT),
+				ConfigUtil.getLong(DBConstants.POOL_LEAK_DETECTION_THRESHOLD_KEY,
+						DBConstants.DEFAULT_POOL_LEAK_DETECTION_THRESHOLD),
+				ConfigUtil.getBoolean(DBConstants.POOL_LEAK_DETECTION_STACK_TRACES_KEY,
+						DBConstants.DEFAULT_POOL_LEAK_DETECTION_STACK_TRACES),
+				ConfigUtil.getInt(DBConstants.POOL_VALIDATION_TIMEOUT_KEY, DBConstants.DEFAULT_POOL_VALIDATION_TIMEOUT),
+				ConfigUtil.getLong(DBConstants.POOL_VALIDATION_BYPASS_KEY, DBConstants.DEFAULT_POOL_VALIDATION_BYPASS),
+				ConfigUtil.getInt(DBConstants.POOL_STATEMENT_CACHE_SIZE_KEY,
+						DBConstants.DEFAULT_POOL_STATEMENT_CACHE_SIZE));
+	}
 }